@@ -3,6 +3,7 @@ package com.aliensattack.actions;
 import com.aliensattack.core.model.Position;
 import com.aliensattack.core.model.Unit;
 import com.aliensattack.field.ITacticalField;
+import com.aliensattack.field.ReachabilityMap;
 import com.aliensattack.combat.ICombatManager;
 import com.aliensattack.core.GameLogManager;
 import com.aliensattack.core.enums.ActionType;
@@ -310,7 +311,6 @@ public class ActionManager {
     
     public List<Position> getValidMovePositions(Unit unit) {
         List<Position> validPositions = new ArrayList<>();
-        Position currentPos = unit.getPosition();
         int maxRange = unit.getMovementRange();
         
         // Ограничиваем диапазон доступными AP
@@ -321,17 +321,12 @@ public class ActionManager {
                           ", maxRange=" + maxRange + ", availableAP=" + availableAP + 
                           ", effectiveRange=" + effectiveRange);
         
-        for (int x = 0; x < field.getWidth(); x++) {
-            for (int y = 0; y < field.getHeight(); y++) {
-                Position pos = new Position(x, y);
-                int distance = Math.abs(currentPos.getX() - x) + Math.abs(currentPos.getY() - y);
-                
-                if (distance <= effectiveRange && distance > 0) {
-                    // Проверяем, что позиция свободна
-                    if (field.getUnitAt(x, y) == null) {
-                        validPositions.add(pos);
-                    }
-                }
+        // Один проход Дейкстры на юнит: стены, местность и юниты учитываются,
+        // та же карта используется для стоимости хода и проверки перемещения
+        ReachabilityMap reachability = field.getReachability(unit, maxRange);
+        for (Position pos : reachability.getReachablePositions()) {
+            if (reachability.getCost(pos) <= effectiveRange) {
+                validPositions.add(pos);
             }
         }
         
@@ -348,6 +343,12 @@ public class ActionManager {
         int distance = Math.abs(currentPos.getX() - targetPosition.getX()) + 
                       Math.abs(currentPos.getY() - targetPosition.getY());
         
+        // Стоимость пути по карте достижимости, если клетка в пределах хода
+        int pathCost = field.getReachability(unit, unit.getMovementRange()).getCost(targetPosition);
+        if (pathCost > 0) {
+            distance = pathCost;
+        }
+        
         // Базовая стоимость движения
         int baseCost = ActionType.MOVE.getActionPointCost();
         
@@ -381,17 +382,8 @@ public class ActionManager {
             return false;
         }
         
-        // Проверяем, что позиция в пределах досягаемости
-        Position currentPos = unit.getPosition();
-        int distance = Math.abs(currentPos.getX() - targetPosition.getX()) + 
-                      Math.abs(currentPos.getY() - targetPosition.getY());
-        
-        if (distance > unit.getMovementRange()) {
-            return false;
-        }
-        
-        // Проверяем, что позиция свободна
-        if (field.getUnitAt(targetPosition.getX(), targetPosition.getY()) != null) {
+        // Проверяем, что позиция свободна и до неё есть путь в пределах досягаемости
+        if (!field.getReachability(unit, unit.getMovementRange()).isReachable(targetPosition)) {
             return false;
         }
         
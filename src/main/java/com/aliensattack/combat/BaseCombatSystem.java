@@ -6,6 +6,8 @@ import com.aliensattack.core.model.Position;
 import com.aliensattack.combat.CombatResult;
 import com.aliensattack.core.enums.CoverType;
 import com.aliensattack.core.enums.TerrainType;
+import com.aliensattack.field.ITacticalField;
+import com.aliensattack.field.SightLine;
 
 import java.util.List;
 import java.util.Random;
@@ -19,6 +21,7 @@ public abstract class BaseCombatSystem implements ICombatSystem {
     protected Random random;
     protected boolean combatActive;
     protected String missionType;
+    protected ITacticalField tacticalField; // Optional; supplies 3D sight and elevation when set
     
     // Combat statistics
     protected int totalDamageDealt;
@@ -146,7 +149,7 @@ public abstract class BaseCombatSystem implements ICombatSystem {
         int targetDodge = target.getDodgeChance();
         
         // Apply cover bonuses
-        CoverType cover = getCoverAtPosition(targetPosition);
+        CoverType cover = coverAgainst(attacker, targetPosition);
         int coverBonus = getCoverBonus(cover);
         
         // Apply height bonuses
@@ -235,18 +238,53 @@ public abstract class BaseCombatSystem implements ICombatSystem {
     
     @Override
     public boolean hasLineOfSight(IUnit attacker, Position targetPosition) {
-        // Simplified line of sight - can be enhanced with actual terrain checking
-        return true;
+        SightLine sight = sightLine(attacker, targetPosition);
+        return sight == null || sight.isClear();
+    }
+    
+    public void setTacticalField(ITacticalField tacticalField) {
+        this.tacticalField = tacticalField;
+    }
+    
+    public ITacticalField getTacticalField() {
+        return tacticalField;
+    }
+    
+    /**
+     * Field trace from the attacker to a position. Sight and height bonuses
+     * both read it, and the field caches it, so one shot traces once.
+     * @return null when no field is bound or a position is missing
+     */
+    protected SightLine sightLine(IUnit attacker, Position targetPosition) {
+        if (tacticalField == null || attacker == null || attacker.getPosition() == null || targetPosition == null) {
+            return null;
+        }
+        return tacticalField.traceSight(attacker.getPosition(), targetPosition);
+    }
+    
+    /**
+     * Cover the target position has towards the attacker, read from the
+     * field's directional cover table when a field is bound
+     */
+    protected CoverType coverAgainst(IUnit attacker, Position targetPosition) {
+        if (tacticalField == null || attacker == null || attacker.getPosition() == null || targetPosition == null) {
+            return getCoverAtPosition(targetPosition);
+        }
+        return tacticalField.getDirectionalCover(targetPosition, attacker.getPosition());
     }
     
     @Override
     public boolean isFlanking(IUnit attacker, IUnit target, Position targetPosition) {
-        // Simplified flanking calculation
         Position attackerPos = attacker.getPosition();
-        Position targetPos = target.getPosition();
+        Position targetPos = targetPosition != null ? targetPosition : target.getPosition();
         
         if (attackerPos == null || targetPos == null) return false;
         
+        if (tacticalField != null) {
+            return tacticalField.isFlankedFrom(targetPos, attackerPos);
+        }
+        
+        // Simplified flanking calculation without a field
         // Check if attacker is on opposite side of target
         int dx = Math.abs(attackerPos.getX() - targetPos.getX());
         int dy = Math.abs(attackerPos.getY() - targetPos.getY());
@@ -256,6 +294,10 @@ public abstract class BaseCombatSystem implements ICombatSystem {
     
     @Override
     public int getHeightDifference(IUnit attacker, IUnit target) {
+        SightLine sight = sightLine(attacker, target.getPosition());
+        if (sight != null) {
+            return sight.getElevationDifference();
+        }
         return attacker.getHeight() - target.getHeight();
     }
     
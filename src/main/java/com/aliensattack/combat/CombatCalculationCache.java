@@ -3,24 +3,26 @@ package com.aliensattack.combat;
 import lombok.extern.log4j.Log4j2;
 import lombok.Data;
 
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.Map;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.concurrent.TimeUnit;
+import com.aliensattack.core.collections.LongObjectHashMap;
 import com.aliensattack.core.config.GameConfig;
+import com.aliensattack.field.ZobristHash;
 
 /**
- * Cache system for combat calculations to improve performance
+ * Cache system for combat calculations to improve performance.
+ * Entries belong to one field state, identified by the field's state hash
+ * ({@code ITacticalField.getStateHash()}): a lookup with a different hash
+ * drops everything computed on the old state, so invalidation is exact and
+ * needs no TTL. Keys are 64-bit hashes of the calculation and its inputs.
  */
 @Log4j2
 public class CombatCalculationCache {
     
-    private static final int DEFAULT_CACHE_SIZE = 1000;
-    private static final long DEFAULT_TTL_MS = TimeUnit.MINUTES.toMillis(5);
-    
-    private final Map<String, CachedCalculation> cache;
+    private final LongObjectHashMap<Object> cache;
+    private final long[] insertionOrder; // Ring of keys, oldest is overwritten first
+    private int nextInsertion;
+    private long stateHash; // Field state the cached entries were computed on
     private final int maxCacheSize;
-    private final long ttlMs;
     
     // Performance metrics
     private final AtomicLong cacheHits = new AtomicLong(0);
@@ -28,101 +30,77 @@ public class CombatCalculationCache {
     private final AtomicLong cacheEvictions = new AtomicLong(0);
     
     public CombatCalculationCache() {
-        this.cache = new ConcurrentHashMap<>();
-        this.maxCacheSize = GameConfig.getCombatCacheDefaultSize(); // Use configuration instead of hardcoded 1000
-        this.ttlMs = DEFAULT_TTL_MS;
-        
-        // TODO: Implement comprehensive combat calculation cache system
-        // - Cache invalidation strategies
-        // - Memory management and cleanup
-        // - Cache performance monitoring
-        // - Cache statistics and analytics
-        // - Cache configuration management
+        this(GameConfig.getCombatCacheDefaultSize());
+    }
+    
+    public CombatCalculationCache(int maxCacheSize) {
+        this.maxCacheSize = Math.max(1, maxCacheSize);
+        this.cache = new LongObjectHashMap<>(this.maxCacheSize);
+        this.insertionOrder = new long[this.maxCacheSize];
     }
     
     /**
-     * Get cached calculation result
+     * Get cached calculation result for the given field state
      */
-    public <T> T get(String key, Class<T> resultType) {
-        CachedCalculation cached = cache.get(key);
+    public synchronized <T> T get(long stateHash, long key, Class<T> resultType) {
+        invalidateIfChanged(stateHash);
+        Object cached = cache.get(key);
         
-        if (cached != null && !cached.isExpired()) {
+        if (cached != null) {
             cacheHits.incrementAndGet();
-            log.debug("Cache hit for key: {}", key);
-            return resultType.cast(cached.getResult());
-        }
-        
-        if (cached != null && cached.isExpired()) {
-            cache.remove(key);
-            cacheEvictions.incrementAndGet();
+            return resultType.cast(cached);
         }
         
         cacheMisses.incrementAndGet();
-        log.debug("Cache miss for key: {}", key);
         return null;
     }
     
     /**
-     * Store calculation result in cache
+     * Store calculation result computed on the given field state
      */
-    public void put(String key, Object result) {
-        if (cache.size() >= maxCacheSize) {
-            evictExpiredEntries();
-            
-            if (cache.size() >= maxCacheSize) {
-                evictOldestEntry();
-            }
+    public synchronized void put(long stateHash, long key, Object result) {
+        invalidateIfChanged(stateHash);
+        if (cache.put(key, result) != null) {
+            return; // Replaced in place, keeps its age
         }
         
-        CachedCalculation cached = new CachedCalculation(result, System.currentTimeMillis() + ttlMs);
-        cache.put(key, cached);
-        log.debug("Cached calculation for key: {}", key);
+        // Full ring: the slot being reused holds the oldest key still cached
+        if (cache.size() > maxCacheSize && cache.remove(insertionOrder[nextInsertion]) != null) {
+            cacheEvictions.incrementAndGet();
+        }
+        insertionOrder[nextInsertion] = key;
+        nextInsertion = (nextInsertion + 1) % maxCacheSize;
     }
     
     /**
      * Generate cache key for combat calculation
      */
-    public static String generateKey(String calculationType, Object... params) {
-        StringBuilder keyBuilder = new StringBuilder(calculationType);
-        for (Object param : params) {
-            keyBuilder.append("_").append(param != null ? param.hashCode() : "null");
+    public static long generateKey(String calculationType, long... params) {
+        long key = calculationType.hashCode();
+        for (long param : params) {
+            key = ZobristHash.combine(key, param);
         }
-        return keyBuilder.toString();
-    }
-    
-    /**
-     * Clear expired entries from cache
-     */
-    private void evictExpiredEntries() {
-        long currentTime = System.currentTimeMillis();
-        cache.entrySet().removeIf(entry -> entry.getValue().isExpired(currentTime));
+        return key;
     }
     
     /**
-     * Evict oldest entry when cache is full
+     * Drops all entries once the field state has moved on
      */
-    private void evictOldestEntry() {
-        long oldestTime = Long.MAX_VALUE;
-        String oldestKey = null;
-        
-        for (Map.Entry<String, CachedCalculation> entry : cache.entrySet()) {
-            if (entry.getValue().getExpirationTime() < oldestTime) {
-                oldestTime = entry.getValue().getExpirationTime();
-                oldestKey = entry.getKey();
+    private void invalidateIfChanged(long currentStateHash) {
+        if (currentStateHash != stateHash) {
+            if (!cache.isEmpty()) {
+                cacheEvictions.addAndGet(cache.size());
+                log.debug("Field state changed, dropped {} cached calculations", cache.size());
+                cache.clear();
             }
-        }
-        
-        if (oldestKey != null) {
-            cache.remove(oldestKey);
-            cacheEvictions.incrementAndGet();
-            log.debug("Evicted oldest entry: {}", oldestKey);
+            stateHash = currentStateHash;
         }
     }
     
     /**
      * Clear entire cache
      */
-    public void clear() {
+    public synchronized void clear() {
         int size = cache.size();
         cache.clear();
         log.info("Cache cleared, removed {} entries", size);
@@ -131,9 +109,7 @@ public class CombatCalculationCache {
     /**
      * Get cache statistics
      */
-    public CacheStatistics getStatistics() {
-        evictExpiredEntries();
-        
+    public synchronized CacheStatistics getStatistics() {
         return new CacheStatistics(
             cache.size(),
             maxCacheSize,
@@ -155,14 +131,14 @@ public class CombatCalculationCache {
     /**
      * Get cache size
      */
-    public int getSize() {
+    public synchronized int getSize() {
         return cache.size();
     }
     
     /**
      * Check if cache is empty
      */
-    public boolean isEmpty() {
+    public synchronized boolean isEmpty() {
         return cache.isEmpty();
     }
     
@@ -179,18 +155,4 @@ public class CombatCalculationCache {
             return (double) currentSize / maxSize;
         }
     }
-    
-    @Data
-    private static class CachedCalculation {
-        private final Object result;
-        private final long expirationTime;
-        
-        public boolean isExpired() {
-            return isExpired(System.currentTimeMillis());
-        }
-        
-        public boolean isExpired(long currentTime) {
-            return currentTime > expirationTime;
-        }
-    }
 }
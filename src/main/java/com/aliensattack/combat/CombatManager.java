@@ -8,7 +8,6 @@ import com.aliensattack.core.events.EventBus;
 import com.aliensattack.core.config.GameConfig;
 import com.aliensattack.core.events.AttackEvent;
 import com.aliensattack.core.events.MoveEvent;
-import com.aliensattack.core.pool.ObjectPool;
 import lombok.extern.log4j.Log4j2;
 
 import java.util.List;
@@ -26,7 +25,6 @@ public class CombatManager {
     private final ICombatStrategy combatStrategy;
     private final ITacticalField tacticalField;
     private final EventBus eventBus;
-    private final ObjectPool<Position> positionPool;
     
     // Unit management
     private final Map<String, Unit> playerUnits = new ConcurrentHashMap<>();
@@ -47,7 +45,6 @@ public class CombatManager {
         this.combatStrategy = combatStrategy;
         this.tacticalField = tacticalField;
         this.eventBus = eventBus;
-        this.positionPool = com.aliensattack.core.pool.PoolFactory.createPositionPool();
         log.info("CombatManager initialized with strategy: {}", combatStrategy.getStrategyType());
     }
     
@@ -204,33 +201,6 @@ public class CombatManager {
         }
     }
     
-    /**
-     * Get position from pool for reuse
-     */
-    public Position acquirePosition(int x, int y) {
-        Position pos = positionPool.acquire();
-        pos.setX(x);
-        pos.setY(y);
-        return pos;
-    }
-    
-    /**
-     * Return position to pool
-     */
-    public void releasePosition(Position position) {
-        if (position != null) {
-            positionPool.release(position);
-        }
-    }
-    
-    /**
-     * Get pool statistics
-     */
-    public String getPoolStats() {
-        return String.format("PositionPool: %d/%d", 
-            positionPool.getPoolSize(), positionPool.getMaxSize());
-    }
-    
     /**
      * Detect if an attack was a critical hit
      */
@@ -2,10 +2,13 @@ package com.aliensattack.combat;
 
 import com.aliensattack.combat.interfaces.ICombatSystem;
 import com.aliensattack.core.interfaces.IUnit;
+import com.aliensattack.core.model.CombatUnit;
 import com.aliensattack.core.model.Position;
+import com.aliensattack.core.model.Unit;
 import com.aliensattack.core.enums.CoverType;
 import com.aliensattack.core.enums.TerrainType;
 import com.aliensattack.core.config.GameConfig;
+import com.aliensattack.field.SightLine;
 import lombok.extern.log4j.Log4j2;
 
 import java.util.List;
@@ -69,7 +72,7 @@ public class ConcreteCombatSystem extends BaseCombatSystem {
         int baseChance = GameConfig.getBaseHitChance();
         
         // Apply cover modifiers
-        CoverType cover = getCoverAtPosition(attackPosition);
+        CoverType cover = coverAgainst(attacker, attackPosition);
         int coverModifier = getCoverBonus(cover);
         
         // Apply range modifiers
@@ -148,16 +151,10 @@ public class ConcreteCombatSystem extends BaseCombatSystem {
         return distance <= attacker.getAttackRange();
     }
     
-    @Override
-    public boolean hasLineOfSight(IUnit attacker, Position targetPosition) {
-        // Simplified line of sight calculation
-        return true;
-    }
-    
     @Override
     public boolean isFlanking(IUnit attacker, IUnit target, Position targetPosition) {
-        // Simplified flanking calculation
-        return false;
+        // Only the field's directional cover table can tell a flank
+        return tacticalField != null && super.isFlanking(attacker, target, targetPosition);
     }
     
     @Override
@@ -167,6 +164,10 @@ public class ConcreteCombatSystem extends BaseCombatSystem {
     
     @Override
     public int getHeightDifference(IUnit attacker, IUnit target) {
+        SightLine sight = sightLine(attacker, target.getPosition());
+        if (sight != null) {
+            return sight.getElevationDifference();
+        }
         return attacker.getPosition().getHeight() - target.getPosition().getHeight();
     }
     
@@ -224,7 +225,13 @@ public class ConcreteCombatSystem extends BaseCombatSystem {
     
     @Override
     public boolean canUseSquadSight(IUnit attacker, IUnit target, List<IUnit> allies) {
-        // Simplified squad sight check
+        // The side's fog of war already is the union of the allies' views
+        if (attacker instanceof Unit unit) {
+            return unit.isTargetVisibleThroughSquadSight(target, tacticalField);
+        }
+        if (attacker instanceof CombatUnit combatUnit) {
+            return combatUnit.isTargetVisibleThroughSquadSight(target, tacticalField);
+        }
         return false;
     }
     
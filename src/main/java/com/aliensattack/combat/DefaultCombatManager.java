@@ -107,6 +107,9 @@ public class DefaultCombatManager extends BaseCombatManager implements ICombatMa
             int damage = attacker.getAttackDamage();
             boolean killed = target.takeDamage(damage);
             attacker.spendActionPoint();
+            if (killed) {
+                field.onUnitStateChanged(target);
+            }
             
             log.info("Attack successful: {} hit {} for {} damage (killed: {})", 
                     attacker.getName(), target.getName(), damage, killed);
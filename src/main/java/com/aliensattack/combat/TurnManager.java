@@ -3,13 +3,20 @@ package com.aliensattack.combat;
 import com.aliensattack.combat.interfaces.ICombatManagerExtended;
 import com.aliensattack.core.model.Unit;
 import com.aliensattack.core.model.Alien;
+import com.aliensattack.core.model.Position;
 import com.aliensattack.core.interfaces.IUnit;
+import com.aliensattack.core.ai.AnytimePlan;
 import com.aliensattack.core.ai.EnemyAI;
+import com.aliensattack.core.ai.OllamaBasedEnemyAI;
 import com.aliensattack.core.ai.OllamaAIFactory;
 import com.aliensattack.core.ai.interfaces.IEnemyAI;
 import com.aliensattack.core.enums.UnitType;
 import com.aliensattack.field.ITacticalField;
+import com.aliensattack.field.VisibilityMatrix;
 import com.aliensattack.core.config.GameConfig;
+import com.aliensattack.core.performance.AdaptiveAIBudget;
+import com.aliensattack.core.performance.DecisionBudget;
+import com.aliensattack.core.performance.PerformanceManager;
 
 import lombok.Getter;
 import lombok.Setter;
@@ -17,6 +24,8 @@ import lombok.extern.log4j.Log4j2;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Turn Manager for tactical combat
@@ -240,7 +249,13 @@ public class TurnManager {
     }
     
     /**
-     * Execute AI turns for all enemies
+     * Execute AI turns for all enemies in two phases. Every alien plans
+     * concurrently against a frozen snapshot of the field; the plans are then
+     * validated and committed one by one in initiative order. A plan that an
+     * earlier commit invalidated (its tile was taken, its target killed) is
+     * re-planned against the live field.
+     * Planning is anytime: each alien gets a slice of the adaptive phase
+     * budget and whatever it has found best when the slice ends is committed.
      */
     private void executeEnemyTurns() {
         List<Unit> enemyUnits = tacticalField.getEnemyUnits();
@@ -250,114 +265,253 @@ public class TurnManager {
             return;
         }
         
-        log.info("Выполнение ходов {} врагов", enemyUnits.size());
-        
+        List<Unit> acting = new ArrayList<>();
         for (Unit enemyUnit : enemyUnits) {
-            if (enemyUnit.isAlive() && enemyUnit.getActionPoints() > 0) {
-                executeEnemyTurn(enemyUnit);
+            if (enemyUnit.isAlive() && enemyUnit.getActionPoints() > 0
+                    && enemyUnit.getUnitType() == UnitType.ALIEN) {
+                acting.add(enemyUnit);
+            }
+        }
+        // Stable sort: ties keep field order, so the commit order is deterministic
+        acting.sort((u1, u2) -> Integer.compare(getUnitInitiative(u2), getUnitInitiative(u1)));
+        
+        log.info("Выполнение ходов {} врагов", acting.size());
+        
+        // Phase 1: plan concurrently against a snapshot nobody mutates
+        AdaptiveAIBudget budget = PerformanceManager.getInstance().getAIBudget();
+        long phaseStart = System.nanoTime();
+        DecisionBudget planning = budget.phaseBudget(acting.size());
+        long alienMillis = budget.alienMillis(acting.size());
+        ITacticalField snapshot = tacticalField.snapshot();
+        VisibilityMatrix<Unit> sight = computePhaseSight(snapshot);
+        int podSize = GameConfig.getInt("ollama.pod.batch.size", 8);
+        List<EnemyPlan> plans = new ArrayList<>(acting.size());
+        List<Integer> podSlots = new ArrayList<>(); // Plans of Ollama aliens, filled per pod below
+        for (Unit enemyUnit : acting) {
+            IEnemyAI ai = getOrCreateAI(enemyUnit);
+            if (ai == null) {
+                continue;
+            }
+            ai.setPhaseSight(snapshot, sight);
+            if (podSize > 1 && ai instanceof OllamaBasedEnemyAI ollamaAI && ollamaAI.canPlanInPod()) {
+                podSlots.add(plans.size());
+                plans.add(new EnemyPlan(enemyUnit, ai, null));
+            } else {
+                plans.add(new EnemyPlan(enemyUnit, ai, planTurn(ai, snapshot, enemyUnit, alienMillis)));
+            }
+        }
+        planPods(plans, podSlots, podSize, snapshot, alienMillis);
+        
+        // Phase 2: validate and commit serially
+        int replanned = 0;
+        for (EnemyPlan plan : plans) {
+            Unit enemyUnit = plan.unit();
+            if (!enemyUnit.isAlive()) {
+                continue;
+            }
+            
+            IEnemyAI.AITurnDecision decision = awaitPlan(enemyUnit, plan.plan(), planning);
+            if (decision != null && !isPlanValid(enemyUnit, decision)) {
+                log.debug("План {} устарел ({} -> {})", enemyUnit.getName(),
+                        decision.getPrimaryAction(), decision.getTargetPosition());
+                if (plan.plan() != null && !plan.plan().isDone()) {
+                    // The abandoned search is still running; a second one would overlap it
+                    decision = null;
+                } else {
+                    replanned++;
+                    decision = awaitPlan(enemyUnit, planTurn(plan.ai(), tacticalField, enemyUnit,
+                            budget.actionMillis()), DecisionBudget.ofMillis(GameConfig.getAIEnemyPlanTimeout()));
+                }
+                if (decision == null || !isPlanValid(enemyUnit, decision)) {
+                    decision = new IEnemyAI.AITurnDecision("defend", "none", enemyUnit.getPosition(), null,
+                            "Planned move still blocked, holding position", 0.3);
+                }
+            }
+            
+            if (decision != null) {
+                long commitStart = System.nanoTime();
+                commitPlan(enemyUnit, plan.ai(), decision);
+                budget.record(AdaptiveAIBudget.COMMIT, System.nanoTime() - commitStart);
             }
         }
+        
+        budget.recordPhase(System.nanoTime() - phaseStart);
+        log.info("Ходы врагов выполнены: {} планов, {} перепланировано, {}мс на пришельца", plans.size(),
+                replanned, alienMillis);
     }
     
     /**
-     * Execute AI turn for a single enemy
+     * Planned turn of one alien awaiting its commit
      */
-    private void executeEnemyTurn(Unit enemyUnit) {
-        if (enemyUnit.getUnitType() != UnitType.ALIEN) {
-            return;
+    private record EnemyPlan(Unit unit, IEnemyAI ai, AnytimePlan plan) {}
+    
+    /**
+     * Plans the Ollama aliens in pods of consecutive acting aliens: one LLM
+     * request per pod instead of one per alien, since its latency is paid per request
+     */
+    private void planPods(List<EnemyPlan> plans, List<Integer> slots, int podSize, ITacticalField view,
+                          long budgetMillis) {
+        for (int start = 0; start < slots.size(); start += podSize) {
+            List<Integer> podSlots = slots.subList(start, Math.min(slots.size(), start + podSize));
+            List<OllamaBasedEnemyAI> pod = new ArrayList<>(podSlots.size());
+            for (int slot : podSlots) {
+                pod.add((OllamaBasedEnemyAI) plans.get(slot).ai());
+            }
+            
+            List<AnytimePlan> podPlans = null;
+            try {
+                podPlans = OllamaBasedEnemyAI.planPod(pod, view, budgetMillis);
+                log.debug("Под из {} пришельцев планируется одним запросом к Ollama", pod.size());
+            } catch (Exception e) {
+                log.error("❌ Ошибка планирования пода из {} пришельцев: {}", pod.size(), e.getMessage());
+            }
+            for (int i = 0; i < podSlots.size(); i++) {
+                EnemyPlan plan = plans.get(podSlots.get(i));
+                AnytimePlan anytime = podPlans != null
+                        ? podPlans.get(i) : planTurn(plan.ai(), view, plan.unit(), budgetMillis);
+                plans.set(podSlots.get(i), new EnemyPlan(plan.unit(), plan.ai(), anytime));
+            }
+        }
+    }
+    
+    /**
+     * Visibility of all living soldiers from all living aliens on the phase
+     * snapshot, computed in one batched call for every planner
+     */
+    private VisibilityMatrix<Unit> computePhaseSight(ITacticalField view) {
+        List<Unit> aliens = new ArrayList<>();
+        for (Unit unit : view.getEnemyUnits()) {
+            if (unit.isAlive()) {
+                aliens.add(unit);
+            }
+        }
+        List<Unit> soldiers = new ArrayList<>();
+        for (Unit unit : view.getPlayerUnits()) {
+            if (unit.isAlive()) {
+                soldiers.add(unit);
+            }
+        }
+        return view.computeVisibilityMatrix(aliens, soldiers);
+    }
+    
+    private AnytimePlan planTurn(IEnemyAI ai, ITacticalField view, Unit enemyUnit, long budgetMillis) {
+        try {
+            return ai.planAnytime(view, budgetMillis);
+        } catch (Exception e) {
+            log.error("❌ Ошибка планирования хода для {}: {}", enemyUnit.getName(), e.getMessage());
+            return AnytimePlan.completed(null);
+        }
+    }
+    
+    /**
+     * Waits for a plan until the alien's budget or the deadline ends and takes
+     * the best decision found so far; a plan with none skips the alien's turn
+     */
+    private IEnemyAI.AITurnDecision awaitPlan(Unit enemyUnit, AnytimePlan plan, DecisionBudget deadline) {
+        try {
+            IEnemyAI.AITurnDecision decision = plan.await(deadline);
+            if (plan.isCancelled()) {
+                log.debug("План {} прерван по бюджету, глубина поиска {}", enemyUnit.getName(), plan.getDepth());
+            }
+            if (decision == null) {
+                log.warn("⚠️ AI не успел спланировать ход для {}", enemyUnit.getName());
+            }
+            return decision;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            log.error("❌ Ошибка получения решения AI для {}: {}", enemyUnit.getName(), e.getCause().getMessage());
+        }
+        return null;
+    }
+    
+    /**
+     * Checks a plan made on the snapshot against the live field, which
+     * already holds the commits of the aliens that acted earlier
+     */
+    private boolean isPlanValid(Unit enemyUnit, IEnemyAI.AITurnDecision decision) {
+        Unit target = decision.getTargetUnit();
+        if (target != null && !target.isAlive()) {
+            return false;
+        }
+        
+        if (!"move_to_position".equals(decision.getPrimaryAction())) {
+            return true;
+        }
+        
+        Position destination = decision.getTargetPosition();
+        if (destination == null || !tacticalField.isValidPosition(destination)) {
+            return false;
+        }
+        if (destination.equals(enemyUnit.getPosition())) {
+            return true;
+        }
+        
+        Unit occupant = tacticalField.getUnitAt(destination);
+        if (occupant != null && occupant != enemyUnit) {
+            return false;
+        }
+        return tacticalField.getReachability(enemyUnit, enemyUnit.getMovementRange()).isReachable(destination);
+    }
+    
+    /**
+     * Applies a validated plan: the move on the field first, then the AI's own execution of it,
+     * which takes the move as already made. Returns whether the AI carried the decision out
+     */
+    boolean commitPlan(Unit enemyUnit, IEnemyAI ai, IEnemyAI.AITurnDecision decision) {
+        log.info("🤖 Решение AI для {}: {} -> {}", enemyUnit.getName(),
+                decision.getPrimaryAction(), decision.getSecondaryAction());
+        
+        Position destination = decision.getTargetPosition();
+        if ("move_to_position".equals(decision.getPrimaryAction()) && destination != null
+                && !destination.equals(enemyUnit.getPosition())
+                && !tacticalField.moveUnit(enemyUnit, destination.getX(), destination.getY())) {
+            log.warn("❌ Не удалось переместить {} в {}", enemyUnit.getName(), destination);
+            return false;
         }
         
         try {
-            // Get AI for this enemy unit
-            IEnemyAI ai = enemyAIs.get(enemyUnit.getName());
+            boolean executed = ai.executeDecision(decision)
+                    .get(GameConfig.getAIEnemyPlanTimeout(), TimeUnit.MILLISECONDS);
+            if (executed) {
+                log.info("✅ Действие AI выполнено для {}", enemyUnit.getName());
+            } else {
+                log.warn("❌ Действие AI не удалось для {}", enemyUnit.getName());
+            }
+            return executed;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("❌ Ошибка выполнения действия AI для {}: {}", enemyUnit.getName(), e.getMessage());
+        }
+        return false;
+    }
+    
+    /**
+     * AI of an enemy unit, created on demand for units that joined without one
+     */
+    private IEnemyAI getOrCreateAI(Unit enemyUnit) {
+        IEnemyAI ai = enemyAIs.get(enemyUnit.getName());
+        if (ai != null) {
+            return ai;
+        }
+        
+        log.warn("⚠️ AI не найден для вражеского юнита: {}", enemyUnit.getName());
+        try {
+            log.info("🔧 Попытка создать AI для {}", enemyUnit.getName());
             
-            if (ai != null) {
-                log.info("🤖 Выполнение хода AI для врага: {} (AP: {})", enemyUnit.getName(), enemyUnit.getActionPoints());
-                
-                // For Ollama-based AI, we need to get the decision first, then execute it
-                if (ai.isOllamaEnabled()) {
-                    log.info("🤖 Используется Ollama AI для {}", enemyUnit.getName());
-                    
-                    // Get AI decision first
-                    ai.makeTurnDecision().thenAccept(decision -> {
-                        if (decision != null) {
-                            log.info("🤖 Ollama решение для {}: {} -> {} (уверенность: {:.2f})", 
-                                    enemyUnit.getName(), decision.getPrimaryAction(), 
-                                    decision.getSecondaryAction(), decision.getConfidence());
-                            
-                            // Execute the decision
-                            ai.executeAction().thenAccept(actionExecuted -> {
-                                if (actionExecuted) {
-                                    log.info("✅ Ollama действие выполнено успешно для {}", enemyUnit.getName());
-                                } else {
-                                    log.warn("❌ Ollama действие не удалось для {}", enemyUnit.getName());
-                                }
-                            }).exceptionally(throwable -> {
-                                log.error("❌ Ошибка выполнения Ollama действия для {}: {}", 
-                                         enemyUnit.getName(), throwable.getMessage());
-                                return null;
-                            });
-                        } else {
-                            log.warn("⚠️ Ollama не вернул решение для {}", enemyUnit.getName());
-                        }
-                    }).exceptionally(throwable -> {
-                        log.error("❌ Ошибка получения решения Ollama для {}: {}", 
-                                 enemyUnit.getName(), throwable.getMessage());
-                        return null;
-                    });
-                } else {
-                    log.info("🤖 Используется стандартный AI для {}", enemyUnit.getName());
-                    
-                    // Standard AI flow
-                    ai.makeTurnDecision().thenAccept(decision -> {
-                        if (decision != null) {
-                            log.info("🤖 Стандартное AI решение для {}: {} -> {}", 
-                                    enemyUnit.getName(), decision.getPrimaryAction(), 
-                                    decision.getSecondaryAction());
-                            
-                            // Execute AI action
-                            ai.executeAction().thenAccept(actionExecuted -> {
-                                if (actionExecuted) {
-                                    log.info("✅ Стандартное AI действие выполнено успешно для {}", enemyUnit.getName());
-                                } else {
-                                    log.warn("❌ Стандартное AI действие не удалось для {}", enemyUnit.getName());
-                                }
-                            }).exceptionally(throwable -> {
-                                log.error("❌ Ошибка выполнения стандартного AI действия для {}: {}", 
-                                         enemyUnit.getName(), throwable.getMessage());
-                                return null;
-                            });
-                        }
-                    }).exceptionally(throwable -> {
-                        log.error("❌ Ошибка получения стандартного AI решения для {}: {}", 
-                                 enemyUnit.getName(), throwable.getMessage());
-                        return null;
-                    });
-                }
+            // Use OllamaAIFactory to create appropriate AI
+            IEnemyAI newAI = OllamaAIFactory.createAI(enemyUnit, tacticalField, combatManager);
+            if (newAI != null) {
+                enemyAIs.put(enemyUnit.getName(), newAI);
+                log.info("✅ AI создан для {}", enemyUnit.getName());
             } else {
-                log.warn("⚠️ AI не найден для вражеского юнита: {}", enemyUnit.getName());
-                
-                // Try to create AI for this alien unit
-                try {
-                    log.info("🔧 Попытка создать AI для {}", enemyUnit.getName());
-                    
-                    // Use OllamaAIFactory to create appropriate AI
-                    IEnemyAI newAI = OllamaAIFactory.createAI(enemyUnit, tacticalField, combatManager);
-                    if (newAI != null) {
-                        enemyAIs.put(enemyUnit.getName(), newAI);
-                        log.info("✅ AI создан для {}", enemyUnit.getName());
-                        
-                        // Retry the turn execution
-                        executeEnemyTurn(enemyUnit);
-                    } else {
-                        log.error("❌ Не удалось создать AI для {}", enemyUnit.getName());
-                    }
-                } catch (Exception e) {
-                    log.error("❌ Ошибка создания AI для {}: {}", enemyUnit.getName(), e.getMessage());
-                }
+                log.error("❌ Не удалось создать AI для {}", enemyUnit.getName());
             }
+            return newAI;
         } catch (Exception e) {
-            log.error("❌ Ошибка выполнения хода AI для врага {}: {}", enemyUnit.getName(), e.getMessage());
+            log.error("❌ Ошибка создания AI для {}: {}", enemyUnit.getName(), e.getMessage());
+            return null;
         }
     }
     
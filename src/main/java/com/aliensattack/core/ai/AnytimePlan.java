@@ -0,0 +1,159 @@
+package com.aliensattack.core.ai;
+
+import com.aliensattack.core.ai.interfaces.IEnemyAI.AITurnDecision;
+import com.aliensattack.core.performance.DecisionBudget;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Decision of one alien refined in the background. The planner offers a
+ * complete decision as soon as it has one and replaces it with better ones
+ * as its search deepens; whoever waits for the plan takes the best decision
+ * so far when the alien's time is up, and the planner stops at its next check.
+ * The time budget starts when the planner begins, so aliens queued behind
+ * others on the planning threads still get their full slice.
+ */
+public final class AnytimePlan {
+    private static final long POLL_NANOS = 5_000_000L; // Recheck interval while the planner has not begun
+
+    private final long budgetMillis;
+    private final CompletableFuture<AITurnDecision> result = new CompletableFuture<>();
+    private volatile DecisionBudget budget;
+    private volatile AITurnDecision best;
+    private volatile int depth = -1;
+    private volatile boolean cancelled;
+
+    public AnytimePlan(long budgetMillis) {
+        this.budgetMillis = budgetMillis;
+    }
+
+    /**
+     * Plan whose final decision is already known
+     */
+    public static AnytimePlan completed(AITurnDecision decision) {
+        AnytimePlan plan = new AnytimePlan(0);
+        plan.begin();
+        plan.complete(decision);
+        return plan;
+    }
+
+    /**
+     * Wraps a planner without intermediate results: only its final decision counts
+     */
+    public static AnytimePlan of(CompletableFuture<AITurnDecision> decision, long budgetMillis) {
+        AnytimePlan plan = new AnytimePlan(budgetMillis);
+        plan.begin();
+        decision.whenComplete((value, error) -> {
+            if (error == null) {
+                plan.complete(value);
+            } else {
+                plan.fail(error);
+            }
+        });
+        return plan;
+    }
+
+    /**
+     * Starts the alien's time budget; called by the planner when it begins work
+     */
+    public synchronized DecisionBudget begin() {
+        if (budget == null) {
+            budget = DecisionBudget.ofMillis(budgetMillis);
+        }
+        return budget;
+    }
+
+    /**
+     * Offers a complete decision found at the given search depth; it replaces
+     * the best so far unless that one came from a deeper search
+     */
+    public synchronized void offer(AITurnDecision decision, int searchDepth) {
+        if (decision == null || result.isDone() || searchDepth < depth) return;
+        best = decision;
+        depth = searchDepth;
+    }
+
+    /**
+     * Final decision of a search that ran to the end (or stopped at the budget)
+     */
+    public void complete(AITurnDecision decision) {
+        offer(decision, Integer.MAX_VALUE);
+        result.complete(best);
+    }
+
+    /**
+     * Ends a failed search, keeping the best decision found before the failure
+     */
+    public void fail(Throwable error) {
+        if (best != null) {
+            result.complete(best);
+        } else {
+            result.completeExceptionally(error);
+        }
+    }
+
+    /**
+     * Whether the planner should stop refining: out of time, abandoned or interrupted
+     */
+    public boolean shouldStop() {
+        DecisionBudget current = budget;
+        return cancelled || result.isDone() || (current != null && current.isExpired())
+                || Thread.currentThread().isInterrupted();
+    }
+
+    /**
+     * Whether a refinement step expected to take the given time still fits
+     */
+    public boolean canAfford(long estimatedNanos) {
+        DecisionBudget current = budget;
+        return !shouldStop() && (current == null || current.canAfford(estimatedNanos));
+    }
+
+    /**
+     * Waits for the final decision until the alien's own budget or the
+     * phase deadline runs out, then abandons the search and returns the best
+     * decision so far (null if the planner had not offered one yet)
+     */
+    public AITurnDecision await(DecisionBudget phase) throws InterruptedException, ExecutionException {
+        while (!result.isDone()) {
+            DecisionBudget own = budget;
+            long wait = phase.remainingNanos();
+            wait = own != null ? Math.min(wait, own.remainingNanos()) : Math.min(wait, POLL_NANOS);
+            if (wait <= 0) {
+                break;
+            }
+            try {
+                return result.get(wait, TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                // Recheck the deadlines: the planner may only just have begun
+            }
+        }
+        if (result.isDone()) {
+            return result.get();
+        }
+        cancelled = true;
+        return best;
+    }
+
+    public AITurnDecision getBest() {
+        return best;
+    }
+
+    /**
+     * Search depth of the best decision so far, -1 before the first offer
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    public boolean isDone() {
+        return result.isDone();
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
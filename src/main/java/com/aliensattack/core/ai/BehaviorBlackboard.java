@@ -0,0 +1,113 @@
+package com.aliensattack.core.ai;
+
+import com.aliensattack.core.model.Alien;
+import com.aliensattack.core.model.Unit;
+
+import java.util.List;
+import java.util.Random;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Facts a compiled behavior tree decides on. Every decision fills its own,
+ * so the targets are searched once per decision instead of once per branch.
+ * Facts that are expensive and rarely needed, like whether a better tile is
+ * in reach, are computed only when a branch asks. Not thread-safe: confined
+ * to the decision that filled it.
+ */
+public final class BehaviorBlackboard {
+    private final BooleanSupplier betterPosition;
+    private Random random;
+    private List<Unit> targets = List.of();
+    private double actionPoints;
+    private double healthRatio;
+    private int difficultyLevel;
+    private boolean psionics;
+    private boolean aggressive;
+    private String squadTactic;
+    private CompiledBehaviorTree.Action action;
+
+    /**
+     * @param betterPosition whether a better tile than the current one is in reach
+     */
+    public BehaviorBlackboard(BooleanSupplier betterPosition) {
+        this.betterPosition = betterPosition;
+    }
+
+    /**
+     * Refills the facts for a new decision
+     * @param targets visible targets in range, best first
+     */
+    public void load(Alien alien, List<Unit> targets, int difficultyLevel, boolean aggressive, Random random) {
+        this.targets = targets;
+        this.actionPoints = alien.getActionPoints();
+        this.healthRatio = alien.getMaxHealth() > 0 ? (double) alien.getCurrentHealth() / alien.getMaxHealth() : 0.0;
+        this.difficultyLevel = difficultyLevel;
+        this.psionics = !alien.getPsionicAbilities().isEmpty();
+        this.aggressive = aggressive;
+        this.random = random;
+        this.squadTactic = null;
+        this.action = null;
+    }
+
+    /**
+     * Name of the squad tactic this alien takes part in this turn, null if none
+     */
+    public void setSquadTactic(String squadTactic) {
+        this.squadTactic = squadTactic;
+    }
+
+    public String getSquadTactic() {
+        return squadTactic;
+    }
+
+    public List<Unit> getTargets() {
+        return targets;
+    }
+
+    public int getTargetCount() {
+        return targets.size();
+    }
+
+    public double getActionPoints() {
+        return actionPoints;
+    }
+
+    public boolean hasPsionics() {
+        return psionics;
+    }
+
+    public boolean isAggressive() {
+        return aggressive;
+    }
+
+    /**
+     * Chance to use a special ability: higher on harder difficulty and with
+     * several targets, lower when badly hurt
+     */
+    public double specialAbilityChance() {
+        double chance = 0.3 + difficultyLevel * 0.05;
+        if (targets.size() >= 2) {
+            chance += 0.2;
+        }
+        if (healthRatio < 0.3) {
+            chance -= 0.1;
+        }
+        return Math.min(Math.max(chance, 0.1), 0.9);
+    }
+
+    public double roll() {
+        return random.nextDouble();
+    }
+
+    public boolean hasBetterPosition() {
+        return betterPosition.getAsBoolean();
+    }
+
+    public CompiledBehaviorTree.Action getAction() {
+        return action;
+    }
+
+    void setAction(CompiledBehaviorTree.Action action) {
+        this.action = action;
+    }
+}
@@ -0,0 +1,273 @@
+package com.aliensattack.core.ai;
+
+import com.aliensattack.core.enums.AlienType;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Behavior tree lowered into flat arrays. Nodes are numbered breadth first,
+ * so the children of a node are the contiguous range first..first+count-1,
+ * and every leaf holds its condition or action handler resolved at compile
+ * time. Evaluation walks the arrays against a blackboard filled once per
+ * decision: no name lookups, no iterators, no per-node objects.
+ * Compiled trees are immutable and shared by all aliens of a type.
+ */
+public final class CompiledBehaviorTree {
+    private static final byte SELECTOR = 0;
+    private static final byte SEQUENCE = 1;
+    private static final byte CONDITION = 2;
+    private static final byte ACTION = 3;
+
+    private static final CompiledBehaviorTree STANDARD = compile(standardTree());
+    private static final Map<AlienType, CompiledBehaviorTree> BY_TYPE = compileAll();
+
+    /**
+     * Leaf test of the tree
+     */
+    public enum Condition {
+        SQUAD_TACTIC_READY {
+            @Override
+            boolean test(BehaviorBlackboard board) {
+                return board.getSquadTactic() != null;
+            }
+        },
+        CAN_USE_SPECIAL {
+            @Override
+            boolean test(BehaviorBlackboard board) {
+                return board.hasPsionics() && board.getActionPoints() >= 2;
+            }
+        },
+        SPECIAL_ROLL {
+            @Override
+            boolean test(BehaviorBlackboard board) {
+                return board.roll() < board.specialAbilityChance();
+            }
+        },
+        HAS_ACTION_POINTS {
+            @Override
+            boolean test(BehaviorBlackboard board) {
+                return board.getActionPoints() >= 1;
+            }
+        },
+        HAS_TARGETS {
+            @Override
+            boolean test(BehaviorBlackboard board) {
+                return board.getTargetCount() > 0;
+            }
+        },
+        NO_TARGETS {
+            @Override
+            boolean test(BehaviorBlackboard board) {
+                return board.getTargetCount() == 0;
+            }
+        },
+        ATTACK_ROLL {
+            @Override
+            boolean test(BehaviorBlackboard board) {
+                return board.roll() < (board.isAggressive() ? 0.8 : 0.5); // Aggressive AI attacks more often
+            }
+        },
+        BETTER_POSITION {
+            @Override
+            boolean test(BehaviorBlackboard board) {
+                return board.hasBetterPosition();
+            }
+        };
+
+        abstract boolean test(BehaviorBlackboard board);
+    }
+
+    /**
+     * Leaf result of the tree, carrying the turn decision it stands for
+     */
+    public enum Action {
+        SQUAD_TACTIC("squad_tactic", "Executing squad tactic", 0.8),
+        SPECIAL_ABILITY("use_special_ability", "Using special ability", 0.7),
+        ATTACK("attack_target", "Attacking target", 0.8),
+        MOVE("move_to_position", "Moving to position", 0.6),
+        DEFEND("defend", "Taking defensive stance", 0.5);
+
+        private final String actionName;
+        private final String reasoning;
+        private final double confidence;
+
+        Action(String actionName, String reasoning, double confidence) {
+            this.actionName = actionName;
+            this.reasoning = reasoning;
+            this.confidence = confidence;
+        }
+
+        public String getActionName() {
+            return actionName;
+        }
+
+        public String getReasoning() {
+            return reasoning;
+        }
+
+        public double getConfidence() {
+            return confidence;
+        }
+    }
+
+    /**
+     * Source form of a tree, only used as input of {@link #compile}
+     */
+    public static final class Node {
+        private final byte kind;
+        private final Condition condition;
+        private final Action action;
+        private final Node[] children;
+
+        private Node(byte kind, Condition condition, Action action, Node[] children) {
+            this.kind = kind;
+            this.condition = condition;
+            this.action = action;
+            this.children = children;
+        }
+    }
+
+    /**
+     * Succeeds with the first child that succeeds
+     */
+    public static Node selector(Node... children) {
+        return new Node(SELECTOR, null, null, children.clone());
+    }
+
+    /**
+     * Succeeds if all children succeed, in order
+     */
+    public static Node sequence(Node... children) {
+        return new Node(SEQUENCE, null, null, children.clone());
+    }
+
+    public static Node when(Condition condition) {
+        return new Node(CONDITION, condition, null, new Node[0]);
+    }
+
+    /**
+     * Chooses the action and succeeds
+     */
+    public static Node act(Action action) {
+        return new Node(ACTION, null, action, new Node[0]);
+    }
+
+    private final byte[] kind;
+    private final int[] firstChild;
+    private final int[] childCount;
+    private final Condition[] conditions; // [node], set on condition leaves
+    private final Action[] actions;       // [node], set on action leaves
+
+    private CompiledBehaviorTree(int size) {
+        this.kind = new byte[size];
+        this.firstChild = new int[size];
+        this.childCount = new int[size];
+        this.conditions = new Condition[size];
+        this.actions = new Action[size];
+    }
+
+    /**
+     * Lowers a tree into flat arrays, numbering nodes breadth first
+     */
+    public static CompiledBehaviorTree compile(Node root) {
+        CompiledBehaviorTree tree = new CompiledBehaviorTree(count(root));
+        Node[] queue = new Node[tree.kind.length];
+        queue[0] = root;
+        int next = 1;
+        for (int i = 0; i < queue.length; i++) {
+            Node node = queue[i];
+            tree.kind[i] = node.kind;
+            tree.conditions[i] = node.condition;
+            tree.actions[i] = node.action;
+            tree.firstChild[i] = next;
+            tree.childCount[i] = node.children.length;
+            for (Node child : node.children) {
+                queue[next++] = child;
+            }
+        }
+        return tree;
+    }
+
+    /**
+     * Shared tree of an alien type
+     */
+    public static CompiledBehaviorTree forType(AlienType type) {
+        return type != null ? BY_TYPE.getOrDefault(type, STANDARD) : STANDARD;
+    }
+
+    /**
+     * Runs the tree against the blackboard
+     * @return the chosen action, DEFEND if no branch chose one
+     */
+    public Action evaluate(BehaviorBlackboard board) {
+        board.setAction(null);
+        run(0, board);
+        return board.getAction() != null ? board.getAction() : Action.DEFEND;
+    }
+
+    public int size() {
+        return kind.length;
+    }
+
+    private boolean run(int node, BehaviorBlackboard board) {
+        switch (kind[node]) {
+            case CONDITION:
+                return conditions[node].test(board);
+            case ACTION:
+                board.setAction(actions[node]);
+                return true;
+            case SEQUENCE:
+                for (int child = firstChild[node], end = child + childCount[node]; child < end; child++) {
+                    if (!run(child, board)) {
+                        return false;
+                    }
+                }
+                return true;
+            default:
+                for (int child = firstChild[node], end = child + childCount[node]; child < end; child++) {
+                    if (run(child, board)) {
+                        return true;
+                    }
+                }
+                return false;
+        }
+    }
+
+    private static int count(Node node) {
+        int total = 1;
+        for (Node child : node.children) {
+            total += count(child);
+        }
+        return total;
+    }
+
+    /**
+     * Squad tactic, then special ability, attack and move, falling back to defence
+     */
+    private static Node standardTree() {
+        return selector(
+                sequence(when(Condition.SQUAD_TACTIC_READY), act(Action.SQUAD_TACTIC)),
+                sequence(when(Condition.CAN_USE_SPECIAL), when(Condition.HAS_TARGETS),
+                        when(Condition.SPECIAL_ROLL), act(Action.SPECIAL_ABILITY)),
+                sequence(when(Condition.HAS_ACTION_POINTS), when(Condition.HAS_TARGETS),
+                        when(Condition.ATTACK_ROLL), act(Action.ATTACK)),
+                sequence(when(Condition.HAS_ACTION_POINTS),
+                        selector(when(Condition.NO_TARGETS), when(Condition.BETTER_POSITION)),
+                        act(Action.MOVE)),
+                act(Action.DEFEND));
+    }
+
+    /**
+     * Every type runs the standard tree for now; a type with its own tactics
+     * gets its own entry here
+     */
+    private static Map<AlienType, CompiledBehaviorTree> compileAll() {
+        Map<AlienType, CompiledBehaviorTree> trees = new EnumMap<>(AlienType.class);
+        for (AlienType type : AlienType.values()) {
+            trees.put(type, STANDARD);
+        }
+        return Collections.unmodifiableMap(trees);
+    }
+}
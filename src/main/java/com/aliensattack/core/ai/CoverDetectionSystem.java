@@ -1,179 +1,247 @@
 package com.aliensattack.core.ai;
 
+import com.aliensattack.core.model.CoverObject;
+import com.aliensattack.core.model.PackedPosition;
 import com.aliensattack.core.model.Position;
 import com.aliensattack.core.model.Unit;
 import com.aliensattack.core.model.TerrainObject;
 import com.aliensattack.field.ITacticalField;
+import com.aliensattack.field.ZobristHash;
 import com.aliensattack.core.enums.CoverType;
 import com.aliensattack.core.enums.TerrainType;
 import com.aliensattack.core.config.GameConfig;
 
 import lombok.Getter;
-import lombok.Setter;
 import lombok.extern.log4j.Log4j2;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * Advanced Cover Detection System for AI tactical positioning
  * Implements sophisticated terrain analysis, elevation calculations, 
  * line of sight analysis, and environmental hazard detection
+ * Every per-tile result lives in a primitive array indexed by tile id
+ * (y * width + x); a tile's analysis reads only its own entries and the
+ * field around it, so the initial pass is split across rows on the
+ * fork/join pool and an update recomputes only the tiles in reach.
+ * Best-cover queries go through a top-K {@link CoverIndex} kept in step
+ * with the cover values.
  */
-@Getter
-@Setter
 @Log4j2
 public class CoverDetectionSystem {
     
-    private ITacticalField tacticalField;
-    private Map<Position, CoverType> coverMap;
-    private Map<Position, Double> coverValues;
-    private Map<Position, Integer> elevationMap;
-    private Map<Position, List<TerrainObject>> terrainObjectsMap;
-    private Map<Position, Double> visibilityMap;
-    private Map<Position, List<String>> hazardMap;
+    private static final CoverType[] COVER_TYPES = CoverType.values();
+    private static final TerrainType[] COMMON_TERRAIN = {
+        TerrainType.GRASS, TerrainType.CONCRETE, TerrainType.ROCK,
+        TerrainType.WOOD, TerrainType.RUBBLE, TerrainType.COVER
+    };
+    private static final long TERRAIN_SEED = 0x2545F4914F6CDD1DL;
+    private static final int ROW_GRAIN = 4; // Rows analysed per fork/join task
     
-    // Advanced analysis caches
-    private Map<String, Double> analysisCache;
+    /**
+     * Hazards a tile can carry, one bit each in the hazard array
+     */
+    private enum Hazard {
+        FIRE, ACID, POISON, RADIATION, ELECTRIC, ICE, CORROSION, TOXIC, EXPLOSIVE, FLOODING, WIND, SMOKE, FOG;
+        
+        private int bit() {
+            return 1 << ordinal();
+        }
+    }
+    
+    /**
+     * Configuration read once per analysis pass instead of once per tile
+     */
+    private record Settings(double objectDensity, int objectHealth,
+                            int depressionRange, double depressionThreshold,
+                            int slopeRange, double slopeThreshold,
+                            int lowElevation, int highElevation,
+                            int unitDetectionRange, int unitMaxDistance, int unitCloseDistance,
+                            double elevationBonus, double objectBonus, double hazardBonus,
+                            double elevationWeight, double elevationPenalty, double[] hazardVisibility) {
+        static Settings fromConfig() {
+            double[] hazardVisibility = new double[Hazard.values().length];
+            for (Hazard hazard : Hazard.values()) {
+                hazardVisibility[hazard.ordinal()] = GameConfig.getVisibilityHazardModifier(hazard.name());
+            }
+            return new Settings(GameConfig.getTerrainObjectDensity(), GameConfig.getTerrainObjectDefaultHealth(),
+                    GameConfig.getTerrainDepressionDetectionRange(), GameConfig.getTerrainDepressionThreshold(),
+                    GameConfig.getTerrainSlopeDetectionRange(), GameConfig.getTerrainSlopeThreshold(),
+                    GameConfig.getTerrainHazardLowElevation(), GameConfig.getTerrainHazardHighElevation(),
+                    GameConfig.getCoverUnitDetectionRange(), GameConfig.getCoverUnitMaxDistance(),
+                    GameConfig.getCoverUnitCloseDistance(),
+                    GameConfig.getCoverElevationBonus(), GameConfig.getCoverObjectBonus(),
+                    GameConfig.getCoverHazardBonus(), GameConfig.getCoverElevationWeight(),
+                    GameConfig.getVisibilityElevationPenalty(), hazardVisibility);
+        }
+        
+        /**
+         * Farthest tile whose analysis reads a given tile
+         */
+        int reach() {
+            return Math.max(unitDetectionRange, Math.max(depressionRange, slopeRange));
+        }
+    }
+    
+    @Getter
+    private final ITacticalField tacticalField;
+    @Getter
+    private final int width;
+    @Getter
+    private final int height;
+    
+    // Per-tile analysis, indexed by tile id
+    private final byte[] cover;                    // CoverType ordinal
+    private final float[] coverValues;             // 0.0 to 1.0
+    private final float[] visibility;              // 0.0 to 1.0
+    private final int[] hazards;                   // Hazard bits
+    private final TerrainObject[] terrainObjects;  // At most one per tile, null for none
+    private final CoverIndex coverIndex;           // Cover value plus weighted elevation, for top-K queries
+    
+    // Field state the arrays were analysed against, diffed by syncWithField
+    private final int[] elevations;
+    private Map<Unit, Position> analyzedUnits = new IdentityHashMap<>();
+    private Map<Position, CoverObject> analyzedCovers = new HashMap<>();
+    private long analyzedVersion = -1;
+    
+    private Settings settings;
+    @Getter
     private long lastAnalysisTime;
-    private static final long ANALYSIS_CACHE_DURATION = 5000; // 5 seconds
     
     public CoverDetectionSystem(ITacticalField tacticalField) {
         this.tacticalField = tacticalField;
-        this.coverMap = new HashMap<>();
-        this.coverValues = new HashMap<>();
-        this.elevationMap = new HashMap<>();
-        this.terrainObjectsMap = new HashMap<>();
-        this.visibilityMap = new HashMap<>();
-        this.hazardMap = new HashMap<>();
-        this.analysisCache = new HashMap<>();
-        this.lastAnalysisTime = System.currentTimeMillis();
+        this.width = tacticalField != null ? tacticalField.getWidth() : 0;
+        this.height = tacticalField != null ? tacticalField.getHeight() : 0;
+        int tiles = width * height;
+        this.cover = new byte[tiles];
+        this.coverValues = new float[tiles];
+        this.visibility = new float[tiles];
+        this.hazards = new int[tiles];
+        this.terrainObjects = new TerrainObject[tiles];
+        this.coverIndex = new CoverIndex(width, height);
+        this.elevations = new int[tiles];
         
         initializeAdvancedCoverMap();
     }
     
     /**
-     * Initialize advanced cover map with elevation and terrain analysis
+     * Initialize advanced cover map with elevation and terrain analysis,
+     * in parallel over row ranges on large fields
      */
     private void initializeAdvancedCoverMap() {
+        settings = Settings.fromConfig();
+        lastAnalysisTime = System.currentTimeMillis();
         if (tacticalField == null) {
             return;
         }
         
-        int width = tacticalField.getWidth();
-        int height = tacticalField.getHeight();
-        
         log.info("Initializing advanced cover map for {}x{} field", width, height);
         
-        for (int x = 0; x < width; x++) {
-            for (int y = 0; y < height; y++) {
-                Position pos = new Position(x, y);
-                
-                // Analyze elevation
-                int elevation = analyzeElevation(pos);
-                elevationMap.put(pos, elevation);
-                
-                // Analyze terrain objects
-                List<TerrainObject> terrainObjects = analyzeTerrainObjects(pos);
-                terrainObjectsMap.put(pos, terrainObjects);
-                
-                // Analyze cover with elevation consideration
-                CoverType coverType = analyzeAdvancedCoverAtPosition(pos);
-                coverMap.put(pos, coverType);
-                coverValues.put(pos, calculateAdvancedCoverValue(pos, coverType));
-                
-                // Analyze visibility
-                double visibility = analyzeVisibility(pos);
-                visibilityMap.put(pos, visibility);
-                
-                // Analyze hazards
-                List<String> hazards = analyzeHazards(pos);
-                hazardMap.put(pos, hazards);
-            }
+        analyzedVersion = tacticalField.getFieldVersion();
+        analyzedUnits = livingUnits();
+        analyzedCovers = new HashMap<>(tacticalField.getCoverPositions());
+        Position[] units = analyzedUnits.values().toArray(new Position[0]);
+        RowTask task = new RowTask(this, units, 0, height);
+        if (width * height >= GameConfig.getCoverAnalysisParallelThreshold() && height > ROW_GRAIN) {
+            ForkJoinPool.commonPool().invoke(task);
+        } else {
+            task.compute();
         }
+        coverIndex.reorderAll();
         
         log.info("Advanced cover map initialized with elevation, terrain, and hazard analysis");
     }
     
     /**
-     * Analyze elevation at a specific position
+     * Runs the full analysis of one row; touches only that row's entries.
+     * Terrain objects already placed are kept with their damage, as local updates do
      */
-    private int analyzeElevation(Position position) {
-        // TODO: Implement sophisticated elevation generation
-        // - Load elevation patterns from configuration
-        // - Generate natural elevation variations
-        // - Consider building heights and underground levels
-        // - Implement elevation-based movement penalties
-        
-        // For now, generate varied elevation based on position
-        int baseElevation = 0;
-        
-        // Generate hills and valleys
-        double hillFrequency = GameConfig.getTerrainHillFrequency();
-        double valleyFrequency = GameConfig.getTerrainValleyFrequency();
-        
-        double hillValue = Math.sin(position.getX() * hillFrequency) * 
-                          Math.cos(position.getY() * hillFrequency);
-        double valleyValue = Math.sin(position.getX() * valleyFrequency) * 
-                           Math.cos(position.getY() * valleyFrequency);
-        
-        int elevation = (int) ((hillValue + valleyValue) * GameConfig.getTerrainElevationScale());
-        
-        // Ensure elevation is within bounds
-        elevation = Math.max(GameConfig.getTerrainElevationMin(), 
-                           Math.min(GameConfig.getTerrainElevationMax(), elevation));
-        
-        return elevation;
+    private void analyzeRow(int y, Position[] units) {
+        for (int x = 0; x < width; x++) {
+            int tile = y * width + x;
+            if (terrainObjects[tile] == null) {
+                terrainObjects[tile] = analyzeTerrainObject(x, y);
+            }
+            elevations[tile] = getElevationAt(x, y);
+            analyzeHazards(x, y);
+            analyzeCover(x, y, units);
+        }
     }
     
     /**
-     * Analyze terrain objects at a specific position
+     * Hazards and visibility of a tile, from its terrain object and elevation
      */
-    private List<TerrainObject> analyzeTerrainObjects(Position position) {
-        List<TerrainObject> objects = new ArrayList<>();
-        
+    private void analyzeHazards(int x, int y) {
+        int tile = y * width + x;
+        hazards[tile] = collectHazards(x, y);
+        visibility[tile] = (float) analyzeVisibility(x, y);
+    }
+    
+    /**
+     * Cover type and value of a tile; reads the field around it and the unit positions
+     */
+    private void analyzeCover(int x, int y, Position[] units) {
+        int tile = y * width + x;
+        CoverType coverType = analyzeAdvancedCoverAtPosition(x, y, units);
+        cover[tile] = (byte) coverType.ordinal();
+        coverValues[tile] = (float) calculateAdvancedCoverValue(x, y, coverType);
+        coverIndex.set(tile, (float) (coverValues[tile] + getElevationAt(x, y) * settings.elevationWeight()));
+    }
+    
+    /**
+     * Positions of the living units, captured once per pass
+     */
+    private Map<Unit, Position> livingUnits() {
+        Map<Unit, Position> positions = new IdentityHashMap<>();
+        for (Unit unit : tacticalField.getAllUnits()) {
+            if (unit.isAlive() && unit.getPosition() != null) {
+                positions.put(unit, unit.getPosition());
+            }
+        }
+        return positions;
+    }
+    
+    /**
+     * Analyze the terrain object at a specific position
+     */
+    private TerrainObject analyzeTerrainObject(int x, int y) {
         // TODO: Implement terrain object generation system
         // - Load terrain object templates from configuration
         // - Generate natural terrain features
         // - Place interactive objects strategically
         // - Consider mission-specific terrain requirements
         
-        // For now, generate basic terrain objects based on position
-        Random random = new Random(position.hashCode());
-        double objectChance = random.nextDouble();
+        // For now, generate basic terrain objects based on position: the tile
+        // key is hashed into the dice, so the same tile always gets the same object
+        long roll = ZobristHash.mix(TERRAIN_SEED ^ PackedPosition.pack(x, y));
+        double objectChance = (roll >>> 11) * 0x1.0p-53;
         
-        if (objectChance < GameConfig.getTerrainObjectDensity()) {
-            TerrainType terrainType = selectTerrainType(position, random);
-            TerrainObject object = createTerrainObject(position, terrainType);
-            if (object != null) {
-                objects.add(object);
-            }
+        if (objectChance < settings.objectDensity()) {
+            TerrainType terrainType = selectTerrainType(ZobristHash.mix(roll));
+            return createTerrainObject(x, y, terrainType);
         }
-        
-        return objects;
+        return null;
     }
     
     /**
      * Select appropriate terrain type based on position and context
      */
-    private TerrainType selectTerrainType(Position position, Random random) {
+    private TerrainType selectTerrainType(long roll) {
         // TODO: Implement intelligent terrain type selection
         // - Consider surrounding terrain types
         // - Apply biome rules and transitions
         // - Consider mission objectives and tactical requirements
         // - Implement terrain type compatibility checks
         
-        TerrainType[] commonTypes = {
-            TerrainType.GRASS, TerrainType.CONCRETE, TerrainType.ROCK,
-            TerrainType.WOOD, TerrainType.RUBBLE, TerrainType.COVER
-        };
-        
-        return commonTypes[random.nextInt(commonTypes.length)];
+        return COMMON_TERRAIN[(int) Long.remainderUnsigned(roll, COMMON_TERRAIN.length)];
     }
     
     /**
      * Create a terrain object with appropriate properties
      */
-    private TerrainObject createTerrainObject(Position position, TerrainType terrainType) {
+    private TerrainObject createTerrainObject(int x, int y, TerrainType terrainType) {
         try {
             // TODO: Implement terrain object factory system
             // - Load object properties from configuration
@@ -182,14 +250,14 @@ public class CoverDetectionSystem {
             // - Implement object interaction capabilities
             
             return new TerrainObject(
-                "terrain_" + position.getX() + "_" + position.getY(),
+                "terrain_" + x + "_" + y,
                 terrainType.name().toLowerCase(),
                 terrainType,
-                position,
-                GameConfig.getTerrainObjectDefaultHealth()
+                new Position(x, y),
+                settings.objectHealth()
             );
         } catch (Exception e) {
-            log.warn("Failed to create terrain object at {}: {}", position, e.getMessage());
+            log.warn("Failed to create terrain object at ({}, {}): {}", x, y, e.getMessage());
             return null;
         }
     }
@@ -197,27 +265,27 @@ public class CoverDetectionSystem {
     /**
      * Analyze advanced cover at a specific position with elevation consideration
      */
-    private CoverType analyzeAdvancedCoverAtPosition(Position position) {
+    private CoverType analyzeAdvancedCoverAtPosition(int x, int y, Position[] units) {
         // Check for terrain-based cover with elevation
-        CoverType terrainCover = checkAdvancedTerrainCover(position);
+        CoverType terrainCover = checkAdvancedTerrainCover(x, y);
         if (terrainCover != CoverType.NONE) {
             return terrainCover;
         }
         
         // Check for unit-based cover with elevation
-        CoverType unitCover = checkAdvancedUnitCover(position);
+        CoverType unitCover = checkAdvancedUnitCover(x, y, units);
         if (unitCover != CoverType.NONE) {
             return unitCover;
         }
         
         // Check for environmental cover with elevation
-        CoverType environmentalCover = checkAdvancedEnvironmentalCover(position);
+        CoverType environmentalCover = checkAdvancedEnvironmentalCover(x, y);
         if (environmentalCover != CoverType.NONE) {
             return environmentalCover;
         }
         
         // Check for elevation-based cover
-        CoverType elevationCover = checkElevationCover(position);
+        CoverType elevationCover = checkElevationCover(x, y);
         if (elevationCover != CoverType.NONE) {
             return elevationCover;
         }
@@ -228,36 +296,15 @@ public class CoverDetectionSystem {
     /**
      * Check for advanced terrain-based cover with elevation consideration
      */
-    private CoverType checkAdvancedTerrainCover(Position position) {
-        List<TerrainObject> objects = terrainObjectsMap.get(position);
-        if (objects == null || objects.isEmpty()) {
-            return CoverType.NONE;
-        }
-        
-        CoverType bestCover = CoverType.NONE;
-        double bestCoverValue = 0.0;
-        
-        for (TerrainObject object : objects) {
-            if (object == null || object.isDestroyed()) {
-                continue;
-            }
-            
-            CoverType objectCover = calculateTerrainObjectCover(object, position);
-            double coverValue = calculateCoverValue(objectCover);
-            
-            if (coverValue > bestCoverValue) {
-                bestCover = objectCover;
-                bestCoverValue = coverValue;
-            }
-        }
-        
-        return bestCover;
+    private CoverType checkAdvancedTerrainCover(int x, int y) {
+        TerrainObject object = terrainObjects[y * width + x];
+        return calculateTerrainObjectCover(object);
     }
     
     /**
      * Calculate cover provided by a terrain object
      */
-    private CoverType calculateTerrainObjectCover(TerrainObject object, Position position) {
+    private CoverType calculateTerrainObjectCover(TerrainObject object) {
         if (object == null || object.isDestroyed()) {
             return CoverType.NONE;
         }
@@ -290,21 +337,27 @@ public class CoverDetectionSystem {
     /**
      * Check for advanced unit-based cover with elevation consideration
      */
-    private CoverType checkAdvancedUnitCover(Position position) {
-        List<Unit> nearbyUnits = getUnitsInRange(position, GameConfig.getCoverUnitDetectionRange());
-        
+    private CoverType checkAdvancedUnitCover(int x, int y, Position[] units) {
+        int range = settings.unitDetectionRange();
         CoverType bestCover = CoverType.NONE;
         double bestCoverValue = 0.0;
+        Position position = null;
         
-        for (Unit unit : nearbyUnits) {
-            if (unit.isAlive() && unit.getPosition() != null) {
-                CoverType unitCover = calculateUnitCover(position, unit);
-                double coverValue = calculateCoverValue(unitCover);
-                
-                if (coverValue > bestCoverValue) {
-                    bestCover = unitCover;
-                    bestCoverValue = coverValue;
-                }
+        for (Position unitPosition : units) {
+            int dx = unitPosition.getX() - x;
+            int dy = unitPosition.getY() - y;
+            if (dx * dx + dy * dy > range * range) {
+                continue;
+            }
+            if (position == null) {
+                position = new Position(x, y);
+            }
+            
+            CoverType unitCover = calculateUnitCover(position, unitPosition);
+            double coverValue = calculateCoverValue(unitCover);
+            if (coverValue > bestCoverValue) {
+                bestCover = unitCover;
+                bestCoverValue = coverValue;
             }
         }
         
@@ -314,22 +367,27 @@ public class CoverDetectionSystem {
     /**
      * Calculate cover provided by a unit
      */
-    private CoverType calculateUnitCover(Position position, Unit unit) {
-        double distance = calculateDistance(position, unit.getPosition());
-        int unitElevation = elevationMap.getOrDefault(unit.getPosition(), 0);
-        int positionElevation = elevationMap.getOrDefault(position, 0);
+    private CoverType calculateUnitCover(Position position, Position unitPosition) {
+        // Cover the position already has facing this unit, from the field's directional table
+        CoverType directional = tacticalField.getDirectionalCover(position, unitPosition);
+        if (directional != CoverType.NONE) {
+            return directional;
+        }
+        
+        double distance = calculateDistance(position, unitPosition);
+        int unitElevation = getElevationAt(unitPosition);
+        int positionElevation = getElevationAt(position);
         
         // TODO: Implement sophisticated unit cover calculation
         // - Consider unit size and armor type
         // - Apply unit stance and orientation
         // - Consider unit health and status effects
-        // - Implement directional cover analysis
         
-        if (distance <= GameConfig.getCoverUnitMaxDistance()) {
+        if (distance <= settings.unitMaxDistance()) {
             // Check if unit is higher than position (provides better cover)
             if (unitElevation > positionElevation) {
                 return CoverType.HALF_COVER;
-            } else if (distance <= GameConfig.getCoverUnitCloseDistance()) {
+            } else if (distance <= settings.unitCloseDistance()) {
                 return CoverType.LOW_COVER;
             }
         }
@@ -340,19 +398,16 @@ public class CoverDetectionSystem {
     /**
      * Check for advanced environmental cover with elevation consideration
      */
-    private CoverType checkAdvancedEnvironmentalCover(Position position) {
+    private CoverType checkAdvancedEnvironmentalCover(int x, int y) {
         // TODO: Implement sophisticated environmental cover analysis
         // - Consider weather conditions
         // - Analyze atmospheric effects
         // - Consider time of day and lighting
         // - Implement dynamic environmental changes
         
-        List<String> hazards = hazardMap.get(position);
-        if (hazards != null && !hazards.isEmpty()) {
-            // Some hazards provide cover (smoke, fog)
-            if (hazards.contains("SMOKE") || hazards.contains("FOG")) {
-                return CoverType.LOW_COVER;
-            }
+        // Some hazards provide cover (smoke, fog)
+        if ((hazards[y * width + x] & (Hazard.SMOKE.bit() | Hazard.FOG.bit())) != 0) {
+            return CoverType.LOW_COVER;
         }
         
         return CoverType.NONE;
@@ -361,16 +416,16 @@ public class CoverDetectionSystem {
     /**
      * Check for elevation-based cover
      */
-    private CoverType checkElevationCover(Position position) {
-        int currentElevation = elevationMap.getOrDefault(position, 0);
+    private CoverType checkElevationCover(int x, int y) {
+        int currentElevation = getElevationAt(x, y);
         
         // Check if position is in a depression (provides cover)
-        if (isInDepression(position, currentElevation)) {
+        if (isInDepression(x, y, currentElevation)) {
             return CoverType.HALF_COVER;
         }
         
         // Check if position is on a slope (partial cover)
-        if (isOnSlope(position, currentElevation)) {
+        if (isOnSlope(x, y, currentElevation)) {
             return CoverType.LOW_COVER;
         }
         
@@ -380,79 +435,61 @@ public class CoverDetectionSystem {
     /**
      * Check if position is in a depression
      */
-    private boolean isInDepression(Position position, int currentElevation) {
+    private boolean isInDepression(int x, int y, int currentElevation) {
         // TODO: Implement sophisticated depression detection
         // - Analyze surrounding elevation patterns
         // - Consider depression size and depth
         // - Apply terrain-specific depression rules
         // - Implement depression quality assessment
         
-        int range = GameConfig.getTerrainDepressionDetectionRange();
+        int range = settings.depressionRange();
         int higherNeighbors = 0;
         int totalNeighbors = 0;
         
-        for (int dx = -range; dx <= range; dx++) {
-            for (int dy = -range; dy <= range; dy++) {
-                if (dx == 0 && dy == 0) continue;
-                
-                Position neighbor = new Position(
-                    position.getX() + dx,
-                    position.getY() + dy
-                );
+        for (int ny = Math.max(0, y - range); ny <= Math.min(height - 1, y + range); ny++) {
+            for (int nx = Math.max(0, x - range); nx <= Math.min(width - 1, x + range); nx++) {
+                if (nx == x && ny == y) continue;
                 
-                if (tacticalField.isValidPosition(neighbor.getX(), neighbor.getY())) {
-                    int neighborElevation = elevationMap.getOrDefault(neighbor, 0);
-                    if (neighborElevation > currentElevation) {
-                        higherNeighbors++;
-                    }
-                    totalNeighbors++;
+                if (tacticalField.getElevation(nx, ny) > currentElevation) {
+                    higherNeighbors++;
                 }
+                totalNeighbors++;
             }
         }
         
-        double depressionThreshold = GameConfig.getTerrainDepressionThreshold();
         return totalNeighbors > 0 && 
-               (double) higherNeighbors / totalNeighbors >= depressionThreshold;
+               (double) higherNeighbors / totalNeighbors >= settings.depressionThreshold();
     }
     
     /**
      * Check if position is on a slope
      */
-    private boolean isOnSlope(Position position, int currentElevation) {
+    private boolean isOnSlope(int x, int y, int currentElevation) {
         // TODO: Implement sophisticated slope detection
         // - Calculate slope gradient and direction
         // - Consider slope steepness thresholds
         // - Apply terrain-specific slope rules
         // - Implement slope-based movement penalties
         
-        int range = GameConfig.getTerrainSlopeDetectionRange();
-        double maxElevationDiff = 0;
+        int range = settings.slopeRange();
+        int maxElevationDiff = 0;
         
-        for (int dx = -range; dx <= range; dx++) {
-            for (int dy = -range; dy <= range; dy++) {
-                if (dx == 0 && dy == 0) continue;
+        for (int ny = Math.max(0, y - range); ny <= Math.min(height - 1, y + range); ny++) {
+            for (int nx = Math.max(0, x - range); nx <= Math.min(width - 1, x + range); nx++) {
+                if (nx == x && ny == y) continue;
                 
-                Position neighbor = new Position(
-                    position.getX() + dx,
-                    position.getY() + dy
-                );
-                
-                if (tacticalField.isValidPosition(neighbor.getX(), neighbor.getY())) {
-                    int neighborElevation = elevationMap.getOrDefault(neighbor, 0);
-                    double elevationDiff = Math.abs(neighborElevation - currentElevation);
-                    maxElevationDiff = Math.max(maxElevationDiff, elevationDiff);
-                }
+                int elevationDiff = Math.abs(tacticalField.getElevation(nx, ny) - currentElevation);
+                maxElevationDiff = Math.max(maxElevationDiff, elevationDiff);
             }
         }
         
-        double slopeThreshold = GameConfig.getTerrainSlopeThreshold();
-        return maxElevationDiff >= slopeThreshold;
+        return maxElevationDiff >= settings.slopeThreshold();
     }
     
     /**
      * Analyze visibility at a specific position
      */
-    private double analyzeVisibility(Position position) {
+    private double analyzeVisibility(int x, int y) {
         // TODO: Implement sophisticated visibility analysis
         // - Consider elevation differences
         // - Analyze line of sight to key positions
@@ -462,15 +499,15 @@ public class CoverDetectionSystem {
         double baseVisibility = 1.0;
         
         // Reduce visibility based on elevation
-        int elevation = elevationMap.getOrDefault(position, 0);
-        double elevationModifier = 1.0 - (Math.abs(elevation) * GameConfig.getVisibilityElevationPenalty());
+        int elevation = getElevationAt(x, y);
+        double elevationModifier = 1.0 - (Math.abs(elevation) * settings.elevationPenalty());
         baseVisibility *= Math.max(0.1, elevationModifier);
         
         // Reduce visibility based on hazards
-        List<String> hazards = hazardMap.get(position);
-        if (hazards != null) {
-            for (String hazard : hazards) {
-                baseVisibility *= GameConfig.getVisibilityHazardModifier(hazard);
+        int bits = hazards[y * width + x];
+        for (Hazard hazard : Hazard.values()) {
+            if ((bits & hazard.bit()) != 0) {
+                baseVisibility *= settings.hazardVisibility()[hazard.ordinal()];
             }
         }
         
@@ -480,8 +517,8 @@ public class CoverDetectionSystem {
     /**
      * Analyze hazards at a specific position
      */
-    private List<String> analyzeHazards(Position position) {
-        List<String> hazards = new ArrayList<>();
+    private int collectHazards(int x, int y) {
+        int bits = 0;
         
         // TODO: Implement sophisticated hazard analysis
         // - Consider terrain type hazards
@@ -490,65 +527,61 @@ public class CoverDetectionSystem {
         // - Implement hazard interaction chains
         
         // Check terrain objects for hazards
-        List<TerrainObject> objects = terrainObjectsMap.get(position);
-        if (objects != null) {
-            for (TerrainObject object : objects) {
-                if (object != null && object.isHazardous()) {
-                    addHazardsFromObject(object, hazards);
-                }
-            }
+        TerrainObject object = terrainObjects[y * width + x];
+        if (object != null && object.isHazardous()) {
+            bits |= hazardsFromObject(object);
         }
         
         // Check elevation-based hazards
-        int elevation = elevationMap.getOrDefault(position, 0);
-        if (elevation < GameConfig.getTerrainHazardLowElevation()) {
-            hazards.add("FLOODING");
+        int elevation = getElevationAt(x, y);
+        if (elevation < settings.lowElevation()) {
+            bits |= Hazard.FLOODING.bit();
         }
-        if (elevation > GameConfig.getTerrainHazardHighElevation()) {
-            hazards.add("WIND");
+        if (elevation > settings.highElevation()) {
+            bits |= Hazard.WIND.bit();
         }
         
-        return hazards;
+        return bits;
     }
     
     /**
-     * Add hazards from a terrain object
+     * Hazards from a terrain object
      */
-    private void addHazardsFromObject(TerrainObject object, List<String> hazards) {
-        if (object.isBurning()) hazards.add("FIRE");
-        if (object.isAcidic()) hazards.add("ACID");
-        if (object.isPoisonous()) hazards.add("POISON");
-        if (object.isRadioactive()) hazards.add("RADIATION");
-        if (object.isElectrified()) hazards.add("ELECTRIC");
-        if (object.isFrozen()) hazards.add("ICE");
-        if (object.isCorrosive()) hazards.add("CORROSION");
-        if (object.isToxic()) hazards.add("TOXIC");
-        if (object.isExplosive()) hazards.add("EXPLOSIVE");
+    private static int hazardsFromObject(TerrainObject object) {
+        int bits = 0;
+        if (object.isBurning()) bits |= Hazard.FIRE.bit();
+        if (object.isAcidic()) bits |= Hazard.ACID.bit();
+        if (object.isPoisonous()) bits |= Hazard.POISON.bit();
+        if (object.isRadioactive()) bits |= Hazard.RADIATION.bit();
+        if (object.isElectrified()) bits |= Hazard.ELECTRIC.bit();
+        if (object.isFrozen()) bits |= Hazard.ICE.bit();
+        if (object.isCorrosive()) bits |= Hazard.CORROSION.bit();
+        if (object.isToxic()) bits |= Hazard.TOXIC.bit();
+        if (object.isExplosive()) bits |= Hazard.EXPLOSIVE.bit();
+        return bits;
     }
     
     /**
      * Calculate advanced cover value with multiple factors
      */
-    private double calculateAdvancedCoverValue(Position position, CoverType coverType) {
+    private double calculateAdvancedCoverValue(int x, int y, CoverType coverType) {
+        int tile = y * width + x;
         double baseValue = calculateCoverValue(coverType);
         
         // Apply elevation modifier
-        int elevation = elevationMap.getOrDefault(position, 0);
-        double elevationModifier = 1.0 + (elevation * GameConfig.getCoverElevationBonus());
+        int elevation = getElevationAt(x, y);
+        double elevationModifier = 1.0 + (elevation * settings.elevationBonus());
         baseValue *= elevationModifier;
         
         // Apply terrain object modifier
-        List<TerrainObject> objects = terrainObjectsMap.get(position);
-        if (objects != null && !objects.isEmpty()) {
-            double objectModifier = 1.0 + (objects.size() * GameConfig.getCoverObjectBonus());
-            baseValue *= objectModifier;
+        if (terrainObjects[tile] != null) {
+            baseValue *= 1.0 + settings.objectBonus();
         }
         
         // Apply hazard modifier (some hazards provide cover)
-        List<String> hazards = hazardMap.get(position);
-        if (hazards != null && !hazards.isEmpty()) {
-            double hazardModifier = 1.0 + (hazards.size() * GameConfig.getCoverHazardBonus());
-            baseValue *= hazardModifier;
+        int hazardCount = Integer.bitCount(hazards[tile]);
+        if (hazardCount > 0) {
+            baseValue *= 1.0 + (hazardCount * settings.hazardBonus());
         }
         
         return Math.max(0.0, Math.min(1.0, baseValue));
@@ -571,28 +604,50 @@ public class CoverDetectionSystem {
      * Get elevation at position
      */
     public int getElevationAt(Position position) {
-        return elevationMap.getOrDefault(position, 0);
+        return getElevationAt(position.getX(), position.getY());
+    }
+    
+    /**
+     * Ground elevation from the field's heightfield, shared with sight and movement
+     */
+    public int getElevationAt(int x, int y) {
+        return tacticalField != null ? tacticalField.getElevation(x, y) : 0;
     }
     
     /**
      * Get terrain objects at position
      */
     public List<TerrainObject> getTerrainObjectsAt(Position position) {
-        return terrainObjectsMap.getOrDefault(position, new ArrayList<>());
+        int tile = tileOf(position);
+        List<TerrainObject> objects = new ArrayList<>(1);
+        if (tile >= 0 && terrainObjects[tile] != null) {
+            objects.add(terrainObjects[tile]);
+        }
+        return objects;
     }
     
     /**
      * Get visibility at position
      */
     public double getVisibilityAt(Position position) {
-        return visibilityMap.getOrDefault(position, 1.0);
+        int tile = tileOf(position);
+        return tile >= 0 ? visibility[tile] : 1.0;
     }
     
     /**
      * Get hazards at position
      */
     public List<String> getHazardsAt(Position position) {
-        return hazardMap.getOrDefault(position, new ArrayList<>());
+        int tile = tileOf(position);
+        List<String> names = new ArrayList<>();
+        if (tile >= 0 && hazards[tile] != 0) {
+            for (Hazard hazard : Hazard.values()) {
+                if ((hazards[tile] & hazard.bit()) != 0) {
+                    names.add(hazard.name());
+                }
+            }
+        }
+        return names;
     }
     
     /**
@@ -605,38 +660,32 @@ public class CoverDetectionSystem {
     }
     
     /**
-     * Get best cover positions with elevation consideration
+     * Get best cover positions with elevation consideration: every tile in
+     * range with enough cover or higher ground than the center, best first
      */
     public List<Position> getBestCoverPositionsWithElevation(Position center, int range) {
+        return getBestCoverPositions(center, range, Integer.MAX_VALUE);
+    }
+    
+    /**
+     * Best few cover positions within range, ranked by cover value plus
+     * weighted elevation; read from the top-K index, so only the blocks
+     * holding the best tiles are visited
+     */
+    public List<Position> getBestCoverPositions(Position center, int range, int limit) {
         List<Position> coverPositions = new ArrayList<>();
-        
-        for (int x = Math.max(0, center.getX() - range); 
-             x <= Math.min(tacticalField.getWidth() - 1, center.getX() + range); x++) {
-            for (int y = Math.max(0, center.getY() - range); 
-                 y <= Math.min(tacticalField.getHeight() - 1, center.getY() + range); y++) {
-                
-                Position pos = new Position(x, y);
-                double distance = calculateDistance(center, pos);
-                
-                if (distance <= range) {
-                    double coverValue = getCoverValueAt(pos);
-                    int elevation = getElevationAt(pos);
-                    
-                    // Prioritize positions with good cover and elevation advantage
-                    if (coverValue > GameConfig.getCoverMinimumValue() || 
-                        elevation > getElevationAt(center)) {
-                        coverPositions.add(pos);
-                    }
-                }
-            }
+        if (center == null || width == 0 || height == 0) {
+            return coverPositions;
         }
         
-        // Sort by combined cover and elevation score
-        coverPositions.sort((p1, p2) -> {
-            double score1 = getCoverValueAt(p1) + (getElevationAt(p1) * GameConfig.getCoverElevationWeight());
-            double score2 = getCoverValueAt(p2) + (getElevationAt(p2) * GameConfig.getCoverElevationWeight());
-            return Double.compare(score2, score1);
-        });
+        // Prioritize positions with good cover and elevation advantage
+        double minimumCover = GameConfig.getCoverMinimumValue();
+        int centerElevation = getElevationAt(center);
+        int[] tiles = coverIndex.query(center.getX(), center.getY(), range, limit,
+                (tile, x, y) -> coverValues[tile] > minimumCover || getElevationAt(x, y) > centerElevation);
+        for (int tile : tiles) {
+            coverPositions.add(new Position(tile % width, tile / width));
+        }
         
         return coverPositions;
     }
@@ -678,8 +727,9 @@ public class CoverDetectionSystem {
         score += getVisibilityAt(position) * GameConfig.getTacticalVisibilityWeight();
         
         // Hazard penalty
-        List<String> hazards = getHazardsAt(position);
-        score -= hazards.size() * GameConfig.getTacticalHazardPenalty();
+        int tile = tileOf(position);
+        int hazardCount = tile >= 0 ? Integer.bitCount(hazards[tile]) : 0;
+        score -= hazardCount * GameConfig.getTacticalHazardPenalty();
         
         return Math.max(0.0, score);
     }
@@ -688,14 +738,16 @@ public class CoverDetectionSystem {
      * Get cover type at position
      */
     public CoverType getCoverAt(Position position) {
-        return coverMap.getOrDefault(position, CoverType.NONE);
+        int tile = tileOf(position);
+        return tile >= 0 ? COVER_TYPES[cover[tile]] : CoverType.NONE;
     }
     
     /**
      * Get cover value at position (0.0 to 1.0)
      */
     public double getCoverValueAt(Position position) {
-        return coverValues.getOrDefault(position, 0.0);
+        int tile = tileOf(position);
+        return tile >= 0 ? coverValues[tile] : 0.0;
     }
     
     /**
@@ -721,27 +773,14 @@ public class CoverDetectionSystem {
     }
     
     /**
-     * Get units within range of a position
+     * Tile id of a position, -1 outside the field; height is ignored so
+     * elevated unit positions hit the same entry
      */
-    private List<Unit> getUnitsInRange(Position center, int range) {
-        List<Unit> unitsInRange = new ArrayList<>();
-        
-        if (tacticalField == null) {
-            return unitsInRange;
-        }
-        
-        List<Unit> allUnits = tacticalField.getAllUnits();
-        
-        for (Unit unit : allUnits) {
-            if (unit.getPosition() != null) {
-                double distance = calculateDistance(center, unit.getPosition());
-                if (distance <= range) {
-                    unitsInRange.add(unit);
-                }
-            }
-        }
-        
-        return unitsInRange;
+    private int tileOf(Position position) {
+        if (position == null) return -1;
+        int x = position.getX();
+        int y = position.getY();
+        return x >= 0 && x < width && y >= 0 && y < height ? y * width + x : -1;
     }
     
     /**
@@ -754,68 +793,106 @@ public class CoverDetectionSystem {
     }
     
     /**
-     * Update cover map for a specific position
-     */
-    public void updateCoverAt(Position position) {
-        CoverType newCover = analyzeAdvancedCoverAtPosition(position);
-        coverMap.put(position, newCover);
-        coverValues.put(position, calculateAdvancedCoverValue(position, newCover));
-        
-        // Update related maps
-        updateElevationAt(position);
-        updateTerrainObjectsAt(position);
-        updateVisibilityAt(position);
-        updateHazardsAt(position);
-        
-        log.debug("Updated advanced cover at {}: {} (value: {})", position, newCover, getCoverValueAt(position));
-    }
-    
-    /**
-     * Update elevation at position
+     * Update cover map after a change at a specific position (terrain object
+     * damaged, elevation changed, unit arrived or left). The tile's hazards and
+     * visibility are recomputed, and the cover of every tile whose analysis
+     * reads this one: elevation neighbours and tiles within unit detection range.
      */
-    private void updateElevationAt(Position position) {
-        int newElevation = analyzeElevation(position);
-        elevationMap.put(position, newElevation);
+    public synchronized void updateCoverAt(Position position) {
+        updateCoverAt(position, livingUnits().values().toArray(new Position[0]));
     }
     
-    /**
-     * Update terrain objects at position
-     */
-    private void updateTerrainObjectsAt(Position position) {
-        List<TerrainObject> newObjects = analyzeTerrainObjects(position);
-        terrainObjectsMap.put(position, newObjects);
-    }
-    
-    /**
-     * Update visibility at position
-     */
-    private void updateVisibilityAt(Position position) {
-        double newVisibility = analyzeVisibility(position);
-        visibilityMap.put(position, newVisibility);
+    private void updateCoverAt(Position position, Position[] units) {
+        int tile = tileOf(position);
+        if (tile < 0) {
+            return;
+        }
+        
+        int x = position.getX();
+        int y = position.getY();
+        elevations[tile] = getElevationAt(x, y);
+        analyzeHazards(x, y);
+        
+        int reach = settings.reach();
+        for (int ny = Math.max(0, y - reach); ny <= Math.min(height - 1, y + reach); ny++) {
+            for (int nx = Math.max(0, x - reach); nx <= Math.min(width - 1, x + reach); nx++) {
+                analyzeCover(nx, ny, units);
+            }
+        }
+        coverIndex.reorder(x - reach, y - reach, x + reach, y + reach);
+        
+        log.debug("Updated advanced cover at {}: {} (value: {})", position, getCoverAt(position), getCoverValueAt(position));
     }
     
     /**
-     * Update hazards at position
+     * Catches up with the field: units that moved, arrived or died, cover
+     * objects placed or removed and elevation changes since the last analysis
+     * are found by diffing against the state that analysis saw, and only the
+     * tiles around them are updated
+     * @return number of changed tiles
      */
-    private void updateHazardsAt(Position position) {
-        List<String> newHazards = analyzeHazards(position);
-        hazardMap.put(position, newHazards);
+    public synchronized int syncWithField() {
+        if (tacticalField == null) {
+            return 0;
+        }
+        long version = tacticalField.getFieldVersion();
+        if (version == analyzedVersion) {
+            return 0;
+        }
+        analyzedVersion = version;
+        
+        Set<Position> changed = new LinkedHashSet<>();
+        Map<Unit, Position> units = livingUnits();
+        units.forEach((unit, at) -> {
+            Position before = analyzedUnits.get(unit);
+            if (!at.equals(before)) {
+                changed.add(at);
+                if (before != null) changed.add(before);
+            }
+        });
+        analyzedUnits.forEach((unit, before) -> {
+            if (!units.containsKey(unit)) changed.add(before);
+        });
+        
+        Map<Position, CoverObject> covers = new HashMap<>(tacticalField.getCoverPositions());
+        covers.forEach((at, object) -> {
+            if (analyzedCovers.get(at) != object) changed.add(at);
+        });
+        analyzedCovers.keySet().forEach(at -> {
+            if (!covers.containsKey(at)) changed.add(at);
+        });
+        
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                if (elevations[y * width + x] != getElevationAt(x, y)) changed.add(new Position(x, y));
+            }
+        }
+        
+        int span = 2 * settings.reach() + 1;
+        if ((long) changed.size() * span * span >= (long) width * height) {
+            // Cheaper to redo the whole pass than to update this many neighbourhoods
+            initializeAdvancedCoverMap();
+            return changed.size();
+        }
+        analyzedUnits = units;
+        analyzedCovers = covers;
+        Position[] positions = units.values().toArray(new Position[0]);
+        for (Position position : changed) {
+            updateCoverAt(position, positions);
+        }
+        if (!changed.isEmpty()) {
+            lastAnalysisTime = System.currentTimeMillis();
+            log.debug("Cover map synced with field version {}: {} tiles changed", version, changed.size());
+        }
+        return changed.size();
     }
     
     /**
      * Refresh entire cover map
      */
-    public void refreshCoverMap() {
-        coverMap.clear();
-        coverValues.clear();
-        elevationMap.clear();
-        terrainObjectsMap.clear();
-        visibilityMap.clear();
-        hazardMap.clear();
-        analysisCache.clear();
-        
+    public synchronized void refreshCoverMap() {
+        Arrays.fill(terrainObjects, null);
         initializeAdvancedCoverMap();
-        lastAnalysisTime = System.currentTimeMillis();
         log.info("Advanced cover map refreshed with all analysis data");
     }
     
@@ -825,15 +902,48 @@ public class CoverDetectionSystem {
     public Map<String, Object> getPerformanceStats() {
         Map<String, Object> stats = new HashMap<>();
         
-        stats.put("coverMapSize", coverMap.size());
-        stats.put("elevationMapSize", elevationMap.size());
-        stats.put("terrainObjectsMapSize", terrainObjectsMap.size());
-        stats.put("visibilityMapSize", visibilityMap.size());
-        stats.put("hazardMapSize", hazardMap.size());
-        stats.put("analysisCacheSize", analysisCache.size());
+        int objects = 0;
+        int hazardous = 0;
+        for (int tile = 0; tile < hazards.length; tile++) {
+            if (terrainObjects[tile] != null) objects++;
+            if (hazards[tile] != 0) hazardous++;
+        }
+        stats.put("coverMapSize", cover.length);
+        stats.put("terrainObjectsMapSize", objects);
+        stats.put("visibilityMapSize", visibility.length);
+        stats.put("hazardMapSize", hazardous);
         stats.put("lastAnalysisTime", lastAnalysisTime);
         stats.put("cacheAge", System.currentTimeMillis() - lastAnalysisTime);
         
         return stats;
     }
+    
+    /**
+     * Analyses a range of rows, splitting in halves above the grain size
+     */
+    private static final class RowTask extends RecursiveAction {
+        private final CoverDetectionSystem system;
+        private final Position[] units;
+        private final int from;
+        private final int to;
+        
+        RowTask(CoverDetectionSystem system, Position[] units, int from, int to) {
+            this.system = system;
+            this.units = units;
+            this.from = from;
+            this.to = to;
+        }
+        
+        @Override
+        protected void compute() {
+            if (to - from > ROW_GRAIN) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new RowTask(system, units, from, mid), new RowTask(system, units, mid, to));
+                return;
+            }
+            for (int y = from; y < to; y++) {
+                system.analyzeRow(y, units);
+            }
+        }
+    }
 }
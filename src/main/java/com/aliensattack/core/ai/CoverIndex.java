@@ -0,0 +1,178 @@
+package com.aliensattack.core.ai;
+
+import com.aliensattack.field.TileHeap;
+
+import java.util.Arrays;
+
+/**
+ * Top-K index over per-tile cover scores. Tiles are grouped in 8x8 blocks
+ * and every block keeps its tiles sorted best first, so a block's first tile
+ * is its maximum. A query seeds a heap with the first tile of every block
+ * overlapping the area and then walks tiles best first: each popped tile
+ * pushes its block's next one. It stops at the K-th accepted tile, so only
+ * blocks whose best tiles can still compete are ever opened, instead of
+ * scoring and sorting every tile in range.
+ * A score change re-sorts just the blocks it touches.
+ */
+final class CoverIndex {
+    private static final int BLOCK_SHIFT = 3;
+    private static final int BLOCK = 1 << BLOCK_SHIFT;
+    private static final int CURSOR_BITS = 2 * BLOCK_SHIFT + 1; // Cursor 0..BLOCK*BLOCK-1 in the heap entry
+    private static final int CURSOR_MASK = (1 << CURSOR_BITS) - 1;
+
+    /**
+     * Extra condition a tile must meet to be returned
+     */
+    interface TileFilter {
+        boolean accept(int tile, int x, int y);
+    }
+
+    private final int width;
+    private final int height;
+    private final int blocksX;
+    private final float[] score;  // [tile]
+    private final int[][] order;  // [block] tile ids, best first
+
+    CoverIndex(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.blocksX = (width + BLOCK - 1) >> BLOCK_SHIFT;
+        int blocksY = (height + BLOCK - 1) >> BLOCK_SHIFT;
+        this.score = new float[width * height];
+        this.order = new int[blocksX * blocksY][];
+        for (int by = 0; by < blocksY; by++) {
+            for (int bx = 0; bx < blocksX; bx++) {
+                int x0 = bx << BLOCK_SHIFT;
+                int y0 = by << BLOCK_SHIFT;
+                int x1 = Math.min(width, x0 + BLOCK);
+                int y1 = Math.min(height, y0 + BLOCK);
+                int[] tiles = new int[(x1 - x0) * (y1 - y0)];
+                int n = 0;
+                for (int y = y0; y < y1; y++) {
+                    for (int x = x0; x < x1; x++) {
+                        tiles[n++] = y * width + x;
+                    }
+                }
+                order[by * blocksX + bx] = tiles;
+            }
+        }
+    }
+
+    /**
+     * Sets a tile's score; the ordering follows after {@link #reorder}
+     */
+    void set(int tile, float value) {
+        score[tile] = value;
+    }
+
+    float get(int tile) {
+        return score[tile];
+    }
+
+    /**
+     * Re-sorts the blocks overlapping the tile rectangle [x0..x1] x [y0..y1]
+     */
+    void reorder(int x0, int y0, int x1, int y1) {
+        int bx0 = Math.max(0, x0) >> BLOCK_SHIFT;
+        int by0 = Math.max(0, y0) >> BLOCK_SHIFT;
+        int bx1 = Math.min(width - 1, x1) >> BLOCK_SHIFT;
+        int by1 = Math.min(height - 1, y1) >> BLOCK_SHIFT;
+        for (int by = by0; by <= by1; by++) {
+            for (int bx = bx0; bx <= bx1; bx++) {
+                sortBlock(order[by * blocksX + bx]);
+            }
+        }
+    }
+
+    void reorderAll() {
+        reorder(0, 0, width - 1, height - 1);
+    }
+
+    /**
+     * Best tiles within a Euclidean radius of (cx, cy) that pass the filter, best first
+     * @return tile ids, at most {@code limit}
+     */
+    int[] query(int cx, int cy, int radius, int limit, TileFilter filter) {
+        int bx0 = Math.max(0, cx - radius) >> BLOCK_SHIFT;
+        int by0 = Math.max(0, cy - radius) >> BLOCK_SHIFT;
+        int bx1 = Math.min(width - 1, cx + radius) >> BLOCK_SHIFT;
+        int by1 = Math.min(height - 1, cy + radius) >> BLOCK_SHIFT;
+        if (limit <= 0 || bx0 > bx1 || by0 > by1) {
+            return new int[0];
+        }
+
+        TileHeap heap = new TileHeap();
+        long radiusSquared = (long) radius * radius;
+        for (int by = by0; by <= by1; by++) {
+            for (int bx = bx0; bx <= bx1; bx++) {
+                if (blockDistanceSquared(bx, by, cx, cy) <= radiusSquared) {
+                    push(heap, by * blocksX + bx, 0);
+                }
+            }
+        }
+
+        int[] hits = new int[Math.min(limit, 64)];
+        int count = 0;
+        while (count < limit && !heap.isEmpty()) {
+            int entry = (int) heap.pop();
+            int block = entry >>> CURSOR_BITS;
+            int cursor = entry & CURSOR_MASK;
+            int[] tiles = order[block];
+            int tile = tiles[cursor];
+            if (cursor + 1 < tiles.length) {
+                push(heap, block, cursor + 1);
+            }
+
+            int x = tile % width;
+            int y = tile / width;
+            long dx = x - cx;
+            long dy = y - cy;
+            if (dx * dx + dy * dy <= radiusSquared && filter.accept(tile, x, y)) {
+                if (count == hits.length) {
+                    hits = Arrays.copyOf(hits, Math.min(limit, hits.length * 2));
+                }
+                hits[count++] = tile;
+            }
+        }
+        return count == hits.length ? hits : Arrays.copyOf(hits, count);
+    }
+
+    /**
+     * The heap pops the smallest priority first, so the score's sortable bits are inverted
+     */
+    private void push(TileHeap heap, int block, int cursor) {
+        heap.push(~sortable(score[order[block][cursor]]), block << CURSOR_BITS | cursor);
+    }
+
+    /**
+     * Float bits reordered so that int comparison matches float comparison
+     */
+    private static int sortable(float value) {
+        int bits = Float.floatToIntBits(value);
+        return bits ^ ((bits >> 31) & 0x7FFFFFFF);
+    }
+
+    private long blockDistanceSquared(int bx, int by, int cx, int cy) {
+        int x0 = bx << BLOCK_SHIFT;
+        int y0 = by << BLOCK_SHIFT;
+        long dx = Math.max(0, Math.max(x0 - cx, cx - Math.min(width - 1, x0 + BLOCK - 1)));
+        long dy = Math.max(0, Math.max(y0 - cy, cy - Math.min(height - 1, y0 + BLOCK - 1)));
+        return dx * dx + dy * dy;
+    }
+
+    /**
+     * Insertion sort by descending score; blocks hold at most 64 tiles
+     */
+    private void sortBlock(int[] tiles) {
+        for (int i = 1; i < tiles.length; i++) {
+            int tile = tiles[i];
+            float value = score[tile];
+            int j = i - 1;
+            while (j >= 0 && score[tiles[j]] < value) {
+                tiles[j + 1] = tiles[j];
+                j--;
+            }
+            tiles[j + 1] = tile;
+        }
+    }
+}
@@ -1,14 +1,26 @@
 package com.aliensattack.core.ai;
 
 import com.aliensattack.core.ai.interfaces.IEnemyAI;
+import com.aliensattack.core.interfaces.IUnit;
+import com.aliensattack.core.collections.LongHashSet;
 import com.aliensattack.core.model.Alien;
 import com.aliensattack.core.model.Position;
 import com.aliensattack.core.model.Unit;
 import com.aliensattack.core.enums.AlienType;
+import com.aliensattack.core.enums.CoverType;
+import com.aliensattack.field.FlowField;
 import com.aliensattack.field.ITacticalField;
+import com.aliensattack.field.InfluenceMap;
+import com.aliensattack.field.PathPlan;
+import com.aliensattack.field.ReachabilityMap;
+import com.aliensattack.field.VisibilityMatrix;
+import com.aliensattack.field.ZobristHash;
 import com.aliensattack.combat.interfaces.ICombatManagerExtended;
 import com.aliensattack.core.config.GameConfig;
+import com.aliensattack.core.performance.AdaptiveAIBudget;
+import com.aliensattack.core.performance.PerformanceManager;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.log4j.Log4j2;
@@ -27,16 +39,18 @@ import java.util.LinkedHashMap;
 @Log4j2
 public class EnemyAI implements IEnemyAI {
     
+    private static final String TILE_SCORE_STEP = "enemy.tile_score"; // Budget step: scoring one tile
+    private static final int COVER_CANDIDATES = 8; // Best cover tiles tried when taking cover
+    
     private Alien alien;
+    private Unit unit; // Field unit the alien stands for, null for legacy aliens
     private ITacticalField tacticalField;
     private ICombatManagerExtended combatManager;
     private int difficultyLevel;
     private Random random;
     
     // Enhanced AI state from AlienAI
-    private AIBehaviorTree behaviorTree;
-    private Map<String, AIBehaviorTree.BehaviorNode> aiBehaviors;
-    private Map<String, AIBehaviorTree.DecisionTree> aiDecisions;
+    private CompiledBehaviorTree decisionTree; // Shared by all aliens of the type
     private AIBehaviorTree.AIBehaviorType currentBehavior;
     private int intelligenceLevel;
     private int tacticalAwareness;
@@ -44,7 +58,7 @@ public class EnemyAI implements IEnemyAI {
     
     // Basic AI state
     private Position lastKnownPlayerPosition;
-    private List<Position> exploredPositions;
+    private final LongHashSet exploredPositions; // Packed (x, y, height) of visited tiles, guarded by itself
     private int turnsSinceLastSighting;
     private boolean isAggressive;
     private boolean isDefensive;
@@ -52,6 +66,10 @@ public class EnemyAI implements IEnemyAI {
     // Cover detection system
     private CoverDetectionSystem coverDetectionSystem;
     
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private volatile PhaseSight phaseSight; // Aliens x soldiers visibility handed over for the phase
+    
     // AI Learning and Adaptation
     private Map<String, Integer> successfulTactics;
     private Map<String, Integer> failedTactics;
@@ -61,8 +79,8 @@ public class EnemyAI implements IEnemyAI {
     private int memoryCapacity;
     
     // Performance Optimization
-    private Map<String, Object> decisionCache;
-    private long lastDecisionTime;
+    private Map<Long, Object> decisionCache; // Keyed by field state hash, see stateKey
+    private long lastDecisionTime; // Duration of the last plan, ms
     private int maxCalculationTime;
     private int cacheSize;
     private int maxPathfindingIterations;
@@ -72,7 +90,7 @@ public class EnemyAI implements IEnemyAI {
     
     public EnemyAI() {
         this.random = new Random();
-        this.exploredPositions = new ArrayList<>();
+        this.exploredPositions = new LongHashSet();
         this.difficultyLevel = GameConfig.getInt("ai.enemy.difficulty.level", 5);
         this.isAggressive = true;
         this.isDefensive = false;
@@ -93,7 +111,7 @@ public class EnemyAI implements IEnemyAI {
         // Initialize performance optimization
         this.decisionCache = new LinkedHashMap<>(16, 0.75f, true) {
             @Override
-            protected boolean removeEldestEntry(Map.Entry<String, Object> eldest) {
+            protected boolean removeEldestEntry(Map.Entry<Long, Object> eldest) {
                 return size() > cacheSize;
             }
         };
@@ -102,120 +120,7 @@ public class EnemyAI implements IEnemyAI {
         this.cacheSize = GameConfig.getAIPerformanceDecisionCacheSize();
         this.maxPathfindingIterations = GameConfig.getAIPerformancePathfindingMaxIterations();
         
-        initializeEnhancedAI();
-    }
-    
-    /**
-     * Initialize enhanced AI components from AlienAI
-     */
-    private void initializeEnhancedAI() {
-        if (behaviorTree == null) {
-            behaviorTree = new AIBehaviorTree();
-        }
-        if (aiBehaviors == null) {
-            aiBehaviors = new HashMap<>();
-        }
-        if (aiDecisions == null) {
-            aiDecisions = new HashMap<>();
-        }
-        
-        initializeAIBehaviors();
-        initializeAIDecisions();
-    }
-    
-    /**
-     * Initialize AI behaviors
-     */
-    private void initializeAIBehaviors() {
-        // Create AI behavior nodes
-        AIBehaviorTree.BehaviorNode combatBehavior = AIBehaviorTree.BehaviorNode.builder()
-                .nodeId("COMBAT_BEHAVIOR")
-                .nodeName("Combat Behavior")
-                .nodeType("COMBAT")
-                .behaviorType(AIBehaviorTree.AIBehaviorType.AGGRESSIVE)
-                .successRate(0.8)
-                .failureRate(0.2)
-                .energyCost(15)
-                .energyGained(0)
-                .isActive(false)
-                .isSuccessful(false)
-                .behaviorDescription("Combat-focused behavior")
-                .build();
-        
-        aiBehaviors.put(combatBehavior.getNodeId(), combatBehavior);
-        
-        AIBehaviorTree.BehaviorNode stealthBehavior = AIBehaviorTree.BehaviorNode.builder()
-                .nodeId("STEALTH_BEHAVIOR")
-                .nodeName("Stealth Behavior")
-                .nodeType("STEALTH")
-                .behaviorType(AIBehaviorTree.AIBehaviorType.DEFENSIVE)
-                .successRate(0.9)
-                .failureRate(0.1)
-                .energyCost(10)
-                .energyGained(0)
-                .isActive(false)
-                .isSuccessful(false)
-                .behaviorDescription("Stealth-focused behavior")
-                .build();
-        
-        aiBehaviors.put(stealthBehavior.getNodeId(), stealthBehavior);
-        
-        AIBehaviorTree.BehaviorNode supportBehavior = AIBehaviorTree.BehaviorNode.builder()
-                .nodeId("SUPPORT_BEHAVIOR")
-                .nodeName("Support Behavior")
-                .nodeType("SUPPORT")
-                .behaviorType(AIBehaviorTree.AIBehaviorType.SUPPORT)
-                .successRate(0.7)
-                .failureRate(0.3)
-                .energyCost(12)
-                .energyGained(0)
-                .isActive(false)
-                .isSuccessful(false)
-                .behaviorDescription("Support-focused behavior")
-                .build();
-        
-        aiBehaviors.put(supportBehavior.getNodeId(), supportBehavior);
-    }
-    
-    /**
-     * Initialize AI decisions
-     */
-    private void initializeAIDecisions() {
-        // Create decision tree for combat
-        AIBehaviorTree.DecisionTree combatTree = AIBehaviorTree.DecisionTree.builder()
-                .treeId("COMBAT_TREE")
-                .treeName("Combat Decision Tree")
-                .treeType("COMBAT")
-                .rootNodeId("COMBAT_BEHAVIOR")
-                .decisionNodes(new HashMap<>())
-                .isActive(true)
-                .build();
-        
-        aiDecisions.put(combatTree.getTreeId(), combatTree);
-        
-        // Create decision tree for stealth
-        AIBehaviorTree.DecisionTree stealthTree = AIBehaviorTree.DecisionTree.builder()
-                .treeId("STEALTH_TREE")
-                .treeName("Stealth Decision Tree")
-                .treeType("STEALTH")
-                .rootNodeId("STEALTH_BEHAVIOR")
-                .decisionNodes(new HashMap<>())
-                .isActive(true)
-                .build();
-        
-        aiDecisions.put(stealthTree.getTreeId(), stealthTree);
-        
-        // Create decision tree for support
-        AIBehaviorTree.DecisionTree supportTree = AIBehaviorTree.DecisionTree.builder()
-                .treeId("SUPPORT_TREE")
-                .treeName("Support Decision Tree")
-                .treeType("SUPPORT")
-                .rootNodeId("SUPPORT_BEHAVIOR")
-                .decisionNodes(new HashMap<>())
-                .isActive(true)
-                .build();
-        
-        aiDecisions.put(supportTree.getTreeId(), supportTree);
+        this.decisionTree = CompiledBehaviorTree.forType(null);
     }
     
     @Override
@@ -232,6 +137,7 @@ public class EnemyAI implements IEnemyAI {
     
     @Override
     public void initializeWithUnit(com.aliensattack.core.model.Unit unit) {
+        this.unit = unit;
         // For compatibility with any unit type
         if (unit.getUnitType() == com.aliensattack.core.enums.UnitType.ALIEN) {
             // Try to get alien-specific data if available
@@ -324,71 +230,80 @@ public class EnemyAI implements IEnemyAI {
             );
         }
         
-        return CompletableFuture.supplyAsync(() -> {
-            log.debug("AI making turn decision for alien: {}", alien.getName());
+        syncFromField();
+        DecisionContext context = new DecisionContext(tacticalField, null);
+        return CompletableFuture.supplyAsync(() -> decide(context));
+    }
+    
+    /**
+     * Runs the behavior tree against the context's field
+     * @return the decision, null if the context's plan ran out of time first
+     */
+    private IEnemyAI.AITurnDecision decide(DecisionContext context) {
+        log.debug("AI making turn decision for alien: {}", alien.getName());
+        
+        try {
+            // Update AI state
+            loadBlackboard(context);
+            if (context.shouldStop()) {
+                return null;
+            }
+            updateAIState(context.board.getTargets());
+            updateBehavior();
+            context.board.setSquadTactic(readySquadTactic());
             
-            try {
-                // Update AI state
-                updateAIState();
-                updateBehavior();
-                
-                // Check squad coordination if available
-                if (squadCoordination != null) {
-                    SquadCoordinationSystem.Squad squad = squadCoordination.getSquadForUnit(alien);
-                    if (squad != null) {
-                        // Consider squad tactics in decision making
-                        SquadCoordinationSystem.SquadTactic activeTactic = squadCoordination.getActiveTactic(squad.getSquadId());
-                        if (activeTactic != null && activeTactic.canUse()) {
-                            log.debug("AI considering squad tactic: {} for squad: {}", activeTactic.getName(), squad.getSquadId());
-                            
-                            // Execute squad tactic if appropriate
-                            if (shouldExecuteSquadTactic(activeTactic, squad)) {
-                                log.debug("AI executing squad tactic: {}", activeTactic.getName());
-                                return new IEnemyAI.AITurnDecision("squad_tactic", "none", null, null, 
-                                    "Executing squad tactic: " + activeTactic.getName(), 0.8);
-                            }
-                        }
-                        
-                        // Get squad coordination data for tactical positioning
-                        SquadCoordinationSystem.SquadCoordinationData coordinationData = 
-                            squadCoordination.getCoordinationData(squad.getSquadId());
-                        if (coordinationData != null) {
-                            log.debug("AI using squad coordination data - Tactical advantage: {}, Coordination score: {}", 
-                                     coordinationData.getTacticalAdvantage(), coordinationData.getCoordinationScore());
-                        }
-                    }
-                }
-                
-                // Make decision based on current situation and behavior tree
-                if (shouldUseSpecialAbility().join()) {
-                    log.debug("AI decided to use special ability");
-                    return new IEnemyAI.AITurnDecision("use_special_ability", "none", null, null, 
-                        "Using special ability", 0.7);
-                }
-                
-                if (shouldAttack()) {
-                    log.debug("AI decided to attack");
-                    return new IEnemyAI.AITurnDecision("attack_target", "none", null, null, 
-                        "Attacking target", 0.8);
-                }
-                
-                if (shouldMove()) {
-                    log.debug("AI decided to move");
-                    return new IEnemyAI.AITurnDecision("move_to_position", "none", null, null, 
-                        "Moving to position", 0.6);
-                }
-                
-                // Default: defensive stance
-                log.debug("AI taking defensive stance");
-                return new IEnemyAI.AITurnDecision("defend", "none", null, null, 
-                    "Taking defensive stance", 0.5);
-                
-            } catch (Exception e) {
-                log.error("Error making turn decision: {}", e.getMessage());
-                return new IEnemyAI.AITurnDecision("defend", "none", null, null, 
-                    "Error in decision making, taking defensive stance", 0.3);
+            // Make decision based on current situation and behavior tree
+            CompiledBehaviorTree.Action action = decisionTree.evaluate(context.board);
+            log.debug("AI decided: {}", action);
+            String reasoning = action == CompiledBehaviorTree.Action.SQUAD_TACTIC
+                    ? "Executing squad tactic: " + context.board.getSquadTactic() : action.getReasoning();
+            return new IEnemyAI.AITurnDecision(action.getActionName(), "none", null, null,
+                reasoning, action.getConfidence());
+            
+        } catch (Exception e) {
+            log.error("Error making turn decision: {}", e.getMessage());
+            return new IEnemyAI.AITurnDecision("defend", "none", null, null, 
+                "Error in decision making, taking defensive stance", 0.3);
+        }
+    }
+    
+    /**
+     * Fills the context's blackboard; the targets are searched once for all branches
+     */
+    private void loadBlackboard(DecisionContext context) {
+        context.board.load(alien, bestTargets(context.field), difficultyLevel, isAggressive, random);
+    }
+    
+    /**
+     * Name of the active tactic of this alien's squad if the alien executes it this turn
+     */
+    private String readySquadTactic() {
+        if (squadCoordination == null) {
+            return null;
+        }
+        SquadCoordinationSystem.Squad squad = squadCoordination.getSquadForUnit(alien);
+        if (squad == null) {
+            return null;
+        }
+        
+        // Consider squad tactics in decision making
+        SquadCoordinationSystem.SquadTactic activeTactic = squadCoordination.getActiveTactic(squad.getSquadId());
+        if (activeTactic != null && activeTactic.canUse()) {
+            log.debug("AI considering squad tactic: {} for squad: {}", activeTactic.getName(), squad.getSquadId());
+            if (shouldExecuteSquadTactic(activeTactic, squad)) {
+                log.debug("AI executing squad tactic: {}", activeTactic.getName());
+                return activeTactic.getName();
             }
-        });
+        }
+        
+        // Get squad coordination data for tactical positioning
+        SquadCoordinationSystem.SquadCoordinationData coordinationData =
+            squadCoordination.getCoordinationData(squad.getSquadId());
+        if (coordinationData != null) {
+            log.debug("AI using squad coordination data - Tactical advantage: {}, Coordination score: {}",
+                     coordinationData.getTacticalAdvantage(), coordinationData.getCoordinationScore());
+        }
+        return null;
     }
     
     /**
@@ -422,7 +337,7 @@ public class EnemyAI implements IEnemyAI {
         
         if (newBehavior != currentBehavior) {
             currentBehavior = newBehavior;
-            activateBehavior(newBehavior);
+            log.debug("AI activated behavior: {}", newBehavior);
         }
         
         // Update tactical awareness
@@ -559,45 +474,44 @@ public class EnemyAI implements IEnemyAI {
         return stats.toString();
     }
     
-    /**
-     * Check calculation time limit
-     */
-    private boolean isCalculationTimeExceeded() {
-        long currentTime = System.currentTimeMillis();
-        long elapsed = currentTime - lastDecisionTime;
-        return elapsed > maxCalculationTime;
-    }
-    
     /**
      * Cache decision result
      */
-    private void cacheDecision(String key, Object result) {
-        if (decisionCache.size() >= cacheSize) {
-            // Remove oldest entry (handled by LinkedHashMap)
-            decisionCache.remove(decisionCache.keySet().iterator().next());
+    private void cacheDecision(long key, Object result) {
+        synchronized (decisionCache) {
+            // Oldest entry is dropped by removeEldestEntry
+            decisionCache.put(key, result);
         }
-        decisionCache.put(key, result);
     }
     
     /**
      * Get cached decision result
      */
-    private Object getCachedDecision(String key) {
-        return decisionCache.get(key);
+    private Object getCachedDecision(long key) {
+        synchronized (decisionCache) {
+            return decisionCache.get(key);
+        }
     }
     
     /**
-     * Check if decision is cached
+     * Key of a decision: the field's state hash folded with this alien's tile
+     * (one unit per tile identifies it) and action points. A changed field never
+     * hits entries of the old state, so they need no explicit invalidation.
      */
-    private boolean isDecisionCached(String key) {
-        return decisionCache.containsKey(key);
+    private long stateKey(ITacticalField field) {
+        long key = field.getStateHash();
+        key = ZobristHash.combine(key, alien.getPosition() != null ? alien.getPosition().pack() : -1L);
+        key = ZobristHash.combine(key, Double.doubleToLongBits(alien.getActionPoints()));
+        return key;
     }
     
     /**
      * Clear decision cache
      */
     public void clearDecisionCache() {
-        decisionCache.clear();
+        synchronized (decisionCache) {
+            decisionCache.clear();
+        }
         log.debug("AI decision cache cleared");
     }
     
@@ -616,133 +530,22 @@ public class EnemyAI implements IEnemyAI {
     }
     
     /**
-     * Optimized pathfinding with iteration limits
+     * Hierarchical pathfinding: the route is planned over cluster entrances and
+     * legs are refined into tiles only until they cover this turn's movement range
      */
     private List<Position> calculateOptimizedPath(Position from, Position to) {
-        List<Position> path = new ArrayList<>();
-        int iterations = 0;
-        
-        // Simple A* inspired pathfinding with iteration limit
-        PriorityQueue<PathNode> openSet = new PriorityQueue<>();
-        Set<Position> closedSet = new HashSet<>();
-        
-        PathNode startNode = new PathNode(from, null, 0, calculateHeuristic(from, to));
-        openSet.add(startNode);
-        
-        while (!openSet.isEmpty() && iterations < maxPathfindingIterations) {
-            PathNode current = openSet.poll();
-            iterations++;
-            
-            if (current.position.equals(to)) {
-                // Reconstruct path
-                return reconstructPath(current);
-            }
-            
-            closedSet.add(current.position);
-            
-            // Check neighbors
-            for (Position neighbor : getNeighbors(current.position)) {
-                if (closedSet.contains(neighbor)) {
-                    continue;
-                }
-                
-                double newCost = current.gCost + 1;
-                PathNode neighborNode = new PathNode(neighbor, current, newCost, calculateHeuristic(neighbor, to));
-                
-                if (!openSet.contains(neighborNode)) {
-                    openSet.add(neighborNode);
-                }
-            }
+        PathPlan plan = tacticalField.planPath(from, to);
+        if (plan == null) {
+            log.debug("No route found for {} -> {}, using straight line", from, to);
+            return calculatePath(from, to);
         }
         
-        // Fallback to simple path if optimization fails
-        log.debug("Pathfinding optimization failed, using fallback for {} -> {}", from, to);
-        return calculatePath(from, to);
-    }
-    
-    /**
-     * Path node for A* pathfinding
-     */
-    private static class PathNode implements Comparable<PathNode> {
-        Position position;
-        PathNode parent;
-        double gCost;
-        double hCost;
-        
-        PathNode(Position position, PathNode parent, double gCost, double hCost) {
-            this.position = position;
-            this.parent = parent;
-            this.gCost = gCost;
-            this.hCost = hCost;
-        }
-        
-        double getFCost() {
-            return gCost + hCost;
-        }
-        
-        @Override
-        public int compareTo(PathNode other) {
-            return Double.compare(this.getFCost(), other.getFCost());
-        }
-        
-        @Override
-        public boolean equals(Object obj) {
-            if (this == obj) return true;
-            if (obj == null || getClass() != obj.getClass()) return false;
-            PathNode pathNode = (PathNode) obj;
-            return Objects.equals(position, pathNode.position);
-        }
-        
-        @Override
-        public int hashCode() {
-            return Objects.hash(position);
-        }
-    }
-    
-    /**
-     * Calculate heuristic for A* pathfinding
-     */
-    private double calculateHeuristic(Position from, Position to) {
-        // Manhattan distance
-        return Math.abs(to.getX() - from.getX()) + Math.abs(to.getY() - from.getY());
-    }
-    
-    /**
-     * Get neighboring positions
-     */
-    private List<Position> getNeighbors(Position position) {
-        List<Position> neighbors = new ArrayList<>();
-        int[] dx = {-1, 0, 1, 0};
-        int[] dy = {0, 1, 0, -1};
-        
-        for (int i = 0; i < 4; i++) {
-            int newX = position.getX() + dx[i];
-            int newY = position.getY() + dy[i];
-            
-            if (newX >= 0 && newX < tacticalField.getWidth() &&
-                newY >= 0 && newY < tacticalField.getHeight()) {
-                Position neighbor = new Position(newX, newY);
-                if (isPositionAccessible(neighbor)) {
-                    neighbors.add(neighbor);
-                }
-            }
-        }
-        
-        return neighbors;
-    }
-    
-    /**
-     * Reconstruct path from A* pathfinding
-     */
-    private List<Position> reconstructPath(PathNode endNode) {
         List<Position> path = new ArrayList<>();
-        PathNode current = endNode;
-        
-        while (current != null) {
-            path.add(0, current.position);
-            current = current.parent;
+        path.add(from);
+        int movementRange = alien != null ? alien.getMovementRange() : Integer.MAX_VALUE;
+        for (int leg = 0; leg < plan.getLegCount() && path.size() <= movementRange; leg++) {
+            path.addAll(plan.getLeg(leg));
         }
-        
         return path;
     }
     
@@ -762,26 +565,6 @@ public class EnemyAI implements IEnemyAI {
         }
     }
     
-    /**
-     * Activate behavior
-     */
-    private void activateBehavior(AIBehaviorTree.AIBehaviorType behaviorType) {
-        // Deactivate all behaviors
-        for (AIBehaviorTree.BehaviorNode behavior : aiBehaviors.values()) {
-            behavior.setActive(false);
-        }
-        
-        // Activate appropriate behavior
-        for (AIBehaviorTree.BehaviorNode behavior : aiBehaviors.values()) {
-            if (behavior.getBehaviorType() == behaviorType) {
-                behavior.setActive(true);
-                break;
-            }
-        }
-        
-        log.debug("AI activated behavior: {}", behaviorType);
-    }
-    
     /**
      * Update tactical awareness
      */
@@ -807,8 +590,7 @@ public class EnemyAI implements IEnemyAI {
         status.append("- Aggression Level: ").append(aggressionLevel).append("\n");
         status.append("- Difficulty Level: ").append(difficultyLevel).append("\n");
         status.append("- Adaptation Level: ").append(adaptationLevel).append("\n");
-        status.append("- Active Behaviors: ").append(aiBehaviors.values().stream().filter(AIBehaviorTree.BehaviorNode::isActive).count()).append("\n");
-        status.append("- Active Decision Trees: ").append(aiDecisions.values().stream().filter(AIBehaviorTree.DecisionTree::isActive).count()).append("\n");
+        status.append("- Behavior Tree: ").append(decisionTree.size()).append(" nodes\n");
         status.append("- Cover Detection: ").append(coverDetectionSystem != null ? "Enabled" : "Disabled").append("\n");
         status.append("- Decision Cache: ").append(decisionCache.size()).append("/").append(cacheSize).append("\n");
         
@@ -821,18 +603,17 @@ public class EnemyAI implements IEnemyAI {
             return CompletableFuture.completedFuture(false);
         }
         
+        DecisionContext context = new DecisionContext(tacticalField, null);
         return CompletableFuture.supplyAsync(() -> {
             try {
                 // Execute the decided action
-                if (shouldUseSpecialAbility().join()) {
-                    return executeSpecialAbility();
-                } else if (shouldAttack()) {
-                    return executeAttack();
-                } else if (shouldMove()) {
-                    return executeMove();
-                } else {
-                    return executeDefend();
-                }
+                loadBlackboard(context);
+                return switch (decisionTree.evaluate(context.board)) {
+                    case SPECIAL_ABILITY -> executeSpecialAbility();
+                    case ATTACK -> executeAttack();
+                    case MOVE -> executeMove();
+                    default -> executeDefend();
+                };
             } catch (Exception e) {
                 log.error("Error executing AI action for alien {}: {}", alien.getName(), e.getMessage());
                 return false;
@@ -841,57 +622,293 @@ public class EnemyAI implements IEnemyAI {
     }
     
     @Override
-    public CompletableFuture<Position> calculateBestMovePosition() {
-        if (alien == null || tacticalField == null) {
-            return CompletableFuture.completedFuture(null);
+    public CompletableFuture<IEnemyAI.AITurnDecision> planTurn(ITacticalField view) {
+        if (alien == null || !alien.isAlive() || view == null) {
+            return makeTurnDecision();
         }
         
+        syncFromField();
+        AnytimePlan plan = new AnytimePlan(maxCalculationTime);
+        plan.offer(holdDecision(), 0);
         return CompletableFuture.supplyAsync(() -> {
-            Position currentPos = alien.getPosition();
-            if (currentPos == null) {
-                return null;
+            refine(view, plan);
+            return plan.getBest();
+        });
+    }
+    
+    @Override
+    public AnytimePlan planAnytime(ITacticalField view, long budgetMillis) {
+        if (alien == null || !alien.isAlive() || view == null) {
+            return IEnemyAI.super.planAnytime(view, budgetMillis);
+        }
+        
+        syncFromField();
+        // Holding position stands even if no planning thread picks the plan up before the deadline
+        AnytimePlan plan = new AnytimePlan(budgetMillis);
+        plan.offer(holdDecision(), 0);
+        CompletableFuture.runAsync(() -> refine(view, plan));
+        return plan;
+    }
+    
+    /**
+     * Brings the alien's position and action points and the cover analysis up
+     * to date with the live field before a plan is handed to a planning
+     * thread, which only reads them
+     */
+    private void syncFromField() {
+        if (unit != null && unit.getPosition() != null) {
+            alien.setPosition(unit.getPosition());
+            alien.setActionPoints(unit.getActionPoints());
+        }
+        if (coverDetectionSystem != null) {
+            coverDetectionSystem.syncWithField();
+        }
+    }
+    
+    private IEnemyAI.AITurnDecision holdDecision() {
+        return new IEnemyAI.AITurnDecision("defend", "none", alien.getPosition(), null,
+                "Holding position while planning", 0.3);
+    }
+    
+    /**
+     * Plans against the view as an anytime search on top of the hold offered
+     * when the plan was created: the chosen action, then a move refined ring by
+     * ring of movement cost with the best tile offered after every ring. Every
+     * step checks the budget and stops with the best so far when it runs out or
+     * the next ring is not expected to fit; only plans that ran to the end are cached.
+     */
+    private void refine(ITacticalField view, AnytimePlan plan) {
+        long started = System.nanoTime();
+        plan.begin();
+        try {
+            // A plan for an identical state and alien is reused as is
+            long key = stateKey(view);
+            if (getCachedDecision(key) instanceof IEnemyAI.AITurnDecision cached) {
+                log.debug("AI reusing cached plan for alien: {}", alien.getName());
+                plan.complete(cached);
+                return;
             }
             
-            // Find best strategic position
-            List<Position> validPositions = getValidMovePositions();
-            if (validPositions.isEmpty()) {
-                return currentPos; // Stay in place
+            // The view travels with the decision; the live field is never touched
+            DecisionContext context = new DecisionContext(view, plan);
+            IEnemyAI.AITurnDecision decision = decide(context);
+            IEnemyAI.AITurnDecision planned = decision == null ? null
+                    : "move_to_position".equals(decision.getPrimaryAction())
+                    ? refineMove(decision, context, plan) : withTargets(decision, context);
+            if (planned != null && !plan.shouldStop()) {
+                cacheDecision(key, planned);
+            }
+            plan.complete(planned); // null keeps the best so far
+        } catch (Exception e) {
+            log.error("AI planning failed for alien {}: {}", alien.getName(), e.getMessage());
+            plan.fail(e);
+        } finally {
+            lastDecisionTime = (System.nanoTime() - started) / 1_000_000L;
+        }
+    }
+    
+    /**
+     * Scores the reachable tiles in rings of increasing movement cost, so the
+     * best-so-far move only widens its horizon while time allows
+     */
+    private IEnemyAI.AITurnDecision refineMove(IEnemyAI.AITurnDecision decision, DecisionContext context,
+                                               AnytimePlan plan) {
+        Position currentPos = alien.getPosition();
+        ReachabilityMap reach = context.field.getReachability(alien, alien.getMovementRange());
+        List<Position> candidates = getValidMovePositions(context.field);
+        candidates.sort(Comparator.comparingInt(reach::getCost));
+        
+        InfluenceMap influence = context.field.getInfluenceMap();
+        InfluenceMap.Weights weights = InfluenceMap.Weights.fromConfig();
+        AdaptiveAIBudget budget = PerformanceManager.getInstance().getAIBudget();
+        Position bestPosition = currentPos;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        int ring = 0;
+        for (int start = 0; start < candidates.size(); ring++) {
+            int cost = reach.getCost(candidates.get(start));
+            int end = start;
+            while (end < candidates.size() && reach.getCost(candidates.get(end)) == cost) {
+                end++;
+            }
+            long expected = budget.estimateNanos(TILE_SCORE_STEP) * (end - start);
+            if (ring == 0 ? plan.shouldStop() : !plan.canAfford(expected)) {
+                log.debug("AI move search for {} stopped after {} of {} tiles", alien.getName(), start,
+                        candidates.size());
+                break;
             }
             
-            // Score positions based on AI strategy
-            Position bestPosition = validPositions.stream()
-                .max(Comparator.comparingInt(this::scorePosition))
-                .orElse(currentPos);
-            
-            log.debug("AI calculated best move position: {} -> {}", currentPos, bestPosition);
-            return bestPosition;
-        });
+            long ringStart = System.nanoTime();
+            for (int i = start; i < end; i++) {
+                double score = scorePosition(context.field, candidates.get(i), influence, weights);
+                if (score > bestScore) {
+                    bestScore = score;
+                    bestPosition = candidates.get(i);
+                }
+            }
+            budget.record(TILE_SCORE_STEP, (System.nanoTime() - ringStart) / (end - start));
+            plan.offer(withDestination(decision, bestPosition), ring + 1);
+            start = end;
+        }
+        return withDestination(decision, bestPosition);
+    }
+    
+    private static IEnemyAI.AITurnDecision withDestination(IEnemyAI.AITurnDecision decision, Position destination) {
+        return new IEnemyAI.AITurnDecision(decision.getPrimaryAction(), decision.getSecondaryAction(),
+                destination, null, decision.getReasoning(), decision.getConfidence());
+    }
+    
+    @Override
+    public CompletableFuture<Boolean> executeDecision(IEnemyAI.AITurnDecision decision) {
+        if (alien == null || !alien.isAlive() || decision == null) {
+            return CompletableFuture.completedFuture(false);
+        }
+        
+        try {
+            boolean executed = switch (decision.getPrimaryAction()) {
+                case "use_special_ability" -> executeSpecialAbility();
+                case "attack_target" -> decision.getTargetUnit() != null
+                        ? executeAttack(decision.getTargetUnit()) : executeAttack();
+                case "move_to_position" -> executeMoveTo(decision.getTargetPosition());
+                case "none" -> false;
+                default -> executeDefend();
+            };
+            return CompletableFuture.completedFuture(executed);
+        } catch (Exception e) {
+            log.error("Error executing planned action for alien {}: {}", alien.getName(), e.getMessage());
+            return CompletableFuture.completedFuture(false);
+        }
+    }
+    
+    /**
+     * Resolves the destination or target of a decision, so the plan can be
+     * validated and committed after planning
+     * @return null if the context's plan ran out of time first
+     */
+    private IEnemyAI.AITurnDecision withTargets(IEnemyAI.AITurnDecision decision, DecisionContext context) {
+        if (context.shouldStop()) {
+            return null;
+        }
+        return switch (decision.getPrimaryAction()) {
+            case "move_to_position" -> withDestination(decision, bestMovePosition(context.field));
+            case "attack_target" -> {
+                List<Unit> targets = context.board.getTargets();
+                yield new IEnemyAI.AITurnDecision(decision.getPrimaryAction(), decision.getSecondaryAction(),
+                        null, targets.isEmpty() ? null : targets.get(0),
+                        decision.getReasoning(), decision.getConfidence());
+            }
+            case "defend" -> withCover(decision, context.field);
+            default -> decision;
+        };
+    }
+    
+    /**
+     * Turns a defensive stance into a move when a better covered tile is in
+     * reach; the cover index hands over the few best tiles around the alien
+     */
+    private IEnemyAI.AITurnDecision withCover(IEnemyAI.AITurnDecision decision, ITacticalField field) {
+        Position currentPos = alien.getPosition();
+        if (coverDetectionSystem == null || currentPos == null || coverDetectionSystem.hasGoodCover(currentPos)) {
+            return decision;
+        }
+        
+        double currentCover = coverDetectionSystem.getCoverValueAt(currentPos);
+        for (Position tile : coverDetectionSystem.getBestCoverPositions(currentPos, alien.getMovementRange(),
+                COVER_CANDIDATES)) {
+            if (coverDetectionSystem.getCoverValueAt(tile) > currentCover && canMoveToPosition(field, currentPos, tile)) {
+                return new IEnemyAI.AITurnDecision("move_to_position", "defend", tile, null,
+                        "Moving into cover", decision.getConfidence());
+            }
+        }
+        return decision;
+    }
+    
+    @Override
+    public CompletableFuture<Position> calculateBestMovePosition() {
+        ITacticalField field = tacticalField;
+        if (alien == null || field == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        
+        return CompletableFuture.supplyAsync(() -> bestMovePosition(field));
+    }
+    
+    private Position bestMovePosition(ITacticalField field) {
+        Position currentPos = alien.getPosition();
+        if (currentPos == null) {
+            return null;
+        }
+        
+        // Find best strategic position
+        List<Position> validPositions = getValidMovePositions(field);
+        if (validPositions.isEmpty()) {
+            return currentPos; // Stay in place
+        }
+        
+        // Score the whole reachable set: every term is an array read
+        InfluenceMap influence = field.getInfluenceMap();
+        InfluenceMap.Weights weights = InfluenceMap.Weights.fromConfig();
+        Position bestPosition = validPositions.stream()
+            .max(Comparator.comparingDouble(pos -> scorePosition(field, pos, influence, weights)))
+            .orElse(currentPos);
+        
+        log.debug("AI calculated best move position: {} -> {}", currentPos, bestPosition);
+        return bestPosition;
     }
     
     @Override
     public CompletableFuture<List<Unit>> findBestTargets() {
-        if (alien == null || tacticalField == null) {
+        ITacticalField field = tacticalField;
+        if (alien == null || field == null) {
             return CompletableFuture.completedFuture(new ArrayList<>());
         }
         
-        return CompletableFuture.supplyAsync(() -> {
+        return CompletableFuture.supplyAsync(() -> bestTargets(field));
+    }
+    
+    @Override
+    public void setPhaseSight(ITacticalField view, VisibilityMatrix<Unit> sight) {
+        phaseSight = view != null && sight != null ? new PhaseSight(view, sight) : null;
+    }
+    
+    private List<Unit> bestTargets(ITacticalField field) {
+        if (alien == null || field == null) {
+            return new ArrayList<>();
+        }
+        
+        // The phase's matrix already has this alien's row when planning on its view
+        PhaseSight shared = phaseSight;
+        VisibilityMatrix<Unit> sight;
+        IUnit observer;
+        List<Unit> targets;
+        if (shared != null && shared.view() == field && unit != null && shared.matrix().hasObserver(unit)) {
+            sight = shared.matrix();
+            observer = unit;
+            targets = sight.getVisibleTargets(unit).stream()
+                .filter(target -> isInAttackRange(target))
+                .collect(Collectors.toList());
+        } else {
             // Find all player units in range
-            List<Unit> targets = tacticalField.getAllUnits().stream()
+            List<Unit> inRange = field.getAllUnits().stream()
                 .filter(unit -> unit.getUnitType() == com.aliensattack.core.enums.UnitType.SOLDIER)
                 .filter(unit -> unit.isAlive())
                 .filter(unit -> isInAttackRange(unit))
                 .collect(Collectors.toList());
             
-            // Sort by priority (closest, weakest, etc.)
-            targets.sort((t1, t2) -> {
-                int priority1 = calculateTargetPriority(t1);
-                int priority2 = calculateTargetPriority(t2);
-                return Integer.compare(priority2, priority1); // Higher priority first
-            });
-            
-            log.debug("AI found {} potential targets", targets.size());
-            return targets;
+            // One batched visibility/cover pass instead of a line-of-sight check per target
+            sight = field.computeVisibilityMatrix(List.of(alien), inRange);
+            observer = alien;
+            targets = sight.getVisibleTargets(alien);
+        }
+        
+        // Sort by priority (closest, weakest, exposed, etc.)
+        targets.sort((t1, t2) -> {
+            int priority1 = calculateTargetPriority(t1) + exposureBonus(sight.getCover(observer, t1));
+            int priority2 = calculateTargetPriority(t2) + exposureBonus(sight.getCover(observer, t2));
+            return Integer.compare(priority2, priority1); // Higher priority first
         });
+        
+        log.debug("AI found {} potential targets", targets.size());
+        return targets;
     }
     
     @Override
@@ -927,8 +944,8 @@ public class EnemyAI implements IEnemyAI {
     public void setTacticalField(ITacticalField field) {
         this.tacticalField = field;
         
-        // Initialize cover detection system when tactical field is set
-        if (field != null) {
+        // Initialize cover detection system when a new tactical field is set
+        if (field != null && (coverDetectionSystem == null || coverDetectionSystem.getTacticalField() != field)) {
             this.coverDetectionSystem = new CoverDetectionSystem(field);
             log.debug("Cover detection system initialized for AI: {}", alien != null ? alien.getName() : "Unknown");
         }
@@ -956,6 +973,7 @@ public class EnemyAI implements IEnemyAI {
     // Private helper methods
     
     private void setAIBehaviorByType(AlienType alienType) {
+        decisionTree = CompiledBehaviorTree.forType(alienType);
         switch (alienType) {
             case ADVENT_MUTON -> {
                 isAggressive = true;
@@ -983,9 +1001,8 @@ public class EnemyAI implements IEnemyAI {
         }
     }
     
-    private void updateAIState() {
+    private void updateAIState(List<Unit> visiblePlayers) {
         // Update last known player position
-        List<Unit> visiblePlayers = findBestTargets().join();
         if (!visiblePlayers.isEmpty()) {
             lastKnownPlayerPosition = visiblePlayers.get(0).getPosition();
             turnsSinceLastSighting = 0;
@@ -995,47 +1012,25 @@ public class EnemyAI implements IEnemyAI {
         
         // Update explored positions
         if (alien.getPosition() != null) {
-            exploredPositions.add(alien.getPosition());
-        }
-    }
-    
-    private boolean shouldAttack() {
-        if (alien.getActionPoints() < 1) {
-            return false;
-        }
-        
-        List<Unit> targets = findBestTargets().join();
-        if (targets.isEmpty()) {
-            return false;
+            synchronized (exploredPositions) {
+                exploredPositions.add(alien.getPosition().pack());
+            }
         }
-        
-        // Aggressive AI attacks more often
-        double attackChance = isAggressive ? 0.8 : 0.5;
-        return random.nextDouble() < attackChance;
     }
     
-    private boolean shouldMove() {
-        if (alien.getActionPoints() < 1) {
-            return false;
-        }
-        
-        // Move if no targets in range or for tactical positioning
-        List<Unit> targets = findBestTargets().join();
-        if (targets.isEmpty()) {
-            return true; // Move to find targets
-        }
-        
-        // Move for better positioning
-        Position bestPos = calculateBestMovePosition().join();
-        if (bestPos != null && !bestPos.equals(alien.getPosition())) {
-            return true;
+    /**
+     * Whether scoring the reachable tiles finds a better one than the current tile
+     */
+    private boolean hasBetterPosition(DecisionContext context) {
+        if (context.shouldStop()) {
+            return false; // No time left to score the tiles
         }
-        
-        return false;
+        Position bestPos = bestMovePosition(context.field);
+        return bestPos != null && !bestPos.equals(alien.getPosition());
     }
     
-    private List<Position> getValidMovePositions() {
-        if (alien == null || tacticalField == null) {
+    private List<Position> getValidMovePositions(ITacticalField field) {
+        if (alien == null || field == null) {
             return new ArrayList<>();
         }
         
@@ -1044,23 +1039,11 @@ public class EnemyAI implements IEnemyAI {
             return new ArrayList<>();
         }
         
+        // One reachability pass replaces a path check per candidate tile
         List<Position> validPositions = new ArrayList<>();
-        int maxRange = alien.getMovementRange();
-        
-        for (int x = Math.max(0, currentPos.getX() - maxRange); 
-             x <= Math.min(tacticalField.getWidth() - 1, currentPos.getX() + maxRange); x++) {
-            for (int y = Math.max(0, currentPos.getY() - maxRange); 
-                 y <= Math.min(tacticalField.getHeight() - 1, currentPos.getY() + maxRange); y++) {
-                
-                Position pos = new Position(x, y);
-                int distance = Math.abs(x - currentPos.getX()) + Math.abs(y - currentPos.getY());
-                
-                if (distance <= maxRange && distance > 0 && isValidPosition(pos)) {
-                    // Check if movement to this position is actually possible
-                    if (canMoveToPosition(currentPos, pos)) {
-                        validPositions.add(pos);
-                    }
-                }
+        for (Position pos : field.getReachability(alien, alien.getMovementRange()).getReachablePositions()) {
+            if (canMoveToPosition(field, currentPos, pos)) {
+                validPositions.add(pos);
             }
         }
         
@@ -1070,7 +1053,7 @@ public class EnemyAI implements IEnemyAI {
     /**
      * Check if movement to a position is possible
      */
-    private boolean canMoveToPosition(Position from, Position to) {
+    private boolean canMoveToPosition(ITacticalField field, Position from, Position to) {
         if (from.equals(to)) {
             return false;
         }
@@ -1080,13 +1063,8 @@ public class EnemyAI implements IEnemyAI {
             return false;
         }
         
-        // Check if there's a clear path
-        if (!hasClearPath(from, to)) {
-            return false;
-        }
-        
-        // Check if the target position is accessible
-        return isPositionAccessible(to);
+        // Reachable within the movement range, around walls and units
+        return field.getReachability(alien, alien.getMovementRange()).isReachable(to);
     }
     
     /**
@@ -1114,22 +1092,6 @@ public class EnemyAI implements IEnemyAI {
         return Math.max(baseCost, distance);
     }
     
-    /**
-     * Check if there's a clear path between two positions
-     */
-    private boolean hasClearPath(Position from, Position to) {
-        // Simple line-of-sight check
-        List<Position> path = calculatePath(from, to);
-        
-        for (Position pos : path) {
-            if (!isPositionAccessible(pos)) {
-                return false;
-            }
-        }
-        
-        return true;
-    }
-    
     /**
      * Calculate path between two positions (simple line algorithm)
      */
@@ -1171,81 +1133,43 @@ public class EnemyAI implements IEnemyAI {
         return path;
     }
     
-    /**
-     * Check if a position is accessible
-     */
-    private boolean isPositionAccessible(Position position) {
-        if (tacticalField == null) {
-            return false;
-        }
-        
-        // Check bounds
-        if (position.getX() < 0 || position.getX() >= tacticalField.getWidth() ||
-            position.getY() < 0 || position.getY() >= tacticalField.getHeight()) {
-            return false;
-        }
-        
-        // Check if occupied by another unit
-        Unit unitAtPosition = tacticalField.getUnitAt(position);
-        if (unitAtPosition != null) {
-            return false;
-        }
-        
-        // Check if position is blocked by terrain (if cover detection available)
-        if (coverDetectionSystem != null) {
-            // For now, assume all positions are accessible
-            // In the future, this could check for blocked terrain
-            return true;
-        }
-        
-        return true;
-    }
-    
-    private boolean isValidPosition(Position position) {
-        if (tacticalField == null) {
-            return false;
-        }
-        
-        // Check if position is within bounds
-        if (position.getX() < 0 || position.getX() >= tacticalField.getWidth() ||
-            position.getY() < 0 || position.getY() >= tacticalField.getHeight()) {
-            return false;
-        }
-        
-        // Check if position is occupied
-        Unit unitAtPosition = tacticalField.getUnitAt(position);
-        return unitAtPosition == null;
-    }
-    
-    private int scorePosition(Position position) {
-        int score = 0;
+    private double scorePosition(ITacticalField field, Position position, InfluenceMap influence,
+                                 InfluenceMap.Weights weights) {
+        double score = 0;
         
         // Higher score for positions closer to players
         if (lastKnownPlayerPosition != null) {
-            int distanceToPlayer = Math.abs(position.getX() - lastKnownPlayerPosition.getX()) + 
-                                  Math.abs(position.getY() - lastKnownPlayerPosition.getY());
-            score += (20 - distanceToPlayer); // Closer is better
+            score += (20 - routeDistance(field, position, lastKnownPlayerPosition)); // Closer is better
         }
         
         // Bonus for unexplored positions
-        if (!exploredPositions.contains(position)) {
+        boolean explored;
+        synchronized (exploredPositions) {
+            explored = exploredPositions.contains(position.pack());
+        }
+        if (!explored) {
             score += 5;
         }
         
-        // Bonus for defensive positions (near cover, etc.)
-        if (hasCover(position)) {
-            score += 3;
-        }
+        // Cover, squad support and objectives minus the threat the soldiers project on the tile
+        score += influence.score(alien.getUnitType(), position.getX(), position.getY(), weights, alien.getPosition());
         
         return score;
     }
     
-    private boolean hasCover(Position position) {
-        if (coverDetectionSystem != null) {
-            return coverDetectionSystem.hasCover(position);
+    /**
+     * Walking cost to the goal read from the shared flow field (every alien
+     * chasing the same player reuses it); Manhattan distance if unreachable
+     */
+    private int routeDistance(ITacticalField field, Position position, Position goal) {
+        if (field != null) {
+            FlowField flow = field.getFlowField(List.of(goal));
+            int cost = flow != null ? flow.getCost(position) : -1;
+            if (cost >= 0) {
+                return cost;
+            }
         }
-        // Fallback: return false if cover detection system not available
-        return false;
+        return Math.abs(position.getX() - goal.getX()) + Math.abs(position.getY() - goal.getY());
     }
     
     private boolean isInAttackRange(Unit target) {
@@ -1288,6 +1212,18 @@ public class EnemyAI implements IEnemyAI {
         return priority;
     }
     
+    /**
+     * Targets caught without cover from this alien are preferred
+     */
+    private int exposureBonus(CoverType cover) {
+        return switch (cover) {
+            case NONE, FLANKED -> 20;
+            case LIGHT, LOW_COVER -> 10;
+            case HALF_COVER, HEAVY -> 5;
+            default -> 0;
+        };
+    }
+    
     private double calculateSpecialAbilityChance() {
         double baseChance = 0.3;
         
@@ -1320,7 +1256,7 @@ public class EnemyAI implements IEnemyAI {
         
         // TODO: Implement actual ability execution
         // For now, just consume action points
-        alien.spendActionPoints(2);
+        spendActionPoints(2);
         
         return true;
     }
@@ -1331,12 +1267,19 @@ public class EnemyAI implements IEnemyAI {
             return false;
         }
         
-        Unit target = targets.get(0); // Attack highest priority target
+        return executeAttack(targets.get(0)); // Attack highest priority target
+    }
+    
+    private boolean executeAttack(Unit target) {
+        if (!target.isAlive()) {
+            return false;
+        }
+        
         log.debug("AI attacking target: {} with alien: {}", target.getName(), alien.getName());
         
         // TODO: Implement actual attack logic
         // For now, just consume action points
-        alien.spendActionPoints(1);
+        spendActionPoints(1);
         
         return true;
     }
@@ -1351,17 +1294,49 @@ public class EnemyAI implements IEnemyAI {
         
         // TODO: Implement actual movement logic
         // For now, just consume action points
-        alien.spendActionPoints(1);
+        spendActionPoints(1);
+        
+        return true;
+    }
+    
+    /**
+     * Moves the alien to its planned tile. The turn manager commits a planned
+     * move on the field before executing the decision, so the field unit may
+     * already stand there; that counts as the move, not as a failure.
+     */
+    private boolean executeMoveTo(Position targetPos) {
+        if (targetPos == null) {
+            return false;
+        }
+        if (unit != null && !targetPos.equals(unit.getPosition())
+                && !tacticalField.moveUnit(unit, targetPos.getX(), targetPos.getY())) {
+            log.debug("AI move of {} to {} rejected by the field", alien.getName(), targetPos);
+            return false;
+        }
+        
+        log.debug("AI moved alien: {} to planned position: {}", alien.getName(), targetPos);
+        alien.setPosition(targetPos);
+        spendActionPoints(1);
         
         return true;
     }
     
+    /**
+     * Spends action points of the alien and of the field unit it stands for
+     */
+    private void spendActionPoints(double amount) {
+        alien.spendActionPoints(amount);
+        if (unit != null) {
+            unit.spendActionPoints(amount);
+        }
+    }
+    
     private boolean executeDefend() {
         log.debug("AI defending with alien: {}", alien.getName());
         
         // TODO: Implement defensive stance
         // For now, just consume action points
-        alien.spendActionPoints(1);
+        spendActionPoints(1);
         
         return true;
     }
@@ -1374,7 +1349,7 @@ public class EnemyAI implements IEnemyAI {
     @Override
     public CompletableFuture<IEnemyAI.TacticalSituation> analyzeTacticalSituation() {
         return CompletableFuture.completedFuture(new IEnemyAI.TacticalSituation(
-            getValidMovePositions(),
+            getValidMovePositions(tacticalField),
             getVisibleEnemies(),
             getVisibleAllies(),
             new HashMap<>(),
@@ -1406,4 +1381,29 @@ public class EnemyAI implements IEnemyAI {
             .filter(unit -> !unit.equals(alien))
             .collect(Collectors.toList());
     }
+    
+    /**
+     * One decision: the field it is made against, its own blackboard and,
+     * when planned anytime, the plan whose budget every step respects.
+     * Nothing in it is shared with other decisions of this AI, so a plan on a
+     * snapshot never swaps the live field and an abandoned plan still running
+     * in the background cannot disturb the next one.
+     */
+    private final class DecisionContext {
+        private final ITacticalField field;
+        private final BehaviorBlackboard board;
+        private final AnytimePlan plan; // null when deciding without a budget
+        
+        private DecisionContext(ITacticalField field, AnytimePlan plan) {
+            this.field = field;
+            this.plan = plan;
+            this.board = new BehaviorBlackboard(() -> hasBetterPosition(this));
+        }
+        
+        private boolean shouldStop() {
+            return plan != null && plan.shouldStop();
+        }
+    }
+    
+    private record PhaseSight(ITacticalField view, VisibilityMatrix<Unit> matrix) {}
 }
@@ -0,0 +1,694 @@
+package com.aliensattack.core.ai;
+
+import com.aliensattack.combat.CombatResult;
+import com.aliensattack.combat.ConcreteCombatSystem;
+import com.aliensattack.combat.interfaces.ICombatManagerExtended;
+import com.aliensattack.core.ai.interfaces.IEnemyAI;
+import com.aliensattack.core.config.GameConfig;
+import com.aliensattack.core.enums.CoverType;
+import com.aliensattack.core.enums.UnitType;
+import com.aliensattack.core.model.Alien;
+import com.aliensattack.core.model.Position;
+import com.aliensattack.core.model.Unit;
+import com.aliensattack.core.performance.PerformanceManager;
+import com.aliensattack.field.ITacticalField;
+import com.aliensattack.field.ReachabilityMap;
+import lombok.extern.log4j.Log4j2;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Enemy AI that plans the alien's two-action turn with Monte Carlo tree
+ * search instead of picking one greedy action at a time.
+ * Each tree level is one action (move to a candidate tile, attack a soldier,
+ * hold); attacks and holds end the turn. Playouts score the final state with
+ * a cheap combat model: hit chances in both directions between every
+ * candidate tile and every nearby soldier are computed once per search with
+ * {@link ConcreteCombatSystem#calculateHitChance} and then only looked up;
+ * an executed attack is resolved by the same combat system.
+ * The search stops at a time or iteration budget and is anytime: the most
+ * visited action so far is offered to the waiting plan as it goes. After the
+ * first action is executed its subtree becomes the new root, so the
+ * statistics gathered for the second action are kept.
+ */
+@Log4j2
+public class MctsEnemyAI implements IEnemyAI {
+    private static final int MAX_ACTIONS = 2;
+
+    // Action encoding: kind in the high bits, candidate tile or target index in the low bits
+    private static final int HOLD = 0;
+    private static final int MOVE = 1 << 16;
+    private static final int ATTACK = 2 << 16;
+    private static final int ARG_MASK = 0xFFFF;
+
+    private static final double KILL_BONUS = 1.0;      // On top of the damage dealt, in target max health
+    private static final double CAUTION = 0.8;         // Weight of expected incoming damage
+    private static final double HOLD_EXPOSURE = 0.75;  // Defensive stance reduces incoming hits
+    private static final double APPROACH = 0.1;        // Pull towards the nearest soldier
+    private static final int OFFER_INTERVAL = 256;     // Iterations between best-so-far offers
+
+    private final Random random = new Random();
+    private final ConcreteCombatSystem combatModel = new ConcreteCombatSystem();
+
+    private Unit unit;
+    private Unit probe; // Private copy moved over candidate tiles while building the model
+    private ITacticalField tacticalField;
+    private ICombatManagerExtended combatManager;
+    private int difficultyLevel;
+
+    private SearchModel model;
+    private Node root;
+
+    public MctsEnemyAI() {
+        this.difficultyLevel = GameConfig.getInt("ai.enemy.difficulty.level", 5);
+    }
+
+    @Override
+    public void initialize(Alien alien) {
+        // Legacy model aliens are not field units; plan with a stand-in carrying the same stats
+        Unit standIn = new Unit(alien.getName(), alien.getMaxHealth(), alien.getMovementRange(),
+                alien.getAttackRange(), alien.getAttackDamage(), UnitType.ALIEN);
+        standIn.setPosition(alien.getPosition());
+        initializeWithUnit(standIn);
+    }
+
+    @Override
+    public void initializeWithUnit(Unit unit) {
+        this.unit = unit;
+        this.probe = new Unit(unit.getName(), unit.getMaxHealth(), unit.getMovementRange(),
+                unit.getAttackRange(), unit.getAttackDamage(), UnitType.ALIEN);
+        this.model = null;
+        this.root = null;
+        log.debug("MCTS AI initialized for {}", unit.getName());
+    }
+
+    @Override
+    public CompletableFuture<AITurnDecision> makeTurnDecision() {
+        return planTurn(tacticalField);
+    }
+
+    @Override
+    public CompletableFuture<AITurnDecision> planTurn(ITacticalField view) {
+        if (unit == null || !unit.isAlive() || view == null) {
+            return CompletableFuture.completedFuture(
+                    new AITurnDecision("none", "none", null, null, "No alien or alien is dead", 0.0));
+        }
+        AnytimePlan plan = new AnytimePlan(GameConfig.getAIMctsTimeBudget());
+        return CompletableFuture.supplyAsync(() -> decide(view, plan));
+    }
+
+    @Override
+    public AnytimePlan planAnytime(ITacticalField view, long budgetMillis) {
+        if (unit == null || !unit.isAlive() || view == null) {
+            return IEnemyAI.super.planAnytime(view, budgetMillis);
+        }
+        // Holding position stands even if no planning thread picks the plan up before the deadline
+        AnytimePlan plan = new AnytimePlan(budgetMillis);
+        plan.offer(holdDecision(), 0);
+        CompletableFuture.runAsync(() -> {
+            try {
+                plan.complete(decide(view, plan));
+            } catch (Exception e) {
+                log.error("MCTS planning failed for {}: {}", unit.getName(), e.getMessage());
+                plan.fail(e);
+            }
+        });
+        return plan;
+    }
+
+    @Override
+    public CompletableFuture<Boolean> executeAction() {
+        return makeTurnDecision().thenCompose(this::executeDecision);
+    }
+
+    /**
+     * Executes the planned first action, then continues the turn from the
+     * reused subtree while action points remain
+     */
+    @Override
+    public CompletableFuture<Boolean> executeDecision(AITurnDecision decision) {
+        if (unit == null || !unit.isAlive() || decision == null || tacticalField == null) {
+            return CompletableFuture.completedFuture(false);
+        }
+
+        boolean executed = apply(decision);
+        while (executed && unit.getActionPoints() > 0 && root != null && !root.terminal) {
+            // Follow-up actions are decided on the live field within a single action's budget
+            AITurnDecision next = decide(tacticalField,
+                    new AnytimePlan(PerformanceManager.getInstance().getAIBudget().actionMillis()));
+            if ("none".equals(next.getPrimaryAction())) break;
+            executed = apply(next);
+        }
+        return CompletableFuture.completedFuture(executed);
+    }
+
+    @Override
+    public CompletableFuture<Position> calculateBestMovePosition() {
+        if (unit == null || tacticalField == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return planTurn(tacticalField).thenApply(decision -> decision.getTargetPosition() != null
+                ? decision.getTargetPosition() : unit.getPosition());
+    }
+
+    @Override
+    public CompletableFuture<List<Unit>> findBestTargets() {
+        if (unit == null || tacticalField == null || unit.getPosition() == null) {
+            return CompletableFuture.completedFuture(new ArrayList<>());
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            SearchModel current = buildModel(tacticalField);
+            int tile = current.originTile;
+            List<Integer> order = new ArrayList<>();
+            for (int s = 0; s < current.soldiers.size(); s++) {
+                if (current.hitOut[tile][s] > 0) order.add(s);
+            }
+            order.sort(Comparator.comparingDouble(s -> -current.hitOut[tile][s] * current.damageOut));
+            List<Unit> targets = new ArrayList<>(order.size());
+            for (int s : order) {
+                targets.add(current.soldiers.get(s));
+            }
+            return targets;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Boolean> shouldUseSpecialAbility() {
+        return CompletableFuture.completedFuture(false);
+    }
+
+    @Override
+    public int getDifficultyLevel() {
+        return difficultyLevel;
+    }
+
+    @Override
+    public void setTacticalField(ITacticalField field) {
+        this.tacticalField = field; // The combat model is pointed at a field under the lock before each use
+    }
+
+    @Override
+    public void setCombatManager(ICombatManagerExtended combatManager) {
+        this.combatManager = combatManager;
+    }
+
+    @Override
+    public boolean isOllamaEnabled() {
+        return false;
+    }
+
+    @Override
+    public CompletableFuture<TacticalSituation> analyzeTacticalSituation() {
+        if (unit == null || tacticalField == null || unit.getPosition() == null) {
+            return CompletableFuture.completedFuture(new TacticalSituation(
+                    new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new HashMap<>(), new HashMap<>(),
+                    "No alien or field"));
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            SearchModel current = buildModel(tacticalField);
+            Map<Position, Double> positionScores = new HashMap<>();
+            for (int c = 0; c < current.tiles.size(); c++) {
+                positionScores.put(current.tiles.get(c), -current.threatAt(c, null));
+            }
+            Map<Unit, Double> threatLevels = new HashMap<>();
+            for (int s = 0; s < current.soldiers.size(); s++) {
+                threatLevels.put(current.soldiers.get(s),
+                        current.hitIn[current.originTile][s] * current.damageIn[s]);
+            }
+            return new TacticalSituation(new ArrayList<>(current.tiles), new ArrayList<>(current.soldiers),
+                    new ArrayList<>(), positionScores, threatLevels,
+                    "MCTS over " + current.tiles.size() + " tiles and " + current.soldiers.size() + " soldiers");
+        });
+    }
+
+    // Search
+
+    private AITurnDecision holdDecision() {
+        return new AITurnDecision("defend", "none", unit.getPosition(), null, "Holding while searching", 0.3);
+    }
+
+    /**
+     * Searches from the reused subtree when it still describes the alien's
+     * state, otherwise from a fresh root over a new model of the view
+     */
+    private synchronized AITurnDecision decide(ITacticalField view, AnytimePlan plan) {
+        plan.begin();
+        int actionsLeft = Math.min(MAX_ACTIONS, (int) Math.floor(unit.getActionPoints()));
+        if (actionsLeft <= 0 || unit.getPosition() == null) {
+            return new AITurnDecision("none", "none", null, null, "No action points left", 0.0);
+        }
+        plan.offer(holdDecision(), 0);
+
+        boolean reuse = root != null && model != null && !root.terminal
+                && root.depth == model.maxActions - actionsLeft
+                && model.tiles.get(root.tile).equals(unit.getPosition());
+        if (!reuse) {
+            model = buildModel(view);
+            model.maxActions = actionsLeft;
+            root = new Node(null, HOLD, model.originTile, 0, false);
+        }
+
+        int iterations = search(root, plan);
+        Node best = root.mostVisitedChild();
+        if (best == null) {
+            return new AITurnDecision("defend", "none", unit.getPosition(), null, "No legal action found", 0.3);
+        }
+        Node followUp = best.mostVisitedChild();
+        log.debug("MCTS for {}: {} iterations ({}), best {} with mean {}", unit.getName(), iterations,
+                reuse ? "reused tree" : "new tree", describe(best.action), best.meanReward());
+        return toDecision(best, followUp, iterations);
+    }
+
+    /**
+     * Builds a search model of the view; the combat model and the probe unit
+     * are shared, so every build holds the same lock as the search
+     */
+    private synchronized SearchModel buildModel(ITacticalField view) {
+        combatModel.setTacticalField(view);
+        return SearchModel.build(this, view);
+    }
+
+    /**
+     * Runs select, expand, playout and backpropagate until the plan's time or
+     * the iteration budget is spent, offering the current best action as it goes
+     * @return iterations run
+     */
+    private int search(Node searchRoot, AnytimePlan plan) {
+        int budget = GameConfig.getAIMctsIterationBudget();
+        double exploration = GameConfig.getAIMctsExploration();
+
+        int iterations = 0;
+        while (iterations < budget) {
+            if ((iterations & 31) == 0 && plan.shouldStop()) {
+                break;
+            }
+            if (iterations > 0 && iterations % OFFER_INTERVAL == 0) {
+                Node best = searchRoot.mostVisitedChild();
+                if (best != null) {
+                    plan.offer(toDecision(best, best.mostVisitedChild(), iterations), iterations);
+                }
+            }
+            Node node = searchRoot;
+            while (!node.terminal && node.isFullyExpanded(model)) {
+                node = node.select(exploration);
+            }
+            if (!node.terminal) {
+                node = node.expand(model, random);
+            }
+            double reward = playout(node);
+            for (Node n = node; n != null; n = n.parent) {
+                n.visits++;
+                n.totalReward += reward;
+                if (n == searchRoot) break;
+            }
+            iterations++;
+        }
+        return iterations;
+    }
+
+    /**
+     * Finishes the turn with random legal actions and scores the result
+     */
+    private double playout(Node node) {
+        int tile = node.tile;
+        int depth = node.depth;
+        int last = node.action;
+        boolean terminal = node.terminal;
+        int[] legal = new int[model.maxLegalActions()];
+        while (!terminal) {
+            int count = model.legalActions(tile, depth, legal);
+            last = legal[random.nextInt(count)];
+            if ((last & ~ARG_MASK) == MOVE) {
+                tile = last & ARG_MASK;
+            }
+            depth++;
+            terminal = isTerminal(last, depth, model.maxActions);
+        }
+        return model.score(tile, last, random);
+    }
+
+    private static boolean isTerminal(int action, int depth, int maxActions) {
+        return (action & ~ARG_MASK) != MOVE || depth >= maxActions;
+    }
+
+    private AITurnDecision toDecision(Node best, Node followUp, int iterations) {
+        String secondary = followUp != null ? actionName(followUp.action) : "none";
+        double confidence = Math.max(0.0, Math.min(1.0, 0.5 + best.meanReward() / 2));
+        String reasoning = "MCTS " + iterations + " iterations: " + describe(best.action)
+                + (followUp != null ? " then " + describe(followUp.action) : "");
+        return switch (best.action & ~ARG_MASK) {
+            case MOVE -> new AITurnDecision("move_to_position", secondary,
+                    model.tiles.get(best.action & ARG_MASK), null, reasoning, confidence);
+            case ATTACK -> new AITurnDecision("attack_target", secondary,
+                    null, model.soldiers.get(best.action & ARG_MASK), reasoning, confidence);
+            default -> new AITurnDecision("defend", secondary, unit.getPosition(), null, reasoning, confidence);
+        };
+    }
+
+    /**
+     * Applies one action to the live field and advances the tree root past it
+     */
+    private synchronized boolean apply(AITurnDecision decision) {
+        int action;
+        switch (decision.getPrimaryAction()) {
+            case "move_to_position" -> {
+                Position target = decision.getTargetPosition();
+                if (target == null) return false;
+                if (!target.equals(unit.getPosition())
+                        && !tacticalField.moveUnit(unit, target.getX(), target.getY())) {
+                    log.debug("MCTS move of {} to {} rejected by the field", unit.getName(), target);
+                    root = null;
+                    return false;
+                }
+                action = model != null ? MOVE | model.tileIndex(target) : HOLD;
+                log.debug("MCTS AI moved {} to {}", unit.getName(), target);
+            }
+            case "attack_target" -> {
+                Unit target = decision.getTargetUnit();
+                if (target == null || !target.isAlive() || !canAttack(target)) return false;
+                // Resolved with the same hit model the search scored the attack with
+                combatModel.setTacticalField(tacticalField);
+                CombatResult result = combatModel.resolveCombat(unit, target, target.getPosition());
+                action = model != null ? ATTACK | model.soldiers.indexOf(target) : HOLD;
+                log.debug("MCTS AI {} attacked {}: {}", unit.getName(), target.getName(), result.getMessage());
+            }
+            case "defend" -> {
+                action = HOLD;
+                log.debug("MCTS AI {} holding position", unit.getName());
+            }
+            default -> {
+                return false;
+            }
+        }
+
+        unit.spendActionPoints(1);
+        Node child = root != null ? root.child(action) : null;
+        if (child != null) {
+            child.parent = null; // Reuse the subtree for the next action of this turn
+            root = child;
+        } else {
+            root = null;
+        }
+        return true;
+    }
+
+    /**
+     * Same reach the search model grants attacks: within attack range and in line of sight
+     */
+    private boolean canAttack(Unit target) {
+        Position from = unit.getPosition();
+        Position at = target.getPosition();
+        if (from == null || at == null) return false;
+        int distance = Math.abs(at.getX() - from.getX()) + Math.abs(at.getY() - from.getY());
+        return distance <= unit.getAttackRange() && tacticalField.hasLineOfSight(from, at);
+    }
+
+    private static String actionName(int action) {
+        return switch (action & ~ARG_MASK) {
+            case MOVE -> "move_to_position";
+            case ATTACK -> "attack_target";
+            default -> "defend";
+        };
+    }
+
+    private String describe(int action) {
+        return switch (action & ~ARG_MASK) {
+            case MOVE -> "move to " + model.tiles.get(action & ARG_MASK);
+            case ATTACK -> "attack " + model.soldiers.get(action & ARG_MASK).getName();
+            default -> "hold";
+        };
+    }
+
+    /**
+     * Search tree node; the state is deterministic (attacks end the turn), so
+     * a node is identified by the alien's tile and the actions taken
+     */
+    private static final class Node {
+        private Node parent;
+        private final int action;
+        private final int tile;
+        private final int depth;
+        private final boolean terminal;
+        private final List<Node> children = new ArrayList<>();
+        private int[] untried;
+        private int untriedCount = -1;
+        private int visits;
+        private double totalReward;
+
+        Node(Node parent, int action, int tile, int depth, boolean terminal) {
+            this.parent = parent;
+            this.action = action;
+            this.tile = tile;
+            this.depth = depth;
+            this.terminal = terminal;
+        }
+
+        boolean isFullyExpanded(SearchModel model) {
+            if (untriedCount < 0) {
+                untried = new int[model.maxLegalActions()];
+                untriedCount = model.legalActions(tile, depth, untried);
+            }
+            return untriedCount == 0;
+        }
+
+        Node expand(SearchModel model, Random random) {
+            isFullyExpanded(model);
+            int pick = random.nextInt(untriedCount);
+            int next = untried[pick];
+            untried[pick] = untried[--untriedCount];
+            int nextTile = (next & ~ARG_MASK) == MOVE ? next & ARG_MASK : tile;
+            Node child = new Node(this, next, nextTile, depth + 1, isTerminal(next, depth + 1, model.maxActions));
+            children.add(child);
+            return child;
+        }
+
+        /**
+         * UCB1 over the children's mean rewards
+         */
+        Node select(double exploration) {
+            double logVisits = Math.log(Math.max(1, visits));
+            Node best = null;
+            double bestValue = Double.NEGATIVE_INFINITY;
+            for (Node child : children) {
+                double value = child.meanReward() + exploration * Math.sqrt(logVisits / child.visits);
+                if (value > bestValue) {
+                    bestValue = value;
+                    best = child;
+                }
+            }
+            return best;
+        }
+
+        Node mostVisitedChild() {
+            Node best = null;
+            for (Node child : children) {
+                if (best == null || child.visits > best.visits) {
+                    best = child;
+                }
+            }
+            return best;
+        }
+
+        Node child(int childAction) {
+            for (Node child : children) {
+                if (child.action == childAction) return child;
+            }
+            return null;
+        }
+
+        double meanReward() {
+            return visits > 0 ? totalReward / visits : 0.0;
+        }
+    }
+
+    /**
+     * Cheap combat model of one turn: candidate tiles, nearby soldiers and
+     * the hit chances between them, computed once per search
+     */
+    private static final class SearchModel {
+        private final List<Position> tiles = new ArrayList<>();
+        private final List<Unit> soldiers;
+        private final int originTile;
+        private final int[] moveCost;     // Candidate tile -> movement cost from the origin
+        private final int movementRange;
+        private final double[][] hitOut;  // [tile][soldier] alien hits soldier from tile, 0 if no shot
+        private final double[][] hitIn;   // [tile][soldier] soldier hits alien standing on tile
+        private final double damageOut;
+        private final double[] damageIn;
+        private final int[] soldierHealth;
+        private final int[] nearestSoldier; // Tile -> Manhattan distance to the nearest soldier
+        private final double scale;         // Normalises scores to roughly [-1, 1]
+        private int maxActions = MAX_ACTIONS;
+
+        private SearchModel(List<Unit> soldiers, List<Position> tiles, int[] moveCost, int movementRange,
+                            double damageOut) {
+            this.soldiers = soldiers;
+            this.tiles.addAll(tiles);
+            this.originTile = 0;
+            this.moveCost = moveCost;
+            this.movementRange = movementRange;
+            this.hitOut = new double[tiles.size()][soldiers.size()];
+            this.hitIn = new double[tiles.size()][soldiers.size()];
+            this.damageOut = damageOut;
+            this.damageIn = new double[soldiers.size()];
+            this.soldierHealth = new int[soldiers.size()];
+            this.nearestSoldier = new int[tiles.size()];
+            double incoming = 0;
+            for (int s = 0; s < soldiers.size(); s++) {
+                damageIn[s] = soldiers.get(s).getAttackDamage();
+                soldierHealth[s] = soldiers.get(s).getCurrentHealth();
+                incoming += damageIn[s];
+            }
+            this.scale = Math.max(1.0, damageOut * (1 + KILL_BONUS) + CAUTION * incoming);
+        }
+
+        static SearchModel build(MctsEnemyAI ai, ITacticalField view) {
+            Unit unit = ai.unit;
+            Position origin = unit.getPosition();
+            int range = Math.max(1, unit.getMovementRange());
+
+            List<Unit> soldiers = view.findNearestUnits(origin, GameConfig.getAIMctsTargets(),
+                    other -> other.isAlive() && other.getUnitType() == UnitType.SOLDIER);
+
+            // Best few tiles within one move and within a second move, by cover and proximity
+            ReachabilityMap reach = view.getReachability(unit, range * 2);
+            List<Position> near = new ArrayList<>();
+            List<Position> far = new ArrayList<>();
+            for (Position tile : reach.getReachablePositions()) {
+                if (tile.equals(origin)) continue;
+                (reach.getCost(tile) <= range ? near : far).add(tile);
+            }
+            Comparator<Position> byPromise = Comparator.comparingDouble(tile -> -promise(view, tile, soldiers));
+            near.sort(byPromise);
+            far.sort(byPromise);
+            int half = Math.max(1, GameConfig.getAIMctsMoveCandidates() / 2);
+
+            List<Position> tiles = new ArrayList<>();
+            tiles.add(origin);
+            tiles.addAll(near.subList(0, Math.min(half, near.size())));
+            tiles.addAll(far.subList(0, Math.min(half, far.size())));
+            int[] moveCost = new int[tiles.size()];
+            for (int c = 0; c < tiles.size(); c++) {
+                moveCost[c] = Math.max(0, reach.getCost(tiles.get(c)));
+            }
+
+            SearchModel model = new SearchModel(soldiers, tiles, moveCost, range, unit.getAttackDamage());
+            Unit probe = ai.probe;
+            probe.setAccuracy(unit.getAccuracy());
+            for (int c = 0; c < tiles.size(); c++) {
+                Position tile = tiles.get(c);
+                probe.setPosition(tile);
+                int nearest = Integer.MAX_VALUE;
+                for (int s = 0; s < soldiers.size(); s++) {
+                    Unit soldier = soldiers.get(s);
+                    Position at = soldier.getPosition();
+                    int distance = Math.abs(at.getX() - tile.getX()) + Math.abs(at.getY() - tile.getY());
+                    nearest = Math.min(nearest, distance);
+                    if (!view.hasLineOfSight(tile, at)) continue;
+                    if (distance <= unit.getAttackRange()) {
+                        model.hitOut[c][s] = ai.combatModel.calculateHitChance(probe, soldier, at) / 100.0;
+                    }
+                    if (distance <= soldier.getAttackRange()) {
+                        model.hitIn[c][s] = ai.combatModel.calculateHitChance(soldier, probe, tile) / 100.0;
+                    }
+                }
+                model.nearestSoldier[c] = soldiers.isEmpty() ? 0 : nearest;
+            }
+            return model;
+        }
+
+        /**
+         * Cheap pre-filter for candidate tiles: cover and closeness to soldiers
+         */
+        private static double promise(ITacticalField view, Position tile, List<Unit> soldiers) {
+            double value = view.getBestCoverAt(tile.getX(), tile.getY()) != CoverType.NONE ? 2.0 : 0.0;
+            int nearest = Integer.MAX_VALUE;
+            for (Unit soldier : soldiers) {
+                Position at = soldier.getPosition();
+                nearest = Math.min(nearest, Math.abs(at.getX() - tile.getX()) + Math.abs(at.getY() - tile.getY()));
+            }
+            return soldiers.isEmpty() ? value : value - nearest * 0.1;
+        }
+
+        int tileIndex(Position position) {
+            int index = tiles.indexOf(position);
+            return index >= 0 ? index : ARG_MASK;
+        }
+
+        int maxLegalActions() {
+            return 1 + tiles.size() + soldiers.size();
+        }
+
+        /**
+         * Legal actions of a state: hold, any shot with a chance to hit, and
+         * moves within the remaining movement (a second move may cover one
+         * more movement range from the first)
+         */
+        int legalActions(int tile, int depth, int[] out) {
+            int count = 0;
+            out[count++] = HOLD;
+            for (int s = 0; s < soldiers.size(); s++) {
+                if (hitOut[tile][s] > 0) out[count++] = ATTACK | s;
+            }
+            if (depth < maxActions) {
+                Position from = tiles.get(tile);
+                for (int c = 0; c < tiles.size(); c++) {
+                    if (c == tile) continue;
+                    boolean reachable = depth == 0
+                            ? moveCost[c] <= movementRange
+                            : moveCost[c] <= movementRange * 2 && manhattan(from, tiles.get(c)) <= movementRange;
+                    if (reachable) out[count++] = MOVE | c;
+                }
+            }
+            return count;
+        }
+
+        /**
+         * Outcome of a finished turn: sampled damage of the final shot (with a
+         * bonus for a kill) minus the expected return fire on the final tile
+         */
+        double score(int tile, int lastAction, Random random) {
+            double reward = 0;
+            int killed = -1;
+            if ((lastAction & ~ARG_MASK) == ATTACK) {
+                int s = lastAction & ARG_MASK;
+                if (random.nextDouble() < hitOut[tile][s]) {
+                    reward += damageOut;
+                    if (soldierHealth[s] <= damageOut) {
+                        reward += KILL_BONUS * damageOut;
+                        killed = s;
+                    }
+                }
+            }
+            double exposure = threatAt(tile, killed >= 0 ? killed : null);
+            if (lastAction == HOLD) {
+                exposure *= HOLD_EXPOSURE;
+            }
+            reward -= CAUTION * exposure;
+            reward -= APPROACH * nearestSoldier[tile];
+            return reward / scale;
+        }
+
+        /**
+         * Expected incoming damage on a tile from the soldiers still standing
+         */
+        double threatAt(int tile, Integer killed) {
+            double threat = 0;
+            for (int s = 0; s < soldiers.size(); s++) {
+                if (killed != null && killed == s) continue;
+                threat += hitIn[tile][s] * damageIn[s];
+            }
+            return threat;
+        }
+
+        private static int manhattan(Position a, Position b) {
+            return Math.abs(a.getX() - b.getX()) + Math.abs(a.getY() - b.getY());
+        }
+    }
+}
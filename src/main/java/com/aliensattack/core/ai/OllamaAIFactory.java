@@ -43,7 +43,7 @@ public class OllamaAIFactory {
             return ai;
         } else {
             log.debug("Creating standard AI for alien: {}", alien.getAlienType());
-            EnemyAI ai = new EnemyAI();
+            IEnemyAI ai = createStandardAI();
             ai.initialize(alien);
             ai.setTacticalField(tacticalField);
             ai.setCombatManager(combatManager);
@@ -67,7 +67,7 @@ public class OllamaAIFactory {
                     return ai;
                 } else {
                     log.debug("Creating standard AI for alien unit: {} (Ollama not available)", unit.getName());
-                    EnemyAI ai = new EnemyAI();
+                    IEnemyAI ai = createStandardAI();
                     ai.initializeWithUnit(unit);
                     ai.setTacticalField(tacticalField);
                     ai.setCombatManager(combatManager);
@@ -92,6 +92,17 @@ public class OllamaAIFactory {
         }
     }
     
+    /**
+     * Local AI for the configured difficulty: tree search planner from
+     * {@code ai.mcts.min.difficulty} up, rule-based AI below it
+     */
+    private static IEnemyAI createStandardAI() {
+        if (GameConfig.getInt("ai.enemy.difficulty.level", 5) >= GameConfig.getAIMctsMinDifficulty()) {
+            return new MctsEnemyAI();
+        }
+        return new EnemyAI();
+    }
+    
     /**
      * Check if Ollama is available for AI enhancement
      */
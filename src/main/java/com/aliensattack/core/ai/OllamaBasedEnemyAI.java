@@ -5,6 +5,7 @@ import com.aliensattack.core.model.Alien;
 import com.aliensattack.core.model.Position;
 import com.aliensattack.core.model.Unit;
 import com.aliensattack.field.ITacticalField;
+import com.aliensattack.field.VisibilityMatrix;
 import com.aliensattack.combat.interfaces.ICombatManagerExtended;
 import com.aliensattack.core.config.GameConfig;
 import lombok.extern.log4j.Log4j2;
@@ -89,6 +90,111 @@ public class OllamaBasedEnemyAI implements com.aliensattack.core.ai.interfaces.I
                 });
     }
     
+    @Override
+    public CompletableFuture<com.aliensattack.core.ai.interfaces.IEnemyAI.AITurnDecision> planTurn(ITacticalField view) {
+        if (alien == null || !alien.isAlive()) {
+            return CompletableFuture.completedFuture(createEmptyDecision());
+        }
+        
+        if (!ollamaEnabled || !ollamaService.isAvailable()) {
+            return CompletableFuture.completedFuture(createFallbackDecision());
+        }
+        
+        return ollamaService.makeCompleteTurnDecision(alien, view, combatManager)
+                .exceptionally(throwable -> {
+                    log.error("Ollama plan failed for {}: {}", alien.getName(), throwable.getMessage());
+                    return createFallbackDecision();
+                });
+    }
+    
+    @Override
+    public void setPhaseSight(ITacticalField view, VisibilityMatrix<Unit> sight) {
+        ollamaService.setPhaseSight(view, sight);
+    }
+    
+    /**
+     * The rule-based fallback is offered at once, so an LLM that answers
+     * after the alien's budget leaves a usable decision instead of none
+     */
+    @Override
+    public AnytimePlan planAnytime(ITacticalField view, long budgetMillis) {
+        if (alien == null || !alien.isAlive() || !ollamaEnabled || !ollamaService.isAvailable()) {
+            return com.aliensattack.core.ai.interfaces.IEnemyAI.super.planAnytime(view, budgetMillis);
+        }
+        
+        AnytimePlan plan = new AnytimePlan(budgetMillis);
+        plan.begin();
+        plan.offer(createFallbackDecision(), 0);
+        ollamaService.makeCompleteTurnDecision(alien, view, combatManager)
+                .whenComplete((decision, throwable) -> {
+                    if (throwable != null) {
+                        log.error("Ollama plan failed for {}: {}", alien.getName(), throwable.getMessage());
+                        plan.fail(throwable);
+                    } else {
+                        plan.complete(decision);
+                    }
+                });
+        return plan;
+    }
+    
+    /**
+     * Whether this AI can be planned as part of a pod request
+     */
+    public boolean canPlanInPod() {
+        return alien != null && alien.isAlive() && ollamaEnabled && ollamaService.isAvailable();
+    }
+    
+    /**
+     * Plans a pod with one Ollama request instead of one per alien. As in
+     * {@link #planAnytime}, every member is offered its rule-based fallback
+     * at once; the pod response then completes all plans together.
+     * @return plans in pod order
+     */
+    public static List<AnytimePlan> planPod(List<OllamaBasedEnemyAI> pod, ITacticalField view, long budgetMillis) {
+        List<AnytimePlan> plans = new ArrayList<>(pod.size());
+        List<Alien> aliens = new ArrayList<>(pod.size());
+        for (OllamaBasedEnemyAI ai : pod) {
+            AnytimePlan plan = new AnytimePlan(budgetMillis);
+            plan.begin();
+            plan.offer(ai.createFallbackDecision(), 0);
+            plans.add(plan);
+            aliens.add(ai.alien);
+        }
+        
+        OllamaBasedEnemyAI lead = pod.get(0);
+        lead.ollamaService.makePodTurnDecisions(aliens, view, lead.combatManager)
+                .whenComplete((decisions, throwable) -> {
+                    for (int i = 0; i < plans.size(); i++) {
+                        if (throwable != null) {
+                            plans.get(i).fail(throwable);
+                        } else {
+                            plans.get(i).complete(decisions.get(i));
+                        }
+                    }
+                    if (throwable != null) {
+                        log.error("Ollama pod plan failed for {} aliens: {}", pod.size(), throwable.getMessage());
+                    }
+                });
+        return plans;
+    }
+    
+    @Override
+    public CompletableFuture<Boolean> executeDecision(com.aliensattack.core.ai.interfaces.IEnemyAI.AITurnDecision decision) {
+        if (alien == null || !alien.isAlive() || decision == null) {
+            return CompletableFuture.completedFuture(false);
+        }
+        
+        if (!ollamaEnabled || !ollamaService.isAvailable()) {
+            return executeFallbackAction();
+        }
+        
+        return ollamaService.executeDecision(decision, alien, tacticalField, combatManager)
+                .exceptionally(throwable -> {
+                    log.error("Ollama decision execution failed for {}: {}", alien.getName(), throwable.getMessage());
+                    return executeFallbackAction().join();
+                });
+    }
+    
     @Override
     public CompletableFuture<Boolean> executeAction() {
         if (alien == null || !alien.isAlive()) {
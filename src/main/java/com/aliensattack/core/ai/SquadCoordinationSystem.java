@@ -3,6 +3,8 @@ package com.aliensattack.core.ai;
 import com.aliensattack.core.model.Position;
 import com.aliensattack.core.model.Unit;
 import com.aliensattack.field.ITacticalField;
+import com.aliensattack.field.InfluenceMap;
+import com.aliensattack.field.ZobristHash;
 import com.aliensattack.core.enums.UnitType;
 import com.aliensattack.core.config.GameConfig;
 
@@ -31,8 +33,9 @@ public class SquadCoordinationSystem {
     
     // Squad coordination caches
     private Map<String, SquadCoordinationData> coordinationCache;
+    private Map<String, Long> squadSignatures; // State the cached coordination data was computed for
     private long lastCoordinationUpdate;
-    private static final long COORDINATION_CACHE_DURATION = 3000; // 3 seconds
+    private int squadSequence;
     
     public SquadCoordinationSystem(ITacticalField tacticalField, CoverDetectionSystem coverSystem) {
         this.tacticalField = tacticalField;
@@ -41,6 +44,7 @@ public class SquadCoordinationSystem {
         this.unitToSquadMap = new ConcurrentHashMap<>();
         this.activeTactics = new ConcurrentHashMap<>();
         this.coordinationCache = new ConcurrentHashMap<>();
+        this.squadSignatures = new ConcurrentHashMap<>();
         this.lastCoordinationUpdate = System.currentTimeMillis();
         
         initializeSquads();
@@ -84,6 +88,7 @@ public class SquadCoordinationSystem {
     private List<Squad> detectSquads(List<Unit> enemyUnits) {
         List<Squad> detectedSquads = new ArrayList<>();
         Set<Unit> assignedUnits = new HashSet<>();
+        int range = GameConfig.getSquadFormationRange();
         
         for (Unit unit : enemyUnits) {
             if (assignedUnits.contains(unit)) {
@@ -91,7 +96,7 @@ public class SquadCoordinationSystem {
             }
             
             // Find nearby units to form a squad
-            List<Unit> nearbyUnits = findNearbyUnits(unit, GameConfig.getSquadFormationRange());
+            List<Unit> nearbyUnits = findNearbyUnits(unit, enemyUnits, range);
             if (nearbyUnits.size() >= GameConfig.getSquadMinSize()) {
                 Squad squad = createSquad(nearbyUnits);
                 detectedSquads.add(squad);
@@ -103,9 +108,9 @@ public class SquadCoordinationSystem {
     }
     
     /**
-     * Find units near a given unit
+     * Find units near a given unit among the given candidates
      */
-    private List<Unit> findNearbyUnits(Unit centerUnit, int range) {
+    private List<Unit> findNearbyUnits(Unit centerUnit, List<Unit> candidates, int range) {
         List<Unit> nearbyUnits = new ArrayList<>();
         Position centerPos = centerUnit.getPosition();
         
@@ -113,7 +118,7 @@ public class SquadCoordinationSystem {
             return nearbyUnits;
         }
         
-        for (Unit unit : tacticalField.getEnemyUnits()) {
+        for (Unit unit : candidates) {
             if (unit == centerUnit) {
                 nearbyUnits.add(unit);
                 continue;
@@ -135,7 +140,7 @@ public class SquadCoordinationSystem {
      * Create a new squad from units
      */
     private Squad createSquad(List<Unit> members) {
-        String squadId = "squad_" + System.currentTimeMillis() + "_" + members.size();
+        String squadId = "squad_" + System.currentTimeMillis() + "_" + (++squadSequence); // Unique within one millisecond
         SquadType squadType = determineSquadType(members);
         
         Squad squad = new Squad(squadId, squadType, members);
@@ -251,33 +256,29 @@ public class SquadCoordinationSystem {
      * Get squad for a unit
      */
     public Squad getSquadForUnit(Unit unit) {
-        String squadId = unitToSquadMap.get(unit.getName());
-        if (squadId != null) {
-            return squads.get(squadId);
-        }
-        return null;
+        return squadOf(unit.getName());
     }
     
     /**
      * Get squad for an alien (compatibility method)
      */
     public Squad getSquadForUnit(com.aliensattack.core.model.Alien alien) {
-        String squadId = unitToSquadMap.get(alien.getName());
-        if (squadId != null) {
-            return squads.get(squadId);
-        }
-        return null;
+        return squadOf(alien.getName());
     }
     
     /**
      * Get squad for any unit type using IUnit interface
      */
     public Squad getSquadForUnit(com.aliensattack.core.interfaces.IUnit unit) {
-        String squadId = unitToSquadMap.get(unit.getName());
-        if (squadId != null) {
-            return squads.get(squadId);
-        }
-        return null;
+        return squadOf(unit.getName());
+    }
+    
+    /**
+     * Squad of a unit by name, through the unit-to-squad index
+     */
+    private Squad squadOf(String unitName) {
+        String squadId = unitToSquadMap.get(unitName);
+        return squadId != null ? squads.get(squadId) : null;
     }
     
     /**
@@ -347,8 +348,10 @@ public class SquadCoordinationSystem {
                 unitToSquadMap.remove(unit.getName());
             }
             
-            // Remove active tactics
+            // Remove active tactics and coordination data
             activeTactics.remove(squadId);
+            coordinationCache.remove(squadId);
+            squadSignatures.remove(squadId);
             
             log.info("Squad {} disbanded due to insufficient members", squadId);
         }
@@ -378,15 +381,28 @@ public class SquadCoordinationSystem {
             return null;
         }
         
-        // Check cache first
+        // Cached data stays valid while the squad's state is unchanged; checking
+        // that needs only the squad's centre, not a coordination pass
+        Position center = calculateSquadCenter(squad);
+        long signature = signature(squad, center, GameConfig.getSquadAwarenessRange());
         SquadCoordinationData cached = coordinationCache.get(squadId);
-        if (cached != null && !isCacheExpired()) {
+        if (cached != null && Objects.equals(squadSignatures.get(squadId), signature)) {
             return cached;
         }
         
+        CoordinationPass pass = new CoordinationPass();
+        pass.centers.put(squadId, center);
+        // Tiles held by the other squads stay theirs
+        for (Map.Entry<String, SquadCoordinationData> entry : coordinationCache.entrySet()) {
+            if (!entry.getKey().equals(squadId)) {
+                pass.claimed.addAll(entry.getValue().getOptimalPositions().values());
+            }
+        }
+        
         // Calculate new coordination data
-        SquadCoordinationData coordinationData = calculateCoordinationData(squad);
+        SquadCoordinationData coordinationData = calculateCoordinationData(squad, pass);
         coordinationCache.put(squadId, coordinationData);
+        squadSignatures.put(squadId, signature);
         
         return coordinationData;
     }
@@ -394,19 +410,19 @@ public class SquadCoordinationSystem {
     /**
      * Calculate coordination data for a squad
      */
-    private SquadCoordinationData calculateCoordinationData(Squad squad) {
+    private SquadCoordinationData calculateCoordinationData(Squad squad, CoordinationPass pass) {
         SquadCoordinationData data = new SquadCoordinationData();
         
         // Calculate squad center and bounding box
-        Position center = calculateSquadCenter(squad);
+        Position center = pass.centerOf(squad);
         data.setSquadCenter(center);
         
         // Calculate optimal positions for each member
-        Map<Unit, Position> optimalPositions = calculateOptimalPositions(squad);
+        Map<Unit, Position> optimalPositions = calculateOptimalPositions(squad, center, pass);
         data.setOptimalPositions(optimalPositions);
         
         // Calculate tactical advantages
-        double tacticalAdvantage = calculateTacticalAdvantage(squad);
+        double tacticalAdvantage = calculateTacticalAdvantage(squad, pass.influence());
         data.setTacticalAdvantage(tacticalAdvantage);
         
         // Calculate coordination score
@@ -451,26 +467,50 @@ public class SquadCoordinationSystem {
     /**
      * Calculate optimal positions for squad members
      */
-    private Map<Unit, Position> calculateOptimalPositions(Squad squad) {
+    private Map<Unit, Position> calculateOptimalPositions(Squad squad, Position squadCenter, CoordinationPass pass) {
         Map<Unit, Position> optimalPositions = new HashMap<>();
-        Position squadCenter = calculateSquadCenter(squad);
         SquadFormation formation = squad.getFormation();
         
-        // TODO: Implement sophisticated position calculation
-        // - Apply formation-specific positioning
-        // - Consider terrain and cover
-        // - Optimize for tactical objectives
-        
-        List<Unit> members = new ArrayList<>(squad.getMembers());
+        List<Unit> members = squad.getMembers();
         for (int i = 0; i < members.size(); i++) {
             Unit unit = members.get(i);
             Position optimalPos = calculateFormationPosition(squadCenter, formation, i, members.size());
+            if (pass.influence() != null) {
+                optimalPos = bestTileNear(unit, optimalPos, pass);
+            }
+            pass.claimed.add(optimalPos);
             optimalPositions.put(unit, optimalPos);
         }
         
         return optimalPositions;
     }
     
+    /**
+     * Shifts a formation slot to the best scoring free tile within formation spacing:
+     * cover, squad support and objective pull against enemy threat
+     */
+    private Position bestTileNear(Unit unit, Position slot, CoordinationPass pass) {
+        int radius = pass.spacing;
+        Position best = slot;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        for (int y = slot.getY() - radius; y <= slot.getY() + radius; y++) {
+            int span = radius - Math.abs(y - slot.getY());
+            for (int x = slot.getX() - span; x <= slot.getX() + span; x++) {
+                Position tile = new Position(x, y);
+                if (!tacticalField.isValidPosition(tile) || pass.claimed.contains(tile)) continue;
+                Unit occupant = tacticalField.getUnitAt(tile);
+                if (occupant != null && occupant != unit) continue;
+                
+                double score = pass.influence().score(unit.getUnitType(), x, y, pass.weights(), unit.getPosition());
+                if (score > bestScore) {
+                    bestScore = score;
+                    best = tile;
+                }
+            }
+        }
+        return best;
+    }
+    
     /**
      * Calculate position based on formation
      */
@@ -549,7 +589,7 @@ public class SquadCoordinationSystem {
     /**
      * Calculate tactical advantage for squad
      */
-    private double calculateTacticalAdvantage(Squad squad) {
+    private double calculateTacticalAdvantage(Squad squad, InfluenceMap influence) {
         double advantage = 0.0;
         
         // TODO: Implement sophisticated tactical advantage calculation
@@ -564,7 +604,7 @@ public class SquadCoordinationSystem {
         advantage += getFormationAdvantage(squad.getFormation());
         
         // Terrain advantage
-        advantage += calculateTerrainAdvantage(squad);
+        advantage += calculateTerrainAdvantage(squad, influence);
         
         return Math.max(0.0, advantage);
     }
@@ -585,7 +625,7 @@ public class SquadCoordinationSystem {
     /**
      * Calculate terrain advantage for squad
      */
-    private double calculateTerrainAdvantage(Squad squad) {
+    private double calculateTerrainAdvantage(Squad squad, InfluenceMap influence) {
         double advantage = 0.0;
         
         for (Unit unit : squad.getMembers()) {
@@ -598,6 +638,12 @@ public class SquadCoordinationSystem {
                 // Elevation advantage
                 int elevation = coverSystem.getElevationAt(pos);
                 advantage += elevation * GameConfig.getSquadElevationAdvantage();
+                
+                // Exposure to enemy fire
+                if (influence != null) {
+                    advantage -= influence.threatAgainst(unit.getUnitType(), pos.getX(), pos.getY())
+                            * GameConfig.getSquadThreatPenalty();
+                }
             }
         }
         
@@ -749,22 +795,74 @@ public class SquadCoordinationSystem {
             return;
         }
         
-        // Update all squads
+        // Squad objectives pull the whole side through the influence map
+        publishObjectives();
+        
+        // Squads whose state is unchanged keep their data and the tiles they hold;
+        // the others are recomputed in one sweep over the shared pass data
+        CoordinationPass pass = new CoordinationPass();
+        List<Squad> changed = new ArrayList<>();
         for (Squad squad : squads.values()) {
-            updateSquadCoordination(squad);
+            long signature = signature(squad, pass.centerOf(squad), pass.awarenessRange);
+            SquadCoordinationData cached = coordinationCache.get(squad.getSquadId());
+            if (cached != null && Objects.equals(squadSignatures.put(squad.getSquadId(), signature), signature)) {
+                pass.claimed.addAll(cached.getOptimalPositions().values());
+            } else {
+                changed.add(squad);
+            }
+        }
+        for (Squad squad : changed) {
+            updateSquadCoordination(squad, pass);
         }
-        
-        // Clear expired cache
-        clearExpiredCache();
         
         lastCoordinationUpdate = currentTime;
-        log.debug("Updated coordination for {} squads", squads.size());
+        log.debug("Updated coordination for {} of {} squads", changed.size(), squads.size());
+    }
+    
+    /**
+     * Hash of what a squad's coordination data depends on: formation, role,
+     * members' positions and health, and the soldiers within awareness range
+     * of the squad's centre. Soldiers are summed, so their order does not matter.
+     */
+    private long signature(Squad squad, Position center, int awarenessRange) {
+        long key = ZobristHash.combine(squad.getFormation().ordinal(), squad.getTacticalRole().ordinal());
+        for (Unit member : squad.getMembers()) {
+            Position pos = member.getPosition();
+            key = ZobristHash.combine(key, pos != null ? pos.pack() : -1L);
+            key = ZobristHash.combine(key, member.isAlive() ? member.getCurrentHealth() : -1L);
+        }
+        
+        long enemies = 0;
+        if (tacticalField != null) {
+            for (Unit unit : tacticalField.getUnitsInRange(center, awarenessRange)) {
+                if (unit.getUnitType() == UnitType.SOLDIER && unit.isAlive() && unit.getPosition() != null) {
+                    enemies += ZobristHash.mix(unit.getPosition().pack());
+                }
+            }
+        }
+        return ZobristHash.combine(key, enemies);
+    }
+    
+    /**
+     * Hands the squads' objectives to the field's objective layer
+     */
+    private void publishObjectives() {
+        if (tacticalField == null) {
+            return;
+        }
+        List<Position> objectives = new ArrayList<>();
+        for (Squad squad : squads.values()) {
+            if (squad.getObjective() != null) {
+                objectives.add(squad.getObjective());
+            }
+        }
+        tacticalField.setObjectives(UnitType.ALIEN, objectives);
     }
     
     /**
      * Update coordination for a specific squad
      */
-    private void updateSquadCoordination(Squad squad) {
+    private void updateSquadCoordination(Squad squad, CoordinationPass pass) {
         // Update formation if needed
         if (shouldUpdateFormation(squad)) {
             SquadFormation newFormation = calculateOptimalFormation(squad);
@@ -779,8 +877,9 @@ public class SquadCoordinationSystem {
         }
         
         // Update coordination data
-        SquadCoordinationData coordinationData = calculateCoordinationData(squad);
+        SquadCoordinationData coordinationData = calculateCoordinationData(squad, pass);
         coordinationCache.put(squad.getSquadId(), coordinationData);
+        squadSignatures.put(squad.getSquadId(), signature(squad, pass.centerOf(squad), pass.awarenessRange));
     }
     
     /**
@@ -807,23 +906,6 @@ public class SquadCoordinationSystem {
         return false; // Placeholder
     }
     
-    /**
-     * Clear expired cache entries
-     */
-    private void clearExpiredCache() {
-        if (isCacheExpired()) {
-            coordinationCache.clear();
-            log.debug("Cleared expired coordination cache");
-        }
-    }
-    
-    /**
-     * Check if cache is expired
-     */
-    private boolean isCacheExpired() {
-        return System.currentTimeMillis() - lastCoordinationUpdate > COORDINATION_CACHE_DURATION;
-    }
-    
     /**
      * Get system performance statistics
      */
@@ -840,6 +922,39 @@ public class SquadCoordinationSystem {
         return stats;
     }
     
+    /**
+     * Data shared by all squads of one coordination pass: the influence map
+     * read-out, weights and config, squad centres and the tiles already claimed.
+     * The influence map and weights are fetched on first use, so a pass that
+     * finds every squad unchanged never reads them.
+     */
+    private final class CoordinationPass {
+        private InfluenceMap influence;
+        private InfluenceMap.Weights weights;
+        private final int spacing = GameConfig.getSquadFormationSpacing();
+        private final int awarenessRange = GameConfig.getSquadAwarenessRange();
+        private final Set<Position> claimed = new HashSet<>();
+        private final Map<String, Position> centers = new HashMap<>();
+        
+        private Position centerOf(Squad squad) {
+            return centers.computeIfAbsent(squad.getSquadId(), id -> calculateSquadCenter(squad));
+        }
+        
+        private InfluenceMap influence() {
+            if (influence == null && tacticalField != null) {
+                influence = tacticalField.getInfluenceMap();
+            }
+            return influence;
+        }
+        
+        private InfluenceMap.Weights weights() {
+            if (weights == null) {
+                weights = InfluenceMap.Weights.fromConfig();
+            }
+            return weights;
+        }
+    }
+    
     /**
      * Calculate distance between two positions
      */
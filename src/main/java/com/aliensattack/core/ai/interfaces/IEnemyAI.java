@@ -1,8 +1,10 @@
 package com.aliensattack.core.ai.interfaces;
 
+import com.aliensattack.core.ai.AnytimePlan;
 import com.aliensattack.core.model.Alien;
 import com.aliensattack.core.model.Position;
 import com.aliensattack.field.ITacticalField;
+import com.aliensattack.field.VisibilityMatrix;
 import com.aliensattack.combat.interfaces.ICombatManagerExtended;
 
 import java.util.List;
@@ -37,6 +39,42 @@ public interface IEnemyAI {
      */
     CompletableFuture<Boolean> executeAction();
     
+    /**
+     * Plan the turn against a read-only view of the field (a frozen snapshot)
+     * without acting on it. Plans for different aliens may run concurrently;
+     * the target position and unit of the returned decision are what
+     * {@link #executeDecision} will act on.
+     */
+    default CompletableFuture<AITurnDecision> planTurn(ITacticalField view) {
+        return makeTurnDecision();
+    }
+    
+    /**
+     * Plan the turn as an anytime search: the returned plan holds the best
+     * decision found so far and is refined until the planner finishes or its
+     * time budget, which starts when planning begins, runs out. Planners
+     * without intermediate results only deliver their final decision.
+     */
+    default AnytimePlan planAnytime(ITacticalField view, long budgetMillis) {
+        return AnytimePlan.of(planTurn(view), budgetMillis);
+    }
+    
+    /**
+     * Hands over the visibility of all living soldiers from all living aliens,
+     * computed once per enemy phase on {@code view}; plans against that view
+     * read it instead of running their own visibility pass
+     */
+    default void setPhaseSight(ITacticalField view, VisibilityMatrix<com.aliensattack.core.model.Unit> sight) {
+    }
+    
+    /**
+     * Execute a decision produced by {@link #planTurn} after it has been
+     * validated against the live field
+     */
+    default CompletableFuture<Boolean> executeDecision(AITurnDecision decision) {
+        return executeAction();
+    }
+    
     /**
      * Calculate best move position using Ollama analysis
      */
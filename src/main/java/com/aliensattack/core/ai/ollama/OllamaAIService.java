@@ -2,12 +2,19 @@ package com.aliensattack.core.ai.ollama;
 
 import com.aliensattack.core.ai.interfaces.IEnemyAI;
 import com.aliensattack.core.config.GameConfig;
+import com.aliensattack.core.interfaces.IUnit;
 import com.aliensattack.core.model.Alien;
 import com.aliensattack.core.model.Position;
 import com.aliensattack.core.model.Unit;
+import com.aliensattack.field.FlowField;
 import com.aliensattack.field.ITacticalField;
+import com.aliensattack.field.InfluenceMap;
+import com.aliensattack.field.ZobristHash;
+import com.aliensattack.field.VisibilityMatrix;
 import com.aliensattack.combat.interfaces.ICombatManagerExtended;
 import com.aliensattack.combat.CombatResult;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.log4j.Log4j2;
 
 import java.util.*;
@@ -22,15 +29,20 @@ import java.util.stream.Collectors;
 @Log4j2
 public class OllamaAIService {
     
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final Set<String> POD_ACTIONS = Set.of(
+            "move_to_position", "attack_target", "use_special_ability", "retreat", "defend", "none");
+    private static final int POD_TOKENS_PER_MEMBER = 300; // Generation limit per pod member
+    
     private final OllamaApiClient ollamaClient;
-    private final Map<String, String> decisionCache;
+    private final Map<Long, IEnemyAI.AITurnDecision> decisionCache; // Keyed by field state hash and alien
     private final Map<String, List<String>> learnedPatterns;
     private final Random random;
+    private volatile PhaseSight phaseSight; // Aliens x soldiers visibility for the current field version
     
     private final boolean enabled;
     private final String defaultModel;
     private final int maxCacheSize;
-    private final int cacheTtlMinutes;
     
     public OllamaAIService() {
         this.ollamaClient = new OllamaApiClient();
@@ -41,7 +53,6 @@ public class OllamaAIService {
         this.enabled = GameConfig.getBoolean("ollama.ai.enabled", true);
         this.defaultModel = GameConfig.getString("ollama.default.model", "llama2");
         this.maxCacheSize = GameConfig.getInt("ollama.cache.size", 1000);
-        this.cacheTtlMinutes = GameConfig.getInt("ollama.cache.ttl.minutes", 60);
         
         if (enabled) {
             initializeOllama();
@@ -109,13 +120,21 @@ public class OllamaAIService {
         }
         
         try {
+            // Same field state and same alien state: the earlier answer still applies
+            long cacheKey = generateCacheKey(alien, field);
+            IEnemyAI.AITurnDecision cached = decisionCache.get(cacheKey);
+            if (cached != null) {
+                log.debug("Reusing cached Ollama decision for {}", alien.getName());
+                return CompletableFuture.completedFuture(cached);
+            }
+            
             BattlefieldSituation situation = analyzeBattlefieldSituation(alien, field, combatManager);
             String prompt = buildCompleteTurnDecisionPrompt(alien, field, situation);
             
             return ollamaClient.generateCompletion(createOllamaRequest(prompt))
                     .thenApply(response -> parseCompleteTurnDecision(response, alien, field, situation))
                     .thenApply(decision -> {
-                        cacheDecision(generateCacheKey(alien, field, situation), decision);
+                        cacheDecision(cacheKey, decision);
                         return decision;
                     })
                     .exceptionally(throwable -> {
@@ -129,6 +148,93 @@ public class OllamaAIService {
         }
     }
     
+    /**
+     * Decisions for a whole pod from a single Ollama request: the shared
+     * battlefield is described once and each member's situation is listed
+     * under its index. Members answered from the cache are left out of the
+     * prompt; a member whose part of the response is missing or malformed
+     * gets the rule-based fallback, as do all members if the request fails.
+     * @return decisions in pod order
+     */
+    public CompletableFuture<List<IEnemyAI.AITurnDecision>> makePodTurnDecisions(
+            List<Alien> pod, ITacticalField field, ICombatManagerExtended combatManager) {
+        
+        IEnemyAI.AITurnDecision[] decisions = new IEnemyAI.AITurnDecision[pod.size()];
+        if (!enabled || !ollamaClient.isAvailable()) {
+            for (int i = 0; i < decisions.length; i++) {
+                decisions[i] = createFallbackDecision(pod.get(i), field);
+            }
+            return CompletableFuture.completedFuture(Arrays.asList(decisions));
+        }
+        
+        try {
+            long[] cacheKeys = new long[pod.size()];
+            List<Integer> asked = new ArrayList<>();
+            List<BattlefieldSituation> situations = new ArrayList<>();
+            for (int i = 0; i < decisions.length; i++) {
+                Alien alien = pod.get(i);
+                cacheKeys[i] = generateCacheKey(alien, field);
+                decisions[i] = decisionCache.get(cacheKeys[i]);
+                if (decisions[i] == null) {
+                    asked.add(i);
+                    situations.add(analyzeBattlefieldSituation(alien, field, combatManager));
+                }
+            }
+            if (asked.isEmpty()) {
+                log.debug("Reusing cached Ollama decisions for the whole pod of {}", pod.size());
+                return CompletableFuture.completedFuture(Arrays.asList(decisions));
+            }
+            
+            List<Alien> members = new ArrayList<>(asked.size());
+            for (int i : asked) {
+                members.add(pod.get(i));
+            }
+            String prompt = buildPodTurnDecisionPrompt(members, field, situations);
+            
+            return ollamaClient.generateCompletion(createOllamaRequest(prompt, POD_TOKENS_PER_MEMBER * members.size()))
+                    .thenApply(response -> {
+                        IEnemyAI.AITurnDecision[] parsed = parsePodTurnDecisions(response, members, field);
+                        for (int j = 0; j < parsed.length; j++) {
+                            int i = asked.get(j);
+                            if (parsed[j] != null) {
+                                cacheDecision(cacheKeys[i], parsed[j]);
+                                decisions[i] = parsed[j];
+                            } else {
+                                log.warn("Ollama pod response has no valid decision for {}, using fallback",
+                                        pod.get(i).getName());
+                                decisions[i] = createFallbackDecision(pod.get(i), field);
+                            }
+                        }
+                        return Arrays.asList(decisions);
+                    })
+                    .exceptionally(throwable -> {
+                        log.error("Ollama pod decision failed: {}", throwable.getMessage());
+                        for (int i : asked) {
+                            decisions[i] = createFallbackDecision(pod.get(i), field);
+                        }
+                        return Arrays.asList(decisions);
+                    });
+            
+        } catch (Exception e) {
+            log.error("Error in pod turn decision: {}", e.getMessage());
+            for (int i = 0; i < decisions.length; i++) {
+                if (decisions[i] == null) {
+                    decisions[i] = createFallbackDecision(pod.get(i), field);
+                }
+            }
+            return CompletableFuture.completedFuture(Arrays.asList(decisions));
+        }
+    }
+    
+    /**
+     * Execute an already made decision, e.g. one planned against a field snapshot
+     */
+    public CompletableFuture<Boolean> executeDecision(
+            IEnemyAI.AITurnDecision decision, Alien alien, ITacticalField field,
+            ICombatManagerExtended combatManager) {
+        return executeDecisionStepByStep(decision, alien, field, combatManager);
+    }
+    
     /**
      * Execute decision step by step with detailed logging
      */
@@ -616,8 +722,10 @@ public class OllamaAIService {
         List<Unit> visibleAllies = getVisibleAllies(alien, field);
         
         Map<Position, Double> positionScores = new HashMap<>();
+        InfluenceMap influence = field.getInfluenceMap();
+        InfluenceMap.Weights weights = InfluenceMap.Weights.fromConfig();
         for (Position pos : availablePositions) {
-            positionScores.put(pos, calculateFallbackPositionScore(pos, alien, field));
+            positionScores.put(pos, calculateFallbackPositionScore(pos, alien, influence, weights));
         }
         
         Map<Unit, Double> threatLevels = new HashMap<>();
@@ -717,6 +825,73 @@ public class OllamaAIService {
         return prompt.toString();
     }
     
+    /**
+     * Build prompt for the decisions of a whole pod; the battlefield is described once
+     */
+    private String buildPodTurnDecisionPrompt(List<Alien> members, ITacticalField field,
+                                              List<BattlefieldSituation> situations) {
+        StringBuilder prompt = new StringBuilder();
+        
+        prompt.append("You are an AI controlling a pod of Alien units in a tactical combat game. ");
+        prompt.append("Analyze the battlefield situation and decide the best actions of every pod member ");
+        prompt.append("for this turn, coordinating them as a team.\n\n");
+        
+        prompt.append("BATTLEFIELD SITUATION:\n");
+        prompt.append("- Field Size: ").append(field.getWidth()).append("x").append(field.getHeight()).append("\n");
+        prompt.append("- Hazard Positions: ").append(getHazardPositions(field).size()).append("\n");
+        prompt.append("- Enemy Soldiers:\n");
+        for (Unit soldier : field.getPlayerUnits()) {
+            if (soldier.isAlive()) {
+                prompt.append("  - ").append(soldier.getName()).append(" at ").append(soldier.getPosition())
+                        .append(", health ").append(soldier.getCurrentHealth()).append("/")
+                        .append(soldier.getMaxHealth()).append("\n");
+            }
+        }
+        prompt.append("\n");
+        
+        prompt.append("POD MEMBERS:\n");
+        for (int i = 0; i < members.size(); i++) {
+            BattlefieldSituation situation = situations.get(i);
+            prompt.append("[").append(i).append("] ").append(members.get(i).getName())
+                    .append(" - Type: ").append(situation.alienType)
+                    .append(", Health: ").append(situation.alienHealth).append("/").append(situation.alienMaxHealth)
+                    .append(", Action Points: ").append(situation.alienActionPoints)
+                    .append(", Position: ").append(situation.alienPosition)
+                    .append(", Visible Enemies: ").append(situation.visibleEnemies.size())
+                    .append(", Visible Allies: ").append(situation.visibleAllies.size())
+                    .append(", Available Move Positions: ").append(situation.availableMovePositions.size())
+                    .append(", Cover Positions: ").append(situation.coverPositions.size()).append("\n");
+        }
+        prompt.append("\n");
+        
+        prompt.append("DECISION REQUIREMENTS:\n");
+        prompt.append("Choose the best primary and secondary actions of each member from:\n");
+        prompt.append("- move_to_position: Move to a strategic position\n");
+        prompt.append("- attack_target: Attack an enemy unit\n");
+        prompt.append("- use_special_ability: Use psionic or special ability\n");
+        prompt.append("- retreat: Move away from danger\n");
+        prompt.append("- defend: Stay in place and defend\n");
+        prompt.append("- none: No action\n\n");
+        
+        prompt.append("RESPONSE FORMAT (one entry per member, \"member\" is its index):\n");
+        prompt.append("{\n");
+        prompt.append("  \"decisions\": [\n");
+        prompt.append("    {\n");
+        prompt.append("      \"member\": 0,\n");
+        prompt.append("      \"primary_action\": \"action_type\",\n");
+        prompt.append("      \"secondary_action\": \"action_type\",\n");
+        prompt.append("      \"target_unit\": \"unit_name_or_null\",\n");
+        prompt.append("      \"reasoning\": \"explanation of decision\",\n");
+        prompt.append("      \"confidence\": 0.0-1.0\n");
+        prompt.append("    }\n");
+        prompt.append("  ]\n");
+        prompt.append("}\n\n");
+        
+        prompt.append("Answer with the JSON object only.");
+        
+        return prompt.toString();
+    }
+    
     /**
      * Build prompt for tactical analysis
      */
@@ -744,10 +919,17 @@ public class OllamaAIService {
      * Create Ollama request with prompt
      */
     private OllamaRequest createOllamaRequest(String prompt) {
+        return createOllamaRequest(prompt, 1000);
+    }
+    
+    /**
+     * Create Ollama request with prompt and a limit on generated tokens
+     */
+    private OllamaRequest createOllamaRequest(String prompt, int numPredict) {
         OllamaOptions options = OllamaOptions.builder()
                 .temperature(0.7)
                 .topP(0.9)
-                .numPredict(1000)
+                .numPredict(Math.max(1000, numPredict))
                 .build();
         
         OllamaRequest request = OllamaRequest.builder()
@@ -768,24 +950,144 @@ public class OllamaAIService {
         try {
             // Simple parsing - in production, use proper JSON parsing
             if (response.contains("move_to_position")) {
+                return resolveDecision("move_to_position", alien, field, response);
+            } else if (response.contains("attack_target")) {
+                return resolveDecision("attack_target", alien, field, response);
+            } else if (response.contains("defend")) {
+                return resolveDecision("defend", alien, field, response);
+            } else {
+                return resolveDecision("none", alien, field, response);
+            }
+        } catch (Exception e) {
+            log.error("Error parsing Ollama response: {}", e.getMessage());
+            return createFallbackDecision(alien, field);
+        }
+    }
+    
+    /**
+     * Parse the decisions of a pod; the JSON object may be surrounded by other text
+     * @return decisions in member order, null for members without a valid entry
+     */
+    private IEnemyAI.AITurnDecision[] parsePodTurnDecisions(String response, List<Alien> members,
+                                                            ITacticalField field) {
+        IEnemyAI.AITurnDecision[] decisions = new IEnemyAI.AITurnDecision[members.size()];
+        int start = response != null ? response.indexOf('{') : -1;
+        int end = response != null ? response.lastIndexOf('}') : -1;
+        if (start < 0 || end <= start) {
+            log.warn("Ollama pod response holds no JSON object");
+            return decisions;
+        }
+        
+        JsonNode entries;
+        try {
+            entries = JSON.readTree(response.substring(start, end + 1)).path("decisions");
+        } catch (Exception e) {
+            log.warn("Ollama pod response is not valid JSON: {}", e.getMessage());
+            return decisions;
+        }
+        
+        for (JsonNode entry : entries) {
+            JsonNode member = entry.path("member");
+            String action = entry.path("primary_action").asText("");
+            if (!member.canConvertToInt() || !POD_ACTIONS.contains(action)) {
+                continue; // Malformed entry, its member falls back
+            }
+            int index = member.asInt();
+            if (index >= 0 && index < decisions.length && decisions[index] == null) {
+                try {
+                    decisions[index] = resolvePodDecision(entry, action, members.get(index), field);
+                } catch (Exception e) {
+                    log.warn("Ollama pod decision for {} failed: {}", members.get(index).getName(), e.getMessage());
+                }
+            }
+        }
+        return decisions;
+    }
+    
+    /**
+     * Turns one member's entry of a pod response into a decision, keeping the
+     * model's secondary action, reasoning and confidence; the named target is
+     * looked up among the enemies the member can see, the nearest one standing
+     * in when it is missing or not visible
+     * @return null if the action cannot be carried out, so the member falls back
+     */
+    private IEnemyAI.AITurnDecision resolvePodDecision(JsonNode entry, String action, Alien alien,
+                                                       ITacticalField field) {
+        String secondary = entry.path("secondary_action").asText("none");
+        if (!POD_ACTIONS.contains(secondary)) {
+            secondary = "none";
+        }
+        String reasoning = entry.path("reasoning").asText("");
+        if (reasoning.isBlank()) {
+            reasoning = "none".equals(action) ? "Ollama decided to hold position"
+                    : "Ollama decided to " + action.replace('_', ' ');
+        }
+        double confidence = Math.max(0.0, Math.min(1.0, entry.path("confidence").asDouble(0.8)));
+        
+        switch (action) {
+            case "move_to_position":
+                return new IEnemyAI.AITurnDecision(action, secondary, findBestMovePosition(alien, field), null,
+                        reasoning, confidence);
+            case "attack_target":
+            case "use_special_ability": {
+                Unit target = findNamedEnemy(alien, field, entry.path("target_unit").asText(""));
+                if (target == null || ("use_special_ability".equals(action) && alien.getPsionicAbilities().isEmpty())) {
+                    return null;
+                }
+                return new IEnemyAI.AITurnDecision(action, secondary, alien.getPosition(), target,
+                        reasoning, confidence);
+            }
+            case "retreat": {
+                Position safePosition = findSafeRetreatPosition(alien, field);
+                return safePosition == null ? null
+                        : new IEnemyAI.AITurnDecision(action, secondary, safePosition, null, reasoning, confidence);
+            }
+            case "defend":
+                return new IEnemyAI.AITurnDecision(action, secondary, alien.getPosition(), null,
+                        reasoning, confidence);
+            default:
+                // "none" holds position, as in the single-alien path
+                return new IEnemyAI.AITurnDecision("defend", secondary, alien.getPosition(), null,
+                        reasoning, confidence);
+        }
+    }
+    
+    /**
+     * Visible enemy with the given name, or the nearest visible enemy if none matches
+     */
+    private Unit findNamedEnemy(Alien alien, ITacticalField field, String name) {
+        List<Unit> enemies = getVisibleEnemies(alien, field);
+        for (Unit enemy : enemies) {
+            if (enemy.getName().equalsIgnoreCase(name.trim())) {
+                return enemy;
+            }
+        }
+        return findNearestEnemy(alien, enemies);
+    }
+    
+    /**
+     * Turns an action chosen by Ollama into a decision with its destination or target resolved
+     */
+    private IEnemyAI.AITurnDecision resolveDecision(String action, Alien alien, ITacticalField field,
+                                                    String response) {
+        switch (action) {
+            case "move_to_position": {
                 Position targetPos = findBestMovePosition(alien, field);
                 return new IEnemyAI.AITurnDecision("move_to_position", "none", targetPos, null, 
                                                  "Ollama decided to move", 0.8);
-            } else if (response.contains("attack_target")) {
+            }
+            case "attack_target": {
                 List<Unit> enemies = getVisibleEnemies(alien, field);
                 Unit target = !enemies.isEmpty() ? enemies.get(0) : null;
                 return new IEnemyAI.AITurnDecision("attack_target", "none", alien.getPosition(), target, 
                                                  "Ollama decided to attack", 0.8);
-            } else if (response.contains("defend")) {
+            }
+            case "defend":
                 return new IEnemyAI.AITurnDecision("defend", "none", alien.getPosition(), null, 
                                                  "Ollama decided to defend", 0.8);
-            } else {
+            default:
                 return new IEnemyAI.AITurnDecision("defend", "none", alien.getPosition(), null, 
                                                  "Ollama response: " + response, 0.6);
-            }
-        } catch (Exception e) {
-            log.error("Error parsing Ollama response: {}", e.getMessage());
-            return createFallbackDecision(alien, field);
         }
     }
     
@@ -803,8 +1105,10 @@ public class OllamaAIService {
             List<Unit> visibleAllies = getVisibleAllies(alien, field);
             
             Map<Position, Double> positionScores = new HashMap<>();
+            InfluenceMap influence = field.getInfluenceMap();
+            InfluenceMap.Weights weights = InfluenceMap.Weights.fromConfig();
             for (Position pos : availablePositions) {
-                positionScores.put(pos, calculateFallbackPositionScore(pos, alien, field));
+                positionScores.put(pos, calculateFallbackPositionScore(pos, alien, influence, weights));
             }
             
             Map<Unit, Double> threatLevels = new HashMap<>();
@@ -940,8 +1244,10 @@ public class OllamaAIService {
             return false;
         }
         
-        // Check if position is occupied
-        if (field.getUnitAt(position) != null) {
+        // Check if position is occupied; the alien's own unit may already stand
+        // there when the turn manager committed the planned move first
+        Unit occupant = field.getUnitAt(position);
+        if (occupant != null && !occupant.getName().equals(alien.getName())) {
             return false;
         }
         
@@ -986,35 +1292,29 @@ public class OllamaAIService {
     }
     
     /**
-     * Generate cache key for decisions
+     * Cache key for decisions: the field's state hash folded with the alien's
+     * tile (one unit per tile identifies it), type and action points
      */
-    private String generateCacheKey(Alien alien, ITacticalField field, BattlefieldSituation situation) {
-        if (alien == null || field == null) return "unknown";
-        
-        StringBuilder key = new StringBuilder();
-        key.append(alien.getName()).append("_");
-        key.append(alien.getPosition()).append("_");
-        key.append(situation.visibleEnemies.size()).append("_");
-        key.append(situation.visibleAllies.size()).append("_");
-        key.append(alien.getActionPoints());
-        
-        return key.toString();
+    private long generateCacheKey(Alien alien, ITacticalField field) {
+        long key = field.getStateHash();
+        key = ZobristHash.combine(key, alien.getPosition() != null ? alien.getPosition().pack() : -1L);
+        key = ZobristHash.combine(key, alien.getAlienType() != null ? alien.getAlienType().ordinal() : -1);
+        key = ZobristHash.combine(key, Double.doubleToLongBits(alien.getActionPoints()));
+        return key;
     }
     
     /**
-     * Cache decision for future use
+     * Cache decision for future use; entries of older states are never hit
+     * again and only age out
      */
-    private void cacheDecision(String key, IEnemyAI.AITurnDecision decision) {
+    private void cacheDecision(long key, IEnemyAI.AITurnDecision decision) {
         if (decisionCache.size() >= maxCacheSize) {
             // Remove oldest entries
-            String oldestKey = decisionCache.keySet().iterator().next();
+            Long oldestKey = decisionCache.keySet().iterator().next();
             decisionCache.remove(oldestKey);
         }
         
-        // Store decision as JSON string (simplified)
-        String decisionJson = String.format("{\"action\":\"%s\",\"confidence\":%.2f}", 
-                                          decision.getPrimaryAction(), decision.getConfidence());
-        decisionCache.put(key, decisionJson);
+        decisionCache.put(key, decision);
     }
     
     /**
@@ -1023,13 +1323,49 @@ public class OllamaAIService {
     private List<Unit> getVisibleEnemies(Alien alien, ITacticalField field) {
         if (alien == null || field == null) return new ArrayList<>();
         
-        return field.getAllUnits().stream()
-                .filter(unit -> unit.getUnitType() == com.aliensattack.core.enums.UnitType.SOLDIER)
-                .filter(Unit::isAlive)
+        // The alien's row is shared with its field unit standing on the same tile
+        VisibilityMatrix<Unit> sight = getPhaseSight(field);
+        Unit self = alien.getPosition() != null && field.isValidPosition(alien.getPosition())
+                ? field.getUnitAt(alien.getPosition()) : null;
+        IUnit observer = self != null && sight.hasObserver(self) ? self : alien;
+        if (observer == alien) {
+            sight = field.computeVisibilityMatrix(List.of(alien), sight.getTargets());
+        }
+        
+        return sight.getVisibleTargets(observer).stream()
                 .filter(unit -> isInRange(alien.getPosition(), unit.getPosition(), alien.getAttackRange()))
                 .collect(Collectors.toList());
     }
     
+    /**
+     * Uses the phase's aliens x soldiers visibility, computed once by the turn
+     * manager, for every query against {@code field} until the field changes
+     */
+    public void setPhaseSight(ITacticalField field, VisibilityMatrix<Unit> matrix) {
+        phaseSight = field != null && matrix != null
+                ? new PhaseSight(field, field.getFieldVersion(), matrix) : null;
+    }
+    
+    /**
+     * Visibility of all living soldiers from all living aliens, computed in one
+     * batched call and reused until the field changes
+     */
+    private VisibilityMatrix<Unit> getPhaseSight(ITacticalField field) {
+        long version = field.getFieldVersion();
+        PhaseSight current = phaseSight;
+        if (current != null && current.field() == field && current.version() == version) {
+            return current.matrix();
+        }
+        
+        List<Unit> aliens = field.getEnemyUnits().stream().filter(Unit::isAlive).collect(Collectors.toList());
+        List<Unit> soldiers = field.getPlayerUnits().stream().filter(Unit::isAlive).collect(Collectors.toList());
+        VisibilityMatrix<Unit> matrix = field.computeVisibilityMatrix(aliens, soldiers);
+        phaseSight = new PhaseSight(field, version, matrix);
+        return matrix;
+    }
+    
+    private record PhaseSight(ITacticalField field, long version, VisibilityMatrix<Unit> matrix) {}
+    
     /**
      * Get visible allies for alien
      */
@@ -1130,6 +1466,18 @@ public class OllamaAIService {
         List<Position> validPositions = getValidMovePositions(alien, field);
         if (validPositions.isEmpty()) return null;
         
+        // Aliens closing on the same soldier share one flow field; fall back to straight distance
+        FlowField flow = targetPos != null ? field.getFlowField(List.of(targetPos)) : null;
+        if (flow != null) {
+            Position best = validPositions.stream()
+                    .filter(flow::isReachable)
+                    .min(Comparator.comparingInt(flow::getCost))
+                    .orElse(null);
+            if (best != null) {
+                return best;
+            }
+        }
+        
         return validPositions.stream()
                 .min(Comparator.comparingDouble(pos -> 
                     calculateDistance(pos, targetPos)))
@@ -1168,22 +1516,13 @@ public class OllamaAIService {
     }
     
     /**
-     * Calculate fallback position score
+     * Calculate fallback position score from the field's influence layers
      */
-    private double calculateFallbackPositionScore(Position position, Alien alien, ITacticalField field) {
-        double score = 0.0;
-        
-        // Distance to enemies (closer is better for aggressive aliens)
-        List<Unit> enemies = getVisibleEnemies(alien, field);
-        for (Unit enemy : enemies) {
-            double distance = calculateDistance(position, enemy.getPosition());
-            score += Math.max(0, 10 - distance);
-        }
-        
-        // Cover bonus
-        if (field.getCoverObject(position) != null) {
-            score += 5.0;
-        }
+    private double calculateFallbackPositionScore(Position position, Alien alien, InfluenceMap influence,
+                                                  InfluenceMap.Weights weights) {
+        // Cover, ally support and objectives minus the threat enemies project on the tile
+        double score = influence.score(alien.getUnitType(), position.getX(), position.getY(),
+                weights, alien.getPosition());
         
         // Height advantage
         if (position.getHeight() > 0) {
@@ -0,0 +1,52 @@
+package com.aliensattack.core.collections;
+
+/**
+ * Map from primitive {@code long} keys to {@code double} values without boxing.
+ * Not thread-safe.
+ */
+public final class LongDoubleHashMap extends LongKeyTable {
+    private double[] values;
+
+    public LongDoubleHashMap() {
+        this(16);
+    }
+
+    public LongDoubleHashMap(int expectedSize) {
+        super(expectedSize);
+    }
+
+    public double get(long key, double defaultValue) {
+        int slot = slotOf(key);
+        return slot >= 0 ? values[slot] : defaultValue;
+    }
+
+    public void put(long key, double value) {
+        int slot = claimSlot(key); // May rehash, so read the values array afterwards
+        values[slot] = value;
+    }
+
+    /**
+     * @return true if the key was present
+     */
+    public boolean remove(long key) {
+        int slot = slotOf(key);
+        if (slot < 0) return false;
+        removeSlot(slot);
+        return true;
+    }
+
+    @Override
+    Object values() {
+        return values;
+    }
+
+    @Override
+    void allocateValues(int capacity) {
+        values = new double[capacity];
+    }
+
+    @Override
+    void clearValue(int slot) {
+        values[slot] = 0.0;
+    }
+}
@@ -0,0 +1,52 @@
+package com.aliensattack.core.collections;
+
+/**
+ * Set of primitive {@code long} values, typically packed coordinates.
+ * Not thread-safe.
+ */
+public final class LongHashSet extends LongKeyTable {
+
+    public LongHashSet() {
+        this(16);
+    }
+
+    public LongHashSet(int expectedSize) {
+        super(expectedSize);
+    }
+
+    /**
+     * @return true if the value was not already present
+     */
+    public boolean add(long value) {
+        int before = size();
+        claimSlot(value);
+        return size() != before;
+    }
+
+    public boolean contains(long value) {
+        return containsKey(value);
+    }
+
+    /**
+     * @return true if the value was present
+     */
+    public boolean remove(long value) {
+        int slot = slotOf(value);
+        if (slot < 0) return false;
+        removeSlot(slot);
+        return true;
+    }
+
+    @Override
+    Object values() {
+        return null;
+    }
+
+    @Override
+    void allocateValues(int capacity) {
+    }
+
+    @Override
+    void clearValue(int slot) {
+    }
+}
@@ -0,0 +1,61 @@
+package com.aliensattack.core.collections;
+
+/**
+ * Map from primitive {@code long} keys to {@code int} values without boxing.
+ * Not thread-safe.
+ */
+public final class LongIntHashMap extends LongKeyTable {
+    private int[] values;
+
+    public LongIntHashMap() {
+        this(16);
+    }
+
+    public LongIntHashMap(int expectedSize) {
+        super(expectedSize);
+    }
+
+    public int get(long key, int defaultValue) {
+        int slot = slotOf(key);
+        return slot >= 0 ? values[slot] : defaultValue;
+    }
+
+    public void put(long key, int value) {
+        int slot = claimSlot(key); // May rehash, so read the values array afterwards
+        values[slot] = value;
+    }
+
+    /**
+     * Adds to the value of a key, treating an absent key as 0
+     * @return the new value
+     */
+    public int addTo(long key, int delta) {
+        int slot = claimSlot(key);
+        return values[slot] += delta;
+    }
+
+    /**
+     * @return true if the key was present
+     */
+    public boolean remove(long key) {
+        int slot = slotOf(key);
+        if (slot < 0) return false;
+        removeSlot(slot);
+        return true;
+    }
+
+    @Override
+    Object values() {
+        return values;
+    }
+
+    @Override
+    void allocateValues(int capacity) {
+        values = new int[capacity];
+    }
+
+    @Override
+    void clearValue(int slot) {
+        values[slot] = 0;
+    }
+}
@@ -0,0 +1,164 @@
+package com.aliensattack.core.collections;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash table over primitive {@code long} keys shared by the
+ * primitive maps and sets. Linear probing over a power-of-two table, with
+ * backward-shift deletion so no tombstones accumulate. Subclasses keep a
+ * value array parallel to the key slots.
+ * Not thread-safe.
+ */
+abstract class LongKeyTable {
+    private static final float LOAD_FACTOR = 0.6f;
+    private static final int MIN_CAPACITY = 8;
+
+    private long[] keys;
+    private boolean[] used;
+    private int size;
+    private int mask;
+    private int resizeAt;
+
+    LongKeyTable(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    /**
+     * Value array parallel to the key slots, or null for a set
+     */
+    abstract Object values();
+
+    /**
+     * Replaces the value array with an empty one of the given capacity
+     */
+    abstract void allocateValues(int capacity);
+
+    /**
+     * Resets a freed slot so it does not retain its old value
+     */
+    abstract void clearValue(int slot);
+
+    public final int size() {
+        return size;
+    }
+
+    public final boolean isEmpty() {
+        return size == 0;
+    }
+
+    public final boolean containsKey(long key) {
+        return slotOf(key) >= 0;
+    }
+
+    public void clear() {
+        if (size == 0) return;
+        Arrays.fill(used, false);
+        for (int slot = 0; slot < keys.length; slot++) {
+            clearValue(slot);
+        }
+        size = 0;
+    }
+
+    /**
+     * Snapshot of the keys in slot order
+     */
+    public final long[] keys() {
+        long[] result = new long[size];
+        int count = 0;
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (used[slot]) {
+                result[count++] = keys[slot];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Slot holding the key, or -(insertion point + 1) if absent
+     */
+    final int slotOf(long key) {
+        int slot = hash(key) & mask;
+        while (used[slot]) {
+            if (keys[slot] == key) return slot;
+            slot = (slot + 1) & mask;
+        }
+        return -(slot + 1);
+    }
+
+    /**
+     * Slot for the key, claiming a fresh one (with a cleared value) if absent
+     */
+    final int claimSlot(long key) {
+        int slot = slotOf(key);
+        if (slot >= 0) return slot;
+
+        if (size >= resizeAt) {
+            rehash(keys.length << 1);
+            slot = slotOf(key);
+        }
+        slot = -(slot + 1);
+        used[slot] = true;
+        keys[slot] = key;
+        size++;
+        return slot;
+    }
+
+    /**
+     * Frees a slot, shifting later entries of the probe run back into the gap
+     */
+    final void removeSlot(int slot) {
+        Object values = values();
+        int gap = slot;
+        int next = (slot + 1) & mask;
+        while (used[next]) {
+            int home = hash(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                if (values != null) {
+                    System.arraycopy(values, next, values, gap, 1);
+                }
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        used[gap] = false;
+        clearValue(gap);
+        size--;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        boolean[] oldUsed = used;
+        Object oldValues = values();
+        allocate(capacity);
+        Object values = values();
+        for (int from = 0; from < oldKeys.length; from++) {
+            if (!oldUsed[from]) continue;
+            int to = -(slotOf(oldKeys[from]) + 1);
+            used[to] = true;
+            keys[to] = oldKeys[from];
+            if (values != null) {
+                System.arraycopy(oldValues, from, values, to, 1);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        used = new boolean[capacity];
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+        allocateValues(capacity);
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int needed = (int) Math.ceil(Math.max(0, expectedSize) / LOAD_FACTOR) + 1;
+        int capacity = Integer.highestOneBit(Math.max(MIN_CAPACITY, needed) - 1) << 1;
+        return Math.max(MIN_CAPACITY, capacity);
+    }
+
+    private static int hash(long key) {
+        int h = (int) (key ^ (key >>> 32)) * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
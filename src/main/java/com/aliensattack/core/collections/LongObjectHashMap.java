@@ -0,0 +1,71 @@
+package com.aliensattack.core.collections;
+
+/**
+ * Map from primitive {@code long} keys to object values; avoids allocating a
+ * key object per lookup. Null values are not supported.
+ * Not thread-safe.
+ * @param <V> value type
+ */
+public final class LongObjectHashMap<V> extends LongKeyTable {
+    private Object[] values;
+
+    public LongObjectHashMap() {
+        this(16);
+    }
+
+    public LongObjectHashMap(int expectedSize) {
+        super(expectedSize);
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        int slot = slotOf(key);
+        return slot >= 0 ? (V) values[slot] : null;
+    }
+
+    public V getOrDefault(long key, V defaultValue) {
+        V value = get(key);
+        return value != null ? value : defaultValue;
+    }
+
+    /**
+     * @return the previous value, or null
+     */
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Null values are not supported");
+        }
+        int slot = claimSlot(key);
+        V previous = (V) values[slot];
+        values[slot] = value;
+        return previous;
+    }
+
+    /**
+     * @return the removed value, or null
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        int slot = slotOf(key);
+        if (slot < 0) return null;
+        V previous = (V) values[slot];
+        removeSlot(slot);
+        return previous;
+    }
+
+    @Override
+    Object values() {
+        return values;
+    }
+
+    @Override
+    void allocateValues(int capacity) {
+        values = new Object[capacity];
+    }
+
+    @Override
+    void clearValue(int slot) {
+        values[slot] = null;
+    }
+}
@@ -441,6 +441,10 @@ public class GameConfig {
         return getInt("ai.enemy.max.decision.time", 1000);
     }
     
+    public static int getAIEnemyPlanTimeout() {
+        return getInt("ai.enemy.plan.timeout", 10000);
+    }
+    
     public static boolean isAILearningEnabled() {
         return getBoolean("ai.enemy.learning.enabled", true);
     }
@@ -561,6 +565,10 @@ public class GameConfig {
         return getDouble("cover.elevation.weight", 0.3);
     }
     
+    public static int getCoverAnalysisParallelThreshold() {
+        return getInt("cover.analysis.parallel.threshold", 4096);
+    }
+    
     // Visibility System
     public static double getVisibilityElevationPenalty() {
         return getDouble("visibility.elevation.penalty", 0.01);
@@ -637,6 +645,10 @@ public class GameConfig {
         return getInt("squad.max.tactics", 3);
     }
     
+    public static int getSquadAwarenessRange() {
+        return getInt("squad.awareness.range", 10);
+    }
+    
     // Squad Advantages
     public static double getSquadMemberAdvantage() {
         return getDouble("squad.member.advantage", 0.1);
@@ -646,6 +658,10 @@ public class GameConfig {
         return getDouble("squad.cover.advantage", 0.15);
     }
     
+    public static double getSquadThreatPenalty() {
+        return getDouble("squad.threat.penalty", 0.02);
+    }
+    
     public static double getSquadElevationAdvantage() {
         return getDouble("squad.elevation.advantage", 0.02);
     }
@@ -782,6 +798,64 @@ public class GameConfig {
         return getInt("ai.performance.pathfinding.max.iterations", 1000);
     }
     
+    public static int getAIPerformancePathfindingClusterSize() {
+        return getInt("ai.performance.pathfinding.cluster.size", 10);
+    }
+    
+    public static int getAIPerformanceFlowFieldCacheSize() {
+        return getInt("ai.performance.flowfield.cache.size", 16);
+    }
+    
+    // AI Monte Carlo tree search planner
+    public static int getAIMctsMinDifficulty() {
+        return getInt("ai.mcts.min.difficulty", 7);
+    }
+    
+    public static int getAIMctsTimeBudget() {
+        return getInt("ai.mcts.time.budget", 150);
+    }
+    
+    public static int getAIMctsIterationBudget() {
+        return getInt("ai.mcts.iteration.budget", 4000);
+    }
+    
+    public static int getAIMctsMoveCandidates() {
+        return getInt("ai.mcts.move.candidates", 24);
+    }
+    
+    public static int getAIMctsTargets() {
+        return getInt("ai.mcts.targets", 8);
+    }
+    
+    public static double getAIMctsExploration() {
+        return getDouble("ai.mcts.exploration", 1.4);
+    }
+    
+    // AI influence maps
+    public static int getAIInfluenceSupportRadius() {
+        return getInt("ai.influence.support.radius", 4);
+    }
+    
+    public static int getAIInfluenceObjectiveRadius() {
+        return getInt("ai.influence.objective.radius", 12);
+    }
+    
+    public static double getAIInfluenceThreatWeight() {
+        return getDouble("ai.influence.weight.threat", 1.0);
+    }
+    
+    public static double getAIInfluenceCoverWeight() {
+        return getDouble("ai.influence.weight.cover", 6.0);
+    }
+    
+    public static double getAIInfluenceSupportWeight() {
+        return getDouble("ai.influence.weight.support", 1.5);
+    }
+    
+    public static double getAIInfluenceObjectiveWeight() {
+        return getDouble("ai.influence.weight.objective", 4.0);
+    }
+    
     // AI special abilities
     public static int getAISpecialAbilityEnergyThreshold() {
         return getInt("ai.special.ability.energy.threshold", 20);
@@ -11,10 +11,13 @@ import java.util.ArrayList;
 import java.util.Optional;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 
 /**
- * Multithreaded AI manager for concurrent AI processing
+ * Multithreaded AI manager for concurrent AI processing.
+ * Runs either on a fixed platform thread pool or, in {@link ExecutionMode#VIRTUAL_THREADS}
+ * mode, as one virtual thread per brain with a permit limit on concurrent compute.
  */
 @Log4j2
 public class MultithreadedAIManager {
@@ -24,6 +27,8 @@ public class MultithreadedAIManager {
     private static final long DEFAULT_AI_TIMEOUT_MS = 5000;
     
     private final ExecutorService aiExecutor;
+    private final ExecutionMode executionMode;
+    private final Semaphore computePermits; // Virtual mode: brains computing at once (carrier limit)
     private final int maxConcurrentAI;
     private final long aiTimeoutMs;
     private final AtomicInteger activeAICount;
@@ -33,19 +38,39 @@ public class MultithreadedAIManager {
     private final AtomicInteger successfulDecisions = new AtomicInteger(0);
     private final AtomicInteger failedDecisions = new AtomicInteger(0);
     private final AtomicInteger timeoutDecisions = new AtomicInteger(0);
+    private final LongAdder queueWaitNanos = new LongAdder(); // Submit to start of compute
+    private final LongAdder computeNanos = new LongAdder();   // Inside brain.selectAction
+    private final LongAdder measuredDecisions = new LongAdder();
     
     public MultithreadedAIManager() {
         this(DEFAULT_THREAD_POOL_SIZE, DEFAULT_MAX_CONCURRENT_AI, DEFAULT_AI_TIMEOUT_MS);
     }
     
     public MultithreadedAIManager(int threadPoolSize, int maxConcurrentAI, long aiTimeoutMs) {
-        this.aiExecutor = Executors.newFixedThreadPool(threadPoolSize);
+        this(threadPoolSize, maxConcurrentAI, aiTimeoutMs, ExecutionMode.PLATFORM_POOL, 0);
+    }
+    
+    /**
+     * @param computeLimit virtual mode only: brains allowed to compute at once, 0 for one per core
+     */
+    public MultithreadedAIManager(int threadPoolSize, int maxConcurrentAI, long aiTimeoutMs,
+                                  ExecutionMode executionMode, int computeLimit) {
+        this.executionMode = executionMode;
+        this.aiExecutor = executionMode == ExecutionMode.VIRTUAL_THREADS
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(threadPoolSize);
+        this.computePermits = new Semaphore(computeLimit > 0 ? computeLimit : Runtime.getRuntime().availableProcessors());
         this.maxConcurrentAI = maxConcurrentAI;
         this.aiTimeoutMs = aiTimeoutMs;
         this.activeAICount = new AtomicInteger(0);
         
-        log.info("MultithreadedAIManager initialized with {} threads, max concurrent AI: {}, timeout: {}ms", 
-                threadPoolSize, maxConcurrentAI, aiTimeoutMs);
+        if (executionMode == ExecutionMode.VIRTUAL_THREADS) {
+            log.info("MultithreadedAIManager initialized with virtual threads, compute limit: {}, timeout: {}ms",
+                    computePermits.availablePermits(), aiTimeoutMs);
+        } else {
+            log.info("MultithreadedAIManager initialized with {} threads, max concurrent AI: {}, timeout: {}ms", 
+                    threadPoolSize, maxConcurrentAI, aiTimeoutMs);
+        }
     }
     
     /**
@@ -58,6 +83,10 @@ public class MultithreadedAIManager {
         
         log.debug("Processing AI decisions for {} units", aiBrains.size());
         
+        if (executionMode == ExecutionMode.VIRTUAL_THREADS) {
+            return processOnVirtualThreads(aiBrains, context);
+        }
+        
         // Limit concurrent AI processing
         int maxConcurrent = Math.min(maxConcurrentAI, aiBrains.size());
         Semaphore semaphore = new Semaphore(maxConcurrent);
@@ -162,6 +191,87 @@ public class MultithreadedAIManager {
         }, aiExecutor);
     }
     
+    /**
+     * One virtual thread per brain, all sharing a single deadline. A brain
+     * still running at the deadline is cancelled, which interrupts its thread;
+     * blocking calls inside selectAction return early, pure computation stops
+     * at its next interrupt check.
+     */
+    private List<AIDecisionResult> processOnVirtualThreads(List<IBrain> aiBrains, GameContext context) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(aiTimeoutMs);
+        
+        List<Future<AIDecisionResult>> futures = new ArrayList<>(aiBrains.size());
+        for (IBrain brain : aiBrains) {
+            long submitted = System.nanoTime();
+            futures.add(aiExecutor.submit(() -> decideOnVirtualThread(brain, context, submitted, deadline)));
+        }
+        
+        List<AIDecisionResult> results = new ArrayList<>(aiBrains.size());
+        for (int i = 0; i < futures.size(); i++) {
+            Future<AIDecisionResult> future = futures.get(i);
+            IBrain brain = aiBrains.get(i);
+            try {
+                AIDecisionResult result = future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                countOutcome(result.getStatus());
+                results.add(result);
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                timeoutDecisions.incrementAndGet();
+                results.add(new AIDecisionResult(brain, AIDecisionStatus.TIMEOUT, "AI decision deadline exceeded"));
+            } catch (ExecutionException e) {
+                failedDecisions.incrementAndGet();
+                log.error("Error processing AI decision for brain: {}", brain.getBrainId(), e.getCause());
+                results.add(new AIDecisionResult(brain, AIDecisionStatus.FAILED, String.valueOf(e.getCause())));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.forEach(pending -> pending.cancel(true));
+                results.add(new AIDecisionResult(brain, AIDecisionStatus.FAILED, "Interrupted"));
+                break;
+            }
+        }
+        
+        totalAIDecisions.addAndGet(results.size());
+        log.debug("Completed AI decisions on virtual threads: {}/{} successful",
+                results.stream().filter(AIDecisionResult::isSuccessful).count(), results.size());
+        return results;
+    }
+    
+    private void countOutcome(AIDecisionStatus status) {
+        switch (status) {
+            case SUCCESS -> successfulDecisions.incrementAndGet();
+            case TIMEOUT -> timeoutDecisions.incrementAndGet();
+            default -> failedDecisions.incrementAndGet();
+        }
+    }
+    
+    /**
+     * Body of one brain's virtual thread: waits for a compute permit, then decides.
+     * Outcomes are counted by the caller, which alone knows whether the result
+     * arrived before the deadline
+     */
+    private AIDecisionResult decideOnVirtualThread(IBrain brain, GameContext context, long submitted, long deadline)
+            throws InterruptedException {
+        if (!computePermits.tryAcquire(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+            return new AIDecisionResult(brain, AIDecisionStatus.TIMEOUT, "No compute slot before deadline");
+        }
+        
+        long started = System.nanoTime();
+        queueWaitNanos.add(started - submitted);
+        activeAICount.incrementAndGet();
+        try {
+            Optional<IAction> actionOpt = brain.selectAction(context);
+            if (actionOpt.isPresent()) {
+                return new AIDecisionResult(brain, AIDecisionStatus.SUCCESS, "Decision successful", actionOpt.get());
+            }
+            return new AIDecisionResult(brain, AIDecisionStatus.FAILED, "No action decided");
+        } finally {
+            computeNanos.add(System.nanoTime() - started);
+            measuredDecisions.increment();
+            activeAICount.decrementAndGet();
+            computePermits.release();
+        }
+    }
+    
     /**
      * Process AI decisions in batches
      */
@@ -204,10 +314,18 @@ public class MultithreadedAIManager {
             failedDecisions.get(),
             timeoutDecisions.get(),
             activeAICount.get(),
-            maxConcurrentAI
+            maxConcurrentAI,
+            executionMode,
+            averageMillis(queueWaitNanos),
+            averageMillis(computeNanos)
         );
     }
     
+    private double averageMillis(LongAdder totalNanos) {
+        long count = measuredDecisions.sum();
+        return count > 0 ? totalNanos.sum() / (count * 1_000_000.0) : 0.0;
+    }
+    
     /**
      * Shutdown the AI manager
      */
@@ -253,6 +371,11 @@ public class MultithreadedAIManager {
         TIMEOUT
     }
     
+    public enum ExecutionMode {
+        PLATFORM_POOL,   // Fixed pool of platform threads
+        VIRTUAL_THREADS  // One virtual thread per brain, compute bounded by permits
+    }
+    
     @Data
     public static class AIProcessingStatistics {
         private final int totalDecisions;
@@ -261,6 +384,9 @@ public class MultithreadedAIManager {
         private final int timeoutDecisions;
         private final int activeAI;
         private final int maxConcurrentAI;
+        private final ExecutionMode executionMode;
+        private final double averageQueueWaitMs; // Time from submission until the brain started computing
+        private final double averageComputeMs;
         
         public double getSuccessRate() {
             return totalDecisions > 0 ? (double) successfulDecisions / totalDecisions : 0.0;
@@ -0,0 +1,66 @@
+package com.aliensattack.core.enums;
+
+/**
+ * Structural and environmental state of a tile (rooftops, ladders, hazards).
+ * Stored as a bit mask on the tile rather than on every coordinate object.
+ */
+public enum TileFeature {
+    
+    ROOFTOP(0, 0, 30, false),
+    BALCONY(0, 0, 25, false),
+    STAIRS(1, 0, 0, false),
+    LADDER(2, 0, 0, false),
+    ELEVATOR(1, 0, 0, false),
+    BRIDGE(0, 0, 20, false),
+    UNDERGROUND(0, 0, 0, true),
+    WATER(2, 0, 0, true),
+    ACID(3, 5, 0, true),
+    FIRE(2, 3, 0, true),
+    RADIATION(2, 4, 0, false),
+    FROST(1, 2, 0, false),
+    ELECTROCUTED(3, 6, 0, false),
+    CORROSION(2, 4, 0, false);
+    
+    private final int movementPenalty;
+    private final int hazardDamage;
+    private final int naturalCoverBonus;
+    private final boolean blocksMovement;
+    
+    TileFeature(int movementPenalty, int hazardDamage, int naturalCoverBonus, boolean blocksMovement) {
+        this.movementPenalty = movementPenalty;
+        this.hazardDamage = hazardDamage;
+        this.naturalCoverBonus = naturalCoverBonus;
+        this.blocksMovement = blocksMovement;
+    }
+    
+    /**
+     * Bit of this feature in a tile's feature mask
+     */
+    public int mask() {
+        return 1 << ordinal();
+    }
+    
+    public boolean isIn(int features) {
+        return (features & mask()) != 0;
+    }
+    
+    public int getMovementPenalty() {
+        return movementPenalty;
+    }
+    
+    public int getHazardDamage() {
+        return hazardDamage;
+    }
+    
+    public int getNaturalCoverBonus() {
+        return naturalCoverBonus;
+    }
+    
+    public boolean isHazardous() {
+        return hazardDamage > 0;
+    }
+    
+    public boolean blocksMovement() {
+        return blocksMovement;
+    }
+}
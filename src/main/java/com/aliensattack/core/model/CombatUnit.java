@@ -7,6 +7,7 @@ import com.aliensattack.core.enums.SoldierClass;
 import com.aliensattack.core.enums.VisibilityType;
 import com.aliensattack.core.config.GameConfig;
 import com.aliensattack.core.data.StatusEffectData;
+import com.aliensattack.field.ITacticalField;
 
 import java.util.List;
 import java.util.ArrayList;
@@ -292,6 +293,11 @@ public class CombatUnit extends BaseUnit {
         return canUseSquadSight() ? 8 : 0;
     }
     
+    /**
+     * @deprecated compares distances only and ignores sight blockers;
+     * use {@link #isTargetVisibleThroughSquadSight(IUnit, ITacticalField)}
+     */
+    @Deprecated
     public boolean isTargetVisibleThroughSquadSight(IUnit target, List<IUnit> allies) {
         if (!canUseSquadSight()) return false;
         
@@ -301,6 +307,15 @@ public class CombatUnit extends BaseUnit {
             calculateDistance(ally.getPosition(), target.getPosition()) <= 10); // Default view range
     }
     
+    /**
+     * Squad sight through the field's team fog of war: one bit test on the
+     * union of the side's views
+     */
+    public boolean isTargetVisibleThroughSquadSight(IUnit target, ITacticalField field) {
+        if (!canUseSquadSight() || target == null || field == null) return false;
+        return field.isVisibleToTeam(getUnitType(), target.getPosition());
+    }
+    
     // Attack Range
     public int getTotalAttackRange() {
         int totalRange = attackRange;
@@ -0,0 +1,59 @@
+package com.aliensattack.core.model;
+
+/**
+ * Immutable coordinate packed into a single {@code long}: 24 bits of x,
+ * 24 bits of y and 16 bits of height, all signed. Used as the key type for
+ * primitive-keyed collections on hot paths so that lookups by coordinate do
+ * not allocate. Two packed values are equal exactly when the corresponding
+ * {@link Position}s are equal.
+ */
+public final class PackedPosition {
+    private static final int XY_BITS = 24;
+    private static final int HEIGHT_BITS = 16;
+    private static final long XY_MASK = (1L << XY_BITS) - 1;
+    private static final long HEIGHT_MASK = (1L << HEIGHT_BITS) - 1;
+
+    private PackedPosition() {
+    }
+
+    public static long pack(int x, int y, int height) {
+        return ((x & XY_MASK) << (XY_BITS + HEIGHT_BITS))
+                | ((y & XY_MASK) << HEIGHT_BITS)
+                | (height & HEIGHT_MASK);
+    }
+
+    public static long pack(int x, int y) {
+        return pack(x, y, 0);
+    }
+
+    public static long of(Position position) {
+        return pack(position.getX(), position.getY(), position.getHeight());
+    }
+
+    public static int x(long packed) {
+        return (int) (packed >> (XY_BITS + HEIGHT_BITS)); // Arithmetic shift restores the sign
+    }
+
+    public static int y(long packed) {
+        return (int) (packed << XY_BITS >> (XY_BITS + HEIGHT_BITS));
+    }
+
+    public static int height(long packed) {
+        return (short) packed;
+    }
+
+    /**
+     * Same coordinate with the height dropped, for tile-level lookups
+     */
+    public static long flatten(long packed) {
+        return packed & ~HEIGHT_MASK;
+    }
+
+    public static Position toPosition(long packed) {
+        return new Position(x(packed), y(packed), height(packed));
+    }
+
+    public static String toString(long packed) {
+        return "(" + x(packed) + ", " + y(packed) + ", " + height(packed) + ")";
+    }
+}
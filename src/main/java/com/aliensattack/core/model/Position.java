@@ -1,114 +1,68 @@
 package com.aliensattack.core.model;
 
 import lombok.Getter;
-import lombok.Setter;
-
-import java.util.Objects;
 
 /**
  * Represents a position on the tactical field
- * Enhanced with height mechanics for elevation-based bonuses
+ * Enhanced with height mechanics for elevation-based bonuses.
+ * Tile state (rooftops, hazards, ladders) lives on {@link Tile}, not here.
+ * Immutable, so it is safe as a hash key and its {@link #pack()} never goes stale;
+ * a unit that moves gets a new position.
  */
 @Getter
-@Setter
 public class Position {
-    private int x;
-    private int y;
-    private int height; // Height level (0 = ground, 1 = elevated, 2 = high ground, etc.)
-    private boolean isElevated; // Whether position is on elevated terrain
-    private boolean hasHeightAdvantage; // Whether position provides height advantage
-    private int heightAdvantageBonus; // Bonus from height advantage
-    private boolean isRooftop; // Whether position is on rooftop
-    private boolean isBalcony; // Whether position is on balcony
-    private boolean isStairs; // Whether position is on stairs
-    private boolean isLadder; // Whether position is on ladder
-    private boolean isElevator; // Whether position is on elevator
-    private boolean isBridge; // Whether position is on bridge
-    private boolean isUnderground; // Whether position is underground
-    private boolean isWaterLevel; // Whether position is at water level
-    private boolean isAcidLevel; // Whether position is in acid
-    private boolean isFireLevel; // Whether position is on fire
-    private boolean isRadiationLevel; // Whether position is in radiation
-    private boolean isFrostLevel; // Whether position is in frost
-    private boolean isElectrocutedLevel; // Whether position is electrocuted
-    private boolean isCorrosionLevel; // Whether position is in corrosion
+    private final int x;
+    private final int y;
+    private final int height; // Height level (0 = ground, 1 = elevated, 2 = high ground, etc.)
     
     public Position(int x, int y) {
-        this.x = x;
-        this.y = y;
-        this.height = 0;
-        this.isElevated = false;
-        this.hasHeightAdvantage = false;
-        this.heightAdvantageBonus = 0;
-        this.isRooftop = false;
-        this.isBalcony = false;
-        this.isStairs = false;
-        this.isLadder = false;
-        this.isElevator = false;
-        this.isBridge = false;
-        this.isUnderground = false;
-        this.isWaterLevel = false;
-        this.isAcidLevel = false;
-        this.isFireLevel = false;
-        this.isRadiationLevel = false;
-        this.isFrostLevel = false;
-        this.isElectrocutedLevel = false;
-        this.isCorrosionLevel = false;
+        this(x, y, 0);
     }
     
     public Position(int x, int y, int height) {
         this.x = x;
         this.y = y;
         this.height = height;
-        this.isElevated = height > 0;
-        this.hasHeightAdvantage = height >= 2;
-        this.heightAdvantageBonus = calculateHeightAdvantageBonus(height);
-        this.isRooftop = false;
-        this.isBalcony = false;
-        this.isStairs = false;
-        this.isLadder = false;
-        this.isElevator = false;
-        this.isBridge = false;
-        this.isUnderground = false;
-        this.isWaterLevel = false;
-        this.isAcidLevel = false;
-        this.isFireLevel = false;
-        this.isRadiationLevel = false;
-        this.isFrostLevel = false;
-        this.isElectrocutedLevel = false;
-        this.isCorrosionLevel = false;
     }
     
     /**
-     * Calculate height advantage bonus based on height level
+     * Packed immutable form of this coordinate for primitive-keyed collections
+     */
+    public long pack() {
+        return PackedPosition.pack(x, y, height);
+    }
+    
+    /**
+     * Whether position is on elevated terrain
+     */
+    public boolean isElevated() {
+        return height > 0;
+    }
+    
+    /**
+     * Whether position provides height advantage
+     */
+    public boolean hasHeightAdvantage() {
+        return height >= 2;
+    }
+    
+    /**
+     * Bonus from height advantage: +10% accuracy per height level, +1 damage per 10% accuracy bonus
      */
-    private int calculateHeightAdvantageBonus(int height) {
+    public int getHeightAdvantageBonus() {
         if (height <= 0) {
             return 0;
         }
-        
-        // +10% accuracy per height level, +1 damage per 10% accuracy bonus
         int accuracyBonus = height * 10;
         int damageBonus = accuracyBonus / 10;
-        
         return accuracyBonus + damageBonus;
     }
     
-    /**
-     * Set height and update related properties
-     */
-    public void setHeight(int height) {
-        this.height = height;
-        this.isElevated = height > 0;
-        this.hasHeightAdvantage = height >= 2;
-        this.heightAdvantageBonus = calculateHeightAdvantageBonus(height);
-    }
-    
     /**
      * Get height advantage accuracy bonus
      */
     public int getHeightAccuracyBonus() {
-        if (!hasHeightAdvantage) {
+        if (!hasHeightAdvantage()) {
             return 0;
         }
         return height * 10; // +10% per height level
@@ -118,7 +72,7 @@ public class Position {
      * Get height advantage damage bonus
      */
     public int getHeightDamageBonus() {
-        if (!hasHeightAdvantage) {
+        if (!hasHeightAdvantage()) {
             return 0;
         }
         return height; // +1 damage per height level
@@ -131,69 +85,11 @@ public class Position {
         return getHeightAccuracyBonus() + getHeightDamageBonus();
     }
     
-    /**
-     * Check if position provides natural cover due to height
-     */
-    public boolean providesNaturalCover() {
-        return isElevated || isRooftop || isBalcony || isBridge;
-    }
-    
-    /**
-     * Get natural cover bonus from height
-     */
-    public int getNaturalCoverBonus() {
-        if (!providesNaturalCover()) {
-            return 0;
-        }
-        
-        if (isRooftop) return 30;
-        if (isBalcony) return 25;
-        if (isBridge) return 20;
-        if (isElevated) return 15;
-        
-        return 0;
-    }
-    
     /**
      * Check if position blocks line of sight due to height
      */
     public boolean blocksLineOfSight() {
-        return isElevated && height >= 2;
-    }
-    
-    /**
-     * Check if position blocks movement due to height
-     */
-    public boolean blocksMovement() {
-        return isUnderground || isWaterLevel || isAcidLevel || isFireLevel;
-    }
-    
-    /**
-     * Check if position is hazardous
-     */
-    public boolean isHazardous() {
-        return isAcidLevel || isFireLevel || isRadiationLevel || 
-               isFrostLevel || isElectrocutedLevel || isCorrosionLevel;
-    }
-    
-    /**
-     * Get hazard damage
-     */
-    public int getHazardDamage() {
-        if (isAcidLevel) return 5;
-        if (isFireLevel) return 3;
-        if (isRadiationLevel) return 4;
-        if (isFrostLevel) return 2;
-        if (isElectrocutedLevel) return 6;
-        if (isCorrosionLevel) return 4;
-        return 0;
-    }
-    
-    /**
-     * Check if position is accessible
-     */
-    public boolean isAccessible() {
-        return !blocksMovement() && !isHazardous();
+        return height >= 2;
     }
     
     /**
@@ -278,26 +174,6 @@ public class Position {
         return this.height == other.height;
     }
     
-    /**
-     * Get movement cost to reach this position
-     */
-    public int getMovementCost() {
-        int baseCost = 1;
-        
-        if (isStairs) baseCost += 1;
-        if (isLadder) baseCost += 2;
-        if (isElevator) baseCost += 1;
-        if (isWaterLevel) baseCost += 2;
-        if (isAcidLevel) baseCost += 3;
-        if (isFireLevel) baseCost += 2;
-        if (isRadiationLevel) baseCost += 2;
-        if (isFrostLevel) baseCost += 1;
-        if (isElectrocutedLevel) baseCost += 3;
-        if (isCorrosionLevel) baseCost += 2;
-        
-        return baseCost;
-    }
-    
     /**
      * Get position description
      */
@@ -308,23 +184,8 @@ public class Position {
         if (height > 0) {
             desc.append(" Height: ").append(height);
         }
-        
-        if (isElevated) desc.append(" [Elevated]");
-        if (hasHeightAdvantage) desc.append(" [Height Advantage]");
-        if (isRooftop) desc.append(" [Rooftop]");
-        if (isBalcony) desc.append(" [Balcony]");
-        if (isStairs) desc.append(" [Stairs]");
-        if (isLadder) desc.append(" [Ladder]");
-        if (isElevator) desc.append(" [Elevator]");
-        if (isBridge) desc.append(" [Bridge]");
-        if (isUnderground) desc.append(" [Underground]");
-        if (isWaterLevel) desc.append(" [Water]");
-        if (isAcidLevel) desc.append(" [Acid]");
-        if (isFireLevel) desc.append(" [Fire]");
-        if (isRadiationLevel) desc.append(" [Radiation]");
-        if (isFrostLevel) desc.append(" [Frost]");
-        if (isElectrocutedLevel) desc.append(" [Electrocuted]");
-        if (isCorrosionLevel) desc.append(" [Corrosion]");
+        if (isElevated()) desc.append(" [Elevated]");
+        if (hasHeightAdvantage()) desc.append(" [Height Advantage]");
         
         return desc.toString();
     }
@@ -339,7 +200,7 @@ public class Position {
     
     @Override
     public int hashCode() {
-        return Objects.hash(x, y, height);
+        return (31 * x + y) * 31 + height; // Same fields as Objects.hash, without the varargs array and boxing
     }
     
     @Override
@@ -352,10 +213,6 @@ public class Position {
     }
     
     // Additional methods for compatibility
-    public boolean hasHeightAdvantage() {
-        return hasHeightAdvantage;
-    }
-    
     public boolean hasHeightAdvantageOver(Position other) {
         return this.height > other.height;
     }
@@ -2,6 +2,7 @@ package com.aliensattack.core.model;
 
 import com.aliensattack.core.enums.TerrainType;
 import com.aliensattack.core.enums.CoverType;
+import com.aliensattack.core.enums.TileFeature;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -12,11 +13,14 @@ import lombok.Setter;
 @Getter
 @Setter
 public class Tile {
+    private static final TileFeature[] FEATURES = TileFeature.values(); // values() clones on every call
+    
     private int x, y;
     private Unit unit;
     private CoverObject coverObject;
     private TerrainType terrain;
     private boolean isHighGround;
+    private int features; // TileFeature bit mask
     
     public Tile(int x, int y) {
         this.x = x;
@@ -38,6 +42,60 @@ public class Tile {
         return coverObject.getCoverType();
     }
     
+    public boolean hasFeature(TileFeature feature) {
+        return feature.isIn(features);
+    }
+    
+    public void setFeature(TileFeature feature, boolean present) {
+        features = present ? features | feature.mask() : features & ~feature.mask();
+    }
+    
+    /**
+     * Get movement cost to enter this tile
+     */
+    public int getMovementCost() {
+        int cost = 1;
+        for (TileFeature feature : FEATURES) {
+            if (feature.isIn(features)) cost += feature.getMovementPenalty();
+        }
+        return cost;
+    }
+    
+    public boolean blocksMovement() {
+        for (TileFeature feature : FEATURES) {
+            if (feature.isIn(features) && feature.blocksMovement()) return true;
+        }
+        return false;
+    }
+    
+    public boolean isHazardous() {
+        return getHazardDamage() > 0;
+    }
+    
+    /**
+     * Damage from the first hazard present on the tile
+     */
+    public int getHazardDamage() {
+        for (TileFeature feature : FEATURES) {
+            if (feature.isIn(features) && feature.isHazardous()) return feature.getHazardDamage();
+        }
+        return 0;
+    }
+    
+    public boolean isAccessible() {
+        return !blocksMovement() && !isHazardous();
+    }
+    
+    /**
+     * Natural cover from rooftops, balconies and bridges, or from high ground
+     */
+    public int getNaturalCoverBonus() {
+        for (TileFeature feature : FEATURES) {
+            if (feature.isIn(features) && feature.getNaturalCoverBonus() > 0) return feature.getNaturalCoverBonus();
+        }
+        return isHighGround ? 15 : 0;
+    }
+    
     // Additional setter methods for compatibility
     public void setUnit(Unit unit) {
         this.unit = unit;
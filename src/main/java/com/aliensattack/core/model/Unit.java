@@ -12,7 +12,9 @@ import com.aliensattack.core.interfaces.IUnit;
 import com.aliensattack.core.data.StatusEffectData;
 import com.aliensattack.core.data.ConcealmentLevel;
 import com.aliensattack.core.data.DetectionLevel;
+import com.aliensattack.field.ITacticalField;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.log4j.Log4j2;
@@ -70,6 +72,10 @@ public class Unit implements IUnit {
     // Squad information
     private String squadId;
     
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private transient ITacticalField field; // Field the unit stands on, told about health, status and weapon changes
+    
     // Concealment and detection properties
     private ConcealmentLevel concealmentLevel;
     private DetectionLevel detectionLevel;
@@ -176,8 +182,10 @@ public class Unit implements IUnit {
         if (currentHealth <= 0) {
             currentHealth = 0;
             log.warn("Unit {} has died from damage", name);
+            stateChanged();
             return true; // Unit is dead
         }
+        stateChanged();
         return false;
     }
     
@@ -187,6 +195,7 @@ public class Unit implements IUnit {
     public void revive() {
         if (!isAlive()) {
             currentHealth = maxHealth / 2; // Revive with half health
+            stateChanged();
         }
     }
     
@@ -202,6 +211,7 @@ public class Unit implements IUnit {
      */
     public void clearStatusEffects() {
         statusEffects.clear();
+        stateChanged();
     }
     
     /**
@@ -212,6 +222,7 @@ public class Unit implements IUnit {
             int oldHealth = currentHealth;
             currentHealth = Math.min(currentHealth + amount, maxHealth);
             log.info("Unit {} healed for {} ({} -> {})", name, amount, oldHealth, currentHealth);
+            stateChanged();
         } else {
             log.warn("Cannot heal dead unit: {}", name);
         }
@@ -254,6 +265,39 @@ public class Unit implements IUnit {
         return attackDamage;
     }
     
+    public void setMovementRange(int movementRange) {
+        this.movementRange = movementRange;
+        stateChanged();
+    }
+    
+    public void setAttackRange(int attackRange) {
+        this.attackRange = attackRange;
+        stateChanged();
+    }
+    
+    public void setAttackDamage(int attackDamage) {
+        this.attackDamage = attackDamage;
+        stateChanged();
+    }
+    
+    /**
+     * Binds the unit to the field it is placed on, which then keeps its state
+     * hash and influence stamps in step with the unit; null unbinds it
+     */
+    public void bindToField(ITacticalField field) {
+        this.field = field;
+    }
+    
+    /**
+     * Tells the field about a change of health, status effects, weapon or reach
+     */
+    private void stateChanged() {
+        ITacticalField current = field;
+        if (current != null) {
+            current.onUnitStateChanged(this);
+        }
+    }
+    
     public UnitType getUnitType() {
         return unitType;
     }
@@ -336,7 +380,9 @@ public class Unit implements IUnit {
         suppressionTurns = 0;
         
         // Remove suppression status effect
-        statusEffects.removeIf(effect -> effect.getEffect() == StatusEffect.SUPPRESSED);
+        if (statusEffects.removeIf(effect -> effect.getEffect() == StatusEffect.SUPPRESSED)) {
+            stateChanged();
+        }
     }
     
     /**
@@ -430,6 +476,7 @@ public class Unit implements IUnit {
     
     public void setWeapon(Weapon weapon) {
         this.weapon = weapon;
+        stateChanged();
     }
     
     // Height methods
@@ -448,10 +495,13 @@ public class Unit implements IUnit {
     
     public void addStatusEffect(StatusEffectData effect) {
         statusEffects.add(effect);
+        stateChanged();
     }
     
     public void removeStatusEffect(StatusEffectData effect) {
-        statusEffects.remove(effect);
+        if (statusEffects.remove(effect)) {
+            stateChanged();
+        }
     }
     
     public boolean hasStatusEffect(StatusEffect effect) {
@@ -462,6 +512,7 @@ public class Unit implements IUnit {
     public void processStatusEffects() {
         statusEffects.removeIf(StatusEffectData::isExpired);
         statusEffects.forEach(StatusEffectData::decrementDuration);
+        stateChanged();
     }
     
     // Overwatch methods
@@ -656,8 +707,10 @@ public class Unit implements IUnit {
         currentHealth -= actualDamage;
         if (currentHealth <= 0) {
             currentHealth = 0;
+            stateChanged();
             return true; // Unit is dead
         }
+        stateChanged();
         return false;
     }
     
@@ -675,6 +728,7 @@ public class Unit implements IUnit {
             isStabilized = false; // Remove stabilization when healed
         }
         currentHealth = Math.min(currentHealth + amount, maxHealth);
+        stateChanged();
     }
     
     // Additional getter methods for compatibility
@@ -682,6 +736,11 @@ public class Unit implements IUnit {
         return currentHealth;
     }
     
+    public void setCurrentHealth(int currentHealth) {
+        this.currentHealth = currentHealth;
+        stateChanged();
+    }
+    
     public int getMaxHealth() {
         return maxHealth;
     }
@@ -1003,7 +1062,10 @@ public class Unit implements IUnit {
     
     /**
      * Check if target is visible through squad sight
+     * @deprecated compares distances to the view range only and ignores sight
+     * blockers; use {@link #isTargetVisibleThroughSquadSight(IUnit, ITacticalField)}
      */
+    @Deprecated
     public boolean isTargetVisibleThroughSquadSight(Unit target, List<Unit> allies) {
         if (!canUseSquadSight()) {
             return false;
@@ -1021,6 +1083,17 @@ public class Unit implements IUnit {
         return false;
     }
     
+    /**
+     * Check if target is visible through squad sight using the field's team
+     * fog of war (single bit test instead of per-ally line of sight)
+     */
+    public boolean isTargetVisibleThroughSquadSight(IUnit target, ITacticalField field) {
+        if (!canUseSquadSight() || target == null || field == null) {
+            return false;
+        }
+        return field.isVisibleToTeam(getUnitType(), target.getPosition());
+    }
+    
     /**
      * Get total attack range including squad sight
      */
@@ -1324,7 +1397,7 @@ public class Unit implements IUnit {
     }
     
     public void setMovementPoints(int movementPoints) {
-        this.movementRange = movementPoints;
+        setMovementRange(movementPoints);
     }
     
     /**
@@ -1384,7 +1457,7 @@ public class Unit implements IUnit {
         // Create a default status effect for the given name
         StatusEffect statusEffect = StatusEffect.valueOf(effectName.toUpperCase());
         StatusEffectData effect = new StatusEffectData(statusEffect, duration, 1);
-        statusEffects.add(effect);
+        addStatusEffect(effect);
     }
     
     // Suppression methods
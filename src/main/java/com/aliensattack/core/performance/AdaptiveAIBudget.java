@@ -0,0 +1,122 @@
+package com.aliensattack.core.performance;
+
+import com.aliensattack.core.config.GameConfig;
+import lombok.extern.log4j.Log4j2;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Time budgets of the enemy phase, adapted to how fast this machine
+ * actually runs the AI. The phase gets a fixed wall-clock budget; the time
+ * left after the expected commit cost is split between the planning aliens
+ * by how many of them the planning threads run at once. Planners report the
+ * measured cost of their refinement steps, which feeds an exponential moving
+ * average they use to skip steps that would not fit; a phase that overran
+ * its budget shrinks the following ones until the machine keeps up again.
+ */
+@Log4j2
+public class AdaptiveAIBudget {
+    /** Committing one alien's plan to the live field */
+    public static final String COMMIT = "enemy.commit";
+
+    private static final double MIN_PACE = 0.1;
+
+    private final long phaseMillis;
+    private final long minAlienMillis;
+    private final long maxAlienMillis;
+    private final long actionMillis;
+    private final double smoothing;
+    private final int parallelism;
+    private final Map<String, Double> stepNanos = new ConcurrentHashMap<>(); // Smoothed cost per step
+    private volatile double pace = 1.0; // Share of the configured budgets granted, lowered by overruns
+
+    public AdaptiveAIBudget(long phaseMillis, long minAlienMillis, long maxAlienMillis, long actionMillis,
+                            double smoothing, int parallelism) {
+        this.phaseMillis = Math.max(1, phaseMillis);
+        this.minAlienMillis = Math.max(1, minAlienMillis);
+        this.maxAlienMillis = Math.max(this.minAlienMillis, maxAlienMillis);
+        this.actionMillis = Math.max(this.minAlienMillis, actionMillis);
+        this.smoothing = Math.max(0.01, Math.min(1.0, smoothing));
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    public static AdaptiveAIBudget fromConfig() {
+        int parallelism = GameConfig.getInt("performance.ai.budget.parallelism", 0);
+        return new AdaptiveAIBudget(
+                GameConfig.getInt("performance.ai.budget.phase_ms", 3000),
+                GameConfig.getInt("performance.ai.budget.min_alien_ms", 20),
+                GameConfig.getAIPerformanceMaxCalculationTime(),
+                GameConfig.getInt("performance.ai.budget.action_ms", 50),
+                GameConfig.getDouble("performance.ai.budget.smoothing", 0.3),
+                parallelism > 0 ? parallelism : ForkJoinPool.getCommonPoolParallelism());
+    }
+
+    /**
+     * Deadline of the planning part of a phase with the given number of planners
+     */
+    public DecisionBudget phaseBudget(int planners) {
+        return DecisionBudget.ofMillis(planningMillis(Math.max(1, planners)));
+    }
+
+    /**
+     * Time each of the planners gets once it starts: the planning time over
+     * the number of waves the planning threads need for all of them
+     */
+    public long alienMillis(int planners) {
+        int count = Math.max(1, planners);
+        int waves = (count + parallelism - 1) / parallelism;
+        return clamp(planningMillis(count) / waves);
+    }
+
+    /**
+     * Time for a single action decided on the live field (a re-plan or a follow-up action)
+     */
+    public long actionMillis() {
+        return clamp((long) (actionMillis * pace));
+    }
+
+    /**
+     * Reports the measured cost of one step
+     */
+    public void record(String step, long nanos) {
+        stepNanos.merge(step, (double) nanos, (average, sample) -> average + smoothing * (sample - average));
+    }
+
+    /**
+     * Expected cost of a step, 0 until it was measured
+     */
+    public long estimateNanos(String step) {
+        Double average = stepNanos.get(step);
+        return average != null ? average.longValue() : 0L;
+    }
+
+    /**
+     * Reports the wall time of a whole enemy phase; an overrun shrinks the
+     * next budgets in proportion, a phase within budget lets them recover
+     */
+    public void recordPhase(long nanos) {
+        double ratio = phaseMillis * 1_000_000.0 / Math.max(1, nanos);
+        if (ratio < 1.0) {
+            pace = Math.max(MIN_PACE, pace * ratio);
+            log.warn("Enemy phase took {}ms of {}ms budget, AI budgets scaled to {}%",
+                    nanos / 1_000_000, phaseMillis, Math.round(pace * 100));
+        } else {
+            pace = Math.min(1.0, pace + (1.0 - pace) * smoothing);
+        }
+    }
+
+    public double getPace() {
+        return pace;
+    }
+
+    private long planningMillis(int planners) {
+        long commitMillis = estimateNanos(COMMIT) * planners / 1_000_000L;
+        return Math.max(minAlienMillis, (long) (phaseMillis * pace) - commitMillis);
+    }
+
+    private long clamp(long millis) {
+        return Math.max(minAlienMillis, Math.min(maxAlienMillis, millis));
+    }
+}
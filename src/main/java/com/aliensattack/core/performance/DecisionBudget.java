@@ -0,0 +1,49 @@
+package com.aliensattack.core.performance;
+
+/**
+ * Wall-clock deadline of one AI decision. Planners poll it between
+ * refinement steps and stop with their best-so-far result once it expires
+ * or the next step is not expected to fit.
+ */
+public final class DecisionBudget {
+    private final long millis;
+    private final long deadlineNanos;
+
+    private DecisionBudget(long millis) {
+        this.millis = Math.max(0, millis);
+        this.deadlineNanos = System.nanoTime() + this.millis * 1_000_000L;
+    }
+
+    /**
+     * Budget starting now and lasting the given number of milliseconds
+     */
+    public static DecisionBudget ofMillis(long millis) {
+        return new DecisionBudget(millis);
+    }
+
+    /**
+     * Length the budget was granted with
+     */
+    public long getMillis() {
+        return millis;
+    }
+
+    public boolean isExpired() {
+        return System.nanoTime() >= deadlineNanos;
+    }
+
+    public long remainingNanos() {
+        return Math.max(0, deadlineNanos - System.nanoTime());
+    }
+
+    public long remainingMillis() {
+        return remainingNanos() / 1_000_000L;
+    }
+
+    /**
+     * Whether a step expected to take the given time still ends before the deadline
+     */
+    public boolean canAfford(long estimatedNanos) {
+        return remainingNanos() > estimatedNanos;
+    }
+}
@@ -8,6 +8,7 @@ import com.aliensattack.core.config.GameConfig;
 import lombok.extern.log4j.Log4j2;
 import lombok.Data;
 
+import java.util.Locale;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -27,6 +28,7 @@ public class PerformanceManager {
     private CombatCalculationCache combatCache;
     private LazyResourceLoader resourceLoader;
     private MultithreadedAIManager aiManager;
+    private AdaptiveAIBudget aiBudget;
     
     // Monitoring
     private ScheduledExecutorService monitoringExecutor;
@@ -36,7 +38,7 @@ public class PerformanceManager {
         // Private constructor for singleton
     }
     
-    public static PerformanceManager getInstance() {
+    public static synchronized PerformanceManager getInstance() {
         if (instance == null) {
             instance = new PerformanceManager();
         }
@@ -100,11 +102,11 @@ public class PerformanceManager {
             log.info("Initializing Combat Calculation Cache...");
             
             int maxSize = GameConfig.getInt("performance.caching.combat.max_size", 1000);
-            int ttlMinutes = GameConfig.getInt("performance.caching.combat.ttl_minutes", 5);
             
-            combatCache = new CombatCalculationCache();
+            // Entries are keyed by the field state hash, so no TTL is needed
+            combatCache = new CombatCalculationCache(maxSize);
             
-            log.info("Combat Calculation Cache initialized with max size: {}, TTL: {} minutes", maxSize, ttlMinutes);
+            log.info("Combat Calculation Cache initialized with max size: {}", maxSize);
         }
     }
     
@@ -125,6 +127,19 @@ public class PerformanceManager {
         }
     }
     
+    /**
+     * Reads the AI execution mode in any letter case; an unknown value falls
+     * back to the platform pool instead of failing the startup
+     */
+    private static MultithreadedAIManager.ExecutionMode parseExecutionMode(String value) {
+        try {
+            return MultithreadedAIManager.ExecutionMode.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            log.warn("Unknown AI execution mode '{}', using PLATFORM_POOL", value);
+            return MultithreadedAIManager.ExecutionMode.PLATFORM_POOL;
+        }
+    }
+    
     /**
      * Initialize multithreaded AI system
      */
@@ -135,8 +150,11 @@ public class PerformanceManager {
             int threadPoolSize = GameConfig.getInt("performance.multithreading.ai.thread_pool_size", 4);
             int maxConcurrent = GameConfig.getInt("performance.multithreading.ai.max_concurrent", 8);
             long timeoutMs = GameConfig.getInt("performance.multithreading.ai.timeout_ms", 5000);
+            MultithreadedAIManager.ExecutionMode mode = parseExecutionMode(
+                    GameConfig.getString("performance.multithreading.ai.execution_mode", "PLATFORM_POOL"));
+            int computeLimit = GameConfig.getInt("performance.multithreading.ai.compute_limit", 0);
             
-            aiManager = new MultithreadedAIManager(threadPoolSize, maxConcurrent, timeoutMs);
+            aiManager = new MultithreadedAIManager(threadPoolSize, maxConcurrent, timeoutMs, mode, computeLimit);
             
             log.info("Multithreaded AI Manager initialized with {} threads, max concurrent: {}, timeout: {}ms", 
                     threadPoolSize, maxConcurrent, timeoutMs);
@@ -231,6 +249,17 @@ public class PerformanceManager {
         return aiManager;
     }
     
+    /**
+     * Get the enemy phase time budgets; created on first use, so they adapt
+     * across turns even when the other systems were never initialized
+     */
+    public synchronized AdaptiveAIBudget getAIBudget() {
+        if (aiBudget == null) {
+            aiBudget = AdaptiveAIBudget.fromConfig();
+        }
+        return aiBudget;
+    }
+    
     /**
      * Get performance metrics
      */
@@ -22,31 +22,11 @@ import java.util.function.Consumer;
 public class PerformancePoolFactory {
     
     // Pool sizes optimized for different object types
-    private static final int POSITION_POOL_SIZE = 1000;
     private static final int EVENT_POOL_SIZE = 500;
     private static final int UNIT_POOL_SIZE = 200;
     private static final int ACTION_POOL_SIZE = 300;
     private static final int COMBAT_RESULT_POOL_SIZE = 400;
     
-    /**
-     * Create position object pool with reset functionality
-     */
-    public static PerformanceObjectPool<Position> createPositionPool() {
-        Consumer<Position> resetter = pos -> {
-            if (pos != null) {
-                pos.setX(0);
-                pos.setY(0);
-            }
-        };
-        
-        return new PerformanceObjectPool<>(
-            () -> new Position(0, 0),
-            resetter,
-            POSITION_POOL_SIZE,
-            "PositionPool"
-        );
-    }
-    
     /**
      * Create combat event pool with reset functionality
      */
@@ -155,7 +135,6 @@ public class PerformancePoolFactory {
         log.info("Pre-populating all performance pools...");
         
         try {
-            createPositionPool().prePopulate(POSITION_POOL_SIZE / 2);
             createCombatEventPool().prePopulate(EVENT_POOL_SIZE / 2);
             createMoveEventPool().prePopulate(EVENT_POOL_SIZE / 2);
             createActionPool().prePopulate(ACTION_POOL_SIZE / 2);
@@ -173,13 +152,11 @@ public class PerformancePoolFactory {
     public static void logPoolStatistics() {
         log.info("=== Performance Pool Statistics ===");
         
-        PerformanceObjectPool<Position> posPool = createPositionPool();
         PerformanceObjectPool<CombatEvent> combatPool = createCombatEventPool();
         PerformanceObjectPool<MoveEvent> movePool = createMoveEventPool();
         PerformanceObjectPool<BaseAction> actionPool = createActionPool();
         PerformanceObjectPool<BaseUnit> unitPool = createUnitPool();
         
-        log.info("Position Pool: {}", posPool.getStatistics());
         log.info("Combat Event Pool: {}", combatPool.getStatistics());
         log.info("Move Event Pool: {}", movePool.getStatistics());
         log.info("Action Pool: {}", actionPool.getStatistics());
@@ -1,6 +1,5 @@
 package com.aliensattack.core.pool;
 
-import com.aliensattack.core.model.Position;
 import com.aliensattack.core.events.CombatEvent;
 import com.aliensattack.core.events.AttackEvent;
 
@@ -10,20 +9,8 @@ import com.aliensattack.core.events.AttackEvent;
 public class PoolFactory {
     
     private static final int DEFAULT_POOL_SIZE = 100;
-    private static final int POSITION_POOL_SIZE = 500;
     private static final int EVENT_POOL_SIZE = 200;
     
-    /**
-     * Create position object pool
-     */
-    public static ObjectPool<Position> createPositionPool() {
-        return new ObjectPool<>(
-            () -> new Position(0, 0),
-            POSITION_POOL_SIZE,
-            "PositionPool"
-        );
-    }
-    
     /**
      * Create combat event pool
      */
@@ -1,9 +1,11 @@
 package com.aliensattack.core.systems;
 
+import com.aliensattack.core.enums.CoverType;
 import com.aliensattack.core.interfaces.IFlankingSystem;
 import com.aliensattack.core.model.Unit;
 import com.aliensattack.core.model.Position;
 import com.aliensattack.core.model.CombatAction;
+import com.aliensattack.field.ITacticalField;
 import lombok.Data;
 import lombok.extern.log4j.Log4j2;
 
@@ -19,9 +21,15 @@ public class FlankingSystem implements IFlankingSystem {
     private final FlankingCalculator calculator;
     private final FlankingBonusManager bonusManager;
     private final FlankingVisualIndicator visualIndicator;
+    private final ITacticalField tacticalField; // Optional; supplies directional cover when set
     
     public FlankingSystem() {
-        this.calculator = new FlankingCalculator();
+        this(null);
+    }
+    
+    public FlankingSystem(ITacticalField tacticalField) {
+        this.tacticalField = tacticalField;
+        this.calculator = new FlankingCalculator(tacticalField);
         this.bonusManager = new FlankingBonusManager();
         this.visualIndicator = new FlankingVisualIndicator();
     }
@@ -98,6 +106,9 @@ public class FlankingSystem implements IFlankingSystem {
     }
     
     private boolean hasCover(Position position) {
+        if (tacticalField != null) {
+            return tacticalField.getBestCoverAt(position.getX(), position.getY()) != CoverType.NONE;
+        }
         // Simplified cover check
         return Math.random() > 0.5;
     }
@@ -115,20 +126,37 @@ public class FlankingSystem implements IFlankingSystem {
     
     // Inner classes for flanking system components
     public static class FlankingCalculator {
+        private static final int FLANK_RANGE = 3;
+        
+        private final ITacticalField tacticalField;
+        
+        public FlankingCalculator() {
+            this(null);
+        }
+        
+        public FlankingCalculator(ITacticalField tacticalField) {
+            this.tacticalField = tacticalField;
+        }
         
         public boolean isFlanking(Position attacker, Position target) {
+            if (tacticalField != null) {
+                return tacticalField.isFlankedFrom(target, attacker);
+            }
             List<Position> flankingPositions = calculateFlankingPositions(target);
             return flankingPositions.contains(attacker);
         }
         
         public List<Position> calculateFlankingPositions(Position target) {
+            if (tacticalField != null) {
+                return calculateFieldFlankingPositions(target);
+            }
             List<Position> positions = new ArrayList<>();
             
             // Determine facing direction (simplified)
             Direction facingDirection = Direction.NORTH; // Default facing
             
             // Calculate flanking positions
-            for (int distance = 1; distance <= 3; distance++) {
+            for (int distance = 1; distance <= FLANK_RANGE; distance++) {
                 Position leftFlank = calculateFlankPosition(target, facingDirection, distance, true);
                 Position rightFlank = calculateFlankPosition(target, facingDirection, distance, false);
                 
@@ -139,6 +167,31 @@ public class FlankingSystem implements IFlankingSystem {
             return positions;
         }
         
+        /**
+         * Tiles around the target from which its directional cover does not protect it
+         */
+        private List<Position> calculateFieldFlankingPositions(Position target) {
+            List<Position> positions = new ArrayList<>();
+            if (!tacticalField.isValidPosition(target)
+                    || tacticalField.getBestCoverAt(target.getX(), target.getY()) == CoverType.NONE) {
+                return positions; // Nothing to flank in the open
+            }
+            
+            for (int dy = -FLANK_RANGE; dy <= FLANK_RANGE; dy++) {
+                for (int dx = -FLANK_RANGE; dx <= FLANK_RANGE; dx++) {
+                    int x = target.getX() + dx;
+                    int y = target.getY() + dy;
+                    if ((dx == 0 && dy == 0) || !tacticalField.isValidPosition(x, y)) continue;
+                    
+                    Position candidate = new Position(x, y);
+                    if (tacticalField.isFlankedFrom(target, candidate)) {
+                        positions.add(candidate);
+                    }
+                }
+            }
+            return positions;
+        }
+        
         private Position calculateFlankPosition(Position target, Direction facing, int distance, boolean isLeft) {
             // Calculate perpendicular offset
             int offsetX = facing.getPerpendicularX() * distance * (isLeft ? -1 : 1);
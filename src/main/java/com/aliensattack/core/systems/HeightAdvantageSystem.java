@@ -1,9 +1,12 @@
 package com.aliensattack.core.systems;
 
+import com.aliensattack.core.collections.LongObjectHashMap;
 import com.aliensattack.core.interfaces.IHeightAdvantageSystem;
 import com.aliensattack.core.model.Position;
 import com.aliensattack.core.model.Unit;
 import com.aliensattack.core.enums.HeightLevel;
+import com.aliensattack.field.ITacticalField;
+import com.aliensattack.field.SightLine;
 import lombok.Data;
 import lombok.extern.log4j.Log4j2;
 
@@ -11,17 +14,25 @@ import java.util.*;
 
 /**
  * Height Advantage System - XCOM2 Tactical Combat
- * Manages elevation-based bonuses, penalties, and line of sight calculations
+ * Manages elevation-based bonuses, penalties, and line of sight calculations.
+ * When bound to a field, heights come from the field's heightfield and sight
+ * from its 3D trace, so bonuses and visibility agree.
  */
 @Log4j2
 public class HeightAdvantageSystem implements IHeightAdvantageSystem {
     
+    private final ITacticalField tacticalField;
     private final HeightManager heightManager;
     private final HeightBonusCalculator bonusCalculator;
     private final ElevationSystem elevationSystem;
     
     public HeightAdvantageSystem() {
-        this.heightManager = new HeightManager();
+        this(null);
+    }
+    
+    public HeightAdvantageSystem(ITacticalField tacticalField) {
+        this.tacticalField = tacticalField;
+        this.heightManager = new HeightManager(tacticalField);
         this.bonusCalculator = new HeightBonusCalculator();
         this.elevationSystem = new ElevationSystem();
     }
@@ -33,6 +44,11 @@ public class HeightAdvantageSystem implements IHeightAdvantageSystem {
     
     @Override
     public double calculateHeightBonus(Unit attacker, Unit target) {
+        SightLine sight = traceSight(attacker.getPosition(), target.getPosition());
+        if (sight != null) {
+            return bonusCalculator.calculateBonus(HeightManager.levelOf(sight.getFromElevation()),
+                    HeightManager.levelOf(sight.getToElevation()));
+        }
         HeightLevel attackerHeight = getHeightLevel(attacker.getPosition());
         HeightLevel targetHeight = getHeightLevel(target.getPosition());
         
@@ -41,20 +57,31 @@ public class HeightAdvantageSystem implements IHeightAdvantageSystem {
     
     @Override
     public double calculateHeightPenalty(Unit attacker, Unit target) {
-        HeightLevel attackerHeight = getHeightLevel(attacker.getPosition());
-        HeightLevel targetHeight = getHeightLevel(target.getPosition());
-        
-        return bonusCalculator.calculatePenalty(attackerHeight, targetHeight);
+        return 1.0 / calculateHeightBonus(attacker, target);
     }
     
     @Override
     public boolean hasLineOfSight(Position from, Position to) {
+        SightLine sight = traceSight(from, to);
+        if (sight != null) {
+            return sight.isClear();
+        }
         HeightLevel fromHeight = getHeightLevel(from);
         HeightLevel toHeight = getHeightLevel(to);
         
         return elevationSystem.checkLineOfSight(from, to, fromHeight, toHeight);
     }
     
+    /**
+     * One cached field trace answers both sight and relative height; null without a field
+     */
+    private SightLine traceSight(Position from, Position to) {
+        if (tacticalField == null || from == null || to == null) {
+            return null;
+        }
+        return tacticalField.traceSight(from, to);
+    }
+    
     @Override
     public List<HeightModifier> getHeightModifiers() {
         return heightManager.getAllHeightModifiers();
@@ -63,21 +90,47 @@ public class HeightAdvantageSystem implements IHeightAdvantageSystem {
     // Inner classes for height advantage system components
     public static class HeightManager {
         
-        private final Map<Position, HeightLevel> heightMap;
+        private final ITacticalField tacticalField; // Owns the heightfield when present
+        private final LongObjectHashMap<HeightLevel> heightMap; // Standalone fallback, packed positions
         private final List<HeightModifier> heightModifiers;
         
         public HeightManager() {
-            this.heightMap = new HashMap<>();
+            this(null);
+        }
+        
+        public HeightManager(ITacticalField tacticalField) {
+            this.tacticalField = tacticalField;
+            this.heightMap = new LongObjectHashMap<>();
             this.heightModifiers = new ArrayList<>();
             initializeHeightModifiers();
         }
         
         public HeightLevel getHeightLevel(Position position) {
-            return heightMap.getOrDefault(position, HeightLevel.GROUND);
+            if (tacticalField != null) {
+                return levelOf(tacticalField.getElevation(position.getX(), position.getY()) + position.getHeight());
+            }
+            return heightMap.getOrDefault(position.pack(), HeightLevel.GROUND);
         }
         
         public void setHeightLevel(Position position, HeightLevel level) {
-            heightMap.put(position, level);
+            if (tacticalField != null) {
+                tacticalField.setElevation(position.getX(), position.getY(), level.getLevel());
+                return;
+            }
+            heightMap.put(position.pack(), level);
+        }
+        
+        /**
+         * Height level of a heightfield elevation, clamped to the known levels
+         */
+        public static HeightLevel levelOf(int elevation) {
+            HeightLevel result = HeightLevel.GROUND;
+            for (HeightLevel level : HeightLevel.values()) {
+                if (level.getLevel() <= elevation && level.getLevel() >= result.getLevel()) {
+                    result = level;
+                }
+            }
+            return result;
         }
         
         public List<HeightModifier> getAllHeightModifiers() {
@@ -4,6 +4,7 @@ import lombok.Data;
 import lombok.Builder;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import com.aliensattack.core.enums.TerrainType;
 import com.aliensattack.core.model.Position;
 
 import java.util.*;
@@ -116,6 +117,16 @@ public class MovementSystem {
         return baseCost + terrainPenalty;
     }
     
+    /**
+     * Cost of stepping onto a tile of the given terrain, same rules as a single move
+     */
+    public int getStepCost(TerrainType terrain, int heightDifference) {
+        int baseCost = actionCosts != null ? actionCosts.getOrDefault("move", 1) : 1;
+        int terrainPenalty = terrain != null && terrainPenalties != null
+                ? terrainPenalties.getOrDefault(terrain.name().toLowerCase(), 0) : 0;
+        return baseCost + terrainPenalty + Math.abs(heightDifference);
+    }
+    
     /**
      * Use movement ability
      */
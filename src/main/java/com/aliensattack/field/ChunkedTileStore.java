@@ -0,0 +1,168 @@
+package com.aliensattack.field;
+
+import com.aliensattack.core.enums.TerrainType;
+
+import java.util.Arrays;
+
+/**
+ * Chunked storage for per-tile terrain attributes.
+ * The field is split into {@value #CHUNK_SIZE}x{@value #CHUNK_SIZE} chunks that all
+ * start out pointing at one shared, read-only default chunk. A chunk gets its own
+ * primitive arrays only when a non-default attribute is written into it, so large
+ * procedurally generated maps cost memory only where something is actually placed.
+ * {@link #freeze()} hands out a read-only copy that shares every chunk; the live
+ * store copies a shared chunk the next time it writes to it.
+ */
+final class ChunkedTileStore {
+    static final int CHUNK_SIZE = 32;
+    private static final int CHUNK_SHIFT = 5;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int CHUNK_TILES = CHUNK_SIZE * CHUNK_SIZE;
+
+    private static final TerrainType[] TERRAIN_TYPES = TerrainType.values();
+    private static final TerrainType DEFAULT_TERRAIN = TerrainType.GROUND;
+    private static final short FLAG_HIGH_GROUND = 1;
+    private static final int FEATURE_SHIFT = 1; // TileFeature mask sits above the high-ground bit
+
+    /**
+     * Canonical chunk shared by every untouched region; never written
+     */
+    private static final Chunk EMPTY = new Chunk();
+
+    private static final class Chunk {
+        final byte[] terrain;
+        final short[] flags;
+        final byte[] elevation;
+        final int epoch; // Store epoch the chunk was created in; older chunks may be shared
+
+        Chunk() {
+            this.terrain = new byte[CHUNK_TILES];
+            this.flags = new short[CHUNK_TILES];
+            this.elevation = new byte[CHUNK_TILES];
+            this.epoch = -1;
+            Arrays.fill(terrain, (byte) DEFAULT_TERRAIN.ordinal());
+        }
+
+        Chunk(Chunk source, int epoch) {
+            this.terrain = source.terrain.clone();
+            this.flags = source.flags.clone();
+            this.elevation = source.elevation.clone();
+            this.epoch = epoch;
+        }
+    }
+
+    private final int chunksX;
+    private final Chunk[] chunks;
+    private final boolean frozen;
+    private int materialized;
+    private int epoch;
+
+    ChunkedTileStore(int width, int height) {
+        this.chunksX = (width + CHUNK_MASK) >> CHUNK_SHIFT;
+        int chunksY = (height + CHUNK_MASK) >> CHUNK_SHIFT;
+        this.chunks = new Chunk[chunksX * chunksY];
+        this.frozen = false;
+        Arrays.fill(chunks, EMPTY);
+    }
+
+    private ChunkedTileStore(ChunkedTileStore source) {
+        this.chunksX = source.chunksX;
+        this.chunks = source.chunks.clone();
+        this.frozen = true;
+        this.materialized = source.materialized;
+    }
+
+    /**
+     * Returns a read-only store sharing all current chunks
+     */
+    ChunkedTileStore freeze() {
+        epoch++;
+        return new ChunkedTileStore(this);
+    }
+
+    TerrainType getTerrain(int x, int y) {
+        return TERRAIN_TYPES[chunkAt(x, y).terrain[local(x, y)]];
+    }
+
+    void setTerrain(int x, int y, TerrainType terrain) {
+        TerrainType value = terrain != null ? terrain : DEFAULT_TERRAIN;
+        if (value == DEFAULT_TERRAIN && chunkAt(x, y) == EMPTY) return;
+        writableChunk(x, y).terrain[local(x, y)] = (byte) value.ordinal();
+    }
+
+    boolean isHighGround(int x, int y) {
+        return (chunkAt(x, y).flags[local(x, y)] & FLAG_HIGH_GROUND) != 0;
+    }
+
+    void setHighGround(int x, int y, boolean highGround) {
+        if (!highGround && chunkAt(x, y) == EMPTY) return;
+        Chunk chunk = writableChunk(x, y);
+        int i = local(x, y);
+        chunk.flags[i] = (short) (highGround ? chunk.flags[i] | FLAG_HIGH_GROUND : chunk.flags[i] & ~FLAG_HIGH_GROUND);
+    }
+
+    /**
+     * TileFeature bit mask of the tile
+     */
+    int getFeatures(int x, int y) {
+        return (chunkAt(x, y).flags[local(x, y)] & 0xFFFF) >>> FEATURE_SHIFT;
+    }
+
+    void setFeatures(int x, int y, int features) {
+        if (features == 0 && chunkAt(x, y) == EMPTY) return;
+        Chunk chunk = writableChunk(x, y);
+        int i = local(x, y);
+        chunk.flags[i] = (short) ((chunk.flags[i] & FLAG_HIGH_GROUND) | (features << FEATURE_SHIFT));
+    }
+
+    int getElevation(int x, int y) {
+        return chunkAt(x, y).elevation[local(x, y)];
+    }
+
+    void setElevation(int x, int y, int elevation) {
+        if (elevation == 0 && chunkAt(x, y) == EMPTY) return;
+        writableChunk(x, y).elevation[local(x, y)] = (byte) Math.max(Byte.MIN_VALUE, Math.min(Byte.MAX_VALUE, elevation));
+    }
+
+    /**
+     * Number of chunks that hold their own data
+     */
+    int getMaterializedChunks() {
+        return materialized;
+    }
+
+    int getTotalChunks() {
+        return chunks.length;
+    }
+
+    void clear() {
+        Arrays.fill(chunks, EMPTY);
+        materialized = 0;
+    }
+
+    private Chunk chunkAt(int x, int y) {
+        return chunks[(y >> CHUNK_SHIFT) * chunksX + (x >> CHUNK_SHIFT)];
+    }
+
+    private Chunk writableChunk(int x, int y) {
+        if (frozen) {
+            throw new UnsupportedOperationException("Tile store snapshot is read-only");
+        }
+        int index = (y >> CHUNK_SHIFT) * chunksX + (x >> CHUNK_SHIFT);
+        Chunk chunk = chunks[index];
+        if (chunk == EMPTY) {
+            chunk = new Chunk(EMPTY, epoch);
+            chunks[index] = chunk;
+            materialized++;
+        } else if (chunk.epoch != epoch) {
+            // Chunk may be shared with a snapshot: copy on write
+            chunk = new Chunk(chunk, epoch);
+            chunks[index] = chunk;
+        }
+        return chunk;
+    }
+
+    private static int local(int x, int y) {
+        return ((y & CHUNK_MASK) << CHUNK_SHIFT) | (x & CHUNK_MASK);
+    }
+}
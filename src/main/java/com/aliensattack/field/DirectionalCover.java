@@ -0,0 +1,143 @@
+package com.aliensattack.field;
+
+import com.aliensattack.core.enums.CoverType;
+import com.aliensattack.core.model.CoverObject;
+
+import java.util.Arrays;
+import java.util.function.IntFunction;
+
+/**
+ * Cover every tile has against an attack from each of the 8 compass
+ * directions, stored as one byte per (tile, direction) next to the occupancy
+ * grid. Flank tests and cover bonuses become a table lookup instead of a scan
+ * of the surrounding covers. A cover object only affects its own tile and the
+ * 8 around it, so a change is patched by refreshing that 3x3 block.
+ */
+final class DirectionalCover {
+    static final int DIRECTIONS = 8;
+
+    // Octants clockwise from east, y grows downwards; even octants are cardinal
+    private static final int[] DX = {1, 1, 0, -1, -1, -1, 0, 1};
+    private static final int[] DY = {0, 1, 1, 1, 0, -1, -1, -1};
+
+    private static final CoverType[] TYPES = CoverType.values();
+
+    private final int width;
+    private final int height;
+    private final IntFunction<CoverObject> coverAt;
+    private final byte[] cover; // (tile * 8 + octant) -> ordinal of the strongest CoverType
+
+    DirectionalCover(int width, int height, IntFunction<CoverObject> coverAt) {
+        this.width = width;
+        this.height = height;
+        this.coverAt = coverAt;
+        this.cover = new byte[width * height * DIRECTIONS]; // All NONE
+    }
+
+    /**
+     * Octant of an attacker offset from the target, in 45 degree sectors
+     * centred on the compass directions; -1 for a zero offset
+     */
+    static int octantOf(int dx, int dy) {
+        if (dx == 0 && dy == 0) return -1;
+        int ax = Math.abs(dx);
+        int ay = Math.abs(dy);
+        // tan(22.5 deg) ~ 12/29 splits cardinal from diagonal sectors
+        if (ay * 29 <= ax * 12) return dx > 0 ? 0 : 4;
+        if (ax * 29 <= ay * 12) return dy > 0 ? 2 : 6;
+        if (dx > 0) return dy > 0 ? 1 : 7;
+        return dy > 0 ? 3 : 5;
+    }
+
+    /**
+     * Strongest cover the tile has against an attacker at the offset
+     */
+    CoverType get(int x, int y, int dx, int dy) {
+        int octant = octantOf(dx, dy);
+        if (octant < 0) return CoverType.NONE; // Point blank, nothing in between
+        return TYPES[cover[(y * width + x) * DIRECTIONS + octant]];
+    }
+
+    /**
+     * Strongest cover the tile has in any direction
+     */
+    CoverType best(int x, int y) {
+        int base = (y * width + x) * DIRECTIONS;
+        CoverType best = CoverType.NONE;
+        for (int octant = 0; octant < DIRECTIONS; octant++) {
+            CoverType type = TYPES[cover[base + octant]];
+            if (strength(type) > strength(best)) {
+                best = type;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Recomputes the tiles a cover change at (x, y) can affect
+     */
+    void refreshAround(int x, int y) {
+        for (int ny = Math.max(0, y - 1); ny <= Math.min(height - 1, y + 1); ny++) {
+            for (int nx = Math.max(0, x - 1); nx <= Math.min(width - 1, x + 1); nx++) {
+                refreshTile(nx, ny);
+            }
+        }
+    }
+
+    void clear() {
+        Arrays.fill(cover, (byte) 0);
+    }
+
+    /**
+     * Own cover protects from every side; cover on a cardinal neighbour
+     * shields its direction and the two diagonals next to it, cover on a
+     * diagonal neighbour only that diagonal
+     */
+    private void refreshTile(int x, int y) {
+        int base = (y * width + x) * DIRECTIONS;
+        CoverType own = effectiveType(coverAt.apply(y * width + x));
+        for (int octant = 0; octant < DIRECTIONS; octant++) {
+            cover[base + octant] = (byte) own.ordinal();
+        }
+
+        for (int d = 0; d < DIRECTIONS; d++) {
+            int nx = x + DX[d];
+            int ny = y + DY[d];
+            if (nx < 0 || nx >= width || ny < 0 || ny >= height) continue;
+
+            CoverType type = effectiveType(coverAt.apply(ny * width + nx));
+            if (type == CoverType.NONE) continue;
+            raise(base + d, type);
+            if ((d & 1) == 0) {
+                raise(base + ((d + 1) & 7), type);
+                raise(base + ((d + 7) & 7), type);
+            }
+        }
+    }
+
+    private void raise(int index, CoverType type) {
+        if (strength(type) > strength(TYPES[cover[index]])) {
+            cover[index] = (byte) type.ordinal();
+        }
+    }
+
+    private static CoverType effectiveType(CoverObject object) {
+        if (object == null || object.isDestroyed() || object.getCoverType() == null) {
+            return CoverType.NONE;
+        }
+        return object.getCoverType();
+    }
+
+    /**
+     * Protection rank of a cover type, matching the defence bonus it grants
+     */
+    static int strength(CoverType type) {
+        return switch (type) {
+            case LIGHT, LOW_COVER -> 1;
+            case HEAVY, HALF_COVER -> 2;
+            case FULL, FULL_COVER -> 3;
+            case DEEP_COVER -> 4;
+            case NONE, FLANKED -> 0;
+        };
+    }
+}
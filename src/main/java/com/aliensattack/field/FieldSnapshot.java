@@ -0,0 +1,581 @@
+package com.aliensattack.field;
+
+import com.aliensattack.core.config.GameConfig;
+import com.aliensattack.core.enums.CoverType;
+import com.aliensattack.core.enums.TerrainType;
+import com.aliensattack.core.enums.UnitType;
+import com.aliensattack.core.interfaces.IUnit;
+import com.aliensattack.core.model.CoverObject;
+import com.aliensattack.core.model.Position;
+import com.aliensattack.core.model.Unit;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Read-only view of a tactical field frozen at one field version.
+ * Unit placement, cover and terrain are captured when the snapshot is taken,
+ * so AI planners can read it from any thread without locks while the game
+ * thread keeps committing moves to the live field. Cover, terrain, influence
+ * layers, unchanged chunks of the unit layer and unchanged cells of the spatial
+ * index are structurally shared with
+ * the live field and with other snapshots until they change; routing is shared
+ * by all snapshots of a route version. Unit stats (health, action points) are
+ * still read live.
+ */
+final class FieldSnapshot implements ITacticalField {
+
+    /**
+     * Cover layer frozen for one sight version, shared by all snapshots of it
+     */
+    static final class CoverState {
+        private final OccupancyGrid.FrozenLayer<CoverObject> covers;
+        private final long sightVersion;
+        private final SightCache sightLines; // Shared by all snapshots of this sight version
+        private final Map<Long, VisibilityMask> views = new ConcurrentHashMap<>(); // (tile, range) -> FOV, likewise
+        private final DirectionalCover directionalCover;
+
+        CoverState(OccupancyGrid.FrozenLayer<CoverObject> covers, int width, int height, long sightVersion) {
+            this.covers = covers;
+            this.sightVersion = sightVersion;
+            this.sightLines = new SightCache(GameConfig.getInt("game.field.sight.cache.size", 65536));
+            this.directionalCover = new DirectionalCover(width, height, covers::get);
+            for (int slot = 0; slot < covers.count(); slot++) {
+                int tile = covers.tileInSlot(slot);
+                directionalCover.refreshAround(tile % width, tile / width);
+            }
+        }
+
+        long getSightVersion() {
+            return sightVersion;
+        }
+    }
+
+    /**
+     * Routing state for one route version. Terrain, elevation and cover
+     * passability are the same in every snapshot of it, so they share one
+     * pathfinding graph and one flow field cache
+     */
+    static final class Routes {
+        private final long routeVersion;
+        private final FlowFieldCache flowFields;
+        private volatile HierarchicalPathfinder pathfinder;
+
+        Routes(int width, int height, long routeVersion) {
+            this.routeVersion = routeVersion;
+            this.flowFields = new FlowFieldCache(width, height, GameConfig.getAIPerformanceFlowFieldCacheSize());
+        }
+
+        long getRouteVersion() {
+            return routeVersion;
+        }
+    }
+
+    private final int width;
+    private final int height;
+    private final long version;
+    private final OccupancyGrid.FrozenLayer<Unit> units;
+    private final SpatialIndex spatialIndex; // Buckets of the frozen unit tiles
+    private final CoverState coverState;
+    private final ChunkedTileStore tiles;
+    private final Map<UnitType, TeamVisibility> teamVisibility = new EnumMap<>(UnitType.class);
+    private final Map<IUnit, ReachabilityMap> reachabilityCache = new ConcurrentHashMap<>();
+    private final MovementCosts movementCosts;
+    private final Routes routes;
+    private final InfluenceMap influence;
+    private final long stateHash;
+
+    FieldSnapshot(int width, int height, long version, OccupancyGrid.FrozenLayer<Unit> units,
+                  SpatialIndex spatialIndex, CoverState coverState, ChunkedTileStore tiles,
+                  MovementCosts movementCosts, Routes routes, InfluenceMap influence, long stateHash) {
+        this.width = width;
+        this.height = height;
+        this.version = version;
+        this.units = units;
+        this.spatialIndex = spatialIndex;
+        this.coverState = coverState;
+        this.tiles = tiles;
+        this.movementCosts = movementCosts;
+        this.routes = routes;
+        this.influence = influence;
+        this.stateHash = stateHash;
+    }
+
+    @Override
+    public ITacticalField snapshot() {
+        return this;
+    }
+
+    @Override
+    public long getFieldVersion() {
+        return version;
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public boolean isValidPosition(int x, int y) {
+        return x >= 0 && x < width && y >= 0 && y < height;
+    }
+
+    @Override
+    public boolean isValidPosition(Position position) {
+        return isValidPosition(position.getX(), position.getY());
+    }
+
+    // Юниты
+
+    @Override
+    public Unit getUnitAt(int x, int y) {
+        return isValidPosition(x, y) ? units.get(y * width + x) : null;
+    }
+
+    @Override
+    public Unit getUnitAt(Position position) {
+        return getUnitAt(position.getX(), position.getY());
+    }
+
+    @Override
+    public List<Unit> getAllUnits() {
+        return units.toList();
+    }
+
+    @Override
+    public List<Unit> getPlayerUnits() {
+        return unitsOfType(UnitType.SOLDIER);
+    }
+
+    @Override
+    public List<Unit> getEnemyUnits() {
+        return unitsOfType(UnitType.ALIEN);
+    }
+
+    /**
+     * Position of a unit as of this snapshot, or null if it was not on the field.
+     * The unit's live position is trusted when the frozen layer still has it
+     * there, so only units moved since the snapshot hit the frozen index
+     */
+    Position getFrozenPosition(Unit unit) {
+        Position live = unit.getPosition();
+        if (live != null && isValidPosition(live) && units.get(live.getY() * width + live.getX()) == unit) {
+            return live;
+        }
+        int tile = units.tileOf(unit);
+        return tile < 0 ? null : new Position(tile % width, tile / width);
+    }
+
+    @Override
+    public List<Unit> getUnitsInRange(Position position, int range) {
+        List<Unit> result = new ArrayList<>();
+        int px = position.getX();
+        int py = position.getY();
+        spatialIndex.visitSquare(px, py, range, tile -> {
+            if (Math.abs(tile % width - px) + Math.abs(tile / width - py) <= range) {
+                result.add(units.get(tile));
+            }
+        });
+        return result;
+    }
+
+    @Override
+    public List<Unit> findNearestUnits(Position position, int count, Predicate<Unit> filter) {
+        List<Unit> nearest = new ArrayList<>();
+        if (position == null || count <= 0) {
+            return nearest;
+        }
+        int[] tiles = spatialIndex.nearest(position.getX(), position.getY(), count,
+                tile -> filter.test(units.get(tile)));
+        for (int tile : tiles) {
+            nearest.add(units.get(tile));
+        }
+        return nearest;
+    }
+
+    @Override
+    public Unit findNearestEnemy(Unit unit) {
+        Position from = positionOf(unit);
+        if (from == null) return null;
+        List<Unit> nearest = findNearestUnits(from, 1,
+                other -> other.isAlive() && TacticalFieldBase.isEnemy(unit, other));
+        return nearest.isEmpty() ? null : nearest.get(0);
+    }
+
+    @Override
+    public ReachabilityMap getReachability(IUnit unit, int movementBudget) {
+        Position origin = unit instanceof Unit fieldUnit ? positionOf(fieldUnit) : unit.getPosition();
+        int x = origin != null ? origin.getX() : -1;
+        int y = origin != null ? origin.getY() : -1;
+        ReachabilityMap cached = reachabilityCache.get(unit);
+        if (cached != null && cached.isComputedFor(x, y, movementBudget, version)) {
+            return cached;
+        }
+
+        UnitType team = unit.getUnitType();
+        ReachabilityMap map = ReachabilityMap.compute(width, height, x, y, movementBudget, version,
+                new ReachabilityMap.StepCost() {
+                    @Override
+                    public int cost(int fromTile, int toTile) {
+                        Unit occupant = units.get(toTile);
+                        if (occupant != null && MovementCosts.isHostile(team, occupant.getUnitType())) {
+                            return -1;
+                        }
+                        return terrainStepCost(fromTile, toTile);
+                    }
+
+                    @Override
+                    public boolean canStop(int tile) {
+                        return units.get(tile) == null;
+                    }
+                });
+        reachabilityCache.put(unit, map);
+        return map;
+    }
+
+    @Override
+    public PathPlan planPath(Position from, Position to) {
+        if (from == null || to == null || !isValidPosition(from) || !isValidPosition(to)) {
+            return null;
+        }
+        HierarchicalPathfinder hpa = routes.pathfinder;
+        if (hpa == null) {
+            synchronized (routes) {
+                hpa = routes.pathfinder;
+                if (hpa == null) {
+                    // Any snapshot of the route version has the same step costs
+                    hpa = new HierarchicalPathfinder(width, height,
+                            GameConfig.getAIPerformancePathfindingClusterSize(), this::terrainStepCost);
+                    routes.pathfinder = hpa;
+                }
+            }
+        }
+        return hpa.plan(from.getY() * width + from.getX(), to.getY() * width + to.getX());
+    }
+
+    @Override
+    public FlowField getFlowField(Collection<Position> goals) {
+        return routes.flowFields.get(goals, routes.routeVersion, this::terrainStepCost);
+    }
+
+    private int terrainStepCost(int fromTile, int toTile) {
+        int tx = toTile % width;
+        int ty = toTile / width;
+        int climb = tiles.getElevation(tx, ty) - tiles.getElevation(fromTile % width, fromTile / width);
+        return movementCosts.enterCost(tiles.getTerrain(tx, ty), climb, coverState.covers.get(toTile));
+    }
+
+    // Укрытия
+
+    @Override
+    public CoverObject getCoverObject(int x, int y) {
+        return isValidPosition(x, y) ? coverState.covers.get(y * width + x) : null;
+    }
+
+    @Override
+    public CoverObject getCoverObject(Position position) {
+        return getCoverObject(position.getX(), position.getY());
+    }
+
+    // Видимость
+
+    @Override
+    public boolean isPositionVisible(Position from, Position to, int viewRange) {
+        if (from == null || to == null) return false;
+        if (calculateDistance(from, to) > viewRange) return false;
+        return computeFieldOfView(from.getX(), from.getY(), viewRange).isVisible(to);
+    }
+
+    @Override
+    public List<Unit> getVisibleUnits(Unit observer) {
+        Position from = positionOf(observer);
+        List<Unit> visible = new ArrayList<>();
+        if (from == null) return visible;
+
+        VisibilityMask mask = computeFieldOfView(from.getX(), from.getY(), observer.getViewRange());
+        for (int slot = 0; slot < units.count(); slot++) {
+            Unit unit = units.valueInSlot(slot);
+            if (unit != observer && unit.isAlive() && mask.isVisible(units.tileInSlot(slot))) {
+                visible.add(unit);
+            }
+        }
+        return visible;
+    }
+
+    @Override
+    public List<Unit> getVisibleEnemies(Unit observer) {
+        return getVisibleUnits(observer).stream()
+                .filter(unit -> TacticalFieldBase.isEnemy(observer, unit))
+                .toList();
+    }
+
+    @Override
+    public List<Position> getVisiblePositions(Unit observer) {
+        Position from = positionOf(observer);
+        if (from == null) return new ArrayList<>();
+        return computeFieldOfView(from.getX(), from.getY(), observer.getViewRange()).toPositions();
+    }
+
+    @Override
+    public void computeFieldOfView(Position origin, int viewRange, VisibilityMask target) {
+        target.clear();
+        if (origin == null) return;
+        castView(origin.getX(), origin.getY(), viewRange, target);
+        target.bind(origin.getX(), origin.getY(), viewRange, coverState.sightVersion);
+    }
+
+    @Override
+    public boolean canSee(Unit observer, Position target) {
+        Position from = positionOf(observer);
+        if (from == null || target == null) return false;
+        return computeFieldOfView(from.getX(), from.getY(), observer.getViewRange()).isVisible(target);
+    }
+
+    @Override
+    public <T extends IUnit> VisibilityMatrix<T> computeVisibilityMatrix(List<? extends IUnit> observers, List<T> targets) {
+        return VisibilityMatrix.compute(observers, targets, new VisibilityMatrix.Source() {
+            @Override
+            public Position positionOf(IUnit unit) {
+                return unit instanceof Unit fieldUnit ? FieldSnapshot.this.positionOf(fieldUnit) : unit.getPosition();
+            }
+
+            @Override
+            public VisibilityMask fieldOfView(IUnit observer, Position origin, int viewRange) {
+                return computeFieldOfView(origin.getX(), origin.getY(), viewRange);
+            }
+
+            @Override
+            public CoverObject coverAt(Position position) {
+                return getCoverObject(position);
+            }
+        }, GameConfig.getInt("game.field.visibility.batch.parallel.threshold", 4096));
+    }
+
+    @Override
+    public TeamVisibility getTeamVisibility(UnitType team) {
+        synchronized (teamVisibility) {
+            TeamVisibility fog = teamVisibility.get(team);
+            if (fog == null) {
+                fog = new TeamVisibility(team, width, height);
+                long[] buffer = fog.beginRebuild();
+                for (int slot = 0; slot < units.count(); slot++) {
+                    Unit member = units.valueInSlot(slot);
+                    if (member.getUnitType() == team && member.isAlive()) {
+                        int tile = units.tileInSlot(slot);
+                        fog.include(buffer, computeFieldOfView(tile % width, tile / width, member.getViewRange()));
+                    }
+                }
+                fog.commit(buffer, version);
+                teamVisibility.put(team, fog);
+            }
+            return fog;
+        }
+    }
+
+    @Override
+    public boolean isVisibleToTeam(UnitType team, Position position) {
+        return getTeamVisibility(team).isVisible(position);
+    }
+
+    @Override
+    public double calculateDistance(Position from, Position to) {
+        return Math.sqrt(Math.pow(from.getX() - to.getX(), 2) + Math.pow(from.getY() - to.getY(), 2));
+    }
+
+    @Override
+    public boolean hasLineOfSight(Position from, Position to) {
+        return traceSight(from, to).isClear();
+    }
+
+    @Override
+    public SightLine traceSight(Position from, Position to) {
+        if (from == null || to == null) {
+            return new SightLine(false, 0, 0);
+        }
+        if (!isValidPosition(from) || !isValidPosition(to)) {
+            return new SightLine(false, from.getHeight(), to.getHeight());
+        }
+
+        boolean cacheable = from.getHeight() == 0 && to.getHeight() == 0;
+        long key = SightCache.key(from.getY() * width + from.getX(), to.getY() * width + to.getX());
+        SightLine cached = cacheable ? coverState.sightLines.get(key, coverState.sightVersion) : null;
+        if (cached != null) {
+            return cached;
+        }
+
+        int fromElevation = tiles.getElevation(from.getX(), from.getY()) + from.getHeight();
+        int toElevation = tiles.getElevation(to.getX(), to.getY()) + to.getHeight();
+        boolean clear = LineOfSight.isClear3D(from.getX(), from.getY(), fromElevation + LineOfSight.EYE_HEIGHT,
+                to.getX(), to.getY(), toElevation + LineOfSight.EYE_HEIGHT, width, height, this::sightSurface);
+        SightLine line = new SightLine(clear, fromElevation, toElevation);
+        if (cacheable) {
+            coverState.sightLines.put(key, coverState.sightVersion, line);
+        }
+        return line;
+    }
+
+    @Override
+    public CoverType getDirectionalCover(Position target, Position attacker) {
+        if (target == null || attacker == null || !isValidPosition(target)) return CoverType.NONE;
+        return coverState.directionalCover.get(target.getX(), target.getY(),
+                attacker.getX() - target.getX(), attacker.getY() - target.getY());
+    }
+
+    @Override
+    public boolean isFlankedFrom(Position target, Position attacker) {
+        if (target == null || !isValidPosition(target)) return false;
+        return DirectionalCover.strength(getBestCoverAt(target.getX(), target.getY())) > 0
+                && DirectionalCover.strength(getDirectionalCover(target, attacker)) == 0;
+    }
+
+    @Override
+    public CoverType getBestCoverAt(int x, int y) {
+        return isValidPosition(x, y) ? coverState.directionalCover.best(x, y) : CoverType.NONE;
+    }
+
+    @Override
+    public InfluenceMap getInfluenceMap() {
+        return influence;
+    }
+
+    @Override
+    public long getStateHash() {
+        return stateHash;
+    }
+
+    @Override
+    public int getElevation(int x, int y) {
+        return isValidPosition(x, y) ? tiles.getElevation(x, y) : 0;
+    }
+
+    @Override
+    public void setElevation(int x, int y, int elevation) {
+        throw readOnly();
+    }
+
+    @Override
+    public Map<Position, Unit> getUnitPositions() {
+        Map<Position, Unit> positions = new HashMap<>();
+        for (int slot = 0; slot < units.count(); slot++) {
+            int tile = units.tileInSlot(slot);
+            positions.put(new Position(tile % width, tile / width), units.valueInSlot(slot));
+        }
+        return positions;
+    }
+
+    @Override
+    public Map<Position, CoverObject> getCoverPositions() {
+        Map<Position, CoverObject> positions = new HashMap<>();
+        OccupancyGrid.FrozenLayer<CoverObject> covers = coverState.covers;
+        for (int slot = 0; slot < covers.count(); slot++) {
+            int tile = covers.tileInSlot(slot);
+            positions.put(new Position(tile % width, tile / width), covers.valueInSlot(slot));
+        }
+        return positions;
+    }
+
+    public TerrainType getTerrainAt(int x, int y) {
+        return isValidPosition(x, y) ? tiles.getTerrain(x, y) : null;
+    }
+
+    // Снимок только для чтения
+
+    @Override
+    public void addUnit(Unit unit) {
+        throw readOnly();
+    }
+
+    @Override
+    public void removeUnit(Unit unit) {
+        throw readOnly();
+    }
+
+    @Override
+    public boolean moveUnit(Unit unit, int x, int y) {
+        throw readOnly();
+    }
+
+    @Override
+    public void addCoverObject(CoverObject cover, int x, int y) {
+        throw readOnly();
+    }
+
+    @Override
+    public void addCoverObject(CoverObject cover, Position position) {
+        throw readOnly();
+    }
+
+    @Override
+    public CoverObject removeCoverObject(int x, int y) {
+        throw readOnly();
+    }
+
+    @Override
+    public void onCoverChanged(Position position) {
+        throw readOnly();
+    }
+
+    @Override
+    public void onUnitStateChanged(Unit unit) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setObjectives(UnitType team, Collection<Position> objectives) {
+        throw readOnly();
+    }
+
+    private void castView(int x, int y, int viewRange, VisibilityMask mask) {
+        LineOfSight.fieldOfView(x, y, viewRange, tiles::getElevation, this::sightSurface, mask);
+    }
+
+    private int sightSurface(int x, int y) {
+        return tiles.getElevation(x, y) + LineOfSight.coverHeight(coverState.covers.get(y * width + x));
+    }
+
+    /**
+     * Views depend only on sight blockers, so every computed view is kept for
+     * all snapshots of the sight version
+     */
+    private VisibilityMask computeFieldOfView(int x, int y, int viewRange) {
+        long key = ((long) (y * width + x) << 32) | (viewRange & 0xFFFFFFFFL);
+        return coverState.views.computeIfAbsent(key, k -> {
+            VisibilityMask mask = new VisibilityMask(width, height);
+            castView(x, y, viewRange, mask);
+            return mask;
+        });
+    }
+
+    private Position positionOf(Unit unit) {
+        if (unit == null) return null;
+        Position frozen = getFrozenPosition(unit);
+        return frozen != null ? frozen : unit.getPosition();
+    }
+
+    private List<Unit> unitsOfType(UnitType type) {
+        List<Unit> result = new ArrayList<>();
+        for (int slot = 0; slot < units.count(); slot++) {
+            Unit unit = units.valueInSlot(slot);
+            if (unit.getUnitType() == type) {
+                result.add(unit);
+            }
+        }
+        return result;
+    }
+
+    private static UnsupportedOperationException readOnly() {
+        return new UnsupportedOperationException("Field snapshot is read-only");
+    }
+}
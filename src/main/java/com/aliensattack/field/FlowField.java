@@ -0,0 +1,173 @@
+package com.aliensattack.field;
+
+import com.aliensattack.core.model.Position;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Shared route towards one goal set (a soldier, an objective, an extraction
+ * zone). A single multi-source Dijkstra pass from the goals fills the
+ * integration field (cheapest cost to the nearest goal) and the direction
+ * field (the first step of that route) for the whole map, so any number of
+ * units converging on the same goals read their next step in O(1) instead of
+ * each running its own search.
+ */
+public final class FlowField {
+    private static final int UNREACHED = Integer.MAX_VALUE;
+    private static final byte NO_STEP = -1;
+
+    private static final int[] DX = {1, -1, 0, 0};
+    private static final int[] DY = {0, 0, 1, -1};
+
+    private final int width;
+    private final int height;
+    private final int[] goals;      // Sorted field tiles
+    private final long fieldVersion;
+    private final int[] integration; // tile -> cheapest cost to the nearest goal, UNREACHED if none
+    private final byte[] direction;  // tile -> index into DX/DY of the next step, NO_STEP on goals
+
+    private FlowField(int width, int height, int[] goals, long fieldVersion) {
+        this.width = width;
+        this.height = height;
+        this.goals = goals;
+        this.fieldVersion = fieldVersion;
+        this.integration = new int[width * height];
+        this.direction = new byte[width * height];
+        Arrays.fill(integration, UNREACHED);
+        Arrays.fill(direction, NO_STEP);
+    }
+
+    /**
+     * Integrates costs outwards from every goal at once. Edges are relaxed in
+     * reverse (the cost of stepping from the neighbour into the settled tile),
+     * so the integration value is the cost of walking to the goal, and the
+     * relaxing edge is recorded as the neighbour's next step.
+     * @param goals sorted, distinct field tiles
+     */
+    static FlowField compute(int width, int height, int[] goals, long fieldVersion,
+                             HierarchicalPathfinder.Terrain terrain) {
+        FlowField field = new FlowField(width, height, goals, fieldVersion);
+        TileHeap open = new TileHeap();
+        for (int goal : goals) {
+            field.integration[goal] = 0;
+            open.push(0, goal);
+        }
+
+        while (!open.isEmpty()) {
+            long entry = open.pop();
+            int current = (int) (entry >>> 32);
+            int tile = (int) entry;
+            if (current != field.integration[tile]) continue; // Stale entry, reached cheaper since
+
+            int x = tile % width;
+            int y = tile / width;
+            for (int d = 0; d < DX.length; d++) {
+                int nx = x + DX[d];
+                int ny = y + DY[d];
+                if (nx < 0 || nx >= width || ny < 0 || ny >= height) continue;
+
+                int next = ny * width + nx;
+                int step = terrain.enterCost(next, tile);
+                if (step < 0) continue;
+
+                int nextCost = current + Math.max(1, step);
+                if (nextCost < field.integration[next]) {
+                    field.integration[next] = nextCost;
+                    field.direction[next] = (byte) (d ^ 1); // Opposite direction: from next back to tile
+                    open.push(nextCost, next);
+                }
+            }
+        }
+        return field;
+    }
+
+    /**
+     * Whether the field was computed for these goal tiles at this field version
+     */
+    boolean isComputedFor(int[] goalTiles, long fieldVersion) {
+        return this.fieldVersion == fieldVersion && Arrays.equals(goals, goalTiles);
+    }
+
+    public long getFieldVersion() {
+        return fieldVersion;
+    }
+
+    public List<Position> getGoals() {
+        List<Position> positions = new ArrayList<>(goals.length);
+        for (int tile : goals) {
+            positions.add(new Position(tile % width, tile / width));
+        }
+        return positions;
+    }
+
+    public boolean isGoal(int x, int y) {
+        return isValid(x, y) && Arrays.binarySearch(goals, y * width + x) >= 0;
+    }
+
+    /**
+     * Whether some goal can be reached from the tile
+     */
+    public boolean isReachable(int x, int y) {
+        return isValid(x, y) && integration[y * width + x] != UNREACHED;
+    }
+
+    public boolean isReachable(Position position) {
+        return position != null && isReachable(position.getX(), position.getY());
+    }
+
+    /**
+     * Movement cost from the tile to the nearest goal, or -1 if no goal can be reached
+     */
+    public int getCost(int x, int y) {
+        if (!isValid(x, y)) return -1;
+        int cost = integration[y * width + x];
+        return cost == UNREACHED ? -1 : cost;
+    }
+
+    public int getCost(Position position) {
+        return position == null ? -1 : getCost(position.getX(), position.getY());
+    }
+
+    /**
+     * Next tile towards the nearest goal; null on a goal or if no goal can be reached
+     */
+    public Position getNextStep(int x, int y) {
+        if (!isValid(x, y)) return null;
+        int d = direction[y * width + x];
+        return d == NO_STEP ? null : new Position(x + DX[d], y + DY[d]);
+    }
+
+    public Position getNextStep(Position position) {
+        return position == null ? null : getNextStep(position.getX(), position.getY());
+    }
+
+    /**
+     * Follows the direction field from a tile (exclusive) while the spent
+     * movement cost stays within the budget; ends early on a goal
+     */
+    public List<Position> getPath(Position from, int movementBudget) {
+        List<Position> path = new ArrayList<>();
+        if (from == null || !isReachable(from)) return path;
+
+        int x = from.getX();
+        int y = from.getY();
+        int start = integration[y * width + x];
+        while (true) {
+            int d = direction[y * width + x];
+            if (d == NO_STEP) break;
+            int nx = x + DX[d];
+            int ny = y + DY[d];
+            if (start - integration[ny * width + nx] > movementBudget) break;
+            x = nx;
+            y = ny;
+            path.add(new Position(x, y));
+        }
+        return path;
+    }
+
+    private boolean isValid(int x, int y) {
+        return x >= 0 && x < width && y >= 0 && y < height;
+    }
+}
@@ -0,0 +1,115 @@
+package com.aliensattack.field;
+
+import com.aliensattack.core.model.Position;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Least-recently-used flow fields keyed by goal set. An entry computed for
+ * an older field version is recomputed on its next request; with the LRU
+ * bound, fields for goals nobody walks to any more fall out on their own.
+ */
+final class FlowFieldCache {
+    private final int width;
+    private final int height;
+    private final Map<GoalKey, FlowField> fields;
+
+    FlowFieldCache(int width, int height, int capacity) {
+        this.width = width;
+        this.height = height;
+        this.fields = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<GoalKey, FlowField> eldest) {
+                return size() > Math.max(1, capacity);
+            }
+        };
+    }
+
+    /**
+     * Cached field for the goals at the version, computing it on a miss.
+     * The search itself runs outside the lock, so planners asking for
+     * different goals never wait on each other.
+     * @return null if no goal lies on the field
+     */
+    FlowField get(Collection<Position> goals, long fieldVersion, HierarchicalPathfinder.Terrain terrain) {
+        GoalKey key = keyOf(goals);
+        if (key == null) return null;
+
+        synchronized (fields) {
+            FlowField cached = fields.get(key);
+            if (cached != null && cached.isComputedFor(key.tiles, fieldVersion)) {
+                return cached;
+            }
+        }
+
+        FlowField field = FlowField.compute(width, height, key.tiles, fieldVersion, terrain);
+        synchronized (fields) {
+            FlowField cached = fields.get(key);
+            if (cached == null || cached.getFieldVersion() < fieldVersion) {
+                fields.put(key, field);
+            }
+        }
+        return field;
+    }
+
+    void clear() {
+        synchronized (fields) {
+            fields.clear();
+        }
+    }
+
+    int size() {
+        synchronized (fields) {
+            return fields.size();
+        }
+    }
+
+    private GoalKey keyOf(Collection<Position> goals) {
+        if (goals == null) return null;
+        int[] tiles = new int[goals.size()];
+        int count = 0;
+        for (Position goal : goals) {
+            if (goal != null && goal.getX() >= 0 && goal.getX() < width
+                    && goal.getY() >= 0 && goal.getY() < height) {
+                tiles[count++] = goal.getY() * width + goal.getX();
+            }
+        }
+        if (count == 0) return null;
+
+        tiles = Arrays.copyOf(tiles, count);
+        Arrays.sort(tiles);
+        int distinct = 1;
+        for (int i = 1; i < count; i++) {
+            if (tiles[i] != tiles[distinct - 1]) {
+                tiles[distinct++] = tiles[i];
+            }
+        }
+        return new GoalKey(Arrays.copyOf(tiles, distinct));
+    }
+
+    /**
+     * Sorted, distinct goal tiles compared by content
+     */
+    private static final class GoalKey {
+        private final int[] tiles;
+        private final int hash;
+
+        GoalKey(int[] tiles) {
+            this.tiles = tiles;
+            this.hash = Arrays.hashCode(tiles);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof GoalKey other && Arrays.equals(tiles, other.tiles);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,456 @@
+package com.aliensattack.field;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Hierarchical path-finding (HPA*) over the static terrain of a field.
+ * The field is cut into square clusters; every open stretch of a cluster border
+ * gets one or two entrances, and entrances inside a cluster are linked by their
+ * precomputed in-cluster path costs. Long queries search this small abstract
+ * graph and only the legs a caller asks for are refined into tiles. A terrain
+ * or cover change rebuilds just the borders and links of the clusters around it.
+ * Units are ignored here; they move every turn and are handled by reachability.
+ */
+final class HierarchicalPathfinder {
+    private static final int MAX_SINGLE_ENTRANCE = 6; // Longer open stretches get an entrance at each end
+    private static final int UNREACHED = Integer.MAX_VALUE;
+
+    /**
+     * Static step costs of the field
+     */
+    interface Terrain {
+        /**
+         * Cost of stepping between two adjacent tiles, or a negative value if impassable
+         */
+        int enterCost(int fromTile, int toTile);
+    }
+
+    /**
+     * Entrance tile in the abstract graph
+     */
+    private static final class Node {
+        final int tile;
+        final int cluster;
+        final Map<Node, Integer> intra = new HashMap<>(); // Same cluster, cost of the in-cluster path
+        final Map<Node, Integer> inter = new HashMap<>(); // Across a border, one step
+        int entrances;
+
+        Node(int tile, int cluster) {
+            this.tile = tile;
+            this.cluster = cluster;
+        }
+    }
+
+    private record Step(Node node, int cost, int estimate) {}
+
+    private final int width;
+    private final int height;
+    private final int clusterSize;
+    private final int clustersX;
+    private final int clustersY;
+    private final Terrain terrain;
+    private final Map<Integer, Node> nodes = new HashMap<>();
+    private final List<List<Node>> clusterNodes;
+    private final Map<Integer, List<int[]>> borderEntrances = new HashMap<>(); // border id -> tile pairs
+    private long abstractQueries;
+    private long localQueries;
+
+    HierarchicalPathfinder(int width, int height, int clusterSize, Terrain terrain) {
+        this.width = width;
+        this.height = height;
+        this.clusterSize = Math.max(2, clusterSize);
+        this.clustersX = (width + this.clusterSize - 1) / this.clusterSize;
+        this.clustersY = (height + this.clusterSize - 1) / this.clusterSize;
+        this.terrain = terrain;
+        this.clusterNodes = new ArrayList<>(clustersX * clustersY);
+        for (int i = 0; i < clustersX * clustersY; i++) {
+            clusterNodes.add(new ArrayList<>());
+        }
+
+        for (int cluster = 0; cluster < clusterNodes.size(); cluster++) {
+            rebuildBorder(cluster, true);
+            rebuildBorder(cluster, false);
+        }
+        for (int cluster = 0; cluster < clusterNodes.size(); cluster++) {
+            linkCluster(cluster);
+        }
+    }
+
+    /**
+     * Patches the abstract graph after the terrain or cover of one tile changed
+     */
+    synchronized void onTileChanged(int x, int y) {
+        int cx = x / clusterSize;
+        int cy = y / clusterSize;
+        int cluster = cy * clustersX + cx;
+        rebuildBorder(cluster, true);
+        rebuildBorder(cluster, false);
+        if (cx > 0) rebuildBorder(cluster - 1, true);
+        if (cy > 0) rebuildBorder(cluster - clustersX, false);
+
+        linkCluster(cluster);
+        if (cx > 0) linkCluster(cluster - 1);
+        if (cx < clustersX - 1) linkCluster(cluster + 1);
+        if (cy > 0) linkCluster(cluster - clustersX);
+        if (cy < clustersY - 1) linkCluster(cluster + clustersX);
+    }
+
+    /**
+     * Plans a route between two tiles
+     * @return the plan, or null if the goal cannot be reached
+     */
+    synchronized PathPlan plan(int fromTile, int toTile) {
+        if (fromTile == toTile) {
+            return new PathPlan(this, width, new int[] {fromTile}, 0);
+        }
+
+        int fromCluster = clusterOf(fromTile);
+        int toCluster = clusterOf(toTile);
+        if (fromCluster == toCluster) {
+            // Short hop: a search bounded to the cluster is cheaper than the abstract graph
+            int[] bounds = clusterBounds(fromCluster);
+            Search local = search(fromTile, toTile, bounds, false);
+            if (local.cost(toTile) != UNREACHED) {
+                localQueries++;
+                PathPlan plan = new PathPlan(this, width, new int[] {fromTile, toTile}, local.cost(toTile));
+                plan.setLeg(0, local.path(toTile));
+                return plan;
+            }
+        }
+
+        abstractQueries++;
+        return planAbstract(fromTile, toTile, fromCluster, toCluster);
+    }
+
+    /**
+     * Refines one leg between consecutive waypoints into tiles
+     * @return tiles after {@code fromTile} up to and including {@code toTile}, or null if blocked meanwhile
+     */
+    synchronized int[] refine(int fromTile, int toTile) {
+        int[] a = clusterBounds(clusterOf(fromTile));
+        int[] b = clusterBounds(clusterOf(toTile));
+        int[] bounds = {Math.min(a[0], b[0]), Math.min(a[1], b[1]), Math.max(a[2], b[2]), Math.max(a[3], b[3])};
+        Search search = search(fromTile, toTile, bounds, false);
+        return search.cost(toTile) == UNREACHED ? null : search.path(toTile);
+    }
+
+    synchronized int getNodeCount() {
+        return nodes.size();
+    }
+
+    synchronized long getAbstractQueries() {
+        return abstractQueries;
+    }
+
+    synchronized long getLocalQueries() {
+        return localQueries;
+    }
+
+    private PathPlan planAbstract(int fromTile, int toTile, int fromCluster, int toCluster) {
+        // Connect start and goal to the entrances of their clusters
+        Search fromStart = search(fromTile, -1, clusterBounds(fromCluster), false);
+        Search toGoal = search(toTile, -1, clusterBounds(toCluster), true);
+        Map<Node, Integer> exitCost = new HashMap<>();
+        for (Node node : clusterNodes.get(toCluster)) {
+            int cost = toGoal.cost(node.tile);
+            if (cost != UNREACHED) exitCost.put(node, cost);
+        }
+        if (exitCost.isEmpty()) return null;
+
+        Map<Node, Integer> best = new HashMap<>();
+        Map<Node, Node> parent = new HashMap<>();
+        PriorityQueue<Step> open = new PriorityQueue<>((s1, s2) -> Integer.compare(s1.estimate, s2.estimate));
+        for (Node node : clusterNodes.get(fromCluster)) {
+            int cost = fromStart.cost(node.tile);
+            if (cost != UNREACHED) {
+                best.put(node, cost);
+                open.add(new Step(node, cost, cost + distance(node.tile, toTile)));
+            }
+        }
+
+        int goalCost = UNREACHED;
+        Node lastNode = null;
+        while (!open.isEmpty()) {
+            Step step = open.poll();
+            if (step.node == null) {
+                // Virtual goal popped: nothing left can be cheaper
+                break;
+            }
+            if (step.cost != best.get(step.node)) continue;
+
+            Integer exit = exitCost.get(step.node);
+            if (exit != null && step.cost + exit < goalCost) {
+                goalCost = step.cost + exit;
+                lastNode = step.node;
+                open.add(new Step(null, goalCost, goalCost));
+            }
+            relax(step, step.node.intra, best, parent, open, toTile);
+            relax(step, step.node.inter, best, parent, open, toTile);
+        }
+        if (lastNode == null) return null;
+
+        List<Integer> route = new ArrayList<>();
+        route.add(toTile);
+        for (Node node = lastNode; node != null; node = parent.get(node)) {
+            route.add(node.tile);
+        }
+        route.add(fromTile);
+
+        int[] waypoints = new int[route.size()];
+        int count = 0;
+        for (int i = route.size() - 1; i >= 0; i--) {
+            int tile = route.get(i);
+            if (count == 0 || waypoints[count - 1] != tile) {
+                waypoints[count++] = tile;
+            }
+        }
+        return new PathPlan(this, width, Arrays.copyOf(waypoints, count), goalCost);
+    }
+
+    private void relax(Step step, Map<Node, Integer> edges, Map<Node, Integer> best, Map<Node, Node> parent,
+                       PriorityQueue<Step> open, int toTile) {
+        for (Map.Entry<Node, Integer> edge : edges.entrySet()) {
+            Node next = edge.getKey();
+            int cost = step.cost + edge.getValue();
+            Integer known = best.get(next);
+            if (known == null || cost < known) {
+                best.put(next, cost);
+                parent.put(next, step.node);
+                open.add(new Step(next, cost, cost + distance(next.tile, toTile)));
+            }
+        }
+    }
+
+    /**
+     * Re-detects the entrances on the east (or south) border of a cluster
+     */
+    private void rebuildBorder(int cluster, boolean east) {
+        int cx = cluster % clustersX;
+        int cy = cluster / clustersX;
+        if (east ? cx == clustersX - 1 : cy == clustersY - 1) return;
+
+        int borderId = cluster * 2 + (east ? 0 : 1);
+        List<int[]> old = borderEntrances.remove(borderId);
+        if (old != null) {
+            for (int[] pair : old) {
+                removeEntrance(pair[0], pair[1]);
+            }
+        }
+
+        List<int[]> entrances = new ArrayList<>();
+        int length = east ? Math.min(clusterSize, height - cy * clusterSize) : Math.min(clusterSize, width - cx * clusterSize);
+        int runStart = -1;
+        for (int i = 0; i <= length; i++) {
+            boolean open = false;
+            if (i < length) {
+                int[] pair = borderPair(cx, cy, i, east);
+                open = terrain.enterCost(pair[0], pair[1]) >= 0 && terrain.enterCost(pair[1], pair[0]) >= 0;
+            }
+            if (open && runStart < 0) {
+                runStart = i;
+            } else if (!open && runStart >= 0) {
+                int runEnd = i - 1;
+                if (runEnd - runStart + 1 < MAX_SINGLE_ENTRANCE) {
+                    entrances.add(addEntrance(borderPair(cx, cy, (runStart + runEnd) / 2, east)));
+                } else {
+                    entrances.add(addEntrance(borderPair(cx, cy, runStart, east)));
+                    entrances.add(addEntrance(borderPair(cx, cy, runEnd, east)));
+                }
+                runStart = -1;
+            }
+        }
+        if (!entrances.isEmpty()) {
+            borderEntrances.put(borderId, entrances);
+        }
+    }
+
+    private int[] borderPair(int cx, int cy, int offset, boolean east) {
+        if (east) {
+            int x = (cx + 1) * clusterSize - 1;
+            int y = cy * clusterSize + offset;
+            return new int[] {y * width + x, y * width + x + 1};
+        }
+        int x = cx * clusterSize + offset;
+        int y = (cy + 1) * clusterSize - 1;
+        return new int[] {y * width + x, (y + 1) * width + x};
+    }
+
+    private int[] addEntrance(int[] pair) {
+        Node a = nodeAt(pair[0]);
+        Node b = nodeAt(pair[1]);
+        a.inter.put(b, terrain.enterCost(pair[0], pair[1]));
+        b.inter.put(a, terrain.enterCost(pair[1], pair[0]));
+        a.entrances++;
+        b.entrances++;
+        return pair;
+    }
+
+    private void removeEntrance(int tileA, int tileB) {
+        Node a = nodes.get(tileA);
+        Node b = nodes.get(tileB);
+        a.inter.remove(b);
+        b.inter.remove(a);
+        releaseNode(a);
+        releaseNode(b);
+    }
+
+    private Node nodeAt(int tile) {
+        return nodes.computeIfAbsent(tile, t -> {
+            Node node = new Node(t, clusterOf(t));
+            clusterNodes.get(node.cluster).add(node);
+            return node;
+        });
+    }
+
+    private void releaseNode(Node node) {
+        if (--node.entrances > 0) return;
+        nodes.remove(node.tile);
+        List<Node> siblings = clusterNodes.get(node.cluster);
+        siblings.remove(node);
+        for (Node sibling : siblings) {
+            sibling.intra.remove(node);
+        }
+    }
+
+    /**
+     * Recomputes the in-cluster costs between all entrances of a cluster
+     */
+    private void linkCluster(int cluster) {
+        List<Node> members = clusterNodes.get(cluster);
+        int[] bounds = clusterBounds(cluster);
+        for (Node node : members) {
+            node.intra.clear();
+        }
+        for (Node node : members) {
+            Search search = search(node.tile, -1, bounds, false);
+            for (Node other : members) {
+                int cost = search.cost(other.tile);
+                if (other != node && cost != UNREACHED) {
+                    node.intra.put(other, cost);
+                }
+            }
+        }
+    }
+
+    /**
+     * A* (or Dijkstra when {@code targetTile} is -1) restricted to a rectangle.
+     * With {@code reverse} set, costs are of moving towards the source instead.
+     */
+    private Search search(int sourceTile, int targetTile, int[] bounds, boolean reverse) {
+        Search result = new Search(bounds);
+        int source = result.local(sourceTile);
+        if (source < 0) return result;
+
+        TileHeap open = new TileHeap();
+        result.cost[source] = 0;
+        open.push(heuristic(sourceTile, targetTile), source);
+        while (!open.isEmpty()) {
+            long entry = open.pop();
+            int tile = (int) entry;
+            int fieldTile = result.fieldTile(tile);
+            if ((int) (entry >>> 32) != result.cost[tile] + heuristic(fieldTile, targetTile)) continue; // Stale
+            if (fieldTile == targetTile) break;
+
+            int x = fieldTile % width;
+            int y = fieldTile / width;
+            for (int d = 0; d < 4; d++) {
+                int nx = x + (d == 0 ? 1 : d == 1 ? -1 : 0);
+                int ny = y + (d == 2 ? 1 : d == 3 ? -1 : 0);
+                if (nx < bounds[0] || ny < bounds[1] || nx > bounds[2] || ny > bounds[3]) continue;
+
+                int nextField = ny * width + nx;
+                int step = reverse ? terrain.enterCost(nextField, fieldTile) : terrain.enterCost(fieldTile, nextField);
+                if (step < 0) continue;
+
+                int next = result.local(nextField);
+                int cost = result.cost[tile] + Math.max(1, step);
+                if (cost < result.cost[next]) {
+                    result.cost[next] = cost;
+                    result.parent[next] = tile;
+                    open.push(cost + heuristic(nextField, targetTile), next);
+                }
+            }
+        }
+        return result;
+    }
+
+    private int heuristic(int tile, int targetTile) {
+        return targetTile < 0 ? 0 : distance(tile, targetTile);
+    }
+
+    private int distance(int tileA, int tileB) {
+        return Math.abs(tileA % width - tileB % width) + Math.abs(tileA / width - tileB / width);
+    }
+
+    private int clusterOf(int tile) {
+        return (tile / width / clusterSize) * clustersX + (tile % width / clusterSize);
+    }
+
+    /**
+     * Inclusive tile rectangle {minX, minY, maxX, maxY} of a cluster
+     */
+    private int[] clusterBounds(int cluster) {
+        int minX = (cluster % clustersX) * clusterSize;
+        int minY = (cluster / clustersX) * clusterSize;
+        return new int[] {minX, minY, Math.min(width, minX + clusterSize) - 1, Math.min(height, minY + clusterSize) - 1};
+    }
+
+    /**
+     * Costs and parents of one bounded search, indexed by tile inside the rectangle
+     */
+    private final class Search {
+        final int minX;
+        final int minY;
+        final int boxWidth;
+        final int boxHeight;
+        final int[] cost;
+        final int[] parent;
+
+        Search(int[] bounds) {
+            this.minX = bounds[0];
+            this.minY = bounds[1];
+            this.boxWidth = bounds[2] - bounds[0] + 1;
+            this.boxHeight = bounds[3] - bounds[1] + 1;
+            this.cost = new int[boxWidth * boxHeight];
+            this.parent = new int[boxWidth * boxHeight];
+            Arrays.fill(cost, UNREACHED);
+            Arrays.fill(parent, -1);
+        }
+
+        int local(int fieldTile) {
+            int x = fieldTile % width - minX;
+            int y = fieldTile / width - minY;
+            return x >= 0 && x < boxWidth && y >= 0 && y < boxHeight ? y * boxWidth + x : -1;
+        }
+
+        int fieldTile(int local) {
+            return (minY + local / boxWidth) * width + minX + local % boxWidth;
+        }
+
+        int cost(int fieldTile) {
+            int local = local(fieldTile);
+            return local < 0 ? UNREACHED : cost[local];
+        }
+
+        /**
+         * Tiles after the source up to and including the target
+         */
+        int[] path(int fieldTile) {
+            int local = local(fieldTile);
+            int length = 0;
+            for (int t = local; parent[t] >= 0; t = parent[t]) {
+                length++;
+            }
+            int[] path = new int[length];
+            for (int t = local, i = length - 1; parent[t] >= 0; t = parent[t], i--) {
+                path[i] = fieldTile(t);
+            }
+            return path;
+        }
+    }
+}
@@ -3,9 +3,14 @@ package com.aliensattack.field;
 import com.aliensattack.core.model.Position;
 import com.aliensattack.core.model.Unit;
 import com.aliensattack.core.model.CoverObject;
+import com.aliensattack.core.enums.CoverType;
+import com.aliensattack.core.enums.UnitType;
+import com.aliensattack.core.interfaces.IUnit;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Predicate;
 
 /**
  * Интерфейс для тактического поля боя
@@ -22,17 +27,56 @@ public interface ITacticalField {
     // Управление юнитами
     void addUnit(Unit unit);
     void removeUnit(Unit unit);
+    
+    /**
+     * Перемещает юнита на свободную клетку
+     * @return false, если клетка вне поля или занята другим юнитом
+     */
+    boolean moveUnit(Unit unit, int x, int y);
     Unit getUnitAt(int x, int y);
     Unit getUnitAt(Position position);
     List<Unit> getAllUnits();
     List<Unit> getPlayerUnits();
     List<Unit> getEnemyUnits();
     
+    // Пространственные запросы (индекс по ячейкам 8x8)
+    List<Unit> getUnitsInRange(Position position, int range);
+    List<Unit> findNearestUnits(Position position, int count, Predicate<Unit> filter);
+    Unit findNearestEnemy(Unit unit);
+    
+    /**
+     * Карта достижимости юнита в пределах бюджета движения: стоимость и путь до
+     * каждой клетки за один проход Дейкстры с учётом стен, местности и юнитов.
+     * Переиспользуется, пока поле и позиция юнита не изменились.
+     */
+    ReachabilityMap getReachability(IUnit unit, int movementBudget);
+    
+    /**
+     * Иерархический маршрут (HPA*) по статической местности: граф входов между
+     * кластерами, уточняется по участкам. Юниты не учитываются.
+     * @return план или null, если цель недостижима
+     */
+    PathPlan planPath(Position from, Position to);
+    
+    /**
+     * Общее поле потока к набору целей по статической местности: стоимость до
+     * ближайшей цели и следующий шаг для любой клетки. Кэшируется по набору
+     * целей, поэтому юниты, идущие к одной цели, используют один расчёт.
+     * @return поле или null, если ни одна цель не лежит на поле
+     */
+    FlowField getFlowField(Collection<Position> goals);
+    
     // Управление укрытиями
     void addCoverObject(CoverObject cover, int x, int y);
     void addCoverObject(CoverObject cover, Position position);
     CoverObject getCoverObject(int x, int y);
     CoverObject getCoverObject(Position position);
+    CoverObject removeCoverObject(int x, int y);
+    
+    /**
+     * Сообщает полю, что укрытие на клетке изменилось на месте (повреждено или разрушено)
+     */
+    void onCoverChanged(Position position);
     
     // Система видимости (из оптимизированной версии)
     boolean isPositionVisible(Position from, Position to, int viewRange);
@@ -40,11 +84,96 @@ public interface ITacticalField {
     List<Unit> getVisibleEnemies(Unit observer);
     List<Position> getVisiblePositions(Unit observer);
     
+    /**
+     * Вычисляет поле зрения из точки за один проход по карте высот в
+     * переиспользуемую маску; с {@link #hasLineOfSight} может расходиться
+     * только на границах тени
+     */
+    void computeFieldOfView(Position origin, int viewRange, VisibilityMask target);
+    
+    /**
+     * Проверяет, видит ли наблюдатель позицию, используя кэш поля зрения
+     */
+    boolean canSee(Unit observer, Position target);
+    
+    /**
+     * Пакетная видимость: матрица N наблюдателей x M целей с укрытием цели
+     * против каждого наблюдателя. Поле зрения считается один раз на наблюдателя,
+     * большие матрицы делятся по строкам в ForkJoin пуле.
+     */
+    <T extends IUnit> VisibilityMatrix<T> computeVisibilityMatrix(List<? extends IUnit> observers, List<T> targets);
+    
+    // Туман войны по сторонам
+    TeamVisibility getTeamVisibility(UnitType team);
+    boolean isVisibleToTeam(UnitType team, Position position);
+    
+    /**
+     * Сообщает полю об изменении состояния юнита (урон, смерть, эффекты, смена
+     * оружия, дальность обзора); хэш состояния и карта влияния обновляются
+     * только для него. Юнит на поле вызывает это сам
+     */
+    void onUnitStateChanged(Unit unit);
+    
     // Утилиты
     double calculateDistance(Position from, Position to);
+    
+    /**
+     * Прямая видимость с учётом высот: луч от глаз наблюдателя к цели над картой высот и укрытиями
+     */
     boolean hasLineOfSight(Position from, Position to);
     
+    /**
+     * Трассировка 3D луча видимости вместе с высотами концов; кэшируется по версии видимости
+     */
+    SightLine traceSight(Position from, Position to);
+    
+    // Направленные укрытия
+    /**
+     * Сильнейшее укрытие клетки цели против атаки со стороны атакующего (один из 8 секторов)
+     */
+    CoverType getDirectionalCover(Position target, Position attacker);
+    
+    /**
+     * Цель в укрытии, но не со стороны атакующего (фланг)
+     */
+    boolean isFlankedFrom(Position target, Position attacker);
+    
+    /**
+     * Сильнейшее укрытие клетки хотя бы с одного направления
+     */
+    CoverType getBestCoverAt(int x, int y);
+    
+    /**
+     * Карты влияния сторон (угроза, укрытия, поддержка, цели), обновляемые инкрементально
+     */
+    InfluenceMap getInfluenceMap();
+    
+    /**
+     * Задаёт цели стороны, к которым тянет слой целей карты влияния
+     */
+    void setObjectives(UnitType team, Collection<Position> objectives);
+    
+    /**
+     * 64-битный хеш Зобриста состояния поля (позиции, здоровье и эффекты юнитов, укрытия).
+     * Обновляется инкрементально; равные хеши означают одинаковое состояние
+     */
+    long getStateHash();
+    
+    // Карта высот
+    int getElevation(int x, int y);
+    void setElevation(int x, int y, int elevation);
+    
     // Получение данных поля
     Map<Position, Unit> getUnitPositions();
     Map<Position, CoverObject> getCoverPositions();
+    
+    /**
+     * Версия поля, увеличивается при каждом изменении юнитов или укрытий
+     */
+    long getFieldVersion();
+    
+    /**
+     * Возвращает неизменяемый снимок поля на текущей версии для параллельного чтения (например, ИИ)
+     */
+    ITacticalField snapshot();
 } 
\ No newline at end of file
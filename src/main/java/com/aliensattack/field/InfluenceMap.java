@@ -0,0 +1,335 @@
+package com.aliensattack.field;
+
+import com.aliensattack.core.config.GameConfig;
+import com.aliensattack.core.enums.UnitType;
+import com.aliensattack.core.model.Position;
+import com.aliensattack.core.model.Unit;
+import com.aliensattack.core.model.Weapon;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-team influence layers over the field, one float per tile: threat a
+ * side projects (weapon damage over its reach), ally support, objective pull,
+ * plus the cover value of each tile. Every unit's contribution is stamped
+ * when it enters the field and un-stamped/re-stamped when it moves, dies or
+ * changes weapon, so scoring a tile is a weighted sum of array reads and the
+ * AI can afford to score its whole reachability set.
+ * Mutated only by the owning field under its lock; read-only copies go into
+ * snapshots. A copy shares every layer array with the live map, and the live
+ * map copies a layer the next time it writes to it, so a snapshot costs only
+ * the layers changed since the previous one.
+ */
+public final class InfluenceMap {
+    private static final UnitType[] TEAMS = UnitType.values();
+    private static final int[][] HOSTILES = hostileTeams();
+
+    private final int width;
+    private final int height;
+    private final int supportRadius;
+    private final int objectiveRadius;
+    private final DirectionalCover coverSource; // null in snapshot copies
+    private final float[][] threat;    // [team][tile] damage the team can bring onto the tile
+    private final float[][] support;   // [team][tile] nearby allies, 1 on their own tile
+    private final float[][] objective; // [team][tile] pull towards the team's objectives
+    private float[] cover;             // [tile] best directional cover, 0..1
+    private final int[] threatEpoch;   // [team] epoch the threat layer was copied in
+    private final int[] supportEpoch;  // [team] epoch the support layer was copied in
+    private int coverEpoch;
+    private int epoch;                 // Bumped by copy(); layers from older epochs may be shared
+    private final Map<Unit, Stamp> stamps;
+    private final Map<UnitType, List<Position>> objectives;
+
+    /**
+     * What a unit contributed when it was last stamped, so it can be removed exactly
+     */
+    private record Stamp(int x, int y, int team, boolean alive, float damage, int range, int move) {
+    }
+
+    /**
+     * Relative weights of the layers in a tile score
+     */
+    public record Weights(float threat, float cover, float support, float objective) {
+        public static Weights fromConfig() {
+            return new Weights((float) GameConfig.getAIInfluenceThreatWeight(),
+                    (float) GameConfig.getAIInfluenceCoverWeight(),
+                    (float) GameConfig.getAIInfluenceSupportWeight(),
+                    (float) GameConfig.getAIInfluenceObjectiveWeight());
+        }
+    }
+
+    InfluenceMap(int width, int height, DirectionalCover coverSource) {
+        this.width = width;
+        this.height = height;
+        this.supportRadius = GameConfig.getAIInfluenceSupportRadius();
+        this.objectiveRadius = GameConfig.getAIInfluenceObjectiveRadius();
+        this.coverSource = coverSource;
+        this.threat = new float[TEAMS.length][];
+        this.support = new float[TEAMS.length][];
+        this.objective = new float[TEAMS.length][];
+        this.cover = new float[width * height];
+        this.threatEpoch = new int[TEAMS.length];
+        this.supportEpoch = new int[TEAMS.length];
+        this.stamps = new HashMap<>();
+        this.objectives = new HashMap<>();
+    }
+
+    private InfluenceMap(InfluenceMap source) {
+        this.width = source.width;
+        this.height = source.height;
+        this.supportRadius = source.supportRadius;
+        this.objectiveRadius = source.objectiveRadius;
+        this.coverSource = null;
+        // Layers are shared, the source copies them on its next write
+        this.threat = source.threat.clone();
+        this.support = source.support.clone();
+        this.objective = source.objective.clone();
+        this.cover = source.cover;
+        this.threatEpoch = new int[0];
+        this.supportEpoch = new int[0];
+        this.stamps = Map.of(); // Copies are never re-stamped
+        this.objectives = Map.copyOf(source.objectives);
+        source.epoch++;
+    }
+
+    // Reads
+
+    /**
+     * Damage the sides hostile to the team can bring onto the tile
+     */
+    public float threatAgainst(UnitType team, int x, int y) {
+        if (!inBounds(x, y)) return 0f;
+        int tile = y * width + x;
+        float total = 0f;
+        for (int hostile : HOSTILES[team.ordinal()]) {
+            float[] layer = threat[hostile];
+            if (layer != null) total += layer[tile];
+        }
+        return total;
+    }
+
+    /**
+     * Ally presence around the tile, from 1 on an ally's tile down to 0 at the support radius
+     */
+    public float support(UnitType team, int x, int y) {
+        return read(support[team.ordinal()], x, y);
+    }
+
+    /**
+     * Pull of the team's nearest objective, 1 on it and 0 beyond the objective radius
+     */
+    public float objective(UnitType team, int x, int y) {
+        return read(objective[team.ordinal()], x, y);
+    }
+
+    /**
+     * Best cover of the tile in any direction, 0 for none and 1 for deep cover
+     */
+    public float cover(int x, int y) {
+        return inBounds(x, y) ? cover[y * width + x] : 0f;
+    }
+
+    /**
+     * Weighted score of a tile for a unit of the team; the unit's own support
+     * stamp at {@code self} is left out so it does not anchor it in place
+     */
+    public float score(UnitType team, int x, int y, Weights weights, Position self) {
+        float allies = support(team, x, y);
+        if (self != null) {
+            allies = Math.max(0f, allies - falloff(Math.abs(self.getX() - x) + Math.abs(self.getY() - y),
+                    supportRadius));
+        }
+        return weights.cover() * cover(x, y)
+                + weights.support() * allies
+                + weights.objective() * objective(team, x, y)
+                - weights.threat() * threatAgainst(team, x, y);
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    // Maintenance by the owning field
+
+    /**
+     * Re-stamps a unit if its tile, liveness or weapon changed since the last stamp
+     * @return true if the layers changed
+     */
+    boolean update(Unit unit) {
+        Stamp previous = stamps.get(unit);
+        Stamp current = profileOf(unit);
+        if (current == null) {
+            return remove(unit);
+        }
+        if (current.equals(previous)) return false;
+        if (previous != null) apply(previous, -1f);
+        apply(current, 1f);
+        stamps.put(unit, current);
+        return true;
+    }
+
+    /**
+     * Same as {@link #update} for a unit already on the map, ignored otherwise
+     */
+    boolean restamp(Unit unit) {
+        return stamps.containsKey(unit) && update(unit);
+    }
+
+    boolean remove(Unit unit) {
+        Stamp previous = stamps.remove(unit);
+        if (previous == null) return false;
+        apply(previous, -1f);
+        return true;
+    }
+
+    /**
+     * Recomputes the cover value of the tiles a cover change at (x, y) can affect
+     */
+    void refreshCoverAround(int x, int y) {
+        if (coverEpoch != epoch) {
+            cover = cover.clone();
+            coverEpoch = epoch;
+        }
+        for (int ny = Math.max(0, y - 1); ny <= Math.min(height - 1, y + 1); ny++) {
+            for (int nx = Math.max(0, x - 1); nx <= Math.min(width - 1, x + 1); nx++) {
+                cover[ny * width + nx] = DirectionalCover.strength(coverSource.best(nx, ny)) / 4f;
+            }
+        }
+    }
+
+    /**
+     * Replaces the team's objectives and rebuilds its objective layer
+     */
+    void setObjectives(UnitType team, Collection<Position> positions) {
+        List<Position> targets = positions == null ? List.of() : List.copyOf(positions);
+        objectives.put(team, targets);
+        if (targets.isEmpty()) {
+            objective[team.ordinal()] = null;
+            return;
+        }
+        float[] layer = new float[width * height];
+        for (Position target : targets) {
+            visitDiamond(target.getX(), target.getY(), objectiveRadius, (tile, distance) ->
+                    layer[tile] = Math.max(layer[tile], falloff(distance, objectiveRadius)));
+        }
+        objective[team.ordinal()] = layer;
+    }
+
+    List<Position> getObjectives(UnitType team) {
+        return objectives.getOrDefault(team, List.of());
+    }
+
+    void clear() {
+        Arrays.fill(threat, null);
+        Arrays.fill(support, null);
+        Arrays.fill(objective, null);
+        cover = new float[width * height]; // The old array may back a snapshot
+        coverEpoch = epoch;
+        stamps.clear();
+        objectives.clear();
+    }
+
+    /**
+     * Read-only copy for a field snapshot
+     */
+    InfluenceMap copy() {
+        return new InfluenceMap(this);
+    }
+
+    private Stamp profileOf(Unit unit) {
+        Position position = unit.getPosition();
+        if (position == null || !inBounds(position.getX(), position.getY())) return null;
+        Weapon weapon = unit.getWeapon();
+        int range = weapon != null ? weapon.getRange() : unit.getAttackRange();
+        int damage = Math.max(unit.getAttackDamage(), weapon != null ? weapon.getBaseDamage() : 0);
+        return new Stamp(position.getX(), position.getY(), unit.getUnitType().ordinal(), unit.isAlive(),
+                damage, Math.max(0, range), Math.max(0, unit.getMovementRange()));
+    }
+
+    /**
+     * Adds (sign 1) or removes (sign -1) a unit's contribution; dead units contribute nothing
+     */
+    private void apply(Stamp stamp, float sign) {
+        if (!stamp.alive()) return;
+
+        float[] threatLayer = layer(threat, threatEpoch, stamp.team());
+        int reach = stamp.range() + stamp.move();
+        visitDiamond(stamp.x(), stamp.y(), reach, (tile, distance) -> {
+            // Full damage within weapon range, fading over the distance it can move first
+            float weight = distance <= stamp.range() ? 1f : falloff(distance - stamp.range(), stamp.move());
+            threatLayer[tile] += sign * stamp.damage() * weight;
+        });
+
+        float[] supportLayer = layer(support, supportEpoch, stamp.team());
+        visitDiamond(stamp.x(), stamp.y(), supportRadius, (tile, distance) ->
+                supportLayer[tile] += sign * falloff(distance, supportRadius));
+    }
+
+    /**
+     * Writable layer of a team, created on first use and copied if a snapshot may share it
+     */
+    private float[] layer(float[][] layers, int[] epochs, int team) {
+        float[] layer = layers[team];
+        if (layer == null) {
+            layer = new float[width * height];
+        } else if (epochs[team] != epoch) {
+            layer = layer.clone();
+        } else {
+            return layer;
+        }
+        layers[team] = layer;
+        epochs[team] = epoch;
+        return layer;
+    }
+
+    /**
+     * Linear falloff from 1 at distance 0 to 0 past the radius
+     */
+    private static float falloff(int distance, int radius) {
+        return distance > radius ? 0f : (radius + 1 - distance) / (float) (radius + 1);
+    }
+
+    private interface TileVisitor {
+        void visit(int tile, int distance);
+    }
+
+    /**
+     * Visits the in-bounds tiles within a Manhattan radius with their distance
+     */
+    private void visitDiamond(int cx, int cy, int radius, TileVisitor visitor) {
+        for (int y = Math.max(0, cy - radius); y <= Math.min(height - 1, cy + radius); y++) {
+            int span = radius - Math.abs(y - cy);
+            int row = y * width;
+            for (int x = Math.max(0, cx - span); x <= Math.min(width - 1, cx + span); x++) {
+                visitor.visit(row + x, Math.abs(x - cx) + Math.abs(y - cy));
+            }
+        }
+    }
+
+    private float read(float[] layer, int x, int y) {
+        return layer != null && inBounds(x, y) ? layer[y * width + x] : 0f;
+    }
+
+    private boolean inBounds(int x, int y) {
+        return x >= 0 && x < width && y >= 0 && y < height;
+    }
+
+    private static int[][] hostileTeams() {
+        int[][] hostiles = new int[TEAMS.length][];
+        for (UnitType team : TEAMS) {
+            hostiles[team.ordinal()] = Arrays.stream(TEAMS)
+                    .filter(other -> MovementCosts.isHostile(team, other))
+                    .mapToInt(Enum::ordinal)
+                    .toArray();
+        }
+        return hostiles;
+    }
+}
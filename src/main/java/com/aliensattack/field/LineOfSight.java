@@ -0,0 +1,154 @@
+package com.aliensattack.field;
+
+import com.aliensattack.core.enums.CoverType;
+import com.aliensattack.core.model.CoverObject;
+
+/**
+ * Line of sight over the heightfield, shared by the live field and its
+ * snapshots. Single pairs are traced with a Bresenham walk: intermediate tiles
+ * that rise above the ray break the line, the endpoints never do. Fields of
+ * view apply the same rule in one outward sweep over the view square, which
+ * can differ from the pair trace only along shadow edges.
+ */
+final class LineOfSight {
+    /**
+     * Eye height above the standing surface, in elevation levels. Half cover
+     * reaches eye height and does not block a level shot; full cover does.
+     */
+    static final int EYE_HEIGHT = 1;
+
+    private static final double SLOPE_EPSILON = 1e-9;
+
+    private static final ThreadLocal<double[]> HORIZON_SCRATCH = ThreadLocal.withInitial(() -> new double[0]);
+
+    /**
+     * Top of ground plus obstacles at a tile, in elevation levels
+     */
+    interface Surface {
+        int heightAt(int x, int y);
+    }
+
+    private LineOfSight() {
+    }
+
+    /**
+     * Height a cover object adds to its tile's surface
+     */
+    static int coverHeight(CoverObject cover) {
+        if (cover == null) return 0;
+        return cover.getCoverType() == CoverType.FULL_COVER ? 2 : 1;
+    }
+
+    /**
+     * Marks every tile within Euclidean {@code radius} of the origin that a
+     * unit standing at the origin sees. Tiles are swept ring by ring outwards;
+     * each tile keeps the steepest slope from the eye to any surface between
+     * it and the origin, taken over from the tiles of the previous ring the
+     * line to it passes between, interpolated where it passes. A tile is
+     * visible when the slope to a unit's eye there is not below that horizon,
+     * the test {@link #isClear3D} makes along a single line, so the sweep costs
+     * O(radius^2) instead of one trace per tile. The mask is not cleared first.
+     * @param ground elevation of the standing surface
+     * @param surface elevation plus obstacles
+     */
+    static void fieldOfView(int originX, int originY, int radius, Surface ground, Surface surface,
+                            VisibilityMask out) {
+        int width = out.getWidth();
+        int height = out.getHeight();
+        if (originX < 0 || originX >= width || originY < 0 || originY >= height || radius < 0) {
+            return;
+        }
+        out.set(originX, originY);
+        int eye = ground.heightAt(originX, originY) + EYE_HEIGHT;
+        int span = 2 * radius + 1;
+        double[] horizon = HORIZON_SCRATCH.get(); // Steepest slope up to and including each tile
+        if (horizon.length < span * span) {
+            horizon = new double[span * span];
+            HORIZON_SCRATCH.set(horizon);
+        }
+        int radiusSquared = radius * radius;
+        for (int ring = 1; ring <= radius; ring++) {
+            for (int dy = -ring; dy <= ring; dy++) {
+                int y = originY + dy;
+                if (y < 0 || y >= height) continue;
+                boolean edgeRow = dy == -ring || dy == ring;
+                for (int dx = -ring; dx <= ring; dx += edgeRow ? 1 : 2 * ring) {
+                    int x = originX + dx;
+                    if (x < 0 || x >= width) continue;
+                    double before = ring == 1 ? Double.NEGATIVE_INFINITY
+                            : horizonBefore(horizon, span, radius, dx, dy, ring);
+                    if (dx * dx + dy * dy <= radiusSquared
+                            && ground.heightAt(x, y) + EYE_HEIGHT - eye >= before * ring - SLOPE_EPSILON) {
+                        out.set(x, y);
+                    }
+                    horizon[(dy + radius) * span + dx + radius] =
+                            Math.max(before, (double) (surface.heightAt(x, y) - eye) / ring);
+                }
+            }
+        }
+    }
+
+    /**
+     * Horizon where the line from the origin to (dx, dy) crosses the previous ring
+     */
+    private static double horizonBefore(double[] horizon, int span, int radius, int dx, int dy, int ring) {
+        boolean alongX = Math.abs(dx) >= Math.abs(dy);
+        int major = alongX ? dx : dy;
+        int minor = alongX ? dy : dx;
+        int previousMajor = major - Integer.signum(major);
+        // The line crosses the previous ring at minor * (ring - 1) / ring
+        int scaled = minor * (ring - 1);
+        int low = Math.floorDiv(scaled, ring);
+        int remainder = scaled - low * ring;
+        double lowHorizon = horizonAt(horizon, span, radius, alongX, previousMajor, low);
+        if (remainder == 0) {
+            return lowHorizon;
+        }
+        double highHorizon = horizonAt(horizon, span, radius, alongX, previousMajor, low + 1);
+        return lowHorizon + (highHorizon - lowHorizon) * remainder / ring;
+    }
+
+    private static double horizonAt(double[] horizon, int span, int radius, boolean alongX, int major, int minor) {
+        int dx = alongX ? major : minor;
+        int dy = alongX ? minor : major;
+        return horizon[(dy + radius) * span + dx + radius];
+    }
+
+    /**
+     * 3D trace: walks the 2D Bresenham line and interpolates the ray height
+     * linearly from the eye (z0) to the target (z1). An intermediate tile
+     * blocks when its surface rises strictly above the ray there. All
+     * arithmetic is scaled by the step count, so no floating point is used.
+     */
+    static boolean isClear3D(int x0, int y0, int z0, int x1, int y1, int z1,
+                             int width, int height, Surface surface) {
+        int dx = Math.abs(x1 - x0);
+        int dy = Math.abs(y1 - y0);
+        int steps = Math.max(dx, dy);
+        if (steps <= 1) return true; // Adjacent tiles have no intermediate tile
+
+        int sx = x1 > x0 ? 1 : -1;
+        int sy = y1 > y0 ? 1 : -1;
+        int error = dx - dy;
+        int x = x0;
+        int y = y0;
+        long rise = (long) z1 - z0;
+        for (int step = 1; step < steps; step++) {
+            int e2 = 2 * error;
+            if (e2 > -dy) {
+                error -= dy;
+                x += sx;
+            }
+            if (e2 < dx) {
+                error += dx;
+                y += sy;
+            }
+            if (x < 0 || x >= width || y < 0 || y >= height) continue;
+            // surface > z0 + rise * step / steps, scaled by steps
+            if ((long) surface.heightAt(x, y) * steps > (long) z0 * steps + rise * step) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,55 @@
+package com.aliensattack.field;
+
+import com.aliensattack.core.enums.CoverType;
+import com.aliensattack.core.enums.TerrainType;
+import com.aliensattack.core.enums.UnitType;
+import com.aliensattack.core.model.CoverObject;
+import com.aliensattack.core.systems.MovementSystem;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Per-terrain step costs taken from {@link MovementSystem} penalties, plus the
+ * passability rules shared by the live field and its snapshots
+ */
+final class MovementCosts {
+    private static final TerrainType[] TERRAIN_TYPES = TerrainType.values();
+    private static final Set<TerrainType> IMPASSABLE = EnumSet.of(
+            TerrainType.WALL, TerrainType.BARRIER, TerrainType.FORCE_FIELD, TerrainType.SHIELD_WALL, TerrainType.VOID);
+
+    private final int[] terrainCost; // TerrainType ordinal -> step cost, -1 if impassable
+
+    MovementCosts(MovementSystem rules) {
+        this.terrainCost = new int[TERRAIN_TYPES.length];
+        for (TerrainType terrain : TERRAIN_TYPES) {
+            terrainCost[terrain.ordinal()] = IMPASSABLE.contains(terrain) ? -1 : Math.max(1, rules.getStepCost(terrain, 0));
+        }
+    }
+
+    /**
+     * Cost of entering a tile, or -1 if the terrain or a solid cover object blocks it
+     */
+    int enterCost(TerrainType terrain, int heightDifference, CoverObject cover) {
+        int base = terrainCost[terrain.ordinal()];
+        if (base < 0 || blocksMovement(cover)) {
+            return -1;
+        }
+        return base + Math.abs(heightDifference);
+    }
+
+    /**
+     * Full cover is a wall; lower cover can be stood in
+     */
+    static boolean blocksMovement(CoverObject cover) {
+        return cover != null && !cover.isDestroyed() && cover.getCoverType() == CoverType.FULL_COVER;
+    }
+
+    /**
+     * Units of the opposing side cannot be walked through
+     */
+    static boolean isHostile(UnitType mover, UnitType occupant) {
+        return (mover == UnitType.SOLDIER && occupant == UnitType.ALIEN)
+                || (mover == UnitType.ALIEN && occupant == UnitType.SOLDIER);
+    }
+}
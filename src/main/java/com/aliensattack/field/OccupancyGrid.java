@@ -0,0 +1,318 @@
+package com.aliensattack.field;
+
+import com.aliensattack.core.model.CoverObject;
+import com.aliensattack.core.model.Unit;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Flat occupancy storage for the tactical field.
+ * Every tile is addressed by {@code y * width + x}; per-tile arrays hold a slot
+ * number into a dense table of units or cover objects (0 means empty).
+ * Lookups never allocate and never box. The per-tile index is split into
+ * chunks that frozen copies share with the live grid; a write copies only
+ * the chunk it touches, so freezing and moving a unit cost O(units), not O(map).
+ */
+final class OccupancyGrid {
+    private static final int CHUNK_SHIFT = 10;
+    private static final int CHUNK_TILES = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_TILES - 1;
+
+    private final int width;
+    private final int height;
+    private final Layer<Unit> units;
+    private final Layer<CoverObject> covers;
+
+    OccupancyGrid(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.units = new Layer<>(width * height);
+        this.covers = new Layer<>(width * height);
+    }
+
+    int tileIndex(int x, int y) {
+        return y * width + x;
+    }
+
+    int tileX(int tile) {
+        return tile % width;
+    }
+
+    int tileY(int tile) {
+        return tile / width;
+    }
+
+    boolean contains(int x, int y) {
+        return x >= 0 && x < width && y >= 0 && y < height;
+    }
+
+    // Units
+
+    boolean isOccupied(int tile) {
+        return units.slot(tile) != 0;
+    }
+
+    Unit unitAt(int tile) {
+        return units.get(tile);
+    }
+
+    void putUnit(int tile, Unit unit) {
+        units.put(tile, unit);
+    }
+
+    Unit removeUnitAt(int tile) {
+        return units.remove(tile);
+    }
+
+    /**
+     * Moves the unit stored at {@code fromTile} to {@code toTile}, reusing its slot.
+     */
+    void moveUnit(int fromTile, int toTile) {
+        units.move(fromTile, toTile);
+    }
+
+    /**
+     * Returns the tile a unit is stored on, or -1 if it is not on the grid.
+     */
+    int tileOf(Unit unit) {
+        return units.tileOf(unit);
+    }
+
+    int unitCount() {
+        return units.count;
+    }
+
+    Unit unitInSlot(int slot) {
+        return units.valueInSlot(slot);
+    }
+
+    int unitTileInSlot(int slot) {
+        return units.tiles[slot];
+    }
+
+    List<Unit> allUnits() {
+        return units.toList();
+    }
+
+    // Cover
+
+    CoverObject coverAt(int tile) {
+        return covers.get(tile);
+    }
+
+    void putCover(int tile, CoverObject cover) {
+        covers.put(tile, cover);
+    }
+
+    CoverObject removeCoverAt(int tile) {
+        return covers.remove(tile);
+    }
+
+    int coverCount() {
+        return covers.count;
+    }
+
+    List<CoverObject> allCovers() {
+        return covers.toList();
+    }
+
+    void clear() {
+        units.clear();
+        covers.clear();
+    }
+
+    FrozenLayer<Unit> freezeUnits() {
+        return units.freeze();
+    }
+
+    FrozenLayer<CoverObject> freezeCovers() {
+        return covers.freeze();
+    }
+
+    /**
+     * Immutable copy of one layer taken for a field snapshot
+     */
+    static final class FrozenLayer<T> {
+        private final int[][] slots; // Chunks shared with the live layer
+        private final T[] values;
+        private final int[] tiles;
+        private final int count;
+        private volatile Map<T, Integer> tileIndex; // value -> tile, built on the first lookup
+
+        private FrozenLayer(int[][] slots, T[] values, int[] tiles, int count) {
+            this.slots = slots;
+            this.values = values;
+            this.tiles = tiles;
+            this.count = count;
+        }
+
+        T get(int tile) {
+            int slot = slots[tile >>> CHUNK_SHIFT][tile & CHUNK_MASK];
+            return slot == 0 ? null : values[slot - 1];
+        }
+
+        int count() {
+            return count;
+        }
+
+        T valueInSlot(int slot) {
+            return values[slot];
+        }
+
+        int tileInSlot(int slot) {
+            return tiles[slot];
+        }
+
+        int tileOf(T value) {
+            Map<T, Integer> index = tileIndex;
+            if (index == null) {
+                index = new IdentityHashMap<>(count * 2);
+                for (int i = 0; i < count; i++) {
+                    index.put(values[i], tiles[i]);
+                }
+                tileIndex = index;
+            }
+            Integer tile = index.get(value);
+            return tile != null ? tile : -1;
+        }
+
+        List<T> toList() {
+            List<T> list = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                list.add(values[i]);
+            }
+            return list;
+        }
+    }
+
+    /**
+     * Dense slot table with a per-tile index. Removal swaps the last slot into the hole,
+     * so iteration stays over a packed prefix of {@code values}.
+     */
+    private static final class Layer<T> {
+        private final int[][] slots;    // tile chunk -> tile -> slot + 1
+        private final int[] chunkEpoch; // Epoch each chunk was copied in; older chunks may be frozen
+        private T[] values;             // slot -> value
+        private int[] tiles;            // slot -> tile
+        private int count;
+        private int epoch;
+
+        @SuppressWarnings("unchecked")
+        Layer(int tileCount) {
+            this.slots = new int[(tileCount + CHUNK_MASK) >>> CHUNK_SHIFT][CHUNK_TILES];
+            this.chunkEpoch = new int[slots.length];
+            this.values = (T[]) new Object[16];
+            this.tiles = new int[16];
+        }
+
+        int slot(int tile) {
+            return slots[tile >>> CHUNK_SHIFT][tile & CHUNK_MASK];
+        }
+
+        private void setSlot(int tile, int slot) {
+            int chunk = tile >>> CHUNK_SHIFT;
+            if (chunkEpoch[chunk] != epoch) {
+                // Chunk may be shared with a frozen layer: copy on write
+                slots[chunk] = slots[chunk].clone();
+                chunkEpoch[chunk] = epoch;
+            }
+            slots[chunk][tile & CHUNK_MASK] = slot;
+        }
+
+        T get(int tile) {
+            int slot = slot(tile);
+            return slot == 0 ? null : values[slot - 1];
+        }
+
+        void put(int tile, T value) {
+            int slot = slot(tile);
+            if (slot != 0) {
+                values[slot - 1] = value;
+                return;
+            }
+            if (count == values.length) {
+                values = Arrays.copyOf(values, count * 2);
+                tiles = Arrays.copyOf(tiles, count * 2);
+            }
+            values[count] = value;
+            tiles[count] = tile;
+            setSlot(tile, ++count);
+        }
+
+        T remove(int tile) {
+            int slot = slot(tile);
+            if (slot == 0) {
+                return null;
+            }
+            int index = slot - 1;
+            T removed = values[index];
+            int last = --count;
+            if (index != last) {
+                values[index] = values[last];
+                tiles[index] = tiles[last];
+                setSlot(tiles[index], slot);
+            }
+            values[last] = null;
+            setSlot(tile, 0);
+            return removed;
+        }
+
+        void move(int fromTile, int toTile) {
+            int slot = slot(fromTile);
+            if (slot == 0 || fromTile == toTile) {
+                return;
+            }
+            setSlot(fromTile, 0);
+            setSlot(toTile, slot);
+            tiles[slot - 1] = toTile;
+        }
+
+        /**
+         * Read inside the layer: {@code values} is really an Object[], so reading
+         * it through a typed reference from outside would fail the array cast
+         */
+        T valueInSlot(int slot) {
+            return values[slot];
+        }
+
+        int tileOf(T value) {
+            for (int i = 0; i < count; i++) {
+                if (values[i] == value) {
+                    return tiles[i];
+                }
+            }
+            return -1;
+        }
+
+        List<T> toList() {
+            List<T> list = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                list.add(values[i]);
+            }
+            return list;
+        }
+
+        void clear() {
+            for (int chunk = 0; chunk < slots.length; chunk++) {
+                // Fresh chunks: the old ones may still back a frozen layer
+                slots[chunk] = new int[CHUNK_TILES];
+                chunkEpoch[chunk] = epoch;
+            }
+            Arrays.fill(values, 0, count, null);
+            count = 0;
+        }
+
+        /**
+         * Hands out the current chunks; the next write to any of them copies it first
+         */
+        FrozenLayer<T> freeze() {
+            epoch++;
+            return new FrozenLayer<>(slots.clone(), Arrays.copyOf(values, count),
+                    Arrays.copyOf(tiles, count), count);
+        }
+    }
+}
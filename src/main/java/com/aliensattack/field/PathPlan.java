@@ -0,0 +1,87 @@
+package com.aliensattack.field;
+
+import com.aliensattack.core.model.Position;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Route found by the hierarchical pathfinder: a chain of waypoints (start,
+ * cluster entrances, goal) whose legs are turned into tiles only on demand.
+ * A unit that moves a few tiles per turn usually needs just the first leg.
+ */
+public final class PathPlan {
+    private final HierarchicalPathfinder pathfinder;
+    private final int width;
+    private final int[] waypoints;
+    private final int estimatedCost;
+    private final int[][] legs;
+
+    PathPlan(HierarchicalPathfinder pathfinder, int width, int[] waypoints, int estimatedCost) {
+        this.pathfinder = pathfinder;
+        this.width = width;
+        this.waypoints = waypoints;
+        this.estimatedCost = estimatedCost;
+        this.legs = new int[Math.max(0, waypoints.length - 1)][];
+    }
+
+    void setLeg(int index, int[] tiles) {
+        legs[index] = tiles;
+    }
+
+    /**
+     * Movement cost of the whole route as planned
+     */
+    public int getEstimatedCost() {
+        return estimatedCost;
+    }
+
+    public List<Position> getWaypoints() {
+        List<Position> positions = new ArrayList<>(waypoints.length);
+        for (int tile : waypoints) {
+            positions.add(toPosition(tile));
+        }
+        return positions;
+    }
+
+    public int getLegCount() {
+        return legs.length;
+    }
+
+    /**
+     * Tiles of one leg, excluding its first waypoint; empty if the leg became blocked
+     */
+    public synchronized List<Position> getLeg(int index) {
+        if (legs[index] == null) {
+            int[] tiles = pathfinder.refine(waypoints[index], waypoints[index + 1]);
+            legs[index] = tiles != null ? tiles : new int[0];
+        }
+        List<Position> positions = new ArrayList<>(legs[index].length);
+        for (int tile : legs[index]) {
+            positions.add(toPosition(tile));
+        }
+        return positions;
+    }
+
+    /**
+     * The only leg refined eagerly by callers that move a few tiles per turn
+     */
+    public List<Position> getFirstLeg() {
+        return legs.length == 0 ? new ArrayList<>() : getLeg(0);
+    }
+
+    /**
+     * Refines every leg; the start tile is excluded, the goal included
+     */
+    public List<Position> getFullPath() {
+        List<Position> path = new ArrayList<>();
+        for (int i = 0; i < legs.length; i++) {
+            path.addAll(getLeg(i));
+        }
+        return path;
+    }
+
+    private Position toPosition(int tile) {
+        return new Position(tile % width, tile / width);
+    }
+}
@@ -0,0 +1,226 @@
+package com.aliensattack.field;
+
+import com.aliensattack.core.model.Position;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Movement reachability from one tile within a movement budget.
+ * Built by a single Dijkstra pass with a bucket queue (step costs are small
+ * integers), it keeps the cheapest cost to every reached tile plus a parent
+ * pointer, so move highlighting, AP cost and path reconstruction all read the
+ * same map instead of pathfinding to every candidate tile separately.
+ */
+public final class ReachabilityMap {
+    private static final int UNREACHED = Integer.MAX_VALUE;
+
+    private static final int[] DX = {1, -1, 0, 0};
+    private static final int[] DY = {0, 0, 1, -1};
+
+    /**
+     * Movement rules the search runs against; tiles are field tile indices
+     */
+    interface StepCost {
+        /**
+         * Cost of stepping between two adjacent tiles (at least 1), or a negative value if impassable
+         */
+        int cost(int fromTile, int toTile);
+
+        /**
+         * Whether a unit may end its move on the tile
+         */
+        boolean canStop(int tile);
+    }
+
+    private final int fieldWidth;
+    private final int originX;
+    private final int originY;
+    private final int budget;
+    private final long fieldVersion;
+    private final int windowX;      // The search never leaves the budget-sized square around the origin
+    private final int windowY;
+    private final int windowWidth;
+    private final int windowHeight;
+    private final int[] cost;       // window tile -> cheapest cost, UNREACHED if not reached
+    private final int[] parent;     // window tile -> previous window tile on the cheapest path
+    private final long[] stoppable; // window tiles a unit may end on
+    private int[] stops;            // field tiles a unit may end on, cheapest first (origin excluded)
+
+    private ReachabilityMap(int fieldWidth, int fieldHeight, int originX, int originY, int budget, long fieldVersion) {
+        this.fieldWidth = fieldWidth;
+        this.originX = originX;
+        this.originY = originY;
+        this.budget = budget;
+        this.fieldVersion = fieldVersion;
+        this.windowX = Math.max(0, originX - budget);
+        this.windowY = Math.max(0, originY - budget);
+        this.windowWidth = Math.min(fieldWidth - 1, originX + budget) - windowX + 1;
+        this.windowHeight = Math.min(fieldHeight - 1, originY + budget) - windowY + 1;
+        int windowTiles = windowWidth * windowHeight;
+        this.cost = new int[windowTiles];
+        this.parent = new int[windowTiles];
+        this.stoppable = new long[(windowTiles + 63) >>> 6];
+        Arrays.fill(cost, UNREACHED);
+        Arrays.fill(parent, -1);
+    }
+
+    /**
+     * Runs Dial's algorithm from the origin, never expanding past the budget.
+     * Every step costs at least 1, so the search stays inside a (2 * budget + 1)
+     * square: O(budget^2) work regardless of the field size.
+     */
+    static ReachabilityMap compute(int width, int height, int originX, int originY, int budget,
+                                   long fieldVersion, StepCost rules) {
+        ReachabilityMap map = new ReachabilityMap(width, height, originX, originY, Math.max(0, budget), fieldVersion);
+        if (originX >= 0 && originX < width && originY >= 0 && originY < height) {
+            map.search(rules);
+        } else {
+            map.stops = new int[0]; // Off the field: nothing is reachable
+        }
+        return map;
+    }
+
+    private void search(StepCost rules) {
+        int[][] buckets = new int[budget + 1][];
+        int[] bucketSizes = new int[budget + 1];
+        int[] found = new int[16];
+        int foundCount = 0;
+
+        int origin = local(originX, originY);
+        cost[origin] = 0;
+        push(buckets, bucketSizes, 0, origin);
+        for (int current = 0; current <= budget; current++) {
+            for (int i = 0; i < bucketSizes[current]; i++) {
+                int tile = buckets[current][i];
+                if (cost[tile] != current) continue; // Stale entry, reached cheaper since
+
+                int x = windowX + tile % windowWidth;
+                int y = windowY + tile / windowWidth;
+                int fieldTile = y * fieldWidth + x;
+                if (tile != origin && rules.canStop(fieldTile)) {
+                    if (foundCount == found.length) {
+                        found = Arrays.copyOf(found, foundCount * 2);
+                    }
+                    found[foundCount++] = fieldTile;
+                    stoppable[tile >>> 6] |= 1L << tile;
+                }
+
+                for (int d = 0; d < DX.length; d++) {
+                    int nx = x + DX[d];
+                    int ny = y + DY[d];
+                    int next = local(nx, ny);
+                    if (next < 0) continue;
+
+                    int step = rules.cost(fieldTile, ny * fieldWidth + nx);
+                    if (step < 0) continue;
+
+                    int nextCost = current + Math.max(1, step);
+                    if (nextCost <= budget && nextCost < cost[next]) {
+                        cost[next] = nextCost;
+                        parent[next] = tile;
+                        push(buckets, bucketSizes, nextCost, next);
+                    }
+                }
+            }
+            buckets[current] = null;
+        }
+        stops = Arrays.copyOf(found, foundCount);
+    }
+
+    private static void push(int[][] buckets, int[] sizes, int bucket, int tile) {
+        int[] entries = buckets[bucket];
+        if (entries == null) {
+            entries = buckets[bucket] = new int[8];
+        } else if (sizes[bucket] == entries.length) {
+            entries = buckets[bucket] = Arrays.copyOf(entries, entries.length * 2);
+        }
+        entries[sizes[bucket]++] = tile;
+    }
+
+    boolean isComputedFor(int x, int y, int budget, long fieldVersion) {
+        return originX == x && originY == y && this.budget == budget && this.fieldVersion == fieldVersion;
+    }
+
+    public Position getOrigin() {
+        return new Position(originX, originY);
+    }
+
+    public int getBudget() {
+        return budget;
+    }
+
+    /**
+     * Field version the map was computed for
+     */
+    public long getFieldVersion() {
+        return fieldVersion;
+    }
+
+    /**
+     * Whether a unit can end its move on the tile
+     */
+    public boolean isReachable(int x, int y) {
+        int tile = local(x, y);
+        return tile >= 0 && (stoppable[tile >>> 6] & (1L << tile)) != 0;
+    }
+
+    public boolean isReachable(Position position) {
+        return position != null && isReachable(position.getX(), position.getY());
+    }
+
+    /**
+     * Cheapest movement cost to the tile, or -1 if it was not reached
+     */
+    public int getCost(int x, int y) {
+        int tile = local(x, y);
+        return tile < 0 || cost[tile] == UNREACHED ? -1 : cost[tile];
+    }
+
+    public int getCost(Position position) {
+        return position == null ? -1 : getCost(position.getX(), position.getY());
+    }
+
+    /**
+     * Tiles a unit can end its move on, cheapest first
+     */
+    public List<Position> getReachablePositions() {
+        List<Position> positions = new ArrayList<>(stops.length);
+        for (int tile : stops) {
+            positions.add(new Position(tile % fieldWidth, tile / fieldWidth));
+        }
+        return positions;
+    }
+
+    public int getReachableCount() {
+        return stops.length;
+    }
+
+    /**
+     * Cheapest path from the origin (exclusive) to the tile (inclusive);
+     * empty if the tile was not reached
+     */
+    public List<Position> getPath(Position target) {
+        int tile = target == null ? -1 : local(target.getX(), target.getY());
+        if (tile < 0 || cost[tile] == UNREACHED || parent[tile] < 0) {
+            return new ArrayList<>();
+        }
+
+        int length = 0;
+        for (int t = tile; parent[t] >= 0; t = parent[t]) {
+            length++;
+        }
+        Position[] path = new Position[length];
+        for (int t = tile, i = length - 1; parent[t] >= 0; t = parent[t], i--) {
+            path[i] = new Position(windowX + t % windowWidth, windowY + t / windowWidth);
+        }
+        return new ArrayList<>(Arrays.asList(path));
+    }
+
+    private int local(int x, int y) {
+        int lx = x - windowX;
+        int ly = y - windowY;
+        return lx >= 0 && lx < windowWidth && ly >= 0 && ly < windowHeight ? ly * windowWidth + lx : -1;
+    }
+}
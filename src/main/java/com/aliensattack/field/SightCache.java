@@ -0,0 +1,43 @@
+package com.aliensattack.field;
+
+import com.aliensattack.core.collections.LongObjectHashMap;
+
+/**
+ * Traced sight lines keyed by (from tile, to tile) for one sight version.
+ * Uses the same version as the 2D views: any change of sight blockers or
+ * elevation bumps it and the whole cache is dropped on the next access.
+ */
+final class SightCache {
+    private final int capacity;
+    private final LongObjectHashMap<SightLine> lines = new LongObjectHashMap<>();
+    private long version = Long.MIN_VALUE;
+
+    SightCache(int capacity) {
+        this.capacity = Math.max(1, capacity);
+    }
+
+    static long key(int fromTile, int toTile) {
+        return ((long) fromTile << 32) | (toTile & 0xFFFFFFFFL);
+    }
+
+    synchronized SightLine get(long key, long sightVersion) {
+        if (version != sightVersion) {
+            lines.clear();
+            version = sightVersion;
+            return null;
+        }
+        return lines.get(key);
+    }
+
+    synchronized void put(long key, long sightVersion, SightLine line) {
+        if (version != sightVersion) return; // Traced against an older field
+        if (lines.size() >= capacity) {
+            lines.clear();
+        }
+        lines.put(key, line);
+    }
+
+    synchronized int size() {
+        return lines.size();
+    }
+}
@@ -0,0 +1,50 @@
+package com.aliensattack.field;
+
+/**
+ * Result of one 3D line-of-sight trace: whether the ray from the observer's
+ * eye to the target clears the heightfield and cover, together with the
+ * elevations it was traced between, so visibility and height bonuses come
+ * from the same answer.
+ */
+public final class SightLine {
+    private final boolean clear;
+    private final int fromElevation;
+    private final int toElevation;
+
+    SightLine(boolean clear, int fromElevation, int toElevation) {
+        this.clear = clear;
+        this.fromElevation = fromElevation;
+        this.toElevation = toElevation;
+    }
+
+    public boolean isClear() {
+        return clear;
+    }
+
+    /**
+     * Ground elevation of the observer's tile plus the position's own height
+     */
+    public int getFromElevation() {
+        return fromElevation;
+    }
+
+    public int getToElevation() {
+        return toElevation;
+    }
+
+    /**
+     * Positive when the observer stands above the target
+     */
+    public int getElevationDifference() {
+        return fromElevation - toElevation;
+    }
+
+    public boolean hasHeightAdvantage() {
+        return fromElevation > toElevation;
+    }
+
+    @Override
+    public String toString() {
+        return "SightLine{clear=" + clear + ", from=" + fromElevation + ", to=" + toElevation + '}';
+    }
+}
@@ -0,0 +1,237 @@
+package com.aliensattack.field;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * Uniform-grid bucket index over occupied tiles.
+ * The field is split into {@value #CELL_SIZE}x{@value #CELL_SIZE} cells; each cell
+ * keeps a compact {@code int} list of the tile indices holding a unit, so range and
+ * nearest-neighbour queries only touch the cells that overlap the query area.
+ * Frozen copies share the cell lists with the live index; a write copies only
+ * the cell it touches.
+ */
+final class SpatialIndex {
+    static final int CELL_SIZE = 8;
+    private static final int CELL_SHIFT = 3;
+
+    /**
+     * Receives candidate tiles from a query
+     */
+    interface TileVisitor {
+        void visit(int tile);
+    }
+
+    private final int width;
+    private final int cellsX;
+    private final int cellsY;
+    private final int[][] cellTiles;
+    private final int[] cellCounts;
+    private final int[] cellEpoch; // Epoch each cell list was copied in; older lists may be frozen
+    private int epoch;
+
+    SpatialIndex(int width, int height) {
+        this.width = width;
+        this.cellsX = (width + CELL_SIZE - 1) >> CELL_SHIFT;
+        this.cellsY = (height + CELL_SIZE - 1) >> CELL_SHIFT;
+        this.cellTiles = new int[cellsX * cellsY][];
+        this.cellCounts = new int[cellsX * cellsY];
+        this.cellEpoch = new int[cellsX * cellsY];
+    }
+
+    private SpatialIndex(SpatialIndex live) {
+        this.width = live.width;
+        this.cellsX = live.cellsX;
+        this.cellsY = live.cellsY;
+        this.cellTiles = live.cellTiles.clone();
+        this.cellCounts = live.cellCounts.clone();
+        this.cellEpoch = null; // Never written
+    }
+
+    /**
+     * Read-only copy for a field snapshot. Hands out the current cell lists;
+     * the next write to any of them copies it first
+     */
+    SpatialIndex freeze() {
+        epoch++;
+        return new SpatialIndex(this);
+    }
+
+    void add(int tile) {
+        int cell = cellOf(tile);
+        int[] tiles = writableCell(cell);
+        int count = cellCounts[cell];
+        if (tiles == null) {
+            tiles = cellTiles[cell] = new int[4];
+        } else if (count == tiles.length) {
+            tiles = cellTiles[cell] = Arrays.copyOf(tiles, count * 2);
+        }
+        tiles[count] = tile;
+        cellCounts[cell] = count + 1;
+    }
+
+    void remove(int tile) {
+        int cell = cellOf(tile);
+        int[] tiles = writableCell(cell);
+        int count = cellCounts[cell];
+        for (int i = 0; i < count; i++) {
+            if (tiles[i] == tile) {
+                tiles[i] = tiles[count - 1];
+                cellCounts[cell] = count - 1;
+                return;
+            }
+        }
+    }
+
+    void move(int fromTile, int toTile) {
+        int fromCell = cellOf(fromTile);
+        if (fromCell == cellOf(toTile)) {
+            int[] tiles = writableCell(fromCell);
+            for (int i = 0; i < cellCounts[fromCell]; i++) {
+                if (tiles[i] == fromTile) {
+                    tiles[i] = toTile;
+                    return;
+                }
+            }
+        }
+        remove(fromTile);
+        add(toTile);
+    }
+
+    void clear() {
+        Arrays.fill(cellCounts, 0);
+    }
+
+    /**
+     * Visits every indexed tile inside the axis-aligned square of {@code range}
+     * around (x, y). Callers apply their exact distance metric.
+     */
+    void visitSquare(int x, int y, int range, TileVisitor visitor) {
+        int minCellX = Math.max(0, (x - range) >> CELL_SHIFT);
+        int maxCellX = Math.min(cellsX - 1, (x + range) >> CELL_SHIFT);
+        int minCellY = Math.max(0, (y - range) >> CELL_SHIFT);
+        int maxCellY = Math.min(cellsY - 1, (y + range) >> CELL_SHIFT);
+        for (int cy = minCellY; cy <= maxCellY; cy++) {
+            for (int cx = minCellX; cx <= maxCellX; cx++) {
+                visitCell(cy * cellsX + cx, visitor);
+            }
+        }
+    }
+
+    /**
+     * Visits the cells at Chebyshev cell distance {@code ring} from the cell of (x, y)
+     * @return false once the ring lies entirely outside the field
+     */
+    boolean visitRing(int x, int y, int ring, TileVisitor visitor) {
+        int centerX = x >> CELL_SHIFT;
+        int centerY = y >> CELL_SHIFT;
+        if (centerX - ring < 0 && centerY - ring < 0
+                && centerX + ring >= cellsX && centerY + ring >= cellsY) {
+            return false;
+        }
+        for (int cy = centerY - ring; cy <= centerY + ring; cy++) {
+            if (cy < 0 || cy >= cellsY) continue;
+            boolean edgeRow = cy == centerY - ring || cy == centerY + ring;
+            int step = edgeRow ? 1 : Math.max(1, 2 * ring);
+            for (int cx = centerX - ring; cx <= centerX + ring; cx += step) {
+                if (cx >= 0 && cx < cellsX) {
+                    visitCell(cy * cellsX + cx, visitor);
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Finds up to {@code k} accepted tiles closest to (x, y) by Euclidean distance,
+     * expanding ring by ring and stopping once no farther cell can improve the result
+     * @return tiles ordered from nearest to farthest
+     */
+    int[] nearest(int x, int y, int k, IntPredicate accept) {
+        NearestCollector collector = new NearestCollector(x, y, k, accept);
+        for (int ring = 0; visitRing(x, y, ring, collector); ring++) {
+            // Every tile in a cell beyond this ring is at least ring * CELL_SIZE + 1 away
+            int bound = ring * CELL_SIZE + 1;
+            if (collector.isFull() && collector.worstDistanceSquared() <= bound * bound) {
+                break;
+            }
+        }
+        return collector.result();
+    }
+
+    private int[] writableCell(int cell) {
+        int[] tiles = cellTiles[cell];
+        if (tiles != null && cellEpoch[cell] != epoch) {
+            // Cell list may be shared with a frozen index: copy on write
+            tiles = cellTiles[cell] = tiles.clone();
+        }
+        cellEpoch[cell] = epoch;
+        return tiles;
+    }
+
+    private void visitCell(int cell, TileVisitor visitor) {
+        int[] tiles = cellTiles[cell];
+        for (int i = 0; i < cellCounts[cell]; i++) {
+            visitor.visit(tiles[i]);
+        }
+    }
+
+    /**
+     * Keeps the k best tiles in an insertion-sorted array
+     */
+    private final class NearestCollector implements TileVisitor {
+        private final int x;
+        private final int y;
+        private final IntPredicate accept;
+        private final int[] tiles;
+        private final int[] distances;
+        private int size;
+
+        NearestCollector(int x, int y, int k, IntPredicate accept) {
+            this.x = x;
+            this.y = y;
+            this.accept = accept;
+            this.tiles = new int[k];
+            this.distances = new int[k];
+        }
+
+        @Override
+        public void visit(int tile) {
+            int dx = tile % width - x;
+            int dy = tile / width - y;
+            int distance = dx * dx + dy * dy;
+            if (size == tiles.length && distance >= distances[size - 1]) {
+                return;
+            }
+            if (!accept.test(tile)) {
+                return;
+            }
+            int i = size < tiles.length ? size++ : size - 1;
+            while (i > 0 && distances[i - 1] > distance) {
+                tiles[i] = tiles[i - 1];
+                distances[i] = distances[i - 1];
+                i--;
+            }
+            tiles[i] = tile;
+            distances[i] = distance;
+        }
+
+        boolean isFull() {
+            return size == tiles.length;
+        }
+
+        int worstDistanceSquared() {
+            return distances[size - 1];
+        }
+
+        int[] result() {
+            return Arrays.copyOf(tiles, size);
+        }
+    }
+
+    private int cellOf(int tile) {
+        int x = tile % width;
+        int y = tile / width;
+        return (y >> CELL_SHIFT) * cellsX + (x >> CELL_SHIFT);
+    }
+}
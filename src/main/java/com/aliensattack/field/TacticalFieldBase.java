@@ -1,38 +1,90 @@
 package com.aliensattack.field;
 
+import com.aliensattack.core.interfaces.IUnit;
 import com.aliensattack.core.model.Position;
 import com.aliensattack.core.model.Unit;
 import com.aliensattack.core.model.Tile;
 import com.aliensattack.core.model.CoverObject;
 import com.aliensattack.core.enums.CoverType;
+import com.aliensattack.core.enums.TerrainType;
+import com.aliensattack.core.enums.TileFeature;
 import com.aliensattack.core.enums.UnitType;
 import com.aliensattack.core.config.GameConfig;
+import com.aliensattack.core.systems.MovementSystem;
 
+import lombok.AccessLevel;
 import lombok.Getter;
+import lombok.extern.log4j.Log4j2;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
 
 /**
  * Base tactical field with performance-focused data structures and algorithms
  */
 @Getter
+@Log4j2
 public class TacticalFieldBase implements ITacticalField {
     private final int width;
     private final int height;
-    private final Tile[][] grid;
-    private final Map<Integer, Unit> unitMap; // Position hash -> Unit
-    private final Map<Integer, CoverObject> coverMap; // Position hash -> CoverObject
-    private final Set<Integer> occupiedPositions; // Fast lookup for occupied tiles
+    @Getter(AccessLevel.NONE)
+    private final ChunkedTileStore tileStore; // Lazily materialized 32x32 terrain chunks
+    @Getter(AccessLevel.NONE)
+    private final OccupancyGrid occupancy; // Flat unit/cover slots indexed by y * width + x
+    @Getter(AccessLevel.NONE)
+    private final SpatialIndex spatialIndex; // 8x8 buckets of occupied tiles for range queries
+    @Getter(AccessLevel.NONE)
+    private final ThreadLocal<VisibilityMask> fovScratch; // Per-thread reusable FOV bitset
+    private volatile long sightVersion; // Bumped whenever line-of-sight blockers change
+    @Getter(AccessLevel.NONE)
+    private final AtomicLong fieldVersion = new AtomicLong(); // Bumped on every unit or cover change
+    @Getter(AccessLevel.NONE)
+    private final VisibilityCache visibilityCache; // Per-observer FOV, invalidated by dirty tiles
+    @Getter(AccessLevel.NONE)
+    private final Map<UnitType, TeamVisibility> teamVisibility; // Fog of war per side
+    @Getter(AccessLevel.NONE)
+    private final MovementCosts movementCosts; // Terrain step costs from MovementSystem penalties
+    @Getter(AccessLevel.NONE)
+    private final Map<IUnit, ReachabilityMap> reachabilityCache = new ConcurrentHashMap<>(); // One map per unit per field version
+    @Getter(AccessLevel.NONE)
+    private volatile HierarchicalPathfinder pathfinder; // Built on the first long-range query, patched on change
+    @Getter(AccessLevel.NONE)
+    private volatile long routeVersion; // Bumped whenever terrain or cover passability may change
+    @Getter(AccessLevel.NONE)
+    private final SightCache sightLines; // 3D sight traces for the current sight version
+    @Getter(AccessLevel.NONE)
+    private final FlowFieldCache flowFields; // Shared per-goal flow fields, LRU
+    @Getter(AccessLevel.NONE)
+    private final DirectionalCover directionalCover; // Cover per tile against each of 8 directions
+    @Getter(AccessLevel.NONE)
+    private final InfluenceMap influence; // Per-team threat/support/objective layers, stamped per unit
+    @Getter(AccessLevel.NONE)
+    private final ZobristHash stateHash = new ZobristHash(); // Units and covers, XOR-updated on change
+    @Getter(AccessLevel.NONE)
+    private FieldSnapshot lastSnapshot; // Reused while the field version is unchanged
+    @Getter(AccessLevel.NONE)
+    private FieldSnapshot.CoverState lastCoverState; // Shared while sight blockers are unchanged
+    @Getter(AccessLevel.NONE)
+    private FieldSnapshot.Routes lastRoutes; // Shared while passability is unchanged
     
     public TacticalFieldBase(int width, int height) {
         this.width = width;
         this.height = height;
-        this.grid = new Tile[width][height];
-        this.unitMap = new ConcurrentHashMap<>();
-        this.coverMap = new ConcurrentHashMap<>();
-        this.occupiedPositions = ConcurrentHashMap.newKeySet();
-        
-        initializeGrid();
+        this.tileStore = new ChunkedTileStore(width, height);
+        this.occupancy = new OccupancyGrid(width, height);
+        this.spatialIndex = new SpatialIndex(width, height);
+        this.fovScratch = ThreadLocal.withInitial(() -> new VisibilityMask(width, height));
+        this.visibilityCache = new VisibilityCache(this::computeFieldOfView, fieldVersion::get, this::exploreView);
+        this.movementCosts = new MovementCosts(new MovementSystem("field", 0));
+        this.flowFields = new FlowFieldCache(width, height, GameConfig.getAIPerformanceFlowFieldCacheSize());
+        this.sightLines = new SightCache(GameConfig.getInt("game.field.sight.cache.size", 65536));
+        this.directionalCover = new DirectionalCover(width, height, occupancy::coverAt);
+        this.influence = new InfluenceMap(width, height, directionalCover);
+        this.teamVisibility = new EnumMap<>(UnitType.class);
+        for (UnitType team : UnitType.values()) {
+            teamVisibility.put(team, new TeamVisibility(team, width, height));
+        }
         
         // TODO: Implement comprehensive tactical field initialization system
         // - Load field configuration from properties
@@ -43,57 +95,101 @@ public class TacticalFieldBase implements ITacticalField {
         // - Initialize visibility calculation system
     }
     
-    private void initializeGrid() {
-        for (int x = 0; x < width; x++) {
-            for (int y = 0; y < height; y++) {
-                grid[x][y] = new Tile(x, y);
-            }
-        }
-    }
-    
-    private int positionHash(int x, int y) {
-        // TODO: Implement configurable hash calculation system
-        // - Load hash multiplier from configuration
-        // - Optimize hash function for different field sizes
-        // - Add hash collision detection
-        // - Implement hash performance monitoring
-        
-        int hash = x * 10000 + y; // Efficient hash for 2D coordinates
-        System.out.println("DEBUG: positionHash(" + x + ", " + y + ") = " + hash);
-        return hash;
+    /**
+     * Flat tile index used by the occupancy arrays
+     */
+    protected int tileIndex(int x, int y) {
+        return y * width + x;
     }
     
-    public void addUnit(Unit unit, int x, int y) {
-        System.out.println("DEBUG: Adding unit " + unit.getName() + " at (" + x + ", " + y + ")");
-        
+    public synchronized void addUnit(Unit unit, int x, int y) {
         if (!isValidPosition(x, y)) {
-            System.out.println("DEBUG: Invalid position (" + x + ", " + y + ")");
+            log.debug("Cannot add unit {}: invalid position ({}, {})", unit.getName(), x, y);
             return;
         }
         
-        if (isOccupied(x, y)) {
-            System.out.println("DEBUG: Position (" + x + ", " + y + ") is occupied");
+        int tile = tileIndex(x, y);
+        if (occupancy.isOccupied(tile)) {
+            log.debug("Cannot add unit {}: position ({}, {}) is occupied", unit.getName(), x, y);
             return;
         }
         
-        int hash = positionHash(x, y);
         unit.setPosition(x, y);
-        unitMap.put(hash, unit);
-        occupiedPositions.add(hash);
-        grid[x][y].setUnit(unit);
+        occupancy.putUnit(tile, unit);
+        spatialIndex.add(tile);
+        influence.update(unit);
+        stateHash.update(unit);
+        unit.bindToField(this);
+        fieldVersion.incrementAndGet();
+        refreshView(unit);
         
-        System.out.println("DEBUG: Unit " + unit.getName() + " added successfully at (" + x + ", " + y + ")");
+        log.debug("Unit {} added at ({}, {})", unit.getName(), x, y);
     }
     
-    public void addCoverObject(CoverObject cover, int x, int y) {
+    public synchronized void addCoverObject(CoverObject cover, int x, int y) {
         if (!isValidPosition(x, y)) {
             return;
         }
         
-        int hash = positionHash(x, y);
         cover.setPosition(x, y);
-        coverMap.put(hash, cover);
-        grid[x][y].setCoverObject(cover);
+        occupancy.putCover(tileIndex(x, y), cover);
+        markSightChanged(x, y);
+    }
+    
+    /**
+     * Removes the cover object at a tile, e.g. when it has been destroyed
+     */
+    @Override
+    public synchronized CoverObject removeCoverObject(int x, int y) {
+        if (!isValidPosition(x, y)) {
+            return null;
+        }
+        
+        CoverObject removed = occupancy.removeCoverAt(tileIndex(x, y));
+        if (removed != null) {
+            markSightChanged(x, y);
+        }
+        return removed;
+    }
+    
+    @Override
+    public synchronized void onCoverChanged(Position position) {
+        if (position != null && isValidPosition(position)) {
+            markSightChanged(position.getX(), position.getY());
+        }
+    }
+    
+    /**
+     * Registers a change of sight blockers at a tile and drops only the cached
+     * views that can contain it
+     */
+    private void markSightChanged(int x, int y) {
+        directionalCover.refreshAround(x, y);
+        influence.refreshCoverAround(x, y);
+        stateHash.updateCover(tileIndex(x, y), occupancy.coverAt(tileIndex(x, y)));
+        sightVersion++;
+        fieldVersion.incrementAndGet();
+        int invalidated = visibilityCache.invalidateAt(x, y);
+        if (invalidated > 0) {
+            // Views the change opened up count as explored right away
+            for (int slot = 0; slot < occupancy.unitCount(); slot++) {
+                refreshView(occupancy.unitInSlot(slot));
+            }
+        }
+        markRoutesChanged(x, y);
+        log.debug("Sight changed at ({}, {}), {} cached views invalidated", x, y, invalidated);
+    }
+    
+    /**
+     * Re-detects cluster entrances around a tile whose passability may have
+     * changed and retires the flow fields computed before the change
+     */
+    private void markRoutesChanged(int x, int y) {
+        routeVersion++;
+        HierarchicalPathfinder hpa = pathfinder;
+        if (hpa != null) {
+            hpa.onTileChanged(x, y);
+        }
     }
     
     public boolean isValidPosition(int x, int y) {
@@ -101,152 +197,351 @@ public class TacticalFieldBase implements ITacticalField {
     }
     
     public boolean isOccupied(int x, int y) {
-        return occupiedPositions.contains(positionHash(x, y));
+        return isValidPosition(x, y) && occupancy.isOccupied(tileIndex(x, y));
     }
     
     public List<Position> getValidMoves(Unit unit, int movementRange) {
-        List<Position> validMoves = new ArrayList<>();
-        Position currentPos = unit.getPosition();
+        return getReachability(unit, movementRange).getReachablePositions();
+    }
+    
+    @Override
+    public ReachabilityMap getReachability(IUnit unit, int movementBudget) {
+        Position origin = unit.getPosition();
+        int x = origin != null ? origin.getX() : -1;
+        int y = origin != null ? origin.getY() : -1;
+        long version = fieldVersion.get();
+        
+        ReachabilityMap cached = reachabilityCache.get(unit);
+        if (cached != null && cached.isComputedFor(x, y, movementBudget, version)) {
+            return cached;
+        }
         
-        // Use diamond pattern for more efficient range calculation
-        for (int dx = -movementRange; dx <= movementRange; dx++) {
-            for (int dy = -movementRange; dy <= movementRange; dy++) {
-                if (Math.abs(dx) + Math.abs(dy) <= movementRange) {
-                    int newX = currentPos.getX() + dx;
-                    int newY = currentPos.getY() + dy;
+        UnitType team = unit.getUnitType();
+        ReachabilityMap map = ReachabilityMap.compute(width, height, x, y, movementBudget, version,
+                new ReachabilityMap.StepCost() {
+                    @Override
+                    public int cost(int fromTile, int toTile) {
+                        Unit occupant = occupancy.unitAt(toTile);
+                        if (occupant != null && MovementCosts.isHostile(team, occupant.getUnitType())) {
+                            return -1;
+                        }
+                        return terrainStepCost(fromTile, toTile);
+                    }
                     
-                    if (isValidPosition(newX, newY) && !isOccupied(newX, newY)) {
-                        validMoves.add(new Position(newX, newY));
+                    @Override
+                    public boolean canStop(int tile) {
+                        return !occupancy.isOccupied(tile);
                     }
+                });
+        reachabilityCache.put(unit, map);
+        return map;
+    }
+    
+    @Override
+    public PathPlan planPath(Position from, Position to) {
+        if (from == null || to == null || !isValidPosition(from) || !isValidPosition(to)) {
+            return null;
+        }
+        
+        HierarchicalPathfinder hpa = pathfinder;
+        if (hpa == null) {
+            synchronized (this) {
+                hpa = pathfinder;
+                if (hpa == null) {
+                    hpa = new HierarchicalPathfinder(width, height,
+                            GameConfig.getAIPerformancePathfindingClusterSize(), this::terrainStepCost);
+                    pathfinder = hpa;
+                    log.debug("Pathfinding graph built with {} entrance nodes", hpa.getNodeCount());
                 }
             }
         }
-        
-        return validMoves;
+        return hpa.plan(tileIndex(from.getX(), from.getY()), tileIndex(to.getX(), to.getY()));
     }
     
-    public boolean moveUnit(Unit unit, int newX, int newY) {
-        System.out.println("DEBUG: moveUnit called for " + unit.getName() + " to (" + newX + ", " + newY + ")");
-        
+    @Override
+    public FlowField getFlowField(Collection<Position> goals) {
+        return flowFields.get(goals, routeVersion, this::terrainStepCost);
+    }
+    
+    /**
+     * Стоимость шага по местности и укрытиям без учёта юнитов, -1 если непроходимо
+     */
+    private int terrainStepCost(int fromTile, int toTile) {
+        int tx = occupancy.tileX(toTile);
+        int ty = occupancy.tileY(toTile);
+        int climb = tileStore.getElevation(tx, ty)
+                - tileStore.getElevation(occupancy.tileX(fromTile), occupancy.tileY(fromTile));
+        return movementCosts.enterCost(tileStore.getTerrain(tx, ty), climb, occupancy.coverAt(toTile));
+    }
+    
+    @Override
+    public synchronized boolean moveUnit(Unit unit, int newX, int newY) {
         if (!isValidPosition(newX, newY)) {
-            System.out.println("DEBUG: Invalid position (" + newX + ", " + newY + ")");
+            log.debug("Cannot move unit {}: invalid position ({}, {})", unit.getName(), newX, newY);
             return false;
         }
         
-        Position oldPos = unit.getPosition();
-        System.out.println("DEBUG: Old position: " + oldPos);
-        
         // Проверяем, что новая позиция не занята другим юнитом
-        Unit unitAtNewPos = getUnitAt(newX, newY);
+        int newTile = tileIndex(newX, newY);
+        Unit unitAtNewPos = occupancy.unitAt(newTile);
         if (unitAtNewPos != null && unitAtNewPos != unit) {
-            System.out.println("DEBUG: Position (" + newX + ", " + newY + ") is occupied by " + unitAtNewPos.getName());
+            log.debug("Cannot move unit {}: position ({}, {}) is occupied by {}",
+                    unit.getName(), newX, newY, unitAtNewPos.getName());
             return false;
         }
         
-        int oldHash = positionHash(oldPos.getX(), oldPos.getY());
-        int newHash = positionHash(newX, newY);
-        
-        // Update maps atomically
-        unitMap.remove(oldHash);
-        unitMap.put(newHash, unit);
-        occupiedPositions.remove(oldHash);
-        occupiedPositions.add(newHash);
+        int oldTile = findUnitTile(unit);
+        if (oldTile >= 0) {
+            occupancy.moveUnit(oldTile, newTile);
+            spatialIndex.move(oldTile, newTile);
+        } else {
+            occupancy.putUnit(newTile, unit);
+            spatialIndex.add(newTile);
+        }
         
-        // Update grid
-        grid[oldPos.getX()][oldPos.getY()].setUnit(null);
         unit.setPosition(newX, newY);
-        grid[newX][newY].setUnit(unit);
+        influence.update(unit);
+        stateHash.update(unit);
+        fieldVersion.incrementAndGet();
+        refreshView(unit);
         
-        System.out.println("DEBUG: Unit moved successfully to (" + newX + ", " + newY + ")");
+        log.debug("Unit {} moved to ({}, {})", unit.getName(), newX, newY);
         return true;
     }
     
+    /**
+     * Locates the tile a unit occupies, trusting its position first
+     * @return tile index or -1 if the unit is not on the field
+     */
+    private int findUnitTile(Unit unit) {
+        Position pos = unit.getPosition();
+        if (pos != null && isValidPosition(pos.getX(), pos.getY())) {
+            int tile = tileIndex(pos.getX(), pos.getY());
+            if (occupancy.unitAt(tile) == unit) {
+                return tile;
+            }
+        }
+        return occupancy.tileOf(unit);
+    }
+    
+    @Override
     public List<Unit> getUnitsInRange(Position position, int range) {
         List<Unit> unitsInRange = new ArrayList<>();
+        int px = position.getX();
+        int py = position.getY();
         
-        // Use diamond pattern for efficient range checking
-        for (int dx = -range; dx <= range; dx++) {
-            for (int dy = -range; dy <= range; dy++) {
-                if (Math.abs(dx) + Math.abs(dy) <= range) {
-                    int x = position.getX() + dx;
-                    int y = position.getY() + dy;
-                    
-                    if (isValidPosition(x, y)) {
-                        Unit unit = unitMap.get(positionHash(x, y));
-                        if (unit != null) {
-                            unitsInRange.add(unit);
-                        }
-                    }
-                }
+        // Only the spatial cells overlapping the diamond are scanned
+        spatialIndex.visitSquare(px, py, range, tile -> {
+            if (Math.abs(occupancy.tileX(tile) - px) + Math.abs(occupancy.tileY(tile) - py) <= range) {
+                unitsInRange.add(occupancy.unitAt(tile));
             }
-        }
+        });
         
         return unitsInRange;
     }
     
+    @Override
+    public List<Unit> findNearestUnits(Position position, int count, Predicate<Unit> filter) {
+        List<Unit> nearest = new ArrayList<>();
+        if (position == null || count <= 0) {
+            return nearest;
+        }
+        
+        int[] tiles = spatialIndex.nearest(position.getX(), position.getY(), count,
+                tile -> filter.test(occupancy.unitAt(tile)));
+        for (int tile : tiles) {
+            nearest.add(occupancy.unitAt(tile));
+        }
+        return nearest;
+    }
+    
+    @Override
+    public Unit findNearestEnemy(Unit unit) {
+        if (unit == null || unit.getPosition() == null) {
+            return null;
+        }
+        
+        List<Unit> nearest = findNearestUnits(unit.getPosition(), 1,
+                other -> other.isAlive() && isEnemy(unit, other));
+        return nearest.isEmpty() ? null : nearest.get(0);
+    }
+    
     public CoverType getCoverTypeAt(int x, int y) {
         if (!isValidPosition(x, y)) return CoverType.NONE;
         
-        CoverObject cover = coverMap.get(positionHash(x, y));
+        CoverObject cover = occupancy.coverAt(tileIndex(x, y));
         return cover != null ? cover.getCoverType() : CoverType.NONE;
     }
     
+    @Override
+    public CoverType getDirectionalCover(Position target, Position attacker) {
+        if (target == null || attacker == null || !isValidPosition(target)) return CoverType.NONE;
+        return directionalCover.get(target.getX(), target.getY(),
+                attacker.getX() - target.getX(), attacker.getY() - target.getY());
+    }
+    
+    @Override
+    public boolean isFlankedFrom(Position target, Position attacker) {
+        if (target == null || !isValidPosition(target)) return false;
+        return DirectionalCover.strength(getBestCoverAt(target.getX(), target.getY())) > 0
+                && DirectionalCover.strength(getDirectionalCover(target, attacker)) == 0;
+    }
+    
+    @Override
+    public CoverType getBestCoverAt(int x, int y) {
+        return isValidPosition(x, y) ? directionalCover.best(x, y) : CoverType.NONE;
+    }
+    
+    /**
+     * Карты влияния; урон, смерть и смена оружия юнита перештамповывают его
+     * через {@link #onUnitStateChanged}
+     */
+    @Override
+    public synchronized InfluenceMap getInfluenceMap() {
+        return influence;
+    }
+    
+    @Override
+    public synchronized long getStateHash() {
+        return stateHash.get();
+    }
+    
+    @Override
+    public synchronized void setObjectives(UnitType team, Collection<Position> objectives) {
+        if (influence.getObjectives(team).equals(objectives == null ? List.of() : List.copyOf(objectives))) {
+            return;
+        }
+        influence.setObjectives(team, objectives);
+        fieldVersion.incrementAndGet();
+    }
+    
+    /**
+     * Returns a detached view of a tile assembled from the occupancy and terrain stores.
+     * Changes to the returned object are not written back; use the field setters.
+     */
     public Tile getTile(int x, int y) {
         if (!isValidPosition(x, y)) return null;
-        return grid[x][y];
+        
+        int tile = tileIndex(x, y);
+        Tile view = new Tile(x, y);
+        view.setUnit(occupancy.unitAt(tile));
+        view.setCoverObject(occupancy.coverAt(tile));
+        view.setTerrain(tileStore.getTerrain(x, y));
+        view.setHighGround(tileStore.isHighGround(x, y));
+        view.setFeatures(tileStore.getFeatures(x, y));
+        return view;
+    }
+    
+    public TerrainType getTerrainAt(int x, int y) {
+        if (!isValidPosition(x, y)) return null;
+        return tileStore.getTerrain(x, y);
+    }
+    
+    public synchronized void setTerrainAt(int x, int y, TerrainType terrain) {
+        if (isValidPosition(x, y)) {
+            tileStore.setTerrain(x, y, terrain);
+            fieldVersion.incrementAndGet();
+            markRoutesChanged(x, y);
+        }
+    }
+    
+    public boolean isHighGround(int x, int y) {
+        return isValidPosition(x, y) && tileStore.isHighGround(x, y);
+    }
+    
+    public synchronized void setHighGround(int x, int y, boolean highGround) {
+        if (isValidPosition(x, y)) {
+            tileStore.setHighGround(x, y, highGround);
+            fieldVersion.incrementAndGet();
+        }
+    }
+    
+    @Override
+    public int getElevation(int x, int y) {
+        return isValidPosition(x, y) ? tileStore.getElevation(x, y) : 0;
+    }
+    
+    /**
+     * Sets the ground elevation of a tile; changes sight lines, climb costs and routes
+     */
+    @Override
+    public synchronized void setElevation(int x, int y, int elevation) {
+        if (isValidPosition(x, y) && tileStore.getElevation(x, y) != elevation) {
+            tileStore.setElevation(x, y, elevation);
+            markSightChanged(x, y);
+        }
+    }
+    
+    public boolean hasTileFeature(int x, int y, TileFeature feature) {
+        return isValidPosition(x, y) && feature.isIn(tileStore.getFeatures(x, y));
+    }
+    
+    public synchronized void setTileFeature(int x, int y, TileFeature feature, boolean present) {
+        if (isValidPosition(x, y)) {
+            int features = tileStore.getFeatures(x, y);
+            tileStore.setFeatures(x, y, present ? features | feature.mask() : features & ~feature.mask());
+            fieldVersion.incrementAndGet();
+        }
+    }
+    
+    /**
+     * Number of 32x32 terrain chunks that hold their own data
+     */
+    public int getMaterializedChunkCount() {
+        return tileStore.getMaterializedChunks();
     }
     
     public Unit getUnitAt(int x, int y) {
-        int hash = positionHash(x, y);
-        Unit unit = unitMap.get(hash);
-        System.out.println("DEBUG: getUnitAt(" + x + ", " + y + ") hash=" + hash + " -> " + (unit != null ? unit.getName() : "null"));
-        return unit;
+        if (!isValidPosition(x, y)) return null;
+        return occupancy.unitAt(tileIndex(x, y));
     }
     
     public CoverObject getCoverAt(int x, int y) {
-        return coverMap.get(positionHash(x, y));
+        if (!isValidPosition(x, y)) return null;
+        return occupancy.coverAt(tileIndex(x, y));
     }
     
     public List<Unit> getAllUnits() {
-        List<Unit> units = new ArrayList<>(unitMap.values());
-        System.out.println("DEBUG: getAllUnits() returned " + units.size() + " units");
-        for (Unit unit : units) {
-            System.out.println("DEBUG: - " + unit.getName() + " at " + unit.getPosition());
-        }
-        return units;
+        return occupancy.allUnits();
     }
     
     public List<CoverObject> getAllCoverObjects() {
-        return new ArrayList<>(coverMap.values());
+        return occupancy.allCovers();
     }
     
-    public void clearField() {
-        unitMap.clear();
-        coverMap.clear();
-        occupiedPositions.clear();
-        
-        for (int x = 0; x < width; x++) {
-            for (int y = 0; y < height; y++) {
-                grid[x][y].setUnit(null);
-                grid[x][y].setCoverObject(null);
-            }
+    public synchronized void clearField() {
+        for (Unit unit : occupancy.allUnits()) {
+            unit.bindToField(null);
         }
+        occupancy.clear();
+        directionalCover.clear();
+        influence.clear();
+        stateHash.clear();
+        spatialIndex.clear();
+        visibilityCache.clear();
+        reachabilityCache.clear();
+        pathfinder = null;
+        flowFields.clear();
+        routeVersion++;
+        teamVisibility.values().forEach(TeamVisibility::reset);
+        sightVersion++;
+        fieldVersion.incrementAndGet();
     }
     
     public int getUnitCount() {
-        return unitMap.size();
+        return occupancy.unitCount();
     }
     
     public int getCoverObjectCount() {
-        return coverMap.size();
+        return occupancy.coverCount();
     }
     
     public boolean hasUnits() {
-        return !unitMap.isEmpty();
+        return occupancy.unitCount() > 0;
     }
     
     public boolean hasCoverObjects() {
-        return !coverMap.isEmpty();
+        return occupancy.coverCount() > 0;
     }
     
     /**
@@ -263,8 +558,8 @@ public class TacticalFieldBase implements ITacticalField {
         double distance = calculateDistance(from, to);
         if (distance > viewRange) return false;
         
-        // Проверяем препятствия (простая линия видимости)
-        return hasLineOfSight(from, to);
+        // Поле зрения из той же точки переиспользуется, пока укрытия не менялись
+        return fieldOfView(from.getX(), from.getY(), viewRange).isVisible(to);
     }
     
     /**
@@ -275,16 +570,16 @@ public class TacticalFieldBase implements ITacticalField {
             return new ArrayList<>();
         }
         
+        VisibilityMask visible = visibilityCache.fieldOfView(observer);
+        
         List<Unit> visibleUnits = new ArrayList<>();
         Position observerPos = observer.getPosition();
-        
-        for (Unit unit : getAllUnits()) {
-            if (unit != observer && unit.isAlive() && unit.getPosition() != null) {
-                if (isPositionVisible(observerPos, unit.getPosition(), observer.getViewRange())) {
-                    visibleUnits.add(unit);
-                }
+        spatialIndex.visitSquare(observerPos.getX(), observerPos.getY(), observer.getViewRange(), tile -> {
+            Unit unit = occupancy.unitAt(tile);
+            if (unit != observer && unit.isAlive() && visible.isVisible(tile)) {
+                visibleUnits.add(unit);
             }
-        }
+        });
         
         return visibleUnits;
     }
@@ -297,29 +592,139 @@ public class TacticalFieldBase implements ITacticalField {
             return new ArrayList<>();
         }
         
-        List<Position> visiblePositions = new ArrayList<>();
-        Position observerPos = observer.getPosition();
-        int viewRange = observer.getViewRange();
-        
-        // Проверяем все позиции в квадрате видимости
-        int startX = Math.max(0, observerPos.getX() - viewRange);
-        int endX = Math.min(width - 1, observerPos.getX() + viewRange);
-        int startY = Math.max(0, observerPos.getY() - viewRange);
-        int endY = Math.min(height - 1, observerPos.getY() + viewRange);
-        
-        for (int x = startX; x <= endX; x++) {
-            for (int y = startY; y <= endY; y++) {
-                Position pos = new Position(x, y);
-                if (isPositionVisible(observerPos, pos, viewRange)) {
-                    visiblePositions.add(pos);
+        return visibilityCache.fieldOfView(observer).toPositions();
+    }
+    
+    @Override
+    public boolean canSee(Unit observer, Position target) {
+        if (observer == null || observer.getPosition() == null || target == null) return false;
+        return visibilityCache.fieldOfView(observer).isVisible(target);
+    }
+    
+    @Override
+    public <T extends IUnit> VisibilityMatrix<T> computeVisibilityMatrix(List<? extends IUnit> observers, List<T> targets) {
+        return VisibilityMatrix.compute(observers, targets, new VisibilityMatrix.Source() {
+            @Override
+            public Position positionOf(IUnit unit) {
+                return unit.getPosition();
+            }
+            
+            @Override
+            public VisibilityMask fieldOfView(IUnit observer, Position origin, int viewRange) {
+                return observer instanceof Unit unit
+                        ? visibilityCache.fieldOfView(unit)
+                        : computeFieldOfView(origin.getX(), origin.getY(), viewRange);
+            }
+            
+            @Override
+            public CoverObject coverAt(Position position) {
+                return getCoverObject(position.getX(), position.getY());
+            }
+        }, GameConfig.getInt("game.field.visibility.batch.parallel.threshold", 4096));
+    }
+    
+    @Override
+    public void computeFieldOfView(Position origin, int viewRange, VisibilityMask target) {
+        target.clear();
+        if (origin == null) return;
+        castView(origin.getX(), origin.getY(), viewRange, target);
+        target.bind(origin.getX(), origin.getY(), viewRange, sightVersion);
+    }
+    
+    /**
+     * Возвращает туман войны стороны: объединение полей зрения всех живых
+     * юнитов этого типа (squad sight) и множество когда-либо увиденных клеток.
+     * Пересобирается только после изменения поля.
+     */
+    @Override
+    public TeamVisibility getTeamVisibility(UnitType team) {
+        TeamVisibility fog = teamVisibility.get(team);
+        long version = fieldVersion.get();
+        if (fog.getVersion() != version) {
+            synchronized (fog) {
+                if (fog.getVersion() != version) {
+                    long[] buffer = fog.beginRebuild();
+                    for (int slot = 0; slot < occupancy.unitCount(); slot++) {
+                        Unit member = occupancy.unitInSlot(slot);
+                        if (member.getUnitType() == team && member.isAlive()) {
+                            fog.include(buffer, visibilityCache.fieldOfView(member));
+                        }
+                    }
+                    fog.commit(buffer, version);
                 }
             }
         }
-        
-        return visiblePositions;
+        return fog;
     }
     
-
+    /**
+     * Пересчитывает поле зрения юнита сразу, чтобы каждая клетка, с которой
+     * он смотрел, попала в исследованные, даже если туман никто не запрашивал
+     */
+    private void refreshView(Unit unit) {
+        if (unit.isAlive() && unit.getPosition() != null) {
+            visibilityCache.fieldOfView(unit);
+        }
+    }
+    
+    /**
+     * Вливает только что вычисленное поле зрения живого юнита в исследованные клетки его стороны
+     */
+    private void exploreView(Unit observer, VisibilityMask mask) {
+        if (observer.isAlive()) {
+            teamVisibility.get(observer.getUnitType()).explore(mask);
+        }
+    }
+    
+    @Override
+    public boolean isVisibleToTeam(UnitType team, Position position) {
+        return getTeamVisibility(team).isVisible(position);
+    }
+    
+    @Override
+    public synchronized void onUnitStateChanged(Unit unit) {
+        // Урон и эффекты меняют хэш состояния, смерть и смена оружия - карту влияния, дальность обзора - туман войны
+        influence.restamp(unit);
+        stateHash.restamp(unit);
+        fieldVersion.incrementAndGet();
+    }
+    
+    private VisibilityMask computeFieldOfView(int x, int y, int viewRange) {
+        VisibilityMask mask = new VisibilityMask(width, height);
+        castView(x, y, viewRange, mask);
+        mask.bind(x, y, viewRange, sightVersion);
+        return mask;
+    }
+    
+    /**
+     * Возвращает поле зрения в буфере текущего потока, пересчитывая его только
+     * при смене точки обзора, дальности или укрытий
+     */
+    private VisibilityMask fieldOfView(int x, int y, int viewRange) {
+        VisibilityMask mask = fovScratch.get();
+        long version = sightVersion;
+        if (!mask.isComputedFor(x, y, viewRange, version)) {
+            mask.clear();
+            castView(x, y, viewRange, mask);
+            mask.bind(x, y, viewRange, version);
+        }
+        return mask;
+    }
+    
+    /**
+     * Поле зрения над картой высот одним проходом от наблюдателя наружу, за
+     * O(радиус²); отдельные пары по-прежнему проверяет {@link #traceSight}
+     */
+    private void castView(int x, int y, int viewRange, VisibilityMask mask) {
+        LineOfSight.fieldOfView(x, y, viewRange, tileStore::getElevation, this::sightSurface, mask);
+    }
+    
+    /**
+     * Высота поверхности клетки: рельеф плюс укрытие
+     */
+    private int sightSurface(int x, int y) {
+        return tileStore.getElevation(x, y) + LineOfSight.coverHeight(occupancy.coverAt(tileIndex(x, y)));
+    }
     
     /**
      * Проверяет прямую линию видимости между двумя позициями
@@ -327,53 +732,40 @@ public class TacticalFieldBase implements ITacticalField {
      */
     @Override
     public boolean hasLineOfSight(Position from, Position to) {
-        // TODO: Implement configurable line of sight calculation system
-        // - Load line of sight parameters from configuration
-        // - Optimize algorithm for different field sizes
-        // - Add terrain and cover effects
-        // - Implement visibility caching
-        
-        int x0 = from.getX();
-        int y0 = from.getY();
-        int x1 = to.getX();
-        int y1 = to.getY();
-        
-        int dx = Math.abs(x1 - x0);
-        int dy = Math.abs(y1 - y0);
-        int x = x0;
-        int y = y0;
-        
-        int x_inc = (x1 > x0) ? 1 : -1;
-        int y_inc = (y1 > y0) ? 1 : -1;
-        int error = dx - dy;
-        
-        dx *= 2;
-        dy *= 2;
+        return traceSight(from, to).isClear();
+    }
+    
+    /**
+     * Трассирует луч от уровня глаз наблюдателя до уровня глаз цели над картой
+     * высот; промежуточная клетка закрывает обзор, если её поверхность
+     * (высота + укрытие) выше луча в этой точке
+     */
+    @Override
+    public SightLine traceSight(Position from, Position to) {
+        if (from == null || to == null) {
+            return new SightLine(false, 0, 0);
+        }
+        if (!isValidPosition(from) || !isValidPosition(to)) {
+            return new SightLine(false, from.getHeight(), to.getHeight());
+        }
         
-        for (int i = 0; i <= Math.max(Math.abs(x1 - x0), Math.abs(y1 - y0)); i++) {
-            // Проверяем препятствия на текущей позиции (кроме начальной и конечной)
-            if (!(x == x0 && y == y0) && !(x == x1 && y == y1)) {
-                if (isValidPosition(x, y)) {
-                    Tile tile = grid[x][y];
-                    CoverObject cover = tile.getCoverObject();
-                    if (cover != null && cover.getCoverType() == CoverType.FULL_COVER) {
-                        return false; // Полное укрытие блокирует видимость
-                    }
-                }
-            }
-            
-            if (x == x1 && y == y1) break;
-            
-            if (error > 0) {
-                x += x_inc;
-                error -= dy;
-            } else {
-                y += y_inc;
-                error += dx;
-            }
+        long version = sightVersion;
+        boolean cacheable = from.getHeight() == 0 && to.getHeight() == 0;
+        long key = SightCache.key(tileIndex(from.getX(), from.getY()), tileIndex(to.getX(), to.getY()));
+        SightLine cached = cacheable ? sightLines.get(key, version) : null;
+        if (cached != null) {
+            return cached;
         }
         
-        return true; // Линия видимости свободна
+        int fromElevation = tileStore.getElevation(from.getX(), from.getY()) + from.getHeight();
+        int toElevation = tileStore.getElevation(to.getX(), to.getY()) + to.getHeight();
+        boolean clear = LineOfSight.isClear3D(from.getX(), from.getY(), fromElevation + LineOfSight.EYE_HEIGHT,
+                to.getX(), to.getY(), toElevation + LineOfSight.EYE_HEIGHT, width, height, this::sightSurface);
+        SightLine line = new SightLine(clear, fromElevation, toElevation);
+        if (cacheable) {
+            sightLines.put(key, version, line);
+        }
+        return line;
     }
     
     /**
@@ -388,7 +780,7 @@ public class TacticalFieldBase implements ITacticalField {
     /**
      * Проверяет являются ли два юнита врагами
      */
-    private boolean isEnemy(Unit unit1, Unit unit2) {
+    static boolean isEnemy(Unit unit1, Unit unit2) {
         if (unit1.getUnitType() == UnitType.SOLDIER && unit2.getUnitType() == UnitType.ALIEN) return true;
         if (unit1.getUnitType() == UnitType.ALIEN && unit2.getUnitType() == UnitType.SOLDIER) return true;
         return false;
@@ -404,21 +796,25 @@ public class TacticalFieldBase implements ITacticalField {
     @Override
     public void addUnit(Unit unit) {
         if (unit.getPosition() != null) {
-            System.out.println("DEBUG: Adding unit " + unit.getName() + " at position " + unit.getPosition());
             addUnit(unit, unit.getPosition().getX(), unit.getPosition().getY());
         } else {
-            System.out.println("DEBUG: Unit " + unit.getName() + " has no position!");
+            log.debug("Cannot add unit {}: no position", unit.getName());
         }
     }
     
     @Override
-    public void removeUnit(Unit unit) {
-        if (unit.getPosition() != null) {
-            int hash = positionHash(unit.getPosition().getX(), unit.getPosition().getY());
-            unitMap.remove(hash);
-            occupiedPositions.remove(hash);
-            grid[unit.getPosition().getX()][unit.getPosition().getY()].setUnit(null);
+    public synchronized void removeUnit(Unit unit) {
+        int tile = findUnitTile(unit);
+        if (tile >= 0) {
+            occupancy.removeUnitAt(tile);
+            spatialIndex.remove(tile);
+            unit.bindToField(null);
+            fieldVersion.incrementAndGet();
         }
+        influence.remove(unit);
+        stateHash.remove(unit);
+        visibilityCache.evict(unit);
+        reachabilityCache.remove(unit);
     }
     
     @Override
@@ -448,7 +844,7 @@ public class TacticalFieldBase implements ITacticalField {
     @Override
     public CoverObject getCoverObject(int x, int y) {
         if (isValidPosition(x, y)) {
-            return coverMap.get(positionHash(x, y));
+            return occupancy.coverAt(tileIndex(x, y));
         }
         return null;
     }
@@ -485,6 +881,34 @@ public class TacticalFieldBase implements ITacticalField {
         return positions;
     }
     
+    @Override
+    public long getFieldVersion() {
+        return fieldVersion.get();
+    }
+    
+    /**
+     * Замораживает текущее состояние поля. Снимок переиспользуется, пока версия
+     * поля не изменилась; укрытия, местность, граф путей и слои влияния
+     * разделяются между снимками, а слой юнитов копируется только по
+     * изменённым блокам, так что снимок стоит O(юнитов), а не O(карты).
+     */
+    @Override
+    public synchronized ITacticalField snapshot() {
+        long version = fieldVersion.get();
+        if (lastSnapshot != null && lastSnapshot.getFieldVersion() == version) {
+            return lastSnapshot;
+        }
+        if (lastCoverState == null || lastCoverState.getSightVersion() != sightVersion) {
+            lastCoverState = new FieldSnapshot.CoverState(occupancy.freezeCovers(), width, height, sightVersion);
+        }
+        if (lastRoutes == null || lastRoutes.getRouteVersion() != routeVersion) {
+            lastRoutes = new FieldSnapshot.Routes(width, height, routeVersion);
+        }
+        lastSnapshot = new FieldSnapshot(width, height, version, occupancy.freezeUnits(), spatialIndex.freeze(),
+                lastCoverState, tileStore.freeze(), movementCosts, lastRoutes, influence.copy(), stateHash.get());
+        return lastSnapshot;
+    }
+    
     // Additional getter methods for compatibility
     public int getWidth() {
         return width;
@@ -0,0 +1,130 @@
+package com.aliensattack.field;
+
+import com.aliensattack.core.enums.UnitType;
+import com.aliensattack.core.model.Position;
+
+import java.util.Arrays;
+
+/**
+ * Fog of war for one side of the battle.
+ * Holds a packed bitset of tiles currently seen by any living member (the union of
+ * their fields of view, i.e. squad sight) and a bitset of tiles ever seen. Every
+ * view the field computes for a member is folded into the latter as it is computed,
+ * so it also covers versions of the field nobody queried the fog at.
+ * Both are addressed by {@code y * width + x}, like {@link VisibilityMask}.
+ */
+public class TeamVisibility {
+    private final UnitType team;
+    private final int width;
+    private final int height;
+    private final long[] explored;
+    private volatile long[] visible;
+    private volatile long version = -1;
+
+    TeamVisibility(UnitType team, int width, int height) {
+        this.team = team;
+        this.width = width;
+        this.height = height;
+        int words = (width * height + 63) >>> 6;
+        this.explored = new long[words];
+        this.visible = new long[words];
+    }
+
+    public UnitType getTeam() {
+        return team;
+    }
+
+    /**
+     * Field version the current visible set was built for
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public boolean isVisible(int x, int y) {
+        return inBounds(x, y) && test(visible, y * width + x);
+    }
+
+    public boolean isVisible(Position position) {
+        return position != null && isVisible(position.getX(), position.getY());
+    }
+
+    public boolean isExplored(int x, int y) {
+        return inBounds(x, y) && test(explored, y * width + x);
+    }
+
+    public boolean isExplored(Position position) {
+        return position != null && isExplored(position.getX(), position.getY());
+    }
+
+    public int countVisible() {
+        return count(visible);
+    }
+
+    public int countExplored() {
+        return count(explored);
+    }
+
+    /**
+     * Starts a rebuild; members' masks are OR-ed into the returned buffer
+     */
+    long[] beginRebuild() {
+        return new long[explored.length];
+    }
+
+    void include(long[] buffer, VisibilityMask memberView) {
+        long[] words = memberView.words();
+        for (int i = 0; i < buffer.length; i++) {
+            buffer[i] |= words[i];
+        }
+    }
+
+    /**
+     * Folds a member's freshly computed view into the explored set
+     */
+    void explore(VisibilityMask memberView) {
+        long[] words = memberView.words();
+        synchronized (explored) {
+            for (int i = 0; i < explored.length; i++) {
+                explored[i] |= words[i];
+            }
+        }
+    }
+
+    /**
+     * Publishes the rebuilt visible set and folds it into the explored set
+     */
+    void commit(long[] buffer, long fieldVersion) {
+        synchronized (explored) {
+            for (int i = 0; i < explored.length; i++) {
+                explored[i] |= buffer[i];
+            }
+        }
+        visible = buffer;
+        version = fieldVersion;
+    }
+
+    void reset() {
+        synchronized (explored) {
+            Arrays.fill(explored, 0L);
+        }
+        visible = new long[explored.length];
+        version = -1;
+    }
+
+    private boolean inBounds(int x, int y) {
+        return x >= 0 && x < width && y >= 0 && y < height;
+    }
+
+    private static boolean test(long[] bits, int tile) {
+        return (bits[tile >>> 6] & (1L << tile)) != 0;
+    }
+
+    private static int count(long[] bits) {
+        int count = 0;
+        for (long word : bits) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+}
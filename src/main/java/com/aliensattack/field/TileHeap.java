@@ -0,0 +1,47 @@
+package com.aliensattack.field;
+
+import java.util.Arrays;
+
+/**
+ * Binary min-heap of (priority, tile) packed into longs, shared by the
+ * field's graph searches and the AI's best-first tile queries
+ */
+public final class TileHeap {
+    private long[] heap = new long[64];
+    private int size;
+
+    public void push(int priority, int tile) {
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, size * 2);
+        }
+        long entry = ((long) priority << 32) | (tile & 0xFFFFFFFFL);
+        int i = size++;
+        while (i > 0) {
+            int up = (i - 1) >>> 1;
+            if (heap[up] <= entry) break;
+            heap[i] = heap[up];
+            i = up;
+        }
+        heap[i] = entry;
+    }
+
+    public long pop() {
+        long top = heap[0];
+        long last = heap[--size];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) break;
+            if (child + 1 < size && heap[child + 1] < heap[child]) child++;
+            if (heap[child] >= last) break;
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = last;
+        return top;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+}
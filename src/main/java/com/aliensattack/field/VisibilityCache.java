@@ -0,0 +1,113 @@
+package com.aliensattack.field;
+
+import com.aliensattack.core.model.Position;
+import com.aliensattack.core.model.Unit;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-observer field-of-view cache.
+ * Each entry is an immutable mask computed for one observer position and range
+ * at a field version. A change to sight blockers only drops the entries whose
+ * view square contains the changed tile; units do not block sight, so a move
+ * only affects the mover, whose entry is recomputed on its next query because
+ * its origin no longer matches.
+ */
+final class VisibilityCache {
+
+    /**
+     * Computes a fresh mask for an origin and range
+     */
+    interface Calculator {
+        VisibilityMask compute(int x, int y, int range);
+    }
+    
+    /**
+     * Told about every view the cache computes, e.g. to fold it into the team's explored set
+     */
+    interface Listener {
+        void viewComputed(Unit observer, VisibilityMask mask);
+    }
+
+    private record Entry(VisibilityMask mask, int originX, int originY, int range, long version) {
+        boolean covers(int x, int y) {
+            return Math.abs(x - originX) <= range && Math.abs(y - originY) <= range;
+        }
+    }
+
+    private final Map<Unit, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final Calculator calculator;
+    private final LongSupplier fieldVersion;
+    private final Listener listener;
+
+    VisibilityCache(Calculator calculator, LongSupplier fieldVersion, Listener listener) {
+        this.calculator = calculator;
+        this.fieldVersion = fieldVersion;
+        this.listener = listener;
+    }
+
+    /**
+     * Returns the observer's visible set, recomputing it only if it was invalidated
+     * or the observer moved or changed range. The returned mask must not be modified.
+     */
+    VisibilityMask fieldOfView(Unit observer) {
+        Position pos = observer.getPosition();
+        int range = observer.getViewRange();
+        Entry entry = entries.get(observer);
+        if (entry != null && entry.originX == pos.getX() && entry.originY == pos.getY() && entry.range == range) {
+            hits.incrementAndGet();
+            return entry.mask;
+        }
+        misses.incrementAndGet();
+        long computedAt = fieldVersion.getAsLong();
+        VisibilityMask mask = calculator.compute(pos.getX(), pos.getY(), range);
+        listener.viewComputed(observer, mask);
+        // Only publish if the field did not change while computing
+        if (fieldVersion.getAsLong() == computedAt) {
+            entries.put(observer, new Entry(mask, pos.getX(), pos.getY(), range, computedAt));
+        }
+        return mask;
+    }
+
+    /**
+     * Drops every cached view whose square contains the changed tile
+     * @return number of observers that will be recomputed
+     */
+    int invalidateAt(int x, int y) {
+        int invalidated = 0;
+        Iterator<Entry> it = entries.values().iterator();
+        while (it.hasNext()) {
+            if (it.next().covers(x, y)) {
+                it.remove();
+                invalidated++;
+            }
+        }
+        return invalidated;
+    }
+
+    void evict(Unit observer) {
+        entries.remove(observer);
+    }
+
+    void clear() {
+        entries.clear();
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    long getHits() {
+        return hits.get();
+    }
+
+    long getMisses() {
+        return misses.get();
+    }
+}
@@ -0,0 +1,118 @@
+package com.aliensattack.field;
+
+import com.aliensattack.core.model.Position;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reusable bitset of visible tiles over a tactical field.
+ * Bits are packed into {@code long} words and addressed by {@code y * width + x}.
+ * A mask remembers the origin, range and field version it was computed for,
+ * so callers can reuse it while the field is unchanged.
+ */
+public class VisibilityMask {
+    private final int width;
+    private final int height;
+    private final long[] bits;
+
+    private int originX = -1;
+    private int originY = -1;
+    private int range = -1;
+    private long version = -1;
+
+    public VisibilityMask(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.bits = new long[(width * height + 63) >>> 6];
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Clears all bits and forgets the origin the mask was computed for
+     */
+    public void clear() {
+        Arrays.fill(bits, 0L);
+        originX = -1;
+        originY = -1;
+        range = -1;
+        version = -1;
+    }
+
+    public void set(int x, int y) {
+        int tile = y * width + x;
+        bits[tile >>> 6] |= 1L << tile;
+    }
+
+    public boolean isVisible(int x, int y) {
+        if (x < 0 || x >= width || y < 0 || y >= height) return false;
+        return isVisible(y * width + x);
+    }
+
+    public boolean isVisible(Position position) {
+        return position != null && isVisible(position.getX(), position.getY());
+    }
+
+    public boolean isVisible(int tile) {
+        return (bits[tile >>> 6] & (1L << tile)) != 0;
+    }
+
+    /**
+     * Returns the next visible tile index at or after {@code fromTile}, or -1
+     */
+    public int nextVisibleTile(int fromTile) {
+        int word = fromTile >>> 6;
+        if (word >= bits.length) return -1;
+        long current = bits[word] & (-1L << fromTile);
+        while (true) {
+            if (current != 0) {
+                return (word << 6) + Long.numberOfTrailingZeros(current);
+            }
+            if (++word == bits.length) return -1;
+            current = bits[word];
+        }
+    }
+
+    public int countVisible() {
+        int count = 0;
+        for (long word : bits) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Materializes the visible tiles as positions
+     */
+    public List<Position> toPositions() {
+        List<Position> positions = new ArrayList<>(countVisible());
+        for (int tile = nextVisibleTile(0); tile >= 0; tile = nextVisibleTile(tile + 1)) {
+            positions.add(new Position(tile % width, tile / width));
+        }
+        return positions;
+    }
+
+    void bind(int originX, int originY, int range, long version) {
+        this.originX = originX;
+        this.originY = originY;
+        this.range = range;
+        this.version = version;
+    }
+
+    boolean isComputedFor(int originX, int originY, int range, long version) {
+        return this.originX == originX && this.originY == originY
+                && this.range == range && this.version == version;
+    }
+
+    long[] words() {
+        return bits;
+    }
+}
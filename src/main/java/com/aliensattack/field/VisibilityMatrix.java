@@ -0,0 +1,271 @@
+package com.aliensattack.field;
+
+import com.aliensattack.core.config.GameConfig;
+import com.aliensattack.core.enums.CoverType;
+import com.aliensattack.core.interfaces.IUnit;
+import com.aliensattack.core.model.CoverObject;
+import com.aliensattack.core.model.Position;
+import com.aliensattack.core.model.Unit;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * N observers x M targets visibility and cover matrix built in one pass.
+ * Each observer's field of view is computed once (one sweep over the
+ * heightfield shares every ray prefix between all targets) and then only
+ * bit-tested per target; observers standing on the same tile with the same
+ * range share one view. Large matrices are split by observer rows across the
+ * common ForkJoin pool.
+ * @param <T> type of the target units
+ */
+public final class VisibilityMatrix<T extends IUnit> {
+    private static final CoverType[] COVER_TYPES = CoverType.values();
+
+    /**
+     * Field state the matrix is evaluated against
+     */
+    interface Source {
+        Position positionOf(IUnit unit);
+
+        VisibilityMask fieldOfView(IUnit observer, Position origin, int viewRange);
+
+        CoverObject coverAt(Position position);
+    }
+
+    private final List<IUnit> observers;
+    private final List<T> targets;
+    private final long[][] visible; // Per-observer bitset over targets; rows never share a word
+    private final byte[] cover;     // CoverType ordinal, observer * M + target
+    private final Map<IUnit, Integer> observerRows;
+    private final Map<IUnit, Integer> targetColumns;
+
+    private VisibilityMatrix(List<? extends IUnit> observers, List<T> targets) {
+        this.observers = List.copyOf(observers);
+        this.targets = List.copyOf(targets);
+        this.visible = new long[observers.size()][(targets.size() + 63) >>> 6];
+        this.cover = new byte[observers.size() * targets.size()];
+        this.observerRows = indexOf(this.observers);
+        this.targetColumns = indexOf(this.targets);
+        Arrays.fill(cover, (byte) CoverType.NONE.ordinal());
+    }
+
+    /**
+     * Evaluates every observer/target pair
+     * @param parallelThreshold minimum N*M for splitting rows across the ForkJoin pool
+     */
+    static <T extends IUnit> VisibilityMatrix<T> compute(List<? extends IUnit> observers, List<T> targets,
+                                                         Source source, int parallelThreshold) {
+        VisibilityMatrix<T> matrix = new VisibilityMatrix<>(observers, targets);
+        int rows = matrix.observers.size();
+        if (rows == 0 || matrix.targets.isEmpty()) {
+            return matrix;
+        }
+
+        Position[] targetPositions = new Position[matrix.targets.size()];
+        CoverObject[] targetCover = new CoverObject[targetPositions.length];
+        for (int j = 0; j < targetPositions.length; j++) {
+            Position position = source.positionOf(matrix.targets.get(j));
+            targetPositions[j] = position;
+            targetCover[j] = position != null ? source.coverAt(position) : null;
+        }
+
+        RowTask task = new RowTask(matrix, source, targetPositions, targetCover, 0, rows,
+                Math.max(1, parallelThreshold / targetPositions.length));
+        if ((long) rows * targetPositions.length >= parallelThreshold && rows > 1) {
+            ForkJoinPool.commonPool().invoke(task);
+        } else {
+            task.compute();
+        }
+        return matrix;
+    }
+
+    public int getObserverCount() {
+        return observers.size();
+    }
+
+    public int getTargetCount() {
+        return targets.size();
+    }
+
+    public List<IUnit> getObservers() {
+        return observers;
+    }
+
+    public List<T> getTargets() {
+        return targets;
+    }
+
+    public boolean hasObserver(IUnit unit) {
+        return observerRows.containsKey(unit);
+    }
+
+    public boolean hasTarget(IUnit unit) {
+        return targetColumns.containsKey(unit);
+    }
+
+    public boolean isVisible(int observer, int target) {
+        return (visible[observer][target >>> 6] & (1L << target)) != 0;
+    }
+
+    /**
+     * @return false if either unit is not part of the matrix
+     */
+    public boolean isVisible(IUnit observer, IUnit target) {
+        Integer row = observerRows.get(observer);
+        Integer column = targetColumns.get(target);
+        return row != null && column != null && isVisible(row, column);
+    }
+
+    /**
+     * Cover the target has against the observer; NONE when it is not visible
+     */
+    public CoverType getCover(int observer, int target) {
+        return COVER_TYPES[cover[observer * targets.size() + target]];
+    }
+
+    public CoverType getCover(IUnit observer, IUnit target) {
+        Integer row = observerRows.get(observer);
+        Integer column = targetColumns.get(target);
+        return row != null && column != null ? getCover(row, column) : CoverType.NONE;
+    }
+
+    /**
+     * Targets visible to one observer, in target order
+     */
+    public List<T> getVisibleTargets(IUnit observer) {
+        List<T> result = new ArrayList<>();
+        Integer row = observerRows.get(observer);
+        if (row == null) return result;
+        for (int j = 0; j < targets.size(); j++) {
+            if (isVisible(row, j)) {
+                result.add(targets.get(j));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Observers that can see one target, in observer order
+     */
+    public List<IUnit> getObserversOf(IUnit target) {
+        List<IUnit> result = new ArrayList<>();
+        Integer column = targetColumns.get(target);
+        if (column == null) return result;
+        for (int i = 0; i < observers.size(); i++) {
+            if (isVisible(i, column)) {
+                result.add(observers.get(i));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Whether any observer sees the target
+     */
+    public boolean isSeenByAny(IUnit target) {
+        Integer column = targetColumns.get(target);
+        if (column == null) return false;
+        for (int i = 0; i < observers.size(); i++) {
+            if (isVisible(i, column)) return true;
+        }
+        return false;
+    }
+
+    private void set(int observer, int target, CoverType coverType) {
+        visible[observer][target >>> 6] |= 1L << target;
+        cover[observer * targets.size() + target] = (byte) coverType.ordinal();
+    }
+
+    /**
+     * Sight radius of an observer; units outside the Unit hierarchy use the per-type default
+     */
+    static int viewRangeOf(IUnit unit) {
+        if (unit instanceof Unit fieldUnit) {
+            return fieldUnit.getViewRange();
+        }
+        return switch (unit.getUnitType()) {
+            case SOLDIER -> GameConfig.getViewRange("soldier");
+            case CIVILIAN -> GameConfig.getViewRange("civilian");
+            case VEHICLE -> GameConfig.getViewRange("vehicle");
+            case ROBOTIC -> GameConfig.getViewRange("robotic");
+            default -> GameConfig.getViewRange("alien");
+        };
+    }
+
+    private static Map<IUnit, Integer> indexOf(List<? extends IUnit> units) {
+        Map<IUnit, Integer> index = new IdentityHashMap<>(units.size());
+        for (int i = 0; i < units.size(); i++) {
+            index.putIfAbsent(units.get(i), i);
+        }
+        return index;
+    }
+
+    /**
+     * Fills a range of observer rows, splitting in halves above the grain size
+     */
+    private static final class RowTask extends RecursiveAction {
+        private final VisibilityMatrix<?> matrix;
+        private final Source source;
+        private final Position[] targetPositions;
+        private final CoverObject[] targetCover;
+        private final int from;
+        private final int to;
+        private final int grain;
+
+        RowTask(VisibilityMatrix<?> matrix, Source source, Position[] targetPositions,
+                CoverObject[] targetCover, int from, int to, int grain) {
+            this.matrix = matrix;
+            this.source = source;
+            this.targetPositions = targetPositions;
+            this.targetCover = targetCover;
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > grain) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new RowTask(matrix, source, targetPositions, targetCover, from, mid, grain),
+                        new RowTask(matrix, source, targetPositions, targetCover, mid, to, grain));
+                return;
+            }
+
+            int lastX = -1;
+            int lastY = -1;
+            int lastRange = -1;
+            VisibilityMask view = null;
+            for (int i = from; i < to; i++) {
+                IUnit observer = matrix.observers.get(i);
+                Position origin = source.positionOf(observer);
+                if (origin == null) continue;
+
+                int range = viewRangeOf(observer);
+                if (view == null || range != lastRange || origin.getX() != lastX || origin.getY() != lastY) {
+                    view = source.fieldOfView(observer, origin, range);
+                    lastX = origin.getX();
+                    lastY = origin.getY();
+                    lastRange = range;
+                }
+
+                for (int j = 0; j < targetPositions.length; j++) {
+                    Position target = targetPositions[j];
+                    if (target == null || matrix.targets.get(j) == observer || !view.isVisible(target)) {
+                        continue;
+                    }
+                    CoverObject coverObject = targetCover[j];
+                    CoverType coverType = coverObject != null && coverObject.providesCoverFrom(origin)
+                            ? coverObject.getCoverType() : CoverType.NONE;
+                    matrix.set(i, j, coverType);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.aliensattack.field;
+
+import com.aliensattack.core.collections.LongIntHashMap;
+import com.aliensattack.core.data.StatusEffectData;
+import com.aliensattack.core.model.CoverObject;
+import com.aliensattack.core.model.Position;
+import com.aliensattack.core.model.Unit;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Zobrist-style 64-bit hash of the tactical state: every unit (tile, health,
+ * status effects) and every cover object (tile, type, integrity) contributes
+ * one pseudo-random key, and the hash is the XOR of all keys. A change XORs
+ * the old key out and the new one in, so the hash follows the field in O(1)
+ * per change and equal hashes mean equal states with overwhelming
+ * probability. AI caches key their entries by it, which makes invalidation
+ * exact: a changed state simply never hits the old entries.
+ * Keys are derived by mixing instead of read from random tables, so no table
+ * has to be sized for the field or the unit count.
+ */
+public final class ZobristHash {
+    private static final long GOLDEN = 0x9E3779B97F4A7C15L;
+    private static final long UNIT_SALT = 0x5851F42D4C957F2DL;
+    private static final long COVER_SALT = 0x14057B7EF767814FL;
+    private static final int NO_COVER = 0;
+
+    private long hash;
+    private long nextUnitId;
+    private final Map<Unit, long[]> units = new HashMap<>(); // unit -> {identity key, current contribution}
+    private final LongIntHashMap covers = new LongIntHashMap(); // tile -> encoded cover state
+
+    ZobristHash() {
+    }
+
+    /**
+     * Current hash of the field state
+     */
+    long get() {
+        return hash;
+    }
+
+    /**
+     * Re-hashes a unit's tile, health and status effects; adds it if new
+     * @return true if the hash changed
+     */
+    boolean update(Unit unit) {
+        long[] entry = units.get(unit);
+        if (entry == null) {
+            entry = new long[] {mix(++nextUnitId * GOLDEN ^ UNIT_SALT), 0L};
+            units.put(unit, entry);
+        }
+        long contribution = unitKey(entry[0], unit);
+        if (contribution == entry[1]) return false;
+        hash ^= entry[1] ^ contribution;
+        entry[1] = contribution;
+        return true;
+    }
+
+    /**
+     * Same as {@link #update} for a unit already hashed, ignored otherwise
+     */
+    boolean restamp(Unit unit) {
+        return units.containsKey(unit) && update(unit);
+    }
+
+    void remove(Unit unit) {
+        long[] entry = units.remove(unit);
+        if (entry != null) {
+            hash ^= entry[1];
+        }
+    }
+
+    /**
+     * Re-hashes the cover object on a tile (null once it is removed)
+     */
+    void updateCover(int tile, CoverObject cover) {
+        int previous = covers.get(tile, NO_COVER);
+        int current = encode(cover);
+        if (previous == current) return;
+        if (previous != NO_COVER) hash ^= coverKey(tile, previous);
+        if (current != NO_COVER) {
+            hash ^= coverKey(tile, current);
+            covers.put(tile, current);
+        } else {
+            covers.remove(tile);
+        }
+    }
+
+    void clear() {
+        hash = 0L;
+        units.clear();
+        covers.clear();
+    }
+
+    /**
+     * Folds a value into a key, e.g. a state hash with the deciding unit's tile and action points
+     */
+    public static long combine(long key, long value) {
+        return mix(key ^ mix(value + GOLDEN));
+    }
+
+    /**
+     * SplitMix64 finalizer: spreads every input bit over the whole result
+     */
+    public static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static long unitKey(long identity, Unit unit) {
+        Position position = unit.getPosition();
+        long key = identity;
+        key = combine(key, position != null ? position.pack() : -1L);
+        key = combine(key, unit.getCurrentHealth());
+        key = combine(key, statusKey(unit.getStatusEffects()));
+        return key;
+    }
+
+    /**
+     * Order-independent key of the active status effects and their remaining turns
+     */
+    private static long statusKey(List<StatusEffectData> effects) {
+        if (effects == null || effects.isEmpty()) return 0L;
+        long key = 0L;
+        for (StatusEffectData effect : effects) {
+            key += mix(((long) effect.getEffect().ordinal() << 32 | (effect.getDuration() & 0xFFFFFFFFL)) + GOLDEN);
+        }
+        return key;
+    }
+
+    private static long coverKey(int tile, int state) {
+        return mix(((long) tile << 32 | state) ^ COVER_SALT);
+    }
+
+    /**
+     * Cover type, destroyed flag and remaining durability in one int; 0 for no cover
+     */
+    private static int encode(CoverObject cover) {
+        if (cover == null) return NO_COVER;
+        int type = cover.getCoverType() != null ? cover.getCoverType().ordinal() + 1 : 0;
+        return 1 | type << 1 | (cover.isDestroyed() ? 1 : 0) << 6 | (cover.getDurability() & 0xFFFFFF) << 7;
+    }
+}
@@ -0,0 +1,59 @@
+package com.aliensattack.combat;
+
+import com.aliensattack.core.ai.EnemyAI;
+import com.aliensattack.core.ai.MctsEnemyAI;
+import com.aliensattack.core.ai.interfaces.IEnemyAI;
+import com.aliensattack.core.enums.UnitType;
+import com.aliensattack.core.model.Position;
+import com.aliensattack.core.model.Unit;
+import com.aliensattack.field.TacticalField;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TurnManagerTest {
+    private TacticalField field;
+    private TurnManager turnManager;
+    private Unit alien;
+
+    @BeforeEach
+    void setUp() {
+        field = new TacticalField(12, 12);
+        // Created on an empty field so no AI is built for the alien behind the test's back
+        turnManager = new TurnManager(null, field);
+        alien = new Unit("alien", 10, 4, 3, 5, UnitType.ALIEN);
+        field.addUnit(alien, 2, 2);
+    }
+
+    @Test
+    void committedMoveIsExecutedOnceByEnemyAI() {
+        EnemyAI ai = new EnemyAI();
+        ai.setTacticalField(field);
+        ai.initializeWithUnit(alien);
+
+        assertCommitsMove(ai);
+    }
+
+    @Test
+    void committedMoveIsExecutedOnceByMctsAI() {
+        MctsEnemyAI ai = new MctsEnemyAI();
+        ai.setTacticalField(field);
+        ai.initializeWithUnit(alien);
+
+        assertCommitsMove(ai);
+    }
+
+    private void assertCommitsMove(IEnemyAI ai) {
+        Position destination = new Position(4, 3);
+        double actionPoints = alien.getActionPoints();
+        IEnemyAI.AITurnDecision decision = new IEnemyAI.AITurnDecision("move_to_position", "none",
+                destination, null, "advance", 0.8);
+
+        assertTrue(turnManager.commitPlan(alien, ai, decision));
+        assertEquals(destination, alien.getPosition());
+        assertEquals(alien, field.getUnitAt(destination));
+        assertEquals(actionPoints - 1, alien.getActionPoints(), 1e-9);
+    }
+}
@@ -0,0 +1,98 @@
+package com.aliensattack.core.ai;
+
+import com.aliensattack.core.ai.interfaces.IEnemyAI.AITurnDecision;
+import com.aliensattack.core.performance.DecisionBudget;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AnytimePlanTest {
+
+    @Test
+    void deeperOffersReplaceShallowerOnes() {
+        AnytimePlan plan = new AnytimePlan(1000);
+        AITurnDecision hold = decision("defend");
+        AITurnDecision move = decision("move_to_position");
+
+        plan.offer(hold, 0);
+        plan.offer(move, 2);
+        plan.offer(decision("attack_target"), 1);
+
+        assertSame(move, plan.getBest());
+        assertEquals(2, plan.getDepth());
+    }
+
+    @Test
+    void completeWithNullKeepsTheBestSoFar() throws Exception {
+        AnytimePlan plan = new AnytimePlan(1000);
+        AITurnDecision hold = decision("defend");
+        plan.begin();
+        plan.offer(hold, 0);
+
+        plan.complete(null);
+
+        assertTrue(plan.isDone());
+        assertTrue(plan.shouldStop());
+        assertSame(hold, plan.await(DecisionBudget.ofMillis(10)));
+        plan.offer(decision("attack_target"), 5);
+        assertSame(hold, plan.getBest());
+    }
+
+    @Test
+    void awaitReturnsTheBestSoFarWhenTheBudgetRunsOut() throws Exception {
+        AnytimePlan plan = new AnytimePlan(20);
+        AITurnDecision hold = decision("defend");
+        plan.begin();
+        plan.offer(hold, 0);
+
+        assertSame(hold, plan.await(DecisionBudget.ofMillis(1000)));
+        assertTrue(plan.isCancelled());
+        assertTrue(plan.shouldStop());
+        assertFalse(plan.isDone());
+    }
+
+    @Test
+    void awaitReturnsNullBeforeAnyOfferWhenThePhaseEnds() throws Exception {
+        AnytimePlan plan = new AnytimePlan(1000); // Never begun, so only the phase deadline applies
+
+        assertNull(plan.await(DecisionBudget.ofMillis(20)));
+        assertTrue(plan.isCancelled());
+    }
+
+    @Test
+    void failureKeepsTheBestSoFarOrPropagates() throws Exception {
+        AnytimePlan offered = new AnytimePlan(1000);
+        AITurnDecision hold = decision("defend");
+        offered.offer(hold, 0);
+        offered.fail(new IllegalStateException("planner failed"));
+        assertSame(hold, offered.await(DecisionBudget.ofMillis(10)));
+
+        AnytimePlan empty = new AnytimePlan(1000);
+        empty.fail(new IllegalStateException("planner failed"));
+        assertThrows(ExecutionException.class, () -> empty.await(DecisionBudget.ofMillis(10)));
+    }
+
+    @Test
+    void wrapsCompletedPlannersAndFutures() throws Exception {
+        AITurnDecision move = decision("move_to_position");
+        assertSame(move, AnytimePlan.completed(move).await(DecisionBudget.ofMillis(10)));
+
+        CompletableFuture<AITurnDecision> future = new CompletableFuture<>();
+        AnytimePlan plan = AnytimePlan.of(future, 1000);
+        assertFalse(plan.isDone());
+        future.complete(move);
+        assertSame(move, plan.await(DecisionBudget.ofMillis(100)));
+    }
+
+    private static AITurnDecision decision(String action) {
+        return new AITurnDecision(action, "none", null, null, action, 0.5);
+    }
+}
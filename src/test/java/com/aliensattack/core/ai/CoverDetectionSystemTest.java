@@ -0,0 +1,123 @@
+package com.aliensattack.core.ai;
+
+import com.aliensattack.core.enums.CoverType;
+import com.aliensattack.core.enums.UnitType;
+import com.aliensattack.core.model.CoverObject;
+import com.aliensattack.core.model.Position;
+import com.aliensattack.core.model.TerrainObject;
+import com.aliensattack.core.model.Unit;
+import com.aliensattack.field.TacticalField;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CoverDetectionSystemTest {
+    private static final int SIZE = 48;
+
+    private final Random random = new Random(5);
+    private final List<Unit> units = new ArrayList<>();
+    private TacticalField field;
+
+    @BeforeEach
+    void setUp() {
+        field = new TacticalField(SIZE, SIZE);
+        for (int i = 0; i < 10; i++) {
+            Unit unit = new Unit("unit" + i, 10, 5, 5, 5, i % 2 == 0 ? UnitType.SOLDIER : UnitType.ALIEN);
+            field.addUnit(unit, random.nextInt(SIZE), random.nextInt(SIZE));
+            units.add(unit);
+        }
+        for (int y = 0; y < SIZE; y++) {
+            for (int x = 0; x < SIZE; x++) {
+                field.setElevation(x, y, (int) (6 * Math.sin(x / 7.0) * Math.cos(y / 9.0)));
+            }
+        }
+    }
+
+    @Test
+    void localUpdateMatchesFullRebuild() {
+        CoverDetectionSystem cover = new CoverDetectionSystem(field);
+
+        field.setElevation(20, 20, -30);
+        cover.updateCoverAt(new Position(20, 20));
+        Unit unit = units.get(0);
+        Position from = unit.getPosition();
+        field.moveUnit(unit, (from.getX() + 3) % SIZE, from.getY());
+        cover.updateCoverAt(from);
+        cover.updateCoverAt(unit.getPosition());
+
+        assertSameAnalysis(new CoverDetectionSystem(field), cover);
+    }
+
+    @Test
+    void syncWithFieldMatchesFullRebuild() {
+        CoverDetectionSystem cover = new CoverDetectionSystem(field);
+        assertEquals(0, cover.syncWithField());
+
+        for (int round = 0; round < 12; round++) {
+            Unit unit = units.get(random.nextInt(units.size()));
+            Position at = unit.getPosition();
+            field.moveUnit(unit, Math.min(SIZE - 1, at.getX() + 1), at.getY());
+            if (round % 4 == 0) {
+                field.addCoverObject(new CoverObject(null, CoverType.FULL_COVER, 10),
+                        random.nextInt(SIZE), random.nextInt(SIZE));
+            }
+            if (round % 5 == 0) {
+                field.setElevation(random.nextInt(SIZE), random.nextInt(SIZE), 9);
+            }
+            if (round == 7) {
+                field.removeUnit(units.remove(0));
+            }
+            cover.syncWithField();
+
+            assertSameAnalysis(new CoverDetectionSystem(field), cover);
+        }
+    }
+
+    @Test
+    void rebuildOnSyncKeepsDamagedTerrainObjects() {
+        CoverDetectionSystem cover = new CoverDetectionSystem(field);
+        TerrainObject damaged = null;
+        for (int tile = 0; tile < SIZE * SIZE && damaged == null; tile++) {
+            List<TerrainObject> objects = cover.getTerrainObjectsAt(new Position(tile % SIZE, tile / SIZE));
+            if (!objects.isEmpty() && objects.get(0).isDestructible()) {
+                damaged = objects.get(0);
+            }
+        }
+        assertNotNull(damaged);
+        damaged.destroy();
+
+        // Changes everywhere make the sync fall back to a full rebuild
+        for (int y = 0; y < SIZE; y++) {
+            for (int x = 0; x < SIZE; x++) {
+                field.setElevation(x, y, 2);
+            }
+        }
+        cover.syncWithField();
+
+        List<TerrainObject> after = cover.getTerrainObjectsAt(damaged.getPosition());
+        assertSame(damaged, after.get(0));
+        assertTrue(after.get(0).isDestroyed());
+    }
+
+    private static void assertSameAnalysis(CoverDetectionSystem expected, CoverDetectionSystem actual) {
+        for (int y = 0; y < SIZE; y++) {
+            for (int x = 0; x < SIZE; x++) {
+                Position tile = new Position(x, y);
+                assertEquals(expected.getCoverAt(tile), actual.getCoverAt(tile), "cover at " + tile);
+                assertEquals(expected.getCoverValueAt(tile), actual.getCoverValueAt(tile), "cover value at " + tile);
+                assertEquals(expected.getVisibilityAt(tile), actual.getVisibilityAt(tile), "visibility at " + tile);
+                assertEquals(expected.getHazardsAt(tile), actual.getHazardsAt(tile), "hazards at " + tile);
+            }
+        }
+        Position center = new Position(SIZE / 2, SIZE / 2);
+        assertEquals(expected.getBestCoverPositions(center, 10, 8), actual.getBestCoverPositions(center, 10, 8));
+    }
+}
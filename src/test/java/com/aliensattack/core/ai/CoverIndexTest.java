@@ -0,0 +1,128 @@
+package com.aliensattack.core.ai;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CoverIndexTest {
+    private static final int WIDTH = 45;  // Not a multiple of the block size, so edge blocks are partial
+    private static final int HEIGHT = 37;
+
+    @Test
+    void queryMatchesScanAndSort() {
+        Random random = new Random(7);
+        float[] scores = randomScores(random);
+        CoverIndex index = indexOf(scores);
+
+        for (int i = 0; i < 200; i++) {
+            assertQueryMatches(index, scores, random);
+        }
+    }
+
+    @Test
+    void queryMatchesScanAndSortAfterLocalUpdates() {
+        Random random = new Random(11);
+        float[] scores = randomScores(random);
+        CoverIndex index = indexOf(scores);
+
+        for (int round = 0; round < 50; round++) {
+            int cx = random.nextInt(WIDTH);
+            int cy = random.nextInt(HEIGHT);
+            int reach = 1 + random.nextInt(4);
+            for (int y = Math.max(0, cy - reach); y <= Math.min(HEIGHT - 1, cy + reach); y++) {
+                for (int x = Math.max(0, cx - reach); x <= Math.min(WIDTH - 1, cx + reach); x++) {
+                    scores[y * WIDTH + x] = random.nextFloat() * 2 - 0.5f;
+                    index.set(y * WIDTH + x, scores[y * WIDTH + x]);
+                }
+            }
+            index.reorder(cx - reach, cy - reach, cx + reach, cy + reach);
+
+            for (int i = 0; i < 10; i++) {
+                assertQueryMatches(index, scores, random);
+            }
+        }
+    }
+
+    @Test
+    void queryAppliesFilterAndLimits() {
+        float[] scores = randomScores(new Random(3));
+        CoverIndex index = indexOf(scores);
+
+        int[] evenColumns = index.query(20, 20, 10, 15, (tile, x, y) -> x % 2 == 0);
+        assertEquals(15, evenColumns.length);
+        for (int tile : evenColumns) {
+            assertEquals(0, tile % WIDTH % 2);
+        }
+        assertEquals(0, index.query(20, 20, 10, 0, (tile, x, y) -> true).length);
+        assertEquals(0, index.query(20, 20, 10, 5, (tile, x, y) -> false).length);
+    }
+
+    private static void assertQueryMatches(CoverIndex index, float[] scores, Random random) {
+        int cx = random.nextInt(WIDTH + 10) - 5;
+        int cy = random.nextInt(HEIGHT + 10) - 5;
+        int radius = random.nextInt(15);
+        int limit = 1 + random.nextInt(30);
+        CoverIndex.TileFilter filter = (tile, x, y) -> (x + y) % 3 != 0;
+
+        int[] hits = index.query(cx, cy, radius, limit, filter);
+        float[] expected = bruteForce(scores, cx, cy, radius, limit, filter);
+
+        float[] actual = new float[hits.length];
+        for (int i = 0; i < hits.length; i++) {
+            int x = hits[i] % WIDTH;
+            int y = hits[i] / WIDTH;
+            assertTrue((long) (x - cx) * (x - cx) + (long) (y - cy) * (y - cy) <= (long) radius * radius);
+            assertTrue(filter.accept(hits[i], x, y));
+            actual[i] = scores[hits[i]];
+        }
+        // Scores rather than tiles, so ties may come out in either order
+        assertArrayEquals(expected, actual);
+        assertEquals(hits.length, Arrays.stream(hits).distinct().count());
+    }
+
+    private static float[] bruteForce(float[] scores, int cx, int cy, int radius, int limit,
+                                      CoverIndex.TileFilter filter) {
+        List<Integer> tiles = new ArrayList<>();
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                long dx = x - cx;
+                long dy = y - cy;
+                if (dx * dx + dy * dy <= (long) radius * radius && filter.accept(y * WIDTH + x, x, y)) {
+                    tiles.add(y * WIDTH + x);
+                }
+            }
+        }
+        tiles.sort(Comparator.comparingDouble(tile -> -scores[tile]));
+        float[] best = new float[Math.min(limit, tiles.size())];
+        for (int i = 0; i < best.length; i++) {
+            best[i] = scores[tiles.get(i)];
+        }
+        return best;
+    }
+
+    private static float[] randomScores(Random random) {
+        float[] scores = new float[WIDTH * HEIGHT];
+        for (int tile = 0; tile < scores.length; tile++) {
+            // Coarse values so that ties are common
+            scores[tile] = random.nextInt(20) / 10f - 0.5f;
+        }
+        return scores;
+    }
+
+    private static CoverIndex indexOf(float[] scores) {
+        CoverIndex index = new CoverIndex(WIDTH, HEIGHT);
+        for (int tile = 0; tile < scores.length; tile++) {
+            index.set(tile, scores[tile]);
+        }
+        index.reorderAll();
+        return index;
+    }
+}
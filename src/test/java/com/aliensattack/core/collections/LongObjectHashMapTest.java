@@ -0,0 +1,81 @@
+package com.aliensattack.core.collections;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LongObjectHashMapTest {
+
+    @Test
+    void behavesLikeHashMap() {
+        LongObjectHashMap<String> map = new LongObjectHashMap<>(4);
+        Map<Long, String> expected = new HashMap<>();
+        Random random = new Random(17);
+
+        for (int step = 0; step < 20000; step++) {
+            // Small key range so that puts, overwrites and removes collide often
+            long key = random.nextInt(500) - 250L;
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                String value = "v" + step;
+                assertEquals(expected.put(key, value), map.put(key, value));
+            }
+            assertEquals(expected.size(), map.size());
+        }
+
+        for (long key = -260; key < 260; key++) {
+            assertEquals(expected.get(key), map.get(key));
+            assertEquals(expected.containsKey(key), map.containsKey(key));
+        }
+        long[] keys = map.keys();
+        Arrays.sort(keys);
+        assertArrayEquals(expected.keySet().stream().mapToLong(Long::longValue).sorted().toArray(), keys);
+    }
+
+    @Test
+    void handlesExtremeAndCollidingKeys() {
+        LongObjectHashMap<Integer> map = new LongObjectHashMap<>();
+        long[] keys = {0L, -1L, Long.MIN_VALUE, Long.MAX_VALUE, 1L << 32, 1L << 33, 1L << 34};
+        for (int i = 0; i < keys.length; i++) {
+            map.put(keys[i], i);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            assertEquals(i, map.get(keys[i]));
+        }
+        assertEquals(0, map.remove(0L));
+        assertNull(map.get(0L));
+        assertEquals(keys.length - 1, map.size());
+        assertEquals(42, map.getOrDefault(0L, 42));
+    }
+
+    @Test
+    void clearEmptiesTheMap() {
+        LongObjectHashMap<String> map = new LongObjectHashMap<>();
+        for (long key = 0; key < 100; key++) {
+            map.put(key, "v");
+        }
+        map.clear();
+
+        assertTrue(map.isEmpty());
+        assertFalse(map.containsKey(5));
+        map.put(5, "again");
+        assertEquals("again", map.get(5));
+    }
+
+    @Test
+    void rejectsNullValues() {
+        LongObjectHashMap<String> map = new LongObjectHashMap<>();
+        assertThrows(IllegalArgumentException.class, () -> map.put(1, null));
+    }
+}
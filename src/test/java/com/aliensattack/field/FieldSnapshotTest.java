@@ -0,0 +1,41 @@
+package com.aliensattack.field;
+
+import com.aliensattack.core.enums.UnitType;
+import com.aliensattack.core.model.Position;
+import com.aliensattack.core.model.Unit;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class FieldSnapshotTest {
+
+    @Test
+    void rangeQueriesSeeTheFrozenPlacement() {
+        TacticalField field = new TacticalField(40, 40);
+        Unit near = new Unit("near", 10, 5, 5, 5, UnitType.SOLDIER);
+        Unit far = new Unit("far", 10, 5, 5, 5, UnitType.SOLDIER);
+        Unit alien = new Unit("alien", 10, 5, 5, 5, UnitType.ALIEN);
+        field.addUnit(near, 5, 5);
+        field.addUnit(far, 30, 30);
+        field.addUnit(alien, 8, 5);
+
+        FieldSnapshot snapshot = (FieldSnapshot) field.snapshot();
+        field.moveUnit(near, 20, 20);
+        field.moveUnit(far, 7, 6);
+
+        assertEquals(new Position(5, 5), snapshot.getFrozenPosition(near));
+        assertEquals(new Position(30, 30), snapshot.getFrozenPosition(far));
+        assertEquals(new Position(8, 5), snapshot.getFrozenPosition(alien));
+        assertEquals(Set.of(near, alien), new HashSet<>(snapshot.getUnitsInRange(new Position(6, 5), 3)));
+        assertSame(near, snapshot.findNearestEnemy(alien));
+
+        List<Unit> live = field.getUnitsInRange(new Position(6, 5), 3);
+        assertEquals(Set.of(far, alien), new HashSet<>(live));
+        assertSame(far, field.findNearestEnemy(alien));
+    }
+}
@@ -0,0 +1,48 @@
+package com.aliensattack.field;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LineOfSightTest {
+    private static final int SIZE = 21;
+
+    @Test
+    void flatGroundShowsTheWholeDisk() {
+        VisibilityMask view = new VisibilityMask(SIZE, SIZE);
+        LineOfSight.fieldOfView(10, 10, 8, (x, y) -> 0, (x, y) -> 0, view);
+
+        for (int y = 0; y < SIZE; y++) {
+            for (int x = 0; x < SIZE; x++) {
+                int dx = x - 10;
+                int dy = y - 10;
+                assertEquals(dx * dx + dy * dy <= 64, view.isVisible(x, y), "tile " + x + "," + y);
+            }
+        }
+    }
+
+    @Test
+    void wallHidesTilesBehindItUnlessSeenFromAbove() {
+        int[] ground = new int[SIZE * SIZE];
+        int[] surface = new int[SIZE * SIZE];
+        for (int y = 5; y <= 15; y++) {
+            surface[y * SIZE + 12] = 2; // Full cover
+        }
+
+        VisibilityMask view = new VisibilityMask(SIZE, SIZE);
+        LineOfSight.fieldOfView(10, 10, 8, (x, y) -> ground[y * SIZE + x], (x, y) -> surface[y * SIZE + x], view);
+        assertTrue(view.isVisible(11, 10));
+        assertTrue(view.isVisible(12, 10));
+        assertFalse(view.isVisible(14, 10));
+        assertFalse(view.isVisible(17, 12));
+        assertTrue(view.isVisible(4, 10));
+
+        ground[10 * SIZE + 10] = 3;
+        surface[10 * SIZE + 10] = 3;
+        view.clear();
+        LineOfSight.fieldOfView(10, 10, 8, (x, y) -> ground[y * SIZE + x], (x, y) -> surface[y * SIZE + x], view);
+        assertTrue(view.isVisible(14, 10));
+    }
+}
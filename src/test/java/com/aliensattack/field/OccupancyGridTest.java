@@ -0,0 +1,115 @@
+package com.aliensattack.field;
+
+import com.aliensattack.core.enums.UnitType;
+import com.aliensattack.core.model.Unit;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OccupancyGridTest {
+    private static final int WIDTH = 50;
+    private static final int HEIGHT = 45; // Spans several index chunks
+
+    @Test
+    void swapRemoveKeepsSlotsPacked() {
+        OccupancyGrid grid = new OccupancyGrid(WIDTH, HEIGHT);
+        Map<Integer, Unit> expected = new HashMap<>();
+        Random random = new Random(3);
+
+        for (int step = 0; step < 2000; step++) {
+            int tile = random.nextInt(WIDTH * HEIGHT);
+            if (expected.containsKey(tile) && random.nextBoolean()) {
+                assertSame(expected.remove(tile), grid.removeUnitAt(tile));
+            } else if (expected.containsKey(tile)) {
+                int to = random.nextInt(WIDTH * HEIGHT);
+                if (!expected.containsKey(to)) {
+                    grid.moveUnit(tile, to);
+                    expected.put(to, expected.remove(tile));
+                }
+            } else {
+                Unit unit = unit(step);
+                grid.putUnit(tile, unit);
+                expected.put(tile, unit);
+            }
+            if (step % 100 == 0) {
+                assertMatches(expected, grid);
+            }
+        }
+        assertMatches(expected, grid);
+    }
+
+    @Test
+    void frozenLayerIsUnaffectedByLaterWrites() {
+        OccupancyGrid grid = new OccupancyGrid(WIDTH, HEIGHT);
+        Unit first = unit(1);
+        Unit second = unit(2);
+        Unit third = unit(3);
+        grid.putUnit(10, first);
+        grid.putUnit(2000, second);
+
+        OccupancyGrid.FrozenLayer<Unit> frozen = grid.freezeUnits();
+        grid.moveUnit(10, 11);
+        grid.removeUnitAt(2000);
+        grid.putUnit(30, third);
+
+        assertSame(first, frozen.get(10));
+        assertNull(frozen.get(11));
+        assertSame(second, frozen.get(2000));
+        assertNull(frozen.get(30));
+        assertEquals(2, frozen.count());
+        assertEquals(10, frozen.tileOf(first));
+        assertEquals(-1, frozen.tileOf(third));
+
+        assertSame(first, grid.unitAt(11));
+        assertNull(grid.unitAt(10));
+        assertFalse(grid.isOccupied(2000));
+        assertEquals(2, grid.unitCount());
+    }
+
+    @Test
+    void clearLeavesFrozenLayerIntact() {
+        OccupancyGrid grid = new OccupancyGrid(WIDTH, HEIGHT);
+        Unit unit = unit(1);
+        grid.putUnit(5, unit);
+
+        OccupancyGrid.FrozenLayer<Unit> frozen = grid.freezeUnits();
+        grid.clear();
+
+        assertSame(unit, frozen.get(5));
+        assertFalse(grid.isOccupied(5));
+        assertEquals(0, grid.unitCount());
+        assertTrue(grid.allUnits().isEmpty());
+    }
+
+    private static void assertMatches(Map<Integer, Unit> expected, OccupancyGrid grid) {
+        assertEquals(expected.size(), grid.unitCount());
+        for (Map.Entry<Integer, Unit> entry : expected.entrySet()) {
+            assertSame(entry.getValue(), grid.unitAt(entry.getKey()));
+            assertEquals(entry.getKey(), grid.tileOf(entry.getValue()));
+        }
+        // Slots 0..count-1 hold exactly the units on the grid, each with its tile
+        List<Unit> inSlots = new ArrayList<>();
+        for (int slot = 0; slot < grid.unitCount(); slot++) {
+            Unit unit = grid.unitInSlot(slot);
+            assertSame(unit, grid.unitAt(grid.unitTileInSlot(slot)));
+            inSlots.add(unit);
+        }
+        assertEquals(new HashSet<>(expected.values()), new HashSet<>(inSlots));
+        assertEquals(inSlots, grid.allUnits());
+    }
+
+    private static Unit unit(int id) {
+        return new Unit("unit" + id, 10, 5, 5, 5, UnitType.SOLDIER);
+    }
+}
@@ -0,0 +1,46 @@
+package com.aliensattack.field;
+
+import com.aliensattack.core.enums.UnitType;
+import com.aliensattack.core.enums.WeaponType;
+import com.aliensattack.core.model.Unit;
+import com.aliensattack.core.model.Weapon;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TacticalFieldTest {
+
+    @Test
+    void unitStateChangesRestampHashAndInfluence() {
+        TacticalField field = new TacticalField(20, 20);
+        Unit alien = new Unit("alien", 10, 5, 3, 4, UnitType.ALIEN);
+        Unit soldier = new Unit("soldier", 10, 5, 3, 4, UnitType.SOLDIER);
+        field.addUnit(alien, 5, 5);
+        field.addUnit(soldier, 15, 15);
+
+        long hash = field.getStateHash();
+        alien.takeDamage(3);
+        assertNotEquals(hash, field.getStateHash());
+
+        hash = field.getStateHash();
+        alien.addStatusEffect("poisoned", 2);
+        assertNotEquals(hash, field.getStateHash());
+
+        float threat = field.getInfluenceMap().threatAgainst(UnitType.SOLDIER, 5, 12);
+        alien.setWeapon(new Weapon("rifle", WeaponType.RIFLE, 6, 9, 10, 70, 10));
+        assertTrue(field.getInfluenceMap().threatAgainst(UnitType.SOLDIER, 5, 12) > threat);
+
+        alien.takeDamage(alien.getCurrentHealth());
+        assertEquals(0f, field.getInfluenceMap().threatAgainst(UnitType.SOLDIER, 5, 5));
+
+        // Once off the field the unit no longer touches it
+        hash = field.getStateHash();
+        field.removeUnit(soldier);
+        long removed = field.getStateHash();
+        soldier.takeDamage(2);
+        assertEquals(removed, field.getStateHash());
+        assertNotEquals(hash, removed);
+    }
+}